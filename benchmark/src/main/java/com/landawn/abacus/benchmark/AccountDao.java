@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.benchmark;
+
+import java.sql.SQLException;
+
+import com.landawn.abacus.util.JdbcUtil;
+import com.landawn.abacus.util.SQLBuilder;
+
+public interface AccountDao extends JdbcUtil.CrudDao<Account, Long, SQLBuilder.PSC, AccountDao> {
+
+    @Select("SELECT id, first_name, last_name, email, status, create_time FROM account WHERE id = ?")
+    Account selectById(long id) throws SQLException;
+
+    @CacheResult
+    @Select("SELECT id, first_name, last_name, email, status, create_time FROM account WHERE id = ?")
+    Account selectCachedById(long id) throws SQLException;
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.benchmark;
+
+import static com.landawn.abacus.benchmark.H2Database.ROW_COUNT;
+
+import java.io.File;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.landawn.abacus.type.Type;
+import com.landawn.abacus.util.CSVUtil;
+import com.landawn.abacus.util.JdbcUtil;
+import com.landawn.abacus.util.JdbcUtils;
+import com.landawn.abacus.util.N;
+
+/**
+ * Copying rows between databases by {@code JdbcUtils.copy} and importing rows from a CSV file by {@code CSVUtil.importCSV}. The results are per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CopyImportBenchmark {
+
+    @SuppressWarnings("rawtypes")
+    private static final List<Type> COLUMN_TYPES = N.asList(Type.of(long.class), Type.of(String.class), Type.of(String.class), Type.of(String.class),
+            Type.of(int.class), Type.of(java.sql.Timestamp.class));
+
+    private Connection sourceConn;
+
+    private File csvFile;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException, IOException {
+        sourceConn = H2Database.createWithAccounts("copy_source").getConnection();
+
+        csvFile = File.createTempFile("abacus-jdbc-benchmark", ".csv");
+        csvFile.deleteOnExit();
+        CSVUtil.exportCSV(csvFile, sourceConn, H2Database.SELECT_ALL);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        JdbcUtil.closeQuietly(sourceConn);
+        csvFile.delete();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public long jdbcUtilsCopy(final TargetTable targetTable) {
+        return JdbcUtils.copy(sourceConn, H2Database.SELECT_ALL, targetTable.conn, H2Database.INSERT);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public long csvUtilImportCSV(final TargetTable targetTable) {
+        return CSVUtil.importCSV(csvFile, targetTable.conn, H2Database.INSERT, COLUMN_TYPES);
+    }
+
+    /**
+     * The table the rows are copied/imported to. It's emptied before each invocation, which inserts {@code ROW_COUNT} rows,
+     * so the reset is much longer than the timer granularity.
+     */
+    @State(Scope.Thread)
+    public static class TargetTable {
+        Connection conn;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            conn = H2Database.create("copy_target").getConnection();
+        }
+
+        @Setup(Level.Invocation)
+        public void clear() throws SQLException {
+            JdbcUtil.executeUpdate(conn, "TRUNCATE TABLE account");
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            JdbcUtil.closeQuietly(conn);
+        }
+    }
+}
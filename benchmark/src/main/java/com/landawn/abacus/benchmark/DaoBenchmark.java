@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.benchmark;
+
+import static com.landawn.abacus.benchmark.H2Database.ROW_COUNT;
+
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.landawn.abacus.util.JdbcUtil;
+
+/**
+ * The overhead of the Dao proxy created by {@code JdbcUtil.createDao}, compared with the same query by {@code PreparedQuery},
+ * and the cost of {@code @CacheResult} hits and misses.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DaoBenchmark {
+
+    private static final String SELECT_BY_ID = "SELECT id, first_name, last_name, email, status, create_time FROM account WHERE id = ?";
+
+    private DataSource dataSource;
+
+    private AccountDao accountDao;
+
+    private long id;
+
+    private long missedId;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        dataSource = H2Database.createWithAccounts("dao");
+        accountDao = JdbcUtil.createDao(AccountDao.class, dataSource);
+        missedId = ROW_COUNT;
+    }
+
+    @Benchmark
+    public Class<Account> proxyDispatch() {
+        return accountDao.targetEntityClass();
+    }
+
+    @Benchmark
+    public Account preparedQueryBaseline() throws SQLException {
+        return JdbcUtil.prepareQuery(dataSource, SELECT_BY_ID).setLong(1, nextId()).findFirst(Account.class).orNull();
+    }
+
+    @Benchmark
+    public Account daoSelect() throws SQLException {
+        return accountDao.selectById(nextId());
+    }
+
+    @Benchmark
+    public Account daoGett() throws SQLException {
+        return accountDao.gett(nextId());
+    }
+
+    @Benchmark
+    public Account cacheResultHit() throws SQLException {
+        return accountDao.selectCachedById(1);
+    }
+
+    /**
+     * No row is found by the ids, so the {@code null} results are never cached.
+     *
+     * @return
+     * @throws SQLException
+     */
+    @Benchmark
+    public Account cacheResultMiss() throws SQLException {
+        return accountDao.selectCachedById(missedId++);
+    }
+
+    private long nextId() {
+        return id = (id + 1) % ROW_COUNT;
+    }
+}
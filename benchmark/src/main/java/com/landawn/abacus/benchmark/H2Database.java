@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.benchmark;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import com.landawn.abacus.util.JdbcUtil;
+
+/**
+ * In-memory H2 databases shared by the benchmarks.
+ */
+final class H2Database {
+
+    /**
+     * The count of rows in table {@code account}. The benchmarks which read/write all the rows are annotated by
+     * {@code @OperationsPerInvocation(ROW_COUNT)}, so the time and {@code gc.alloc.rate.norm} reported by JMH are per row.
+     */
+    static final int ROW_COUNT = 1000;
+
+    static final String SELECT_ALL = "SELECT id, first_name, last_name, email, status, create_time FROM account";
+
+    static final String INSERT = "INSERT INTO account (id, first_name, last_name, email, status, create_time) VALUES (?, ?, ?, ?, ?, ?)";
+
+    static final String NAMED_INSERT = "INSERT INTO account (id, first_name, last_name, email, status, create_time) "
+            + "VALUES (:id, :firstName, :lastName, :email, :status, :createTime)";
+
+    private H2Database() {
+        // singleton.
+    }
+
+    /**
+     *
+     * @param name
+     * @return a pooled {@code DataSource} to a new in-memory database, with an empty table {@code account}.
+     * @throws SQLException
+     */
+    static DataSource create(final String name) throws SQLException {
+        final DataSource ds = JdbcUtil.createHikariDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        JdbcUtil.executeUpdate(ds, "DROP TABLE IF EXISTS account");
+        JdbcUtil.executeUpdate(ds, "CREATE TABLE account (id bigint NOT NULL PRIMARY KEY, first_name varchar(32) NOT NULL, last_name varchar(32) NOT NULL, "
+                + "email varchar(64), status int NOT NULL, create_time timestamp NOT NULL)");
+
+        return ds;
+    }
+
+    /**
+     *
+     * @param name
+     * @return a pooled {@code DataSource} to a new in-memory database, with {@link #ROW_COUNT} rows in table {@code account}.
+     * @throws SQLException
+     */
+    static DataSource createWithAccounts(final String name) throws SQLException {
+        final DataSource ds = create(name);
+
+        JdbcUtil.prepareNamedQuery(ds, NAMED_INSERT).addBatchParameters(createAccounts(0, ROW_COUNT)).batchUpdate();
+
+        return ds;
+    }
+
+    static List<Account> createAccounts(final long fromId, final int count) {
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        final List<Account> accounts = new ArrayList<>(count);
+
+        for (long id = fromId, toId = fromId + count; id < toId; id++) {
+            final Account account = new Account();
+            account.setId(id);
+            account.setFirstName("firstName" + id);
+            account.setLastName("lastName" + id);
+            account.setEmail("email" + id + "@abacus.com");
+            account.setStatus((int) (id % 3));
+            account.setCreateTime(now);
+
+            accounts.add(account);
+        }
+
+        return accounts;
+    }
+}
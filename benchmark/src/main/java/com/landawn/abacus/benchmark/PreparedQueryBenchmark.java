@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.benchmark;
+
+import static com.landawn.abacus.benchmark.H2Database.ROW_COUNT;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.landawn.abacus.DataSet;
+import com.landawn.abacus.util.JdbcUtil;
+import com.landawn.abacus.util.JdbcUtil.BiRowMapper;
+
+/**
+ * Reading rows by {@code PreparedQuery.list}, {@code JdbcUtil.extractData} and {@code BiRowMapper.to},
+ * and writing rows by {@code NamedQuery.addBatchParameters(entities).batchUpdate()}. The results are per row.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PreparedQueryBenchmark {
+
+    private Connection conn;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        conn = H2Database.createWithAccounts("prepared_query_read").getConnection();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        JdbcUtil.closeQuietly(conn);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public List<Account> listEntities() throws SQLException {
+        return JdbcUtil.prepareQuery(conn, H2Database.SELECT_ALL).list(Account.class);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public DataSet extractData() throws SQLException {
+        try (PreparedStatement stmt = conn.prepareStatement(H2Database.SELECT_ALL); ResultSet rs = stmt.executeQuery()) {
+            return JdbcUtil.extractData(rs);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public List<Account> biRowMapperTo() throws SQLException {
+        return JdbcUtil.prepareQuery(conn, H2Database.SELECT_ALL).list(BiRowMapper.to(Account.class));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROW_COUNT)
+    public int[] namedBatchInsert(final WriteTable writeTable) throws SQLException {
+        return JdbcUtil.prepareNamedQuery(writeTable.dataSource, H2Database.NAMED_INSERT).addBatchParameters(writeTable.accounts).batchUpdate();
+    }
+
+    /**
+     * The table written by the write benchmarks. It's emptied before each invocation, which inserts {@code ROW_COUNT} rows,
+     * so the reset is only added to the writes and it's much longer than the timer granularity.
+     */
+    @State(Scope.Thread)
+    public static class WriteTable {
+        DataSource dataSource;
+
+        List<Account> accounts;
+
+        @Setup(Level.Trial)
+        public void setUp() throws SQLException {
+            dataSource = H2Database.create("prepared_query_write");
+            accounts = H2Database.createAccounts(0, ROW_COUNT);
+        }
+
+        @Setup(Level.Invocation)
+        public void clear() throws SQLException {
+            JdbcUtil.executeUpdate(dataSource, "TRUNCATE TABLE account");
+        }
+    }
+}
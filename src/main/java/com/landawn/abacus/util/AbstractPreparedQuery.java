@@ -17,6 +17,7 @@
 package com.landawn.abacus.util;
 
 import java.io.Closeable;
+import java.io.File;
 import java.io.InputStream;
 import java.io.Reader;
 import java.math.BigDecimal;
@@ -26,6 +27,7 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.SQLType;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -85,8 +87,40 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
 
     final S stmt;
 
+    /**
+     * The sql of {@code stmt}, used by {@code SQLMetrics}. It's {@code null} if it's unknown.
+     */
+    final String sql;
+
+    /**
+     * The row count statistics of the {@code DataSource} which the connection is borrowed from. It's {@code null} if it's not enabled.
+     */
+    RowCountStats rowCountStats;
+
+    /**
+     * How the LOBs are read. It's {@code null} if it's not set for the query or the {@code DataSource}, then all the LOBs are read into {@code byte[]/String}.
+     */
+    LobPolicy lobPolicy;
+
+    /**
+     * The estimated max heap bytes of the rows kept in the {@code DataSet/List} extracted by {@code query()/list()}. {@code 0} if it's not limited.
+     */
+    long memoryBudget = 0;
+
+    /**
+     * The directory of the temp files the rows out of {@code memoryBudget} are spilled to. {@code null} for the default temp directory.
+     */
+    File spillDir;
+
     boolean isFetchDirectionSet = false;
 
+    boolean isFetchSizeSet = false;
+
+    /**
+     * The parameters captured for {@code SlowQuerySampler}. It's {@code null} if {@code SlowQuerySampler} is not enabled.
+     */
+    Object[] sampledParameters;
+
     boolean isBatch = false;
 
     boolean isCloseAfterExecution = true;
@@ -95,8 +129,9 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
 
     Runnable closeHandler;
 
-    AbstractPreparedQuery(S stmt) {
+    AbstractPreparedQuery(S stmt, String sql) {
         this.stmt = stmt;
+        this.sql = sql;
     }
 
     //        /**
@@ -128,6 +163,78 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         return isCloseAfterExecution;
     }
 
+    /**
+     * Set how the {@code Blob/Clob} values are read by this query. It overrides the policy set for the {@code DataSource}.
+     * {@link LobPolicy.Mode#LAZY}/{@link LobPolicy.Mode#SPILL} can't be set with the memory budget.
+     *
+     * @param lobPolicy
+     * @return
+     * @see LobPolicy
+     * @see JdbcUtil#setLobPolicy(javax.sql.DataSource, LobPolicy)
+     */
+    @SuppressWarnings("unchecked") // Q is the type of this query.
+    public Q setLobPolicy(final LobPolicy lobPolicy) {
+        checkArg(memoryBudget == 0 || lobPolicy == null || lobPolicy.mode() == LobPolicy.Mode.INLINE,
+                "LobPolicy " + (lobPolicy == null ? null : lobPolicy.mode()) + " can't be set with the memory budget: " + memoryBudget);
+        assertNotClosed();
+
+        this.lobPolicy = lobPolicy;
+
+        return (Q) this;
+    }
+
+    /**
+     * Set the estimated max heap bytes of the rows kept in the {@code DataSet} extracted by {@code query()/query(ResultExtractor.TO_DATA_SET)},
+     * or the elements kept in the {@code List} returned by {@code list(...)}. The rest rows are spilled to memory-mapped temp files
+     * in the default temp directory, and read back when they're accessed.
+     * <br />
+     * The spilled entities are encoded property by property, and the {@code Object[]/List/Map} rows value by value. They're paged in
+     * when they're accessed, and kept on heap after that. The other values which are not {@code String/Number/Boolean/byte[]/java.sql.Date/Time/Timestamp}
+     * are stored by Java serialization. The query fails if any of them is not {@code Serializable}.
+     * <br />
+     * It can't be set if the {@code LobPolicy} of this query, or the {@code DataSource}, is {@link LobPolicy.Mode#LAZY}/{@link LobPolicy.Mode#SPILL},
+     * because the {@code Blob/Clob/ByteBuffer/CharBuffer} values can't be spilled. Set {@link LobPolicy#INLINE} by {@link #setLobPolicy(LobPolicy)} first.
+     *
+     * @param memoryBudget
+     * @return
+     * @see JdbcUtil#extractData(ResultSet, long)
+     */
+    public Q setMemoryBudget(final long memoryBudget) {
+        return setMemoryBudget(memoryBudget, null);
+    }
+
+    /**
+     * Set the memory budget as {@link #setMemoryBudget(long)} does, with the temp files created in the specified directory.
+     *
+     * @param memoryBudget
+     * @param spillDir the directory of the temp files. {@code null} for the default temp directory.
+     * @return
+     * @see JdbcUtil#extractData(ResultSet, long, File)
+     */
+    @SuppressWarnings("unchecked") // Q is the type of this query.
+    public Q setMemoryBudget(final long memoryBudget, final File spillDir) {
+        checkArg(memoryBudget > 0, "'memoryBudget' must be positive: " + memoryBudget);
+        checkArg(lobPolicy == null || lobPolicy.mode() == LobPolicy.Mode.INLINE,
+                "The memory budget can't be set with LobPolicy " + (lobPolicy == null ? null : lobPolicy.mode()) + ". Set LobPolicy.INLINE first");
+        assertNotClosed();
+
+        this.memoryBudget = memoryBudget;
+        this.spillDir = spillDir;
+
+        return (Q) this;
+    }
+
+    /**
+     * The columns of the specified {@code ResultSet}, which read the LOBs by the {@code LobPolicy} of this query.
+     *
+     * @param rs
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    ColumnLayout columnLayout(final ResultSet rs) throws SQLException {
+        return ColumnLayout.of(sql, rs).with(lobPolicy);
+    }
+
     /**
      *
      * @param closeHandler A task to execute after this {@code Query} is closed
@@ -165,6 +272,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setNull(int parameterIndex, int sqlType) throws SQLException {
         stmt.setNull(parameterIndex, sqlType);
 
+        sampleParameter(parameterIndex, null);
+
         return (Q) this;
     }
 
@@ -180,6 +289,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
         stmt.setNull(parameterIndex, sqlType, typeName);
 
+        sampleParameter(parameterIndex, null);
+
         return (Q) this;
     }
 
@@ -194,6 +305,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setBoolean(int parameterIndex, boolean x) throws SQLException {
         stmt.setBoolean(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -208,6 +321,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setBoolean(int parameterIndex, Boolean x) throws SQLException {
         stmt.setBoolean(parameterIndex, N.defaultIfNull(x));
 
+        sampleParameter(parameterIndex, N.defaultIfNull(x));
+
         return (Q) this;
     }
 
@@ -222,6 +337,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setByte(int parameterIndex, byte x) throws SQLException {
         stmt.setByte(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -236,6 +353,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setByte(int parameterIndex, Byte x) throws SQLException {
         stmt.setByte(parameterIndex, N.defaultIfNull(x));
 
+        sampleParameter(parameterIndex, N.defaultIfNull(x));
+
         return (Q) this;
     }
 
@@ -250,6 +369,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setShort(int parameterIndex, short x) throws SQLException {
         stmt.setShort(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -264,6 +385,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setShort(int parameterIndex, Short x) throws SQLException {
         stmt.setShort(parameterIndex, N.defaultIfNull(x));
 
+        sampleParameter(parameterIndex, N.defaultIfNull(x));
+
         return (Q) this;
     }
 
@@ -278,6 +401,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setInt(int parameterIndex, int x) throws SQLException {
         stmt.setInt(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -292,6 +417,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setInt(int parameterIndex, Integer x) throws SQLException {
         stmt.setInt(parameterIndex, N.defaultIfNull(x));
 
+        sampleParameter(parameterIndex, N.defaultIfNull(x));
+
         return (Q) this;
     }
 
@@ -306,6 +433,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setInt(int parameterIndex, char x) throws SQLException {
         stmt.setInt(parameterIndex, x);
 
+        sampleParameter(parameterIndex, (int) x);
+
         return (Q) this;
     }
 
@@ -320,6 +449,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setInt(int parameterIndex, Character x) throws SQLException {
         stmt.setInt(parameterIndex, N.defaultIfNull(x));
 
+        sampleParameter(parameterIndex, (int) N.defaultIfNull(x));
+
         return (Q) this;
     }
 
@@ -334,6 +465,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setLong(int parameterIndex, long x) throws SQLException {
         stmt.setLong(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -348,6 +481,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setLong(int parameterIndex, Long x) throws SQLException {
         stmt.setLong(parameterIndex, N.defaultIfNull(x));
 
+        sampleParameter(parameterIndex, N.defaultIfNull(x));
+
         return (Q) this;
     }
 
@@ -362,6 +497,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setFloat(int parameterIndex, float x) throws SQLException {
         stmt.setFloat(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -376,6 +513,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setFloat(int parameterIndex, Float x) throws SQLException {
         stmt.setFloat(parameterIndex, N.defaultIfNull(x));
 
+        sampleParameter(parameterIndex, N.defaultIfNull(x));
+
         return (Q) this;
     }
 
@@ -390,6 +529,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setDouble(int parameterIndex, double x) throws SQLException {
         stmt.setDouble(parameterIndex, N.defaultIfNull(x));
 
+        sampleParameter(parameterIndex, N.defaultIfNull(x));
+
         return (Q) this;
     }
 
@@ -404,6 +545,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setDouble(int parameterIndex, Double x) throws SQLException {
         stmt.setDouble(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -418,6 +561,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
         stmt.setBigDecimal(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -432,6 +577,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setString(int parameterIndex, String x) throws SQLException {
         stmt.setString(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -446,12 +593,16 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setString(int parameterIndex, CharSequence x) throws SQLException {
         stmt.setString(parameterIndex, x == null ? null : x.toString());
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
     public Q setString(int parameterIndex, char x) throws SQLException {
         stmt.setString(parameterIndex, String.valueOf(x));
 
+        sampleParameter(parameterIndex, String.valueOf(x));
+
         return (Q) this;
     }
 
@@ -466,6 +617,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setString(int parameterIndex, Character x) throws SQLException {
         stmt.setString(parameterIndex, x == null ? null : String.valueOf(x));
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -480,6 +633,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setDate(int parameterIndex, java.sql.Date x) throws SQLException {
         stmt.setDate(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -494,6 +649,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setDate(int parameterIndex, java.util.Date x) throws SQLException {
         stmt.setDate(parameterIndex, x == null ? null : x instanceof java.sql.Date ? (java.sql.Date) x : new java.sql.Date(x.getTime()));
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -508,6 +665,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setTime(int parameterIndex, java.sql.Time x) throws SQLException {
         stmt.setTime(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -522,6 +681,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setTime(int parameterIndex, java.util.Date x) throws SQLException {
         stmt.setTime(parameterIndex, x == null ? null : x instanceof java.sql.Time ? (java.sql.Time) x : new java.sql.Time(x.getTime()));
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -536,6 +697,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setTimestamp(int parameterIndex, java.sql.Timestamp x) throws SQLException {
         stmt.setTimestamp(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -550,6 +713,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setTimestamp(int parameterIndex, java.util.Date x) throws SQLException {
         stmt.setTimestamp(parameterIndex, x == null ? null : x instanceof java.sql.Timestamp ? (java.sql.Timestamp) x : new java.sql.Timestamp(x.getTime()));
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -564,6 +729,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setBytes(int parameterIndex, byte[] x) throws SQLException {
         stmt.setBytes(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -694,6 +861,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setBlob(int parameterIndex, java.sql.Blob x) throws SQLException {
         stmt.setBlob(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -737,6 +906,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setClob(int parameterIndex, java.sql.Clob x) throws SQLException {
         stmt.setClob(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -780,6 +951,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setNClob(int parameterIndex, java.sql.NClob x) throws SQLException {
         stmt.setNClob(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -823,6 +996,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setURL(int parameterIndex, URL x) throws SQLException {
         stmt.setURL(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -837,6 +1012,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setArray(int parameterIndex, java.sql.Array x) throws SQLException {
         stmt.setArray(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -851,6 +1028,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setSQLXML(int parameterIndex, java.sql.SQLXML x) throws SQLException {
         stmt.setSQLXML(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -865,6 +1044,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setRef(int parameterIndex, java.sql.Ref x) throws SQLException {
         stmt.setRef(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -879,6 +1060,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setRowId(int parameterIndex, java.sql.RowId x) throws SQLException {
         stmt.setRowId(parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -897,6 +1080,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
             N.typeOf(x.getClass()).set(stmt, parameterIndex, x);
         }
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -912,6 +1097,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setObject(int parameterIndex, Object x, int sqlType) throws SQLException {
         stmt.setObject(parameterIndex, x, sqlType);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -928,6 +1115,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setObject(int parameterIndex, Object x, int sqlType, int scaleOrLength) throws SQLException {
         stmt.setObject(parameterIndex, x, sqlType, scaleOrLength);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -943,6 +1132,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setObject(int parameterIndex, Object x, SQLType sqlType) throws SQLException {
         stmt.setObject(parameterIndex, x, sqlType);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -959,12 +1150,16 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     public Q setObject(int parameterIndex, Object x, SQLType sqlType, int scaleOrLength) throws SQLException {
         stmt.setObject(parameterIndex, x, sqlType, scaleOrLength);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
     public Q setObject(int parameterIndex, Object x, Type<Object> type) throws SQLException {
         type.set(stmt, parameterIndex, x);
 
+        sampleParameter(parameterIndex, x);
+
         return (Q) this;
     }
 
@@ -980,6 +1175,9 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         stmt.setString(1, param1);
         stmt.setString(2, param2);
 
+        sampleParameter(1, param1);
+        sampleParameter(2, param2);
+
         return (Q) this;
     }
 
@@ -997,6 +1195,10 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         stmt.setString(2, param2);
         stmt.setString(3, param3);
 
+        sampleParameter(1, param1);
+        sampleParameter(2, param2);
+        sampleParameter(3, param3);
+
         return (Q) this;
     }
 
@@ -1016,6 +1218,11 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         stmt.setString(3, param3);
         stmt.setString(4, param4);
 
+        sampleParameter(1, param1);
+        sampleParameter(2, param2);
+        sampleParameter(3, param3);
+        sampleParameter(4, param4);
+
         return (Q) this;
     }
 
@@ -1037,6 +1244,12 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         stmt.setString(4, param4);
         stmt.setString(5, param5);
 
+        sampleParameter(1, param1);
+        sampleParameter(2, param2);
+        sampleParameter(3, param3);
+        sampleParameter(4, param4);
+        sampleParameter(5, param5);
+
         return (Q) this;
     }
 
@@ -1061,6 +1274,13 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         stmt.setString(5, param5);
         stmt.setString(6, param6);
 
+        sampleParameter(1, param1);
+        sampleParameter(2, param2);
+        sampleParameter(3, param3);
+        sampleParameter(4, param4);
+        sampleParameter(5, param5);
+        sampleParameter(6, param6);
+
         return (Q) this;
     }
 
@@ -1087,6 +1307,14 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         stmt.setString(6, param6);
         stmt.setString(7, param7);
 
+        sampleParameter(1, param1);
+        sampleParameter(2, param2);
+        sampleParameter(3, param3);
+        sampleParameter(4, param4);
+        sampleParameter(5, param5);
+        sampleParameter(6, param6);
+        sampleParameter(7, param7);
+
         return (Q) this;
     }
 
@@ -1388,7 +1616,9 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         checkArgNotNull(parameters, "parameters");
 
         for (int param : parameters) {
-            stmt.setInt(startParameterIndex++, param);
+            stmt.setInt(startParameterIndex, param);
+
+            sampleParameter(startParameterIndex++, param);
         }
 
         return (Q) this;
@@ -1419,7 +1649,9 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         checkArgNotNull(parameters, "parameters");
 
         for (long param : parameters) {
-            stmt.setLong(startParameterIndex++, param);
+            stmt.setLong(startParameterIndex, param);
+
+            sampleParameter(startParameterIndex++, param);
         }
 
         return (Q) this;
@@ -1450,7 +1682,9 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         checkArgNotNull(parameters, "parameters");
 
         for (String param : parameters) {
-            stmt.setString(startParameterIndex++, param);
+            stmt.setString(startParameterIndex, param);
+
+            sampleParameter(startParameterIndex++, param);
         }
 
         return (Q) this;
@@ -1741,6 +1975,132 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         return (Q) this;
     }
 
+    /**
+     * Add the specified {@code long} values as single batch parameters, set by {@code PreparedStatement.setLong} without boxing.
+     *
+     * @param batchParameters single batch parameters.
+     * @return
+     * @throws SQLException
+     */
+    @Beta
+    public Q addBatchParameters(final long[] batchParameters) throws SQLException {
+        checkArgNotNull(batchParameters, "batchParameters");
+
+        return addBatchParameters(batchParameters, 0, batchParameters.length);
+    }
+
+    /**
+     * Add the {@code long} values in the specified range as single batch parameters, set by {@code PreparedStatement.setLong} without boxing.
+     *
+     * @param batchParameters single batch parameters.
+     * @param fromIndex
+     * @param toIndex
+     * @return
+     * @throws SQLException
+     */
+    @SuppressWarnings("unchecked") // Q is the type of this query.
+    @Beta
+    public Q addBatchParameters(final long[] batchParameters, final int fromIndex, final int toIndex) throws SQLException {
+        checkArgNotNull(batchParameters, "batchParameters");
+        N.checkFromToIndex(fromIndex, toIndex, batchParameters.length);
+
+        boolean noException = false;
+
+        try {
+            for (int i = fromIndex; i < toIndex; i++) {
+                stmt.setLong(1, batchParameters[i]);
+                stmt.addBatch();
+            }
+
+            isBatch = toIndex > fromIndex;
+
+            noException = true;
+        } finally {
+            if (noException == false) {
+                close();
+            }
+        }
+
+        return (Q) this;
+    }
+
+    /**
+     * Add the specified {@code int} values as single batch parameters, set by {@code PreparedStatement.setInt} without boxing.
+     *
+     * @param batchParameters single batch parameters.
+     * @return
+     * @throws SQLException
+     */
+    @Beta
+    public Q addBatchParameters(final int[] batchParameters) throws SQLException {
+        checkArgNotNull(batchParameters, "batchParameters");
+
+        return addBatchParameters(batchParameters, 0, batchParameters.length);
+    }
+
+    /**
+     * Add the {@code int} values in the specified range as single batch parameters, set by {@code PreparedStatement.setInt} without boxing.
+     *
+     * @param batchParameters single batch parameters.
+     * @param fromIndex
+     * @param toIndex
+     * @return
+     * @throws SQLException
+     */
+    @SuppressWarnings("unchecked") // Q is the type of this query.
+    @Beta
+    public Q addBatchParameters(final int[] batchParameters, final int fromIndex, final int toIndex) throws SQLException {
+        checkArgNotNull(batchParameters, "batchParameters");
+        N.checkFromToIndex(fromIndex, toIndex, batchParameters.length);
+
+        boolean noException = false;
+
+        try {
+            for (int i = fromIndex; i < toIndex; i++) {
+                stmt.setInt(1, batchParameters[i]);
+                stmt.addBatch();
+            }
+
+            isBatch = toIndex > fromIndex;
+
+            noException = true;
+        } finally {
+            if (noException == false) {
+                close();
+            }
+        }
+
+        return (Q) this;
+    }
+
+    /**
+     *
+     * @param batchParameters single batch parameters.
+     * @return
+     * @throws SQLException
+     * @see #addBatchParameters(long[])
+     */
+    @Beta
+    public Q addBatchParameters(final LongList batchParameters) throws SQLException {
+        checkArgNotNull(batchParameters, "batchParameters");
+
+        return addBatchParameters(batchParameters.array(), 0, batchParameters.size());
+    }
+
+    /**
+     *
+     * @param batchParameters single batch parameters.
+     * @return
+     * @throws SQLException
+     * @see #addBatchParameters(int[])
+     */
+    @Beta
+    public Q addBatchParameters(final IntList batchParameters) throws SQLException {
+        checkArgNotNull(batchParameters, "batchParameters");
+
+        return addBatchParameters(batchParameters.array(), 0, batchParameters.size());
+    }
+
     //    /**
     //     * 
     //     * @param batchParameters
@@ -1982,6 +2342,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     int defaultFetchSize = -1;
     int defaultQueryTimeout = -1;
     int defaultMaxFieldSize = -1;
+    long defaultMaxRows = -1;
+    boolean isLargeMaxRows = false;
 
     /**
      * Sets the fetch direction.
@@ -1993,7 +2355,9 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      * @see {@link java.sql.Statement#setFetchDirection(int)}
      */
     public Q setFetchDirection(FetchDirection direction) throws SQLException {
-        defaultFetchDirection = stmt.getFetchDirection();
+        if (defaultFetchDirection < 0) {
+            defaultFetchDirection = stmt.getFetchDirection();
+        }
 
         stmt.setFetchDirection(direction.intValue);
 
@@ -2010,10 +2374,14 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      * @throws SQLException the SQL exception
      */
     public Q setFetchSize(int rows) throws SQLException {
-        defaultFetchSize = stmt.getFetchSize();
+        if (defaultFetchSize < 0) {
+            defaultFetchSize = stmt.getFetchSize();
+        }
 
         stmt.setFetchSize(rows);
 
+        isFetchSizeSet = true;
+
         return (Q) this;
     }
 
@@ -2025,7 +2393,9 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      * @throws SQLException the SQL exception
      */
     public Q setMaxFieldSize(int max) throws SQLException {
-        defaultMaxFieldSize = stmt.getMaxFieldSize();
+        if (defaultMaxFieldSize < 0) {
+            defaultMaxFieldSize = stmt.getMaxFieldSize();
+        }
 
         stmt.setMaxFieldSize(max);
 
@@ -2040,6 +2410,10 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      * @throws SQLException the SQL exception
      */
     public Q setMaxRows(int max) throws SQLException {
+        if (defaultMaxRows < 0) {
+            defaultMaxRows = stmt.getMaxRows();
+        }
+
         stmt.setMaxRows(max);
 
         return (Q) this;
@@ -2053,7 +2427,12 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      * @throws SQLException the SQL exception
      */
     public Q setLargeMaxRows(long max) throws SQLException {
+        if (defaultMaxRows < 0) {
+            defaultMaxRows = stmt.getLargeMaxRows();
+        }
+
         stmt.setLargeMaxRows(max);
+        isLargeMaxRows = true;
 
         return (Q) this;
     }
@@ -2066,7 +2445,9 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      * @throws SQLException the SQL exception
      */
     public Q setQueryTimeout(int seconds) throws SQLException {
-        defaultQueryTimeout = stmt.getQueryTimeout();
+        if (defaultQueryTimeout < 0) {
+            defaultQueryTimeout = stmt.getQueryTimeout();
+        }
 
         stmt.setQueryTimeout(seconds);
 
@@ -2390,9 +2771,9 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      * @throws SQLException the SQL exception
      */
     private <T> T get(Class<T> targetClass, ResultSet rs) throws SQLException {
-        final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
+        final ColumnLayout columnLayout = columnLayout(rs);
 
-        return BiRowMapper.to(targetClass).apply(rs, columnLabels);
+        return columnLayout.getRowMapper(targetClass).apply(rs, columnLayout);
     }
 
     /**
@@ -2411,11 +2792,23 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      * @return
      * @throws SQLException the SQL exception
      */
+    @SuppressWarnings("unchecked") // TO_DATA_SET/TO_PRIMITIVE_DATA_SET return a DataSet, which is R.
     public <R> R query(final ResultExtractor<R> resultExtrator) throws SQLException {
         checkArgNotNull(resultExtrator, "resultExtrator");
         assertNotClosed();
 
         try (ResultSet rs = executeQuery()) {
+            if (resultExtrator == ResultExtractor.TO_DATA_SET || resultExtrator == ResultExtractor.TO_PRIMITIVE_DATA_SET) {
+                final DataSet result = JdbcUtil.extractData(rs, columnLayout(rs), rowCountStats == null ? 0 : rowCountStats.getInitialCapacity(sql),
+                        resultExtrator == ResultExtractor.TO_PRIMITIVE_DATA_SET, memoryBudget, spillDir);
+
+                if (rowCountStats != null) {
+                    rowCountStats.record(sql, result.size());
+                }
+
+                return (R) result;
+            }
+
             return checkNotResultSet(resultExtrator.apply(rs));
         } finally {
             closeAfterExecutionIfAllowed();
@@ -2434,7 +2827,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try (ResultSet rs = executeQuery()) {
-            return checkNotResultSet(resultExtrator.apply(rs, JdbcUtil.getColumnLabelList(rs)));
+            return checkNotResultSet(resultExtrator.apply(rs, columnLayout(rs)));
         } finally {
             closeAfterExecutionIfAllowed();
         }
@@ -2552,7 +2945,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
 
         try (ResultSet rs = executeQuery()) {
             if (rs.next()) {
-                final T result = Objects.requireNonNull(rowMapper.apply(rs, JdbcUtil.getColumnLabelList(rs)));
+                final T result = Objects.requireNonNull(rowMapper.apply(rs, columnLayout(rs)));
 
                 if (rs.next()) {
                     throw new DuplicatedResultException("There are more than one record found by the query");
@@ -2646,7 +3039,13 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try (ResultSet rs = executeQuery()) {
-            return rs.next() ? Optional.of(rowMapper.apply(rs, JdbcUtil.getColumnLabelList(rs))) : Optional.<T> empty();
+            if (rs.next()) {
+                final List<String> columnLabels = columnLayout(rs);
+
+                return Optional.of(CompiledRowMapper.resolve(rowMapper, columnLabels).apply(rs, columnLabels));
+            } else {
+                return Optional.<T> empty();
+            }
         } finally {
             closeAfterExecutionIfAllowed();
         }
@@ -2666,11 +3065,11 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try (ResultSet rs = executeQuery()) {
-            final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
+            final List<String> columnLabels = columnLayout(rs);
 
             while (rs.next()) {
                 if (rowFilter.test(rs, columnLabels)) {
-                    return Optional.of(rowMapper.apply(rs, columnLabels));
+                    return Optional.of(CompiledRowMapper.resolve(rowMapper, columnLabels).apply(rs, columnLabels));
                 }
             }
 
@@ -2688,7 +3087,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      * @throws SQLException the SQL exception
      */
     public <T> List<T> list(final Class<T> targetClass) throws SQLException {
-        return list(BiRowMapper.to(targetClass));
+        return list(CompiledRowMapper.of(targetClass));
     }
 
     /**
@@ -2702,7 +3101,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      */
     @Deprecated
     public <T> List<T> list(final Class<T> targetClass, int maxResult) throws SQLException {
-        return list(BiRowMapper.to(targetClass), maxResult);
+        return list(CompiledRowMapper.of(targetClass), maxResult);
     }
 
     /**
@@ -2758,16 +3157,23 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try (ResultSet rs = executeQuery()) {
-            final List<T> result = new ArrayList<>();
+            final SpilledRows.ListBuilder<T> result = newListBuilder();
+            long rowCount = 0;
 
             while (maxResult > 0 && rs.next()) {
+                rowCount++;
+
                 if (rowFilter.test(rs)) {
                     result.add(rowMapper.apply(rs));
                     maxResult--;
                 }
             }
 
-            return result;
+            if (rowCountStats != null && maxResult > 0) {
+                rowCountStats.record(sql, rowCount);
+            }
+
+            return result.build();
         } finally {
             closeAfterExecutionIfAllowed();
         }
@@ -2826,22 +3232,42 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try (ResultSet rs = executeQuery()) {
-            final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
-            final List<T> result = new ArrayList<>();
+            final List<String> columnLabels = columnLayout(rs);
+            final BiRowMapper<T> resolvedRowMapper = CompiledRowMapper.resolve(rowMapper, columnLabels);
+            final SpilledRows.ListBuilder<T> result = newListBuilder();
+            long rowCount = 0;
 
             while (maxResult > 0 && rs.next()) {
+                rowCount++;
+
                 if (rowFilter.test(rs, columnLabels)) {
-                    result.add(rowMapper.apply(rs, columnLabels));
+                    result.add(resolvedRowMapper.apply(rs, columnLabels));
                     maxResult--;
                 }
             }
 
-            return result;
+            if (rowCountStats != null && maxResult > 0) {
+                rowCountStats.record(sql, rowCount);
+            }
+
+            return result.build();
         } finally {
             closeAfterExecutionIfAllowed();
         }
     }
 
+    /**
+     * The elements of {@code list(...)} are kept on heap until the memory budget of this query is reached.
+     *
+     * @param <T>
+     * @return
+     */
+    private <T> SpilledRows.ListBuilder<T> newListBuilder() {
+        final List<T> heapElements = rowCountStats == null ? new ArrayList<>() : new ArrayList<>(rowCountStats.getInitialCapacity(sql));
+
+        return new SpilledRows.ListBuilder<>(heapElements, memoryBudget, spillDir);
+    }
+
     // Will it cause confusion if it's called in transaction?
     /**
      * lazy-execution, lazy-fetch.
@@ -2852,7 +3278,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      * @throws SQLException the SQL exception
      */
     public <T> ExceptionalStream<T, SQLException> stream(final Class<T> targetClass) throws SQLException {
-        return stream(BiRowMapper.to(targetClass));
+        return stream(CompiledRowMapper.of(targetClass));
     }
 
     // Will it cause confusion if it's called in transaction?
@@ -2986,6 +3412,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
 
                                 internalIter = new ExceptionalIterator<T, SQLException>() {
                                     private List<String> columnLabels = null;
+                                    private BiRowMapper<T> resolvedRowMapper = null;
                                     private boolean hasNext;
 
                                     @Override
@@ -3006,10 +3433,11 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
                                         hasNext = false;
 
                                         if (columnLabels == null) {
-                                            columnLabels = JdbcUtil.getColumnLabelList(resultSet);
+                                            columnLabels = columnLayout(resultSet);
+                                            resolvedRowMapper = CompiledRowMapper.resolve(rowMapper, columnLabels);
                                         }
 
-                                        return rowMapper.apply(resultSet, columnLabels);
+                                        return resolvedRowMapper.apply(resultSet, columnLabels);
                                     }
 
                                     @Override
@@ -3184,12 +3612,14 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
 
                                 internalIter = new ExceptionalIterator<T, SQLException>() {
                                     private List<String> columnLabels = null;
+                                    private BiRowMapper<T> resolvedRowMapper = null;
                                     private boolean hasNext;
 
                                     @Override
                                     public boolean hasNext() throws SQLException {
                                         if (columnLabels == null) {
-                                            columnLabels = JdbcUtil.getColumnLabelList(resultSet);
+                                            columnLabels = columnLayout(resultSet);
+                                            resolvedRowMapper = CompiledRowMapper.resolve(rowMapper, columnLabels);
                                         }
 
                                         if (hasNext == false) {
@@ -3212,7 +3642,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
 
                                         hasNext = false;
 
-                                        return rowMapper.apply(resultSet, columnLabels);
+                                        return resolvedRowMapper.apply(resultSet, columnLabels);
                                     }
 
                                     @Override
@@ -3292,7 +3722,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
 
         try (ResultSet rs = executeQuery()) {
             if (rs.next()) {
-                rowConsumer.accept(rs, JdbcUtil.getColumnLabelList(rs));
+                rowConsumer.accept(rs, columnLayout(rs));
             }
         } finally {
             closeAfterExecutionIfAllowed();
@@ -3336,7 +3766,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
 
         try (ResultSet rs = executeQuery()) {
             if (rs.next()) {
-                rowConsumer.accept(rs, JdbcUtil.getColumnLabelList(rs));
+                rowConsumer.accept(rs, columnLayout(rs));
             } else {
                 orElseAction.run();
             }
@@ -3405,7 +3835,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try (ResultSet rs = executeQuery()) {
-            final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
+            final List<String> columnLabels = columnLayout(rs);
             int cnt = 0;
 
             while (rs.next()) {
@@ -3454,7 +3884,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try (ResultSet rs = executeQuery()) {
-            final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
+            final List<String> columnLabels = columnLayout(rs);
 
             while (rs.next()) {
                 if (rowFilter.test(rs, columnLabels)) {
@@ -3502,7 +3932,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try (ResultSet rs = executeQuery()) {
-            final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
+            final List<String> columnLabels = columnLayout(rs);
 
             while (rs.next()) {
                 if (rowFilter.test(rs, columnLabels) == false) {
@@ -3589,7 +4019,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try (ResultSet rs = executeQuery()) {
-            final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
+            final List<String> columnLabels = columnLayout(rs);
 
             while (rs.next()) {
                 rowConsumer.accept(rs, columnLabels);
@@ -3612,7 +4042,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try (ResultSet rs = executeQuery()) {
-            final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
+            final List<String> columnLabels = columnLayout(rs);
 
             while (rs.next()) {
                 if (rowFilter.test(rs, columnLabels)) {
@@ -3626,16 +4056,36 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     }
 
     /**
+     * Capture the parameter set to the statement, for {@code SlowQuerySampler} to explain the sql if the execution is slow.
+     * It does nothing if {@code SlowQuerySampler} is not enabled.
      *
-     * @return
-     * @throws SQLException the SQL exception
+     * @param parameterIndex starts from 1.
+     * @param x
      */
+    void sampleParameter(final int parameterIndex, final Object x) {
+        if (SlowQuerySampler.isEnabled()) {
+            sampledParameters = SlowQuerySampler.capture(sampledParameters, parameterIndex, x);
+        }
+    }
+
     private ResultSet executeQuery() throws SQLException {
         if (!isFetchDirectionSet) {
             stmt.setFetchDirection(ResultSet.FETCH_FORWARD);
         }
 
-        return JdbcUtil.executeQuery(stmt);
+        if (rowCountStats != null && !isFetchSizeSet) {
+            final int fetchSize = rowCountStats.getFetchSize(sql);
+
+            if (fetchSize > 0) {
+                if (defaultFetchSize < 0) {
+                    defaultFetchSize = stmt.getFetchSize();
+                }
+
+                stmt.setFetchSize(fetchSize);
+            }
+        }
+
+        return JdbcUtil.executeQuery(stmt, sql, sampledParameters);
     }
 
     /**
@@ -3660,7 +4110,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            JdbcUtil.executeUpdate(stmt);
+            JdbcUtil.executeUpdate(stmt, sql, sampledParameters);
 
             try (ResultSet rs = stmt.getGeneratedKeys()) {
                 return rs.next() ? Optional.ofNullable(autoGeneratedKeyExtractor.apply(rs)) : Optional.<ID> empty();
@@ -3681,11 +4131,11 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            JdbcUtil.executeUpdate(stmt);
+            JdbcUtil.executeUpdate(stmt, sql, sampledParameters);
 
             try (ResultSet rs = stmt.getGeneratedKeys()) {
                 if (rs.next()) {
-                    final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
+                    final List<String> columnLabels = columnLayout(rs);
 
                     return Optional.ofNullable(autoGeneratedKeyExtractor.apply(rs, columnLabels));
                 } else {
@@ -3719,7 +4169,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            JdbcUtil.executeBatch(stmt);
+            JdbcUtil.executeBatch(stmt, sql, sampledParameters);
 
             List<ID> ids = new ArrayList<>();
 
@@ -3750,12 +4200,12 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            JdbcUtil.executeBatch(stmt);
+            JdbcUtil.executeBatch(stmt, sql, sampledParameters);
 
             List<ID> ids = new ArrayList<>();
 
             try (ResultSet rs = stmt.getGeneratedKeys()) {
-                final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
+                final List<String> columnLabels = columnLayout(rs);
 
                 while (rs.next()) {
                     ids.add(autoGeneratedKeyExtractor.apply(rs, columnLabels));
@@ -3781,7 +4231,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            return JdbcUtil.executeUpdate(stmt);
+            return JdbcUtil.executeUpdate(stmt, sql, sampledParameters);
         } finally {
             closeAfterExecutionIfAllowed();
         }
@@ -3796,7 +4246,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            return JdbcUtil.executeBatch(stmt);
+            return JdbcUtil.executeBatch(stmt, sql, sampledParameters);
         } finally {
             closeAfterExecutionIfAllowed();
         }
@@ -3827,7 +4277,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            return JdbcUtil.executeLargeBatch(stmt);
+            return JdbcUtil.executeLargeBatch(stmt, sql, sampledParameters);
         } finally {
             closeAfterExecutionIfAllowed();
         }
@@ -3842,7 +4292,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            return JdbcUtil.execute(stmt);
+            return JdbcUtil.execute(stmt, sql, sampledParameters);
         } finally {
             closeAfterExecutionIfAllowed();
         }
@@ -3861,7 +4311,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            JdbcUtil.execute(stmt);
+            JdbcUtil.execute(stmt, sql, sampledParameters);
 
             return getter.apply(stmt);
         } finally {
@@ -3882,7 +4332,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            final boolean isFirstResultSet = JdbcUtil.execute(stmt);
+            final boolean isFirstResultSet = JdbcUtil.execute(stmt, sql, sampledParameters);
 
             return getter.apply(isFirstResultSet, stmt);
         } finally {
@@ -3901,7 +4351,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            JdbcUtil.execute(stmt);
+            JdbcUtil.execute(stmt, sql, sampledParameters);
 
             consumer.accept(stmt);
         } finally {
@@ -3920,7 +4370,7 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
         assertNotClosed();
 
         try {
-            final boolean isFirstResultSet = JdbcUtil.execute(stmt);
+            final boolean isFirstResultSet = JdbcUtil.execute(stmt, sql, sampledParameters);
 
             consumer.accept(isFirstResultSet, stmt);
         } finally {
@@ -4064,6 +4514,8 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
     }
 
     private void closeStatement() {
+        boolean isReset = false;
+
         try {
             if (defaultFetchDirection >= 0) {
                 stmt.setFetchDirection(defaultFetchDirection);
@@ -4077,13 +4529,31 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
                 stmt.setMaxFieldSize(defaultMaxFieldSize);
             }
 
+            if (defaultMaxRows >= 0) {
+                // restored by the API it's set by. setLargeMaxRows is not supported by some drivers.
+                if (isLargeMaxRows) {
+                    stmt.setLargeMaxRows(defaultMaxRows);
+                } else {
+                    stmt.setMaxRows((int) defaultMaxRows);
+                }
+            }
+
             if (defaultQueryTimeout >= 0) {
                 stmt.setQueryTimeout(defaultQueryTimeout);
             }
+
+            if (isBatch) {
+                stmt.clearBatch();
+            }
+
+            isReset = true;
         } catch (SQLException e) {
             logger.warn("failed to reset statement", e);
         } finally {
-            JdbcUtil.closeQuietly(stmt);
+            // put it back to the statement cache if it's borrowed from statement cache.
+            if (StatementCache.returnStatement(stmt, isReset) == false) {
+                JdbcUtil.closeQuietly(stmt);
+            }
         }
     }
 
@@ -4093,6 +4563,11 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
      * @throws SQLException the SQL exception
      */
     void closeAfterExecutionIfAllowed() throws SQLException {
+        if (sampledParameters != null) {
+            // Not carried over to the next execution/batch, whose parameters are set again.
+            Arrays.fill(sampledParameters, SlowQuerySampler.UNSET);
+        }
+
         if (isCloseAfterExecution) {
             close();
         }
@@ -4106,4 +4581,4 @@ abstract class AbstractPreparedQuery<S extends PreparedStatement, Q extends Abst
             throw new IllegalStateException();
         }
     }
-}
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,135 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.math.BigDecimal;
+import java.sql.Array;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Bind a set of keys as one array parameter by {@code Connection.createArrayOf}, instead of one {@code ?} for each key:
+ * {@code id = ANY(?)} on PostgreSQL and H2, {@code id IN (UNNEST(?))} on HSQLDB.
+ * The sql has the same shape for any count of keys, so it's parsed/planned once and the size of it doesn't grow with the keys.
+ *
+ * @author Haiyang Li
+ */
+final class ArrayParameters {
+
+    private static final Map<Class<?>, String> sqlTypeNameMap = new HashMap<>();
+
+    static {
+        sqlTypeNameMap.put(Short.class, "SMALLINT");
+        sqlTypeNameMap.put(Integer.class, "INTEGER");
+        sqlTypeNameMap.put(Long.class, "BIGINT");
+        sqlTypeNameMap.put(BigDecimal.class, "NUMERIC");
+        sqlTypeNameMap.put(String.class, "VARCHAR");
+        sqlTypeNameMap.put(UUID.class, "UUID");
+        sqlTypeNameMap.put(java.sql.Date.class, "DATE");
+        sqlTypeNameMap.put(java.sql.Timestamp.class, "TIMESTAMP");
+    }
+
+    private ArrayParameters() {
+        // singleton.
+    }
+
+    /**
+     *
+     * @param dbVersion
+     * @return
+     */
+    static boolean isSupported(final DBVersion dbVersion) {
+        switch (dbVersion) {
+            case H2:
+            case HSQLDB:
+            case POSTGRESQL_9_2:
+            case POSTGRESQL_9_3:
+            case POSTGRESQL_9_4:
+            case POSTGRESQL_9_5:
+            case POSTGRESQL_9_6:
+            case POSTGRESQL_10:
+            case POSTGRESQL_11:
+            case POSTGRESQL_12:
+            case POSTGRESQL_OTHERS:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     *
+     * @param keyClass
+     * @return the sql type name of the elements of the array parameter for the keys of the specified class, or {@code null} if it's not supported.
+     */
+    static String sqlTypeName(final Class<?> keyClass) {
+        return keyClass == null ? null : sqlTypeNameMap.get(Primitives.wrap(keyClass));
+    }
+
+    /**
+     * Replace the trailing {@code = ?} condition of the specified sql with the condition by array parameter.
+     *
+     * @param dbVersion
+     * @param sql which ends with {@code column = ?}.
+     * @return the sql with the condition by array parameter, or {@code null} if it's not supported by the database or the sql doesn't end with {@code = ?}.
+     */
+    static String toArrayCondition(final DBVersion dbVersion, final String sql) {
+        if (!isSupported(dbVersion)) {
+            return null;
+        }
+
+        final String trimmed = sql.trim();
+
+        if (!trimmed.endsWith("?")) {
+            return null;
+        }
+
+        final int eqIndex = trimmed.lastIndexOf('=', trimmed.length() - 2);
+
+        if (eqIndex <= 0 || N.notNullOrEmpty(trimmed.substring(eqIndex + 1, trimmed.length() - 1).trim())
+                || "<>!".indexOf(trimmed.charAt(eqIndex - 1)) >= 0) {
+            return null;
+        }
+
+        final String head = trimmed.substring(0, eqIndex).trim();
+
+        if (dbVersion == DBVersion.HSQLDB) {
+            return head + " IN (UNNEST(?))";
+        } else {
+            return head + " = ANY(?)";
+        }
+    }
+
+    /**
+     * Set the specified keys to the statement as one array parameter.
+     *
+     * @param stmt
+     * @param parameterIndex starts from 1.
+     * @param sqlTypeName
+     * @param keys
+     * @throws SQLException the SQL exception
+     */
+    static void setArray(final PreparedStatement stmt, final int parameterIndex, final String sqlTypeName, final Object[] keys) throws SQLException {
+        final Array array = stmt.getConnection().createArrayOf(sqlTypeName, keys);
+
+        stmt.setArray(parameterIndex, array);
+    }
+}
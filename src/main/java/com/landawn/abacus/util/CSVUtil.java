@@ -29,7 +29,6 @@ import java.io.Writer;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
@@ -1011,7 +1010,7 @@ public final class CSVUtil {
      */
     public static long exportCSV(final File out, final Connection conn, final String querySQL, final Collection<String> selectColumnNames, final long offset,
             final long count, final boolean writeTitle, final boolean quoted) throws UncheckedSQLException, UncheckedIOException {
-        final ParsedSql sql = ParsedSql.parse(querySQL);
+        final ParsedSql sql = ParsedSqlCache.parse(querySQL);
         PreparedStatement stmt = null;
 
         try {
@@ -1283,14 +1282,14 @@ public final class CSVUtil {
         final BufferedJSONWriter bw = out instanceof BufferedJSONWriter ? (BufferedJSONWriter) out : Objectory.createBufferedJSONWriter(out);
 
         try {
-            final ResultSetMetaData rsmd = rs.getMetaData();
-            final int columnCount = rsmd.getColumnCount();
+            final ColumnLayout columnLayout = ColumnLayout.of(null, rs);
+            final int columnCount = columnLayout.size();
             final String[] columnNames = new String[columnCount];
             final Set<String> columnNameSet = selectColumnNames == null ? null : N.newHashSet(selectColumnNames);
             String label = null;
 
             for (int i = 0; i < columnCount; i++) {
-                label = JdbcUtil.getColumnLabel(rsmd, i + 1);
+                label = columnLayout.get(i);
 
                 if (columnNameSet == null || columnNameSet.remove(label)) {
                     columnNames[i] = label;
@@ -1338,28 +1337,22 @@ public final class CSVUtil {
                         bw.write(N.ELEMENT_SEPARATOR_CHAR_ARRAY);
                     }
 
-                    type = typeArray[i];
+                    value = columnLayout.getColumnValue(rs, i + 1);
 
-                    if (type == null) {
-                        value = JdbcUtil.getColumnValue(rs, i + 1);
+                    if (value == null) {
+                        bw.write(N.NULL_CHAR_ARRAY);
+                    } else {
+                        type = typeArray[i];
 
-                        if (value == null) {
-                            bw.write(N.NULL_CHAR_ARRAY);
-                        } else {
+                        if (type == null || type.clazz() != value.getClass()) {
                             type = N.typeOf(value.getClass());
                             typeArray[i] = type;
-
-                            if (type.isSerializable()) {
-                                type.writeCharacter(bw, value, config);
-                            } else {
-                                type.writeCharacter(bw, jsonParser.serialize(value, config), config);
-                            }
                         }
-                    } else {
+
                         if (type.isSerializable()) {
-                            type.writeCharacter(bw, type.get(rs, i + 1), config);
+                            type.writeCharacter(bw, value, config);
                         } else {
-                            strType.writeCharacter(bw, jsonParser.serialize(type.get(rs, i + 1), config), config);
+                            strType.writeCharacter(bw, jsonParser.serialize(value, config), config);
                         }
                     }
                 }
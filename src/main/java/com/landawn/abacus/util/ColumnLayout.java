@@ -0,0 +1,423 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.landawn.abacus.parser.ParserUtil;
+import com.landawn.abacus.parser.ParserUtil.EntityInfo;
+import com.landawn.abacus.parser.ParserUtil.PropInfo;
+import com.landawn.abacus.util.Columns.ColumnGetter;
+import com.landawn.abacus.util.JdbcUtil.BiRowMapper;
+
+/**
+ * The columns of the {@code ResultSet} of a sql, resolved from {@code ResultSetMetaData}: the labels, the JDBC types, the class names,
+ * the readers of the columns, the properties mapped to the columns and the row mappers compiled by class. It's cached by sql,
+ * so extracting/mapping the results of the same sql again doesn't resolve them again.
+ * The cached layout is replaced if the count, labels or JDBC types of the columns of a {@code ResultSet} don't match it.
+ * <br />
+ * The reader of a column is resolved once from the JDBC type and class name of the column, e.g. {@code getLong} for {@code BIGINT},
+ * {@code getTimestamp} for the {@code DATE} columns of which the values are {@code java.sql.Timestamp}. The other columns are read
+ * by {@link JdbcUtil#getColumnValue(ResultSet, int)} with the resolved class name.
+ * <br />
+ * It's also the unmodifiable list of the column labels passed to {@code BiRowMapper/BiResultExtractor}, by which the row mappers get the resolved columns.
+ *
+ * @author Haiyang Li
+ */
+final class ColumnLayout extends AbstractList<String> implements RandomAccess {
+
+    /**
+     * The max count of sqls cached. The layouts for the sqls after it's reached are resolved for each {@code ResultSet}.
+     */
+    static final int MAX_SQL_COUNT = 8192;
+
+    private static final Map<String, ColumnLayout> layoutPool = new ConcurrentHashMap<>();
+
+    private static final ColumnGetter<Integer> GET_INT = (columnIndex, rs) -> {
+        final int value = rs.getInt(columnIndex);
+
+        return value == 0 && rs.wasNull() ? null : value;
+    };
+
+    private static final ColumnGetter<Long> GET_LONG = (columnIndex, rs) -> {
+        final long value = rs.getLong(columnIndex);
+
+        return value == 0 && rs.wasNull() ? null : value;
+    };
+
+    private static final ColumnGetter<Float> GET_FLOAT = (columnIndex, rs) -> {
+        final float value = rs.getFloat(columnIndex);
+
+        return value == 0 && rs.wasNull() ? null : value;
+    };
+
+    private static final ColumnGetter<Double> GET_DOUBLE = (columnIndex, rs) -> {
+        final double value = rs.getDouble(columnIndex);
+
+        return value == 0 && rs.wasNull() ? null : value;
+    };
+
+    private static final ColumnGetter<Boolean> GET_BOOLEAN = (columnIndex, rs) -> {
+        final boolean value = rs.getBoolean(columnIndex);
+
+        return !value && rs.wasNull() ? null : value;
+    };
+
+    private final String[] columnLabels;
+
+    private final int[] columnTypes;
+
+    private final String[] columnClassNames;
+
+    private final ColumnGetter<?>[] columnGetters;
+
+    private final Map<Class<?>, PropAccessor[]> propAccessorsPool;
+
+    private final Map<Class<?>, BiRowMapper<?>> rowMapperPool = new ConcurrentHashMap<>();
+
+    /**
+     * The layouts which read the LOB columns by {@code LobPolicy}, derived from this layout. It's {@code null} if there is no LOB column.
+     */
+    private final Map<LobPolicy, ColumnLayout> lobLayoutPool;
+
+    private ColumnLayout(final ResultSetMetaData rsmd) throws SQLException {
+        final int columnCount = rsmd.getColumnCount();
+
+        this.columnLabels = new String[columnCount];
+        this.columnTypes = new int[columnCount];
+        this.columnClassNames = new String[columnCount];
+        this.columnGetters = new ColumnGetter<?>[columnCount];
+        boolean hasLob = false;
+
+        for (int i = 0; i < columnCount; i++) {
+            columnLabels[i] = JdbcUtil.getColumnLabel(rsmd, i + 1);
+            columnTypes[i] = rsmd.getColumnType(i + 1);
+            columnClassNames[i] = rsmd.getColumnClassName(i + 1);
+            columnGetters[i] = getColumnGetter(columnTypes[i], columnClassNames[i]);
+            hasLob = hasLob || isLob(columnTypes[i]);
+        }
+
+        this.propAccessorsPool = new ConcurrentHashMap<>();
+        this.lobLayoutPool = hasLob ? new ConcurrentHashMap<>() : null;
+    }
+
+    private ColumnLayout(final ColumnLayout layout, final LobPolicy lobPolicy) {
+        this.columnLabels = layout.columnLabels;
+        this.columnTypes = layout.columnTypes;
+        this.columnClassNames = layout.columnClassNames;
+        this.columnGetters = layout.columnGetters.clone();
+
+        for (int i = 0, len = columnTypes.length; i < len; i++) {
+            if (isLob(columnTypes[i])) {
+                columnGetters[i] = (columnIndex, rs) -> lobPolicy.read(rs, columnIndex);
+            }
+        }
+
+        this.propAccessorsPool = layout.propAccessorsPool;
+        this.lobLayoutPool = null;
+    }
+
+    private static boolean isLob(final int columnType) {
+        return columnType == Types.BLOB || columnType == Types.CLOB || columnType == Types.NCLOB;
+    }
+
+    /**
+     * Resolves the reader of the column with the specified JDBC type and class name.
+     * The value read is same as the one read by {@link JdbcUtil#getColumnValue(ResultSet, int)}.
+     *
+     * @param columnType
+     * @param columnClassName
+     * @return
+     */
+    static ColumnGetter<?> getColumnGetter(final int columnType, final String columnClassName) {
+        switch (columnType) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                if ("java.lang.Integer".equals(columnClassName)) {
+                    return GET_INT;
+                }
+
+                break;
+
+            case Types.BIGINT:
+                if ("java.lang.Long".equals(columnClassName)) {
+                    return GET_LONG;
+                }
+
+                break;
+
+            case Types.REAL:
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                if ("java.lang.Double".equals(columnClassName)) {
+                    return GET_DOUBLE;
+                } else if ("java.lang.Float".equals(columnClassName)) {
+                    return GET_FLOAT;
+                }
+
+                break;
+
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                if ("java.math.BigDecimal".equals(columnClassName)) {
+                    return ColumnGetter.GET_BIG_DECIMAL;
+                }
+
+                break;
+
+            case Types.BIT:
+            case Types.BOOLEAN:
+                if ("java.lang.Boolean".equals(columnClassName)) {
+                    return GET_BOOLEAN;
+                }
+
+                break;
+
+            case Types.CHAR:
+            case Types.VARCHAR:
+            case Types.LONGVARCHAR:
+            case Types.NCHAR:
+            case Types.NVARCHAR:
+            case Types.LONGNVARCHAR:
+                if ("java.lang.String".equals(columnClassName)) {
+                    return ColumnGetter.GET_STRING;
+                }
+
+                break;
+
+            case Types.DATE:
+            case Types.TIMESTAMP:
+                if ("java.sql.Timestamp".equals(columnClassName) || "oracle.sql.TIMESTAMP".equals(columnClassName)) {
+                    return ColumnGetter.GET_TIMESTAMP;
+                } else if (columnType == Types.DATE && "java.sql.Date".equals(columnClassName)) {
+                    return ColumnGetter.GET_DATE;
+                }
+
+                break;
+
+            default:
+                break;
+        }
+
+        return (columnIndex, rs) -> JdbcUtil.getColumnValue(rs, columnIndex, columnClassName);
+    }
+
+    /**
+     * Gets the layout cached for the specified sql if it matches the columns of the specified {@code ResultSet}, otherwise resolves it.
+     *
+     * @param sql {@code null} if it's unknown. The layout is not cached then.
+     * @param rs
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    static ColumnLayout of(final String sql, final ResultSet rs) throws SQLException {
+        final ResultSetMetaData rsmd = rs.getMetaData();
+
+        if (sql == null) {
+            return new ColumnLayout(rsmd);
+        }
+
+        ColumnLayout layout = layoutPool.get(sql);
+
+        if (layout == null || !layout.matches(rsmd)) {
+            layout = new ColumnLayout(rsmd);
+
+            if (layoutPool.size() < MAX_SQL_COUNT || layoutPool.containsKey(sql)) {
+                layoutPool.put(sql, layout);
+            }
+        }
+
+        return layout;
+    }
+
+    /**
+     * Gets the layout which reads the LOB columns by the specified {@code LobPolicy}.
+     *
+     * @param lobPolicy
+     * @return this layout if there is no LOB column, or {@code lobPolicy} is {@code null} or {@link LobPolicy#INLINE}.
+     */
+    ColumnLayout with(final LobPolicy lobPolicy) {
+        if (lobLayoutPool == null || lobPolicy == null || lobPolicy == LobPolicy.INLINE) {
+            return this;
+        }
+
+        ColumnLayout layout = lobLayoutPool.get(lobPolicy);
+
+        if (layout == null) {
+            layout = new ColumnLayout(this, lobPolicy);
+            lobLayoutPool.put(lobPolicy, layout);
+        }
+
+        return layout;
+    }
+
+    private boolean matches(final ResultSetMetaData rsmd) throws SQLException {
+        final int columnCount = columnLabels.length;
+
+        if (rsmd.getColumnCount() != columnCount) {
+            return false;
+        }
+
+        for (int i = 0; i < columnCount; i++) {
+            if (columnTypes[i] != rsmd.getColumnType(i + 1) || !N.equals(columnLabels[i], JdbcUtil.getColumnLabel(rsmd, i + 1))) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public String get(final int index) {
+        return columnLabels[index];
+    }
+
+    @Override
+    public int size() {
+        return columnLabels.length;
+    }
+
+    /**
+     *
+     * @param columnIndex starts with 1, not 0.
+     * @return the JDBC type defined in {@code java.sql.Types}.
+     */
+    int getColumnType(final int columnIndex) {
+        return columnTypes[columnIndex - 1];
+    }
+
+    /**
+     *
+     * @param columnIndex starts with 1, not 0.
+     * @return
+     */
+    String getColumnClassName(final int columnIndex) {
+        return columnClassNames[columnIndex - 1];
+    }
+
+    /**
+     * Same as {@link JdbcUtil#getColumnValue(ResultSet, int)}, by the reader resolved for the column.
+     *
+     * @param rs
+     * @param columnIndex starts with 1, not 0.
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    Object getColumnValue(final ResultSet rs, final int columnIndex) throws SQLException {
+        return columnGetters[columnIndex - 1].apply(columnIndex, rs);
+    }
+
+    /**
+     * Read the values of all the columns at the current row of the specified {@code ResultSet} to the specified array.
+     *
+     * @param rs
+     * @param output
+     * @throws SQLException the SQL exception
+     */
+    void readRow(final ResultSet rs, final Object[] output) throws SQLException {
+        final ColumnGetter<?>[] columnGetters = this.columnGetters;
+
+        for (int i = 0, len = columnGetters.length; i < len;) {
+            output[i] = columnGetters[i].apply(++i, rs);
+        }
+    }
+
+    /**
+     * Gets the row mapper compiled for the specified target class and these columns, which maps the rows as {@code BiRowMapper.to(targetClass)} does.
+     *
+     * @param <T>
+     * @param targetClass
+     * @return
+     * @see CompiledRowMapper
+     */
+    @SuppressWarnings("unchecked") // the row mapper pooled by targetClass is compiled for targetClass.
+    <T> BiRowMapper<T> getRowMapper(final Class<? extends T> targetClass) {
+        BiRowMapper<?> rowMapper = rowMapperPool.get(targetClass);
+
+        if (rowMapper == null) {
+            rowMapper = CompiledRowMapper.compile(targetClass, this, this, false);
+            rowMapperPool.put(targetClass, rowMapper);
+        }
+
+        return (BiRowMapper<T>) rowMapper;
+    }
+
+    /**
+     * The {@code PropAccessor}s of the specified entity class by column. The element is {@code null} if no property is mapped to the column.
+     *
+     * @param entityClass
+     * @return
+     */
+    PropAccessor[] getPropAccessors(final Class<?> entityClass) {
+        PropAccessor[] propAccessors = propAccessorsPool.get(entityClass);
+
+        if (propAccessors == null) {
+            propAccessors = getPropAccessors(entityClass, this);
+            propAccessorsPool.put(entityClass, propAccessors);
+        }
+
+        return propAccessors;
+    }
+
+    /**
+     * The {@code PropAccessor}s of the specified entity class by column. The element is {@code null} if no property is mapped to the column.
+     *
+     * @param entityClass
+     * @param columnLabelList
+     * @return
+     */
+    static PropAccessor[] getPropAccessors(final Class<?> entityClass, final List<String> columnLabelList) {
+        final EntityInfo entityInfo = ParserUtil.getEntityInfo(entityClass);
+        final Map<String, String> column2FieldNameMap = JdbcUtil.getColumn2FieldNameMap(entityClass);
+        final int columnCount = columnLabelList.size();
+        final PropInfo[] propInfos = new PropInfo[columnCount];
+        String columnLabel = null;
+
+        for (int i = 0; i < columnCount; i++) {
+            columnLabel = columnLabelList.get(i);
+
+            if (columnLabel == null) {
+                continue;
+            }
+
+            propInfos[i] = entityInfo.getPropInfo(columnLabel);
+
+            if (propInfos[i] == null) {
+                String fieldName = column2FieldNameMap.get(columnLabel);
+
+                if (N.isNullOrEmpty(fieldName)) {
+                    fieldName = column2FieldNameMap.get(columnLabel.toLowerCase());
+                }
+
+                if (N.notNullOrEmpty(fieldName)) {
+                    propInfos[i] = entityInfo.getPropInfo(fieldName);
+                }
+            }
+        }
+
+        return PropAccessor.of(entityClass, propInfos);
+    }
+}
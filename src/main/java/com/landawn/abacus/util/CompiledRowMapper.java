@@ -0,0 +1,230 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.landawn.abacus.DirtyMarker;
+import com.landawn.abacus.core.DirtyMarkerUtil;
+import com.landawn.abacus.type.Type;
+import com.landawn.abacus.util.JdbcUtil.BiRowMapper;
+
+/**
+ * The row mappers compiled for a target class and the columns of a {@code ResultSet}: the readers of the columns, the properties mapped to the columns
+ * and the way to create the row object are resolved when it's compiled. A compiled row mapper is immutable, so it's cached by {@code ColumnLayout}
+ * (which is cached by sql) and shared by the queries and threads.
+ * <br />
+ * {@link #of(Class)} is the row mapper for a target class to be shared by the queries, which is resolved to the row mapper compiled for
+ * the {@code ColumnLayout} of each {@code ResultSet}. {@code AbstractPreparedQuery.list/stream/findFirst} resolve it by {@link #resolve(BiRowMapper, List)}
+ * once for a {@code ResultSet}, not for each row.
+ *
+ * @author Haiyang Li
+ */
+final class CompiledRowMapper {
+
+    private static final Map<Class<?>, ByClass<?>> byClassPool = new ConcurrentHashMap<>();
+
+    private CompiledRowMapper() {
+        // singleton.
+    }
+
+    /**
+     * Gets the thread-safe row mapper for the specified target class, which maps the rows as {@code BiRowMapper.to(targetClass)} does.
+     *
+     * @param <T>
+     * @param targetClass
+     * @return
+     */
+    @SuppressWarnings("unchecked") // the row mapper pooled by targetClass only returns instances of targetClass, which are T.
+    static <T> BiRowMapper<T> of(final Class<? extends T> targetClass) {
+        ByClass<?> rowMapper = byClassPool.get(targetClass);
+
+        if (rowMapper == null) {
+            rowMapper = new ByClass<>(targetClass);
+            byClassPool.put(targetClass, rowMapper);
+        }
+
+        return (BiRowMapper<T>) rowMapper;
+    }
+
+    /**
+     * Resolves the row mapper returned by {@link #of(Class)} to the one compiled for the specified columns. The other row mappers are returned as they are.
+     *
+     * @param <T>
+     * @param rowMapper
+     * @param columnLabels
+     * @return
+     */
+    static <T> BiRowMapper<T> resolve(final BiRowMapper<T> rowMapper, final List<String> columnLabels) {
+        if (rowMapper instanceof ByClass && columnLabels instanceof ColumnLayout) {
+            return ((ColumnLayout) columnLabels).getRowMapper(((ByClass<T>) rowMapper).targetClass);
+        }
+
+        return rowMapper;
+    }
+
+    /**
+     * Compiles the row mapper for the specified columns. It's cached by {@code ColumnLayout} if {@code columnLabels} is a {@code ColumnLayout}
+     * and {@code ignoreNonMatchedColumns} is {@code false}.
+     *
+     * @param <T>
+     * @param targetClass
+     * @param rs
+     * @param columnLabels
+     * @param ignoreNonMatchedColumns
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    static <T> BiRowMapper<T> compile(final Class<? extends T> targetClass, final ResultSet rs, final List<String> columnLabels,
+            final boolean ignoreNonMatchedColumns) throws SQLException {
+        if (columnLabels instanceof ColumnLayout) {
+            final ColumnLayout columnLayout = (ColumnLayout) columnLabels;
+
+            return ignoreNonMatchedColumns ? compile(targetClass, columnLayout, columnLabels, true) : columnLayout.getRowMapper(targetClass);
+        }
+
+        return compile(targetClass, ColumnLayout.of(null, rs), columnLabels, ignoreNonMatchedColumns);
+    }
+
+    /**
+     *
+     * @param <T>
+     * @param targetClass
+     * @param columnLayout by which the columns are read.
+     * @param columnLabels by which the columns are mapped to the keys of {@code Map} or the properties of entity.
+     * @param ignoreNonMatchedColumns
+     * @return
+     */
+    static <T> BiRowMapper<T> compile(final Class<? extends T> targetClass, final ColumnLayout columnLayout, final List<String> columnLabels,
+            final boolean ignoreNonMatchedColumns) {
+        final int columnCount = columnLabels.size();
+
+        if (Object[].class.isAssignableFrom(targetClass)) {
+            final Class<?> componentType = targetClass.getComponentType();
+
+            return (rs, columnLabelList) -> {
+                final Object[] a = Array.newInstance(componentType, columnCount);
+
+                for (int i = 0; i < columnCount;) {
+                    a[i] = columnLayout.getColumnValue(rs, ++i);
+                }
+
+                return targetClass.cast(a);
+            };
+        } else if (List.class.isAssignableFrom(targetClass)) {
+            final boolean isListOrArrayList = targetClass.equals(List.class) || targetClass.equals(ArrayList.class);
+
+            return (rs, columnLabelList) -> {
+                @SuppressWarnings("unchecked") // a List created by the default constructor takes the column values of any type.
+                final List<Object> c = isListOrArrayList ? new ArrayList<>(columnCount) : (List<Object>) N.newInstance(targetClass);
+
+                for (int i = 1; i <= columnCount; i++) {
+                    c.add(columnLayout.getColumnValue(rs, i));
+                }
+
+                return targetClass.cast(c);
+            };
+        } else if (Map.class.isAssignableFrom(targetClass)) {
+            final boolean isMapOrHashMap = targetClass.equals(Map.class) || targetClass.equals(HashMap.class);
+            final boolean isLinkedHashMap = targetClass.equals(LinkedHashMap.class);
+            final String[] keys = columnLabels.toArray(new String[columnCount]);
+
+            return (rs, columnLabelList) -> {
+                @SuppressWarnings("unchecked") // a Map created by the default constructor takes the column labels and values of any type.
+                final Map<String, Object> m = isMapOrHashMap ? new HashMap<>(columnCount)
+                        : (isLinkedHashMap ? new LinkedHashMap<>(columnCount) : (Map<String, Object>) N.newInstance(targetClass));
+
+                for (int i = 0; i < columnCount; i++) {
+                    m.put(keys[i], columnLayout.getColumnValue(rs, i + 1));
+                }
+
+                return targetClass.cast(m);
+            };
+        } else if (ClassUtil.isEntity(targetClass)) {
+            // the properties mapped to the columns are resolved once for each sql if the column labels are from ColumnLayout.
+            final PropAccessor[] propAccessors = columnLabels == columnLayout ? columnLayout.getPropAccessors(targetClass)
+                    : ColumnLayout.getPropAccessors(targetClass, columnLabels);
+
+            if (!ignoreNonMatchedColumns) {
+                for (int i = 0; i < columnCount; i++) {
+                    if (propAccessors[i] == null) {
+                        return fail("No property in class: " + ClassUtil.getCanonicalClassName(targetClass) + " mapping to column: " + columnLabels.get(i));
+                    }
+                }
+            }
+
+            final boolean isDirtyMarker = DirtyMarkerUtil.isDirtyMarker(targetClass);
+
+            return (rs, columnLabelList) -> {
+                final Object entity = N.newInstance(targetClass);
+
+                for (int i = 0; i < columnCount; i++) {
+                    if (propAccessors[i] != null) {
+                        propAccessors[i].setPropValue(entity, rs, i + 1);
+                    }
+                }
+
+                if (isDirtyMarker) {
+                    DirtyMarkerUtil.markDirty((DirtyMarker) entity, false);
+                }
+
+                return targetClass.cast(entity);
+            };
+        } else {
+            if (columnCount != 1) {
+                return fail("It's not supported to retrieve value from multiple columns: " + columnLabels + " for type: " + targetClass);
+            }
+
+            final Type<? extends T> targetType = N.typeOf(targetClass);
+
+            return (rs, columnLabelList) -> targetType.get(rs, 1);
+        }
+    }
+
+    /**
+     * The columns which can't be mapped to the target class fail the mapping of rows, not the compiling, so the queries without result don't fail.
+     *
+     * @param <T>
+     * @param errorMsg
+     * @return
+     */
+    private static <T> BiRowMapper<T> fail(final String errorMsg) {
+        return (rs, columnLabelList) -> {
+            throw new IllegalArgumentException(errorMsg);
+        };
+    }
+
+    static final class ByClass<T> implements BiRowMapper<T> {
+        private final Class<? extends T> targetClass;
+
+        ByClass(final Class<? extends T> targetClass) {
+            this.targetClass = targetClass;
+        }
+
+        @Override
+        public T apply(final ResultSet rs, final List<String> columnLabels) throws SQLException {
+            return CompiledRowMapper.<T> compile(targetClass, rs, columnLabels, false).apply(rs, columnLabels);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The attributes attached to a {@code Connection} by {@code JdbcUtil}: the {@code StatementCache}, {@code RowCountStats} and {@code LobPolicy}
+ * enabled/set for it or for the {@code DataSource} it's borrowed from. All the attributes of a connection are kept in one entry of a concurrent map,
+ * which is removed when the connection is released/closed by {@code JdbcUtil}. The {@code Connection} implementations don't override
+ * {@code equals/hashCode}, so the connections are looked up by identity.
+ * <br />
+ * The connections closed directly, instead of released by {@code JdbcUtil}, are removed by a sweep after the map doubles in size.
+ *
+ * @author Haiyang Li
+ */
+final class ConnectionAttributes {
+
+    private static final int MIN_SWEEP_THRESHOLD = 64;
+
+    private static final Map<Connection, ConnectionAttributes> pool = new ConcurrentHashMap<>();
+
+    private static volatile int sweepThreshold = MIN_SWEEP_THRESHOLD;
+
+    volatile StatementCache statementCache;
+
+    volatile RowCountStats rowCountStats;
+
+    volatile LobPolicy lobPolicy;
+
+    private ConnectionAttributes() {
+    }
+
+    /**
+     *
+     * @param conn
+     * @return {@code null} if no attribute is attached to the specified connection.
+     */
+    static ConnectionAttributes get(final Connection conn) {
+        return conn == null || pool.isEmpty() ? null : pool.get(conn);
+    }
+
+    static ConnectionAttributes getOrCreate(final Connection conn) {
+        ConnectionAttributes attrs = pool.get(conn);
+
+        if (attrs == null) {
+            if (pool.size() >= sweepThreshold) {
+                removeClosedConnections();
+                sweepThreshold = Math.max(MIN_SWEEP_THRESHOLD, pool.size() * 2);
+            }
+
+            attrs = pool.computeIfAbsent(conn, k -> new ConnectionAttributes());
+        }
+
+        return attrs;
+    }
+
+    /**
+     * Detach all the attributes from the specified connection when it's released/closed.
+     *
+     * @param conn
+     */
+    static void detach(final Connection conn) {
+        if (conn == null || pool.isEmpty()) {
+            return;
+        }
+
+        final ConnectionAttributes attrs = pool.remove(conn);
+
+        if (attrs != null) {
+            attrs.release();
+        }
+    }
+
+    private void release() {
+        rowCountStats = null;
+        lobPolicy = null;
+
+        final StatementCache cache = statementCache;
+
+        if (cache != null) {
+            statementCache = null;
+            StatementCache.closeQuietly(cache);
+        }
+    }
+
+    private static void removeClosedConnections() {
+        for (Map.Entry<Connection, ConnectionAttributes> entry : pool.entrySet()) {
+            if (isClosed(entry.getKey()) && pool.remove(entry.getKey(), entry.getValue())) {
+                entry.getValue().release();
+            }
+        }
+    }
+
+    private static boolean isClosed(final Connection conn) {
+        try {
+            return conn.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+}
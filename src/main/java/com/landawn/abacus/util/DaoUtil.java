@@ -33,6 +33,7 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
@@ -42,8 +43,10 @@ import java.util.OptionalDouble;
 import java.util.OptionalInt;
 import java.util.OptionalLong;
 import java.util.Set;
+import java.util.WeakHashMap;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.regex.Pattern;
 
 import com.landawn.abacus.DataSet;
@@ -903,9 +906,9 @@ final class DaoUtil {
                 }
             } else {
                 if (op == OP.get) {
-                    return (preparedQuery, args) -> (R) preparedQuery.get(BiRowMapper.to(eleType));
+                    return (preparedQuery, args) -> (R) preparedQuery.get(CompiledRowMapper.of(eleType));
                 } else if (op == OP.findFirst) {
-                    return (preparedQuery, args) -> (R) preparedQuery.findFirst(BiRowMapper.to(eleType));
+                    return (preparedQuery, args) -> (R) preparedQuery.findFirst(CompiledRowMapper.of(eleType));
                 } else if (op == OP.queryForSingle) {
                     return (preparedQuery, args) -> (R) preparedQuery.queryForSingleNonNull(eleType);
                 } else if (op == OP.queryForUnique) {
@@ -913,7 +916,7 @@ final class DaoUtil {
                 } else {
                     if (ClassUtil.isEntity(eleType) || Map.class.isAssignableFrom(eleType) || List.class.isAssignableFrom(eleType)
                             || Object[].class.isAssignableFrom(eleType)) {
-                        return (preparedQuery, args) -> (R) preparedQuery.findFirst(BiRowMapper.to(eleType));
+                        return (preparedQuery, args) -> (R) preparedQuery.findFirst(CompiledRowMapper.of(eleType));
                     } else {
                         return (preparedQuery, args) -> (R) preparedQuery.queryForSingleNonNull(eleType);
                     }
@@ -928,9 +931,9 @@ final class DaoUtil {
                 return (preparedQuery, args) -> (R) preparedQuery.stream(eleType).unchecked();
             }
         } else if (op == OP.get) {
-            return (preparedQuery, args) -> (R) preparedQuery.gett(BiRowMapper.to(returnType));
+            return (preparedQuery, args) -> (R) preparedQuery.gett(CompiledRowMapper.of(returnType));
         } else if (op == OP.findFirst) {
-            return (preparedQuery, args) -> (R) preparedQuery.findFirst(BiRowMapper.to(returnType)).orNull();
+            return (preparedQuery, args) -> (R) preparedQuery.findFirst(CompiledRowMapper.of(returnType)).orNull();
         } else if (op == OP.queryForSingle) {
             return createSingleQueryFunction(returnType);
         } else if (op == OP.queryForUnique) {
@@ -938,7 +941,7 @@ final class DaoUtil {
         } else {
             if (ClassUtil.isEntity(returnType) || Map.class.isAssignableFrom(returnType) || List.class.isAssignableFrom(returnType)
                     || Object[].class.isAssignableFrom(returnType)) {
-                return (preparedQuery, args) -> (R) preparedQuery.findFirst(BiRowMapper.to(returnType)).orNull();
+                return (preparedQuery, args) -> (R) preparedQuery.findFirst(CompiledRowMapper.of(returnType)).orNull();
             } else {
                 return createSingleQueryFunction(returnType);
             }
@@ -1112,18 +1115,18 @@ final class DaoUtil {
     }
 
     @SuppressWarnings("rawtypes")
-    private static AbstractPreparedQuery prepareQuery(final Dao proxy, final Method method, final Object[] args, final int[] defineParamIndexes,
-            final String[] defines, final boolean isNamedQuery, String query, ParsedSql namedSql, final boolean isBatch, final int batchSize,
-            final int fetchSize, final FetchDirection fetchDirection, final int queryTimeout, final boolean returnGeneratedKeys,
-            final String[] returnColumnNames, final boolean isCall, final List<OutParameter> outParameterList) throws SQLException, Exception {
+    private static AbstractPreparedQuery prepareQuery(final Dao proxy, final Method method, final Object[] args, final DefineTemplate defineTemplate,
+            final boolean isNamedQuery, String query, ParsedSql namedSql, final boolean isBatch, final int batchSize, final int fetchSize,
+            final FetchDirection fetchDirection, final int queryTimeout, final boolean returnGeneratedKeys, final String[] returnColumnNames,
+            final boolean isCall, final List<OutParameter> outParameterList) throws SQLException, Exception {
 
-        if (N.notNullOrEmpty(defines)) {
-            for (int i = 0, len = defines.length; i < len; i++) {
-                query = StringUtil.replaceAll(query, defines[i], N.stringOf(args[defineParamIndexes[i]]));
-            }
+        if (defineTemplate != null) {
+            final ParsedSql parsedSql = defineTemplate.apply(args);
+
+            query = parsedSql.sql();
 
             if (isNamedQuery) {
-                namedSql = ParsedSql.parse(query);
+                namedSql = parsedSql;
             }
         }
 
@@ -1179,6 +1182,26 @@ final class DaoUtil {
         return result;
     }
 
+    /**
+     * The condition to select by the specified ids, for the composite ids if {@code RowValueIn} is not supported.
+     *
+     * @param ids all {@code EntityId}s if {@code isEntityId}, all {@code Map}s if {@code isMap}, otherwise entities.
+     * @param isEntityId
+     * @param isMap
+     * @param idPropNameList
+     * @return
+     */
+    @SuppressWarnings("unchecked") // the type of the ids is checked by the first one, which isEntityId/isMap are set by.
+    private static Condition idsCond(final List<Object> ids, final boolean isEntityId, final boolean isMap, final List<String> idPropNameList) {
+        if (isEntityId) {
+            return CF.id2Cond((List<EntityId>) (List<?>) ids);
+        } else if (isMap) {
+            return CF.eqAndOr((List<Map<String, Object>>) (List<?>) ids);
+        } else {
+            return CF.eqAndOr(ids, idPropNameList);
+        }
+    }
+
     private static String createCacheKey(final Method method, final String fullClassMethodName, final Object[] args, final Logger daoLogger) {
         String cachekey = null;
 
@@ -1249,6 +1272,20 @@ final class DaoUtil {
                 .first()
                 .orElse(false);
 
+        final boolean multiRowInsert = StreamEx.of(allInterfaces)
+                .flatMapp(cls -> cls.getAnnotations())
+                .select(Dao.Config.class)
+                .map(it -> it.multiRowInsert())
+                .first()
+                .orElse(false);
+
+        final int arrayParameterThreshold = StreamEx.of(allInterfaces)
+                .flatMapp(cls -> cls.getAnnotations())
+                .select(Dao.Config.class)
+                .map(it -> it.arrayParameterThreshold())
+                .first()
+                .orElse(0);
+
         java.lang.reflect.Type[] typeArguments = null;
 
         if (N.notNullOrEmpty(daoInterface.getGenericInterfaces()) && daoInterface.getGenericInterfaces()[0] instanceof ParameterizedType) {
@@ -1397,12 +1434,12 @@ final class DaoUtil {
             sql_deleteById = isNoId ? null : NLC.deleteFrom(entityClass).where(idCond).sql();
         }
 
-        final ParsedSql namedGetByIdSQL = N.isNullOrEmpty(sql_getById) ? null : ParsedSql.parse(sql_getById);
-        final ParsedSql namedExistsByIdSQL = N.isNullOrEmpty(sql_existsById) ? null : ParsedSql.parse(sql_existsById);
-        final ParsedSql namedInsertWithIdSQL = N.isNullOrEmpty(sql_insertWithId) ? null : ParsedSql.parse(sql_insertWithId);
-        final ParsedSql namedInsertWithoutIdSQL = N.isNullOrEmpty(sql_insertWithoutId) ? null : ParsedSql.parse(sql_insertWithoutId);
-        final ParsedSql namedUpdateByIdSQL = N.isNullOrEmpty(sql_updateById) ? null : ParsedSql.parse(sql_updateById);
-        final ParsedSql namedDeleteByIdSQL = N.isNullOrEmpty(sql_deleteById) ? null : ParsedSql.parse(sql_deleteById);
+        final ParsedSql namedGetByIdSQL = N.isNullOrEmpty(sql_getById) ? null : ParsedSqlCache.parse(sql_getById);
+        final ParsedSql namedExistsByIdSQL = N.isNullOrEmpty(sql_existsById) ? null : ParsedSqlCache.parse(sql_existsById);
+        final ParsedSql namedInsertWithIdSQL = N.isNullOrEmpty(sql_insertWithId) ? null : ParsedSqlCache.parse(sql_insertWithId);
+        final ParsedSql namedInsertWithoutIdSQL = N.isNullOrEmpty(sql_insertWithoutId) ? null : ParsedSqlCache.parse(sql_insertWithoutId);
+        final ParsedSql namedUpdateByIdSQL = N.isNullOrEmpty(sql_updateById) ? null : ParsedSqlCache.parse(sql_updateById);
+        final ParsedSql namedDeleteByIdSQL = N.isNullOrEmpty(sql_deleteById) ? null : ParsedSqlCache.parse(sql_deleteById);
 
         final ImmutableMap<String, String> propColumnNameMap = ClassUtil.getProp2ColumnNameMap(entityClass, namingPolicy);
 
@@ -1410,6 +1447,9 @@ final class DaoUtil {
                 : (isOneId ? Array.of(propColumnNameMap.get(oneIdPropName))
                         : Stream.of(idPropNameList).map(idName -> propColumnNameMap.get(idName)).toArray(IntFunctions.ofStringArray()));
 
+        final PropInfo[] idPropInfos = isNoId ? null : Stream.of(idPropNameList).map(idName -> entityInfo.getPropInfo(idName)).toArray(PropInfo[]::new);
+        final boolean isRowValueInSupported = !isNoId && !isOneId && RowValueIn.isSupported(dbVersion);
+
         final Tuple3<BiRowMapper<Object>, Function<Object, Object>, BiConsumer<Object, Object>> tp3 = JdbcUtil.getIdGeneratorGetterSetter(daoInterface,
                 entityClass, namingPolicy, idClass);
 
@@ -1483,6 +1523,9 @@ final class DaoUtil {
         final long evictDelay = daoClassCacheAnno == null ? 3000 : daoClassCacheAnno.evictDelay();
 
         final Cache<String, Object> cache = daoCache == null ? CacheFactory.createLocalCache(capacity, evictDelay) : daoCache;
+        final Map<String, AtomicLong> tableVersionPool = daoClassCacheAnno != null && daoClassCacheAnno.refreshByTable()
+                ? tableVersionPools.computeIfAbsent(cache, k -> new ConcurrentHashMap<>())
+                : null;
         final Set<Method> nonDBOperationSet = new HashSet<>();
 
         final Map<String, String> sqlCache = new ConcurrentHashMap<>(0);
@@ -1652,7 +1695,11 @@ final class DaoUtil {
                                     ? namedInsertWithoutIdSQL
                                     : namedInsertWithIdSQL;
 
-                            if (entities.size() <= batchSize) {
+                            final int rowsPerStatement = multiRowInsert ? MultiRowInsert.rowsPerStatement(dbVersion, namedInsertSQL, batchSize, false) : 0;
+
+                            if (rowsPerStatement > 0) {
+                                MultiRowInsert.batchInsert(proxy, namedInsertSQL, null, entities, batchSize, rowsPerStatement, null);
+                            } else if (entities.size() <= batchSize) {
                                 proxy.prepareNamedQuery(namedInsertSQL).addBatchParameters(entities).batchUpdate();
                             } else {
                                 final SQLTransaction tran = JdbcUtil.beginTransaction(proxy.dataSource());
@@ -1695,7 +1742,12 @@ final class DaoUtil {
 
                             final String namedInsertSQL = namedInsertSQLBuilderFunc.apply(propNamesToSave).sql();
 
-                            if (entities.size() <= batchSize) {
+                            final ParsedSql parsedInsertSQL = multiRowInsert ? ParsedSqlCache.parse(namedInsertSQL) : null;
+                            final int rowsPerStatement = multiRowInsert ? MultiRowInsert.rowsPerStatement(dbVersion, parsedInsertSQL, batchSize, false) : 0;
+
+                            if (rowsPerStatement > 0) {
+                                MultiRowInsert.batchInsert(proxy, parsedInsertSQL, null, entities, batchSize, rowsPerStatement, null);
+                            } else if (entities.size() <= batchSize) {
                                 proxy.prepareNamedQuery(namedInsertSQL).addBatchParameters(entities).batchUpdate();
                             } else {
                                 final SQLTransaction tran = JdbcUtil.beginTransaction(proxy.dataSource());
@@ -1733,7 +1785,12 @@ final class DaoUtil {
                                 return 0;
                             }
 
-                            if (entities.size() <= batchSize) {
+                            final ParsedSql parsedInsertSQL = multiRowInsert ? ParsedSqlCache.parse(namedInsertSQL) : null;
+                            final int rowsPerStatement = multiRowInsert ? MultiRowInsert.rowsPerStatement(dbVersion, parsedInsertSQL, batchSize, false) : 0;
+
+                            if (rowsPerStatement > 0) {
+                                MultiRowInsert.batchInsert(proxy, parsedInsertSQL, null, entities, batchSize, rowsPerStatement, null);
+                            } else if (entities.size() <= batchSize) {
                                 proxy.prepareNamedQuery(namedInsertSQL).addBatchParameters(entities).batchUpdate();
                             } else {
                                 final SQLTransaction tran = JdbcUtil.beginTransaction(proxy.dataSource());
@@ -2206,7 +2263,8 @@ final class DaoUtil {
                             throw new UnsupportedOperationException("Unsupported operation: " + m);
                         };
                     }
-                } else if (declaringClass.equals(JdbcUtil.CrudDao.class) || declaringClass.equals(JdbcUtil.UncheckedCrudDao.class)) {
+                } else if (declaringClass.equals(JdbcUtil.CrudDao.class) || declaringClass.equals(JdbcUtil.UncheckedCrudDao.class)
+                        || declaringClass.equals(JdbcUtil.CrudDaoL.class) || declaringClass.equals(JdbcUtil.UncheckedCrudDaoL.class)) {
                     if (methodName.equals("insert") && paramLen == 1) {
                         call = (proxy, args) -> {
                             final Object entity = args[0];
@@ -2217,7 +2275,7 @@ final class DaoUtil {
                                 final Collection<String> propNamesToInsert = SQLBuilder.getInsertPropNames(entity, null);
                                 N.checkArgNotNullOrEmpty(propNamesToInsert, "propNamesToInsert");
 
-                                namedInsertSQL = ParsedSql.parse(namedInsertSQLBuilderFunc.apply(propNamesToInsert).sql());
+                                namedInsertSQL = ParsedSqlCache.parse(namedInsertSQLBuilderFunc.apply(propNamesToInsert).sql());
                             } else {
                                 if (isDefaultIdTester.test(idGetter.apply(entity))) {
                                     namedInsertSQL = namedInsertWithoutIdSQL;
@@ -2290,7 +2348,14 @@ final class DaoUtil {
                             final ParsedSql namedInsertSQL = isDefaultIdPropValue ? namedInsertWithoutIdSQL : namedInsertWithIdSQL;
                             List<Object> ids = null;
 
-                            if (entities.size() <= batchSize) {
+                            final int rowsPerStatement = multiRowInsert
+                                    ? MultiRowInsert.rowsPerStatement(dbVersion, namedInsertSQL, batchSize, N.notNullOrEmpty(returnColumnNames))
+                                    : 0;
+
+                            if (rowsPerStatement > 0) {
+                                ids = MultiRowInsert.batchInsert(proxy, namedInsertSQL, N.isNullOrEmpty(returnColumnNames) ? null : returnColumnNames, entities,
+                                        batchSize, rowsPerStatement, keyExtractor);
+                            } else if (entities.size() <= batchSize) {
                                 ids = proxy.prepareNamedQuery(namedInsertSQL, returnColumnNames).addBatchParameters(entities).batchInsert(keyExtractor);
                             } else {
                                 final SQLTransaction tran = JdbcUtil.beginTransaction(proxy.dataSource());
@@ -2348,7 +2413,7 @@ final class DaoUtil {
                             final Collection<String> propNamesToInsert = (Collection<String>) args[1];
                             N.checkArgNotNullOrEmpty(propNamesToInsert, "propNamesToInsert");
 
-                            final int batchSize = (Integer) args[1];
+                            final int batchSize = (Integer) args[2];
                             N.checkArgPositive(batchSize, "batchSize");
 
                             if (N.isNullOrEmpty(entities)) {
@@ -2358,7 +2423,15 @@ final class DaoUtil {
                             final String namedInsertSQL = namedInsertSQLBuilderFunc.apply(propNamesToInsert).sql();
                             List<Object> ids = null;
 
-                            if (entities.size() <= batchSize) {
+                            final ParsedSql parsedInsertSQL = multiRowInsert ? ParsedSqlCache.parse(namedInsertSQL) : null;
+                            final int rowsPerStatement = multiRowInsert
+                                    ? MultiRowInsert.rowsPerStatement(dbVersion, parsedInsertSQL, batchSize, N.notNullOrEmpty(returnColumnNames))
+                                    : 0;
+
+                            if (rowsPerStatement > 0) {
+                                ids = MultiRowInsert.batchInsert(proxy, parsedInsertSQL, N.isNullOrEmpty(returnColumnNames) ? null : returnColumnNames, entities,
+                                        batchSize, rowsPerStatement, keyExtractor);
+                            } else if (entities.size() <= batchSize) {
                                 ids = proxy.prepareNamedQuery(namedInsertSQL, returnColumnNames).addBatchParameters(entities).batchInsert(keyExtractor);
                             } else {
                                 final SQLTransaction tran = JdbcUtil.beginTransaction(proxy.dataSource());
@@ -2422,7 +2495,15 @@ final class DaoUtil {
 
                             List<Object> ids = null;
 
-                            if (entities.size() <= batchSize) {
+                            final ParsedSql parsedInsertSQL = multiRowInsert ? ParsedSqlCache.parse(namedInsertSQL) : null;
+                            final int rowsPerStatement = multiRowInsert
+                                    ? MultiRowInsert.rowsPerStatement(dbVersion, parsedInsertSQL, batchSize, N.notNullOrEmpty(returnColumnNames))
+                                    : 0;
+
+                            if (rowsPerStatement > 0) {
+                                ids = MultiRowInsert.batchInsert(proxy, parsedInsertSQL, N.isNullOrEmpty(returnColumnNames) ? null : returnColumnNames, entities,
+                                        batchSize, rowsPerStatement, keyExtractor);
+                            } else if (entities.size() <= batchSize) {
                                 ids = proxy.prepareNamedQuery(namedInsertSQL, returnColumnNames).addBatchParameters(entities).batchInsert(keyExtractor);
                             } else {
                                 final SQLTransaction tran = JdbcUtil.beginTransaction(proxy.dataSource());
@@ -2511,10 +2592,28 @@ final class DaoUtil {
                             N.checkArgument(idPropNameList.size() > 1 || !(isEntity || isMap || isEntityId),
                                     "Input 'ids' can not be EntityIds/Maps or entities for single id ");
 
-                            final List idList = ids instanceof List ? (List) ids : new ArrayList(ids);
+                            final List<Object> idList = ids instanceof List ? (List<Object>) ids : new ArrayList<>(ids);
                             final List<T> resultList = new ArrayList<>(idList.size());
 
-                            if (idPropNameList.size() == 1) {
+                            final String arrayTypeName = arrayParameterThreshold > 0 && ids.size() >= arrayParameterThreshold && idPropNameList.size() == 1
+                                    ? ArrayParameters.sqlTypeName(idPropInfo.clazz)
+                                    : null;
+                            final String arrayQuery = arrayTypeName == null ? null
+                                    : ArrayParameters.toArrayCondition(dbVersion, selectSQLBuilderFunc.apply(selectPropNames, idCond).sql());
+
+                            if (arrayQuery != null) {
+                                try (PreparedQuery preparedQuery = proxy.prepareQuery(arrayQuery)
+                                        .setFetchDirection(FetchDirection.FORWARD)
+                                        .setFetchSize(batchSize)
+                                        .closeAfterExecution(false)) {
+                                    for (int i = 0, size = ids.size(); i < size; i += batchSize) {
+                                        final Object[] batchIds = idList.subList(i, N.min(i + batchSize, size)).toArray();
+
+                                        resultList.addAll(preparedQuery.setParameters(stmt -> ArrayParameters.setArray(stmt, 1, arrayTypeName, batchIds))
+                                                .list(entityClass));
+                                    }
+                                }
+                            } else if (idPropNameList.size() == 1) {
                                 String sql_selectPart = selectSQLBuilderFunc.apply(selectPropNames, idCond).sql();
                                 sql_selectPart = sql_selectPart.substring(0, sql_selectPart.lastIndexOf('=')) + "IN ";
 
@@ -2539,9 +2638,11 @@ final class DaoUtil {
 
                                 if (ids.size() % batchSize != 0) {
                                     final int remaining = ids.size() % batchSize;
+                                    // pad the remaining ids to a bucket size to limit the count of distinct statements.
+                                    final int bucketSize = InListBuckets.bucketSize(remaining, batchSize);
                                     final Joiner joiner = Joiner.with(", ", "(", ")").reuseCachedBuffer(true);
 
-                                    for (int i = 0; i < remaining; i++) {
+                                    for (int i = 0; i < bucketSize; i++) {
                                         joiner.append('?');
                                     }
 
@@ -2549,32 +2650,38 @@ final class DaoUtil {
                                     resultList.addAll(proxy.prepareQuery(qery)
                                             .setFetchDirection(FetchDirection.FORWARD)
                                             .setFetchSize(batchSize)
-                                            .setParameters(idList.subList(ids.size() - remaining, ids.size()))
+                                            .setParameters(InListBuckets.pad(idList.subList(ids.size() - remaining, ids.size()), bucketSize))
+                                            .list(entityClass));
+                                }
+                            } else if (isRowValueInSupported) {
+                                final String sql_select = selectSQLBuilderFunc.apply(selectPropNames, idCond).sql();
+
+                                for (int i = 0, size = ids.size(); i < size; i += batchSize) {
+                                    final List<Object> batchIds = idList.subList(i, N.min(i + batchSize, size));
+                                    final int bucketSize = InListBuckets.bucketSize(batchIds.size(), batchSize);
+                                    final List<Object[]> keyValuesList = InListBuckets
+                                            .pad(Stream.of(batchIds).map(id -> RowValueIn.keyValues(id, idPropNameList)).toList(), bucketSize);
+                                    final String qery = RowValueIn.replaceWhere(sql_select, RowValueIn.condition(dbVersion, returnColumnNames, bucketSize));
+
+                                    resultList.addAll(proxy.prepareQuery(qery)
+                                            .setFetchDirection(FetchDirection.FORWARD)
+                                            .setFetchSize(batchSize)
+                                            .setParameters(stmt -> RowValueIn.setParameters(stmt, idPropInfos, keyValuesList))
                                             .list(entityClass));
                                 }
                             } else {
                                 if (ids.size() >= batchSize) {
                                     for (int i = 0, to = ids.size() - batchSize; i <= to; i += batchSize) {
-                                        if (isEntityId) {
-                                            resultList.addAll(proxy.list(CF.id2Cond(idList.subList(i, i + batchSize))));
-                                        } else if (isMap) {
-                                            resultList.addAll(proxy.list(CF.eqAndOr(idList.subList(i, i + batchSize))));
-                                        } else {
-                                            resultList.addAll(proxy.list(CF.eqAndOr(idList.subList(i, i + batchSize), idPropNameList)));
-                                        }
+                                        resultList.addAll(proxy.list(idsCond(idList.subList(i, i + batchSize), isEntityId, isMap, idPropNameList)));
                                     }
                                 }
 
                                 if (ids.size() % batchSize != 0) {
                                     final int remaining = ids.size() % batchSize;
+                                    final List<Object> remainingIds = InListBuckets.pad(idList.subList(ids.size() - remaining, ids.size()),
+                                            InListBuckets.bucketSize(remaining, batchSize));
 
-                                    if (isEntityId) {
-                                        resultList.addAll(proxy.list(CF.id2Cond(idList.subList(idList.size() - remaining, ids.size()))));
-                                    } else if (isMap) {
-                                        resultList.addAll(proxy.list(CF.eqAndOr(idList.subList(ids.size() - remaining, ids.size()))));
-                                    } else {
-                                        resultList.addAll(proxy.list(CF.eqAndOr(idList.subList(ids.size() - remaining, ids.size()), idPropNameList)));
-                                    }
+                                    resultList.addAll(proxy.list(idsCond(remainingIds, isEntityId, isMap, idPropNameList)));
                                 }
                             }
 
@@ -2753,6 +2860,38 @@ final class DaoUtil {
                         //            return N.toIntExact(result);
                         //        }
                         //    };
+                    } else if (methodName.equals("batchDeleteByIds") && paramLen == 2 && long[].class.equals(paramTypes[0])
+                            && int.class.equals(paramTypes[1])) {
+                        call = (proxy, args) -> {
+                            final long[] ids = (long[]) args[0];
+                            final int batchSize = (Integer) args[1];
+                            N.checkArgPositive(batchSize, "batchSize");
+
+                            if (N.isNullOrEmpty(ids)) {
+                                return 0;
+                            }
+
+                            if (ids.length <= batchSize) {
+                                return N.sum(proxy.prepareNamedQuery(namedDeleteByIdSQL).addBatchParameters(ids).batchUpdate());
+                            } else {
+                                final SQLTransaction tran = JdbcUtil.beginTransaction(proxy.dataSource());
+                                long result = 0;
+
+                                try {
+                                    try (NamedQuery nameQuery = proxy.prepareNamedQuery(namedDeleteByIdSQL).closeAfterExecution(false)) {
+                                        for (int from = 0, len = ids.length; from < len; from += batchSize) {
+                                            result += N.sum(nameQuery.addBatchParameters(ids, from, Math.min(from + batchSize, len)).batchUpdate());
+                                        }
+                                    }
+
+                                    tran.commit();
+                                } finally {
+                                    tran.rollbackIfNotCommitted();
+                                }
+
+                                return N.toIntExact(result);
+                            }
+                        };
                     } else if ((methodName.equals("batchDelete") || methodName.equals("batchDeleteByIds")) && paramLen == 2
                             && int.class.equals(paramTypes[1])) {
 
@@ -2768,7 +2907,38 @@ final class DaoUtil {
                                 return 0;
                             }
 
-                            if (idsOrEntities.size() <= batchSize) {
+                            if (isRowValueInSupported) {
+                                // delete by composite ids with one statement for each batch: (a, b) IN ((?, ?), (?, ?), ...)
+                                final String sql_delete = namedDeleteByIdSQL.sql();
+                                final List<Object[]> keyValuesList = Stream.of(idsOrEntities).map(it -> RowValueIn.keyValues(it, idPropNameList)).toList();
+                                final int size = keyValuesList.size();
+                                final SQLTransaction tran = size <= batchSize ? null : JdbcUtil.beginTransaction(proxy.dataSource());
+                                long result = 0;
+
+                                try {
+                                    for (int i = 0; i < size; i += batchSize) {
+                                        final List<Object[]> batchKeyValuesList = keyValuesList.subList(i, N.min(i + batchSize, size));
+                                        final int bucketSize = InListBuckets.bucketSize(batchKeyValuesList.size(), batchSize);
+                                        final List<Object[]> paddedKeyValuesList = InListBuckets.pad(batchKeyValuesList, bucketSize);
+                                        final String query = RowValueIn.replaceWhere(sql_delete,
+                                                RowValueIn.condition(dbVersion, returnColumnNames, bucketSize));
+
+                                        result += proxy.prepareQuery(query)
+                                                .setParameters(stmt -> RowValueIn.setParameters(stmt, idPropInfos, paddedKeyValuesList))
+                                                .update();
+                                    }
+
+                                    if (tran != null) {
+                                        tran.commit();
+                                    }
+                                } finally {
+                                    if (tran != null) {
+                                        tran.rollbackIfNotCommitted();
+                                    }
+                                }
+
+                                return N.toIntExact(result);
+                            } else if (idsOrEntities.size() <= batchSize) {
                                 return N.sum(proxy.prepareNamedQuery(namedDeleteByIdSQL).addBatchParameters(idsOrEntities, paramSetter).batchUpdate());
                             } else {
                                 final SQLTransaction tran = JdbcUtil.beginTransaction(proxy.dataSource());
@@ -2867,14 +3037,14 @@ final class DaoUtil {
                                 final List<?> propEntities = preparedQuery.list(propJoinInfo.referencedEntityClass);
 
                                 if (propJoinInfo.joinPropInfo.clazz.isAssignableFrom(propEntities.getClass())) {
-                                    propJoinInfo.joinPropInfo.setPropValue(entity, propEntities);
+                                    propJoinInfo.joinPropAccessor.setPropValue(entity, propEntities);
                                 } else {
                                     final Collection<Object> c = (Collection) N.newInstance(propJoinInfo.joinPropInfo.clazz);
                                     c.addAll(propEntities);
-                                    propJoinInfo.joinPropInfo.setPropValue(entity, c);
+                                    propJoinInfo.joinPropAccessor.setPropValue(entity, c);
                                 }
                             } else {
-                                propJoinInfo.joinPropInfo.setPropValue(entity, preparedQuery.findFirst(propJoinInfo.referencedEntityClass).orNull());
+                                propJoinInfo.joinPropAccessor.setPropValue(entity, preparedQuery.findFirst(propJoinInfo.referencedEntityClass).orNull());
                             }
 
                             if (isDirtyMarker) {
@@ -2904,14 +3074,14 @@ final class DaoUtil {
                                     final List<?> propEntities = preparedQuery.list(propJoinInfo.referencedEntityClass);
 
                                     if (propJoinInfo.joinPropInfo.clazz.isAssignableFrom(propEntities.getClass())) {
-                                        propJoinInfo.joinPropInfo.setPropValue(entity, propEntities);
+                                        propJoinInfo.joinPropAccessor.setPropValue(entity, propEntities);
                                     } else {
                                         final Collection<Object> c = (Collection) N.newInstance(propJoinInfo.joinPropInfo.clazz);
                                         c.addAll(propEntities);
-                                        propJoinInfo.joinPropInfo.setPropValue(entity, c);
+                                        propJoinInfo.joinPropAccessor.setPropValue(entity, c);
                                     }
                                 } else {
-                                    propJoinInfo.joinPropInfo.setPropValue(entity, preparedQuery.findFirst(propJoinInfo.referencedEntityClass).orNull());
+                                    propJoinInfo.joinPropAccessor.setPropValue(entity, preparedQuery.findFirst(propJoinInfo.referencedEntityClass).orNull());
                                 }
 
                                 if (isDirtyMarker) {
@@ -2921,18 +3091,42 @@ final class DaoUtil {
                                 final Tuple2<BiFunction<Collection<String>, Integer, String>, JdbcUtil.BiParametersSetter<PreparedStatement, Collection<?>>> tp = propJoinInfo
                                         .getSelectSQLBuilderAndParamSetterForBatch(sbc);
 
+                                final String arrayTypeName = arrayParameterThreshold > 0 && entities.size() >= arrayParameterThreshold
+                                        && propJoinInfo.srcPropInfos.length == 1 ? ArrayParameters.sqlTypeName(propJoinInfo.srcPropInfos[0].clazz) : null;
+                                final String arrayQuery = arrayTypeName == null ? null
+                                        : ArrayParameters.toArrayCondition(dbVersion, tp._1.apply(selectPropNames, 1));
+
+                                final String query;
+                                final JdbcUtil.ParametersSetter<PreparedStatement> paramSetter;
+
+                                if (arrayQuery != null) {
+                                    final Object[] keys = Stream.of(entities).map(propJoinInfo.srcEntityKeyExtractor).distinct().toArray();
+
+                                    query = arrayQuery;
+                                    paramSetter = stmt -> ArrayParameters.setArray(stmt, 1, arrayTypeName, keys);
+                                } else {
+                                    // pad the entities to a bucket size to limit the count of distinct statements, within the limit of parameters.
+                                    final int bucketSize = InListBuckets.bucketSize(entities.size(),
+                                            InListBuckets.MAX_PARAMETER_COUNT / propJoinInfo.srcPropInfos.length);
+                                    final List<Object> paddedEntities = InListBuckets
+                                            .pad(entities instanceof List ? (List<Object>) entities : new ArrayList<>(entities), bucketSize);
+
+                                    query = tp._1.apply(selectPropNames, bucketSize);
+                                    paramSetter = stmt -> tp._2.accept(stmt, paddedEntities);
+                                }
+
                                 if (propJoinInfo.isManyToManyJoin()) {
                                     final BiRowMapper<Object> biRowMapper = BiRowMapper.to(propJoinInfo.referencedEntityClass, true);
                                     final BiRowMapper<Pair<Object, Object>> pairBiRowMapper = (rs, cls) -> Pair.of(rs.getObject(1), biRowMapper.apply(rs, cls));
 
-                                    final List<Pair<Object, Object>> joinPropEntities = proxy.prepareQuery(tp._1.apply(selectPropNames, entities.size()))
-                                            .setParameters(entities, tp._2)
+                                    final List<Pair<Object, Object>> joinPropEntities = proxy.prepareQuery(query)
+                                            .setParameters(paramSetter)
                                             .list(pairBiRowMapper);
 
                                     propJoinInfo.setJoinPropEntities(entities, Stream.of(joinPropEntities).groupTo(it -> it.left, it -> it.right));
                                 } else {
-                                    final List<?> joinPropEntities = proxy.prepareQuery(tp._1.apply(selectPropNames, entities.size()))
-                                            .setParameters(entities, tp._2)
+                                    final List<?> joinPropEntities = proxy.prepareQuery(query)
+                                            .setParameters(paramSetter)
                                             .list(propJoinInfo.referencedEntityClass);
 
                                     propJoinInfo.setJoinPropEntities(entities, joinPropEntities);
@@ -3162,7 +3356,10 @@ final class DaoUtil {
                         //    }
                     }
 
-                    final ParsedSql namedSql = isNamedQuery && defineParamLen == 0 ? ParsedSql.parse(query) : null;
+                    final DefineTemplate defineTemplate = defineParamLen == 0 ? null
+                            : DefineTemplate.compile(query, defines, defineParamIndexes, fullClassMethodName);
+
+                    final ParsedSql namedSql = isNamedQuery && defineParamLen == 0 ? ParsedSqlCache.parse(query) : null;
 
                     final JdbcUtil.BiParametersSetter<AbstractPreparedQuery, Object[]> parametersSetter = createParametersSetter(m, fullClassMethodName,
                             paramTypes, paramLen, isBatch, isSingleParameter, isCall, isNamedQuery, namedSql, stmtParamLen, stmtParamIndexes, stmtParamLen);
@@ -3208,7 +3405,7 @@ final class DaoUtil {
                         final int finalFetchSize = tmpFetchSize;
 
                         call = (proxy, args) -> {
-                            Object result = queryFunc.apply(prepareQuery(proxy, m, args, defineParamIndexes, defines, isNamedQuery, query, namedSql, isBatch,
+                            Object result = queryFunc.apply(prepareQuery(proxy, m, args, defineTemplate, isNamedQuery, query, namedSql, isBatch,
                                     -1, finalFetchSize, FetchDirection.FORWARD, queryTimeout, returnGeneratedKeys, returnColumnNames, isCall, outParameterList)
                                             .settParameters(args, parametersSetter),
                                     args);
@@ -3244,7 +3441,7 @@ final class DaoUtil {
                                         && ClassUtil.isEntity(args[stmtParamIndexes[0]].getClass());
                                 final Object entity = isEntity ? args[stmtParamIndexes[0]] : null;
 
-                                final Optional<Object> id = prepareQuery(proxy, m, args, defineParamIndexes, defines, isNamedQuery, query, namedSql, isBatch,
+                                final Optional<Object> id = prepareQuery(proxy, m, args, defineTemplate, isNamedQuery, query, namedSql, isBatch,
                                         -1, fetchSize, null, queryTimeout, returnGeneratedKeys, returnColumnNames, isCall, outParameterList)
                                                 .settParameters(args, parametersSetter)
                                                 .insert(keyExtractor);
@@ -3287,11 +3484,11 @@ final class DaoUtil {
                                     AbstractPreparedQuery preparedQuery = null;
 
                                     if (isSingleParameter) {
-                                        preparedQuery = prepareQuery(proxy, m, args, defineParamIndexes, defines, isNamedQuery, query, namedSql, isBatch,
+                                        preparedQuery = prepareQuery(proxy, m, args, defineTemplate, isNamedQuery, query, namedSql, isBatch,
                                                 batchSize, fetchSize, null, queryTimeout, returnGeneratedKeys, returnColumnNames, isCall, outParameterList)
                                                         .addBatchParameters(batchParameters, ColumnOne.SET_OBJECT);
                                     } else {
-                                        preparedQuery = prepareQuery(proxy, m, args, defineParamIndexes, defines, isNamedQuery, query, namedSql, isBatch,
+                                        preparedQuery = prepareQuery(proxy, m, args, defineTemplate, isNamedQuery, query, namedSql, isBatch,
                                                 batchSize, fetchSize, null, queryTimeout, returnGeneratedKeys, returnColumnNames, isCall, outParameterList)
                                                         .addBatchParameters(batchParameters);
                                     }
@@ -3301,7 +3498,7 @@ final class DaoUtil {
                                     final SQLTransaction tran = JdbcUtil.beginTransaction(proxy.dataSource());
 
                                     try {
-                                        try (AbstractPreparedQuery preparedQuery = prepareQuery(proxy, m, args, defineParamIndexes, defines, isNamedQuery,
+                                        try (AbstractPreparedQuery preparedQuery = prepareQuery(proxy, m, args, defineTemplate, isNamedQuery,
                                                 query, namedSql, isBatch, batchSize, fetchSize, null, queryTimeout, returnGeneratedKeys, returnColumnNames,
                                                 isCall, outParameterList).closeAfterExecution(false)) {
 
@@ -3383,7 +3580,7 @@ final class DaoUtil {
                                     && DirtyMarker.class.isAssignableFrom(paramTypes[stmtParamIndexes[0]]);
 
                             call = (proxy, args) -> {
-                                final AbstractPreparedQuery preparedQuery = prepareQuery(proxy, m, args, defineParamIndexes, defines, isNamedQuery, query,
+                                final AbstractPreparedQuery preparedQuery = prepareQuery(proxy, m, args, defineTemplate, isNamedQuery, query,
                                         namedSql, isBatch, -1, fetchSize, null, queryTimeout, returnGeneratedKeys, returnColumnNames, isCall, outParameterList)
                                                 .settParameters(args, parametersSetter);
 
@@ -3423,11 +3620,11 @@ final class DaoUtil {
                                     AbstractPreparedQuery preparedQuery = null;
 
                                     if (isSingleParameter) {
-                                        preparedQuery = prepareQuery(proxy, m, args, defineParamIndexes, defines, isNamedQuery, query, namedSql, isBatch,
+                                        preparedQuery = prepareQuery(proxy, m, args, defineTemplate, isNamedQuery, query, namedSql, isBatch,
                                                 batchSize, fetchSize, null, queryTimeout, returnGeneratedKeys, returnColumnNames, isCall, outParameterList)
                                                         .addBatchParameters(batchParameters, ColumnOne.SET_OBJECT);
                                     } else {
-                                        preparedQuery = prepareQuery(proxy, m, args, defineParamIndexes, defines, isNamedQuery, query, namedSql, isBatch,
+                                        preparedQuery = prepareQuery(proxy, m, args, defineTemplate, isNamedQuery, query, namedSql, isBatch,
                                                 batchSize, fetchSize, null, queryTimeout, returnGeneratedKeys, returnColumnNames, isCall, outParameterList)
                                                         .addBatchParameters(batchParameters);
                                     }
@@ -3441,7 +3638,7 @@ final class DaoUtil {
                                     final SQLTransaction tran = JdbcUtil.beginTransaction(proxy.dataSource());
 
                                     try {
-                                        try (AbstractPreparedQuery preparedQuery = prepareQuery(proxy, m, args, defineParamIndexes, defines, isNamedQuery,
+                                        try (AbstractPreparedQuery preparedQuery = prepareQuery(proxy, m, args, defineTemplate, isNamedQuery,
                                                 query, namedSql, isBatch, batchSize, fetchSize, null, queryTimeout, returnGeneratedKeys, returnColumnNames,
                                                 isCall, outParameterList).closeAfterExecution(false)) {
 
@@ -3753,6 +3950,12 @@ final class DaoUtil {
                                 ? daoClassRefreshCacheAnno
                                 : null);
 
+                final Annotation sqlAnno = StreamEx.of(m.getAnnotations()).filter(anno -> sqlAnnoMap.containsKey(anno.annotationType())).first().orNull();
+
+                final ImmutableSet<String> tableNames = tableVersionPool == null
+                        || ((cacheResultAnno == null || cacheResultAnno.disabled()) && (refreshResultAnno == null || refreshResultAnno.disabled())) ? null
+                                : getTableNames(m, sqlAnno, sqlMapper);
+
                 if (cacheResultAnno != null && cacheResultAnno.disabled() == false) {
                     if (daoLogger.isDebugEnabled()) {
                         daoLogger.debug("Add CacheResult method: " + m);
@@ -3782,8 +3985,14 @@ final class DaoUtil {
 
                     final Throwables.BiFunction<JdbcUtil.Dao, Object[], ?, Throwable> temp = call;
 
+                    // The versions of the queried tables are appended to the cache key if the cache is refreshed by table.
+                    // Results cached before the tables are updated won't be hit anymore.
+                    final String[] versionKeys = tableVersionPool == null ? null
+                            : (tableNames == null ? new String[] { ANY_TABLE } : tableNames.toArray(new String[tableNames.size()]));
+
                     call = (proxy, args) -> {
-                        final String cachekey = createCacheKey(m, fullClassMethodName, args, daoLogger);
+                        final String cachekey = versionKeys == null ? createCacheKey(m, fullClassMethodName, args, daoLogger)
+                                : appendTableVersions(createCacheKey(m, fullClassMethodName, args, daoLogger), versionKeys, tableVersionPool);
 
                         Object result = N.isNullOrEmpty(cachekey) ? null : cache.gett(cachekey);
 
@@ -3823,12 +4032,28 @@ final class DaoUtil {
                     }
 
                     final Throwables.BiFunction<JdbcUtil.Dao, Object[], ?, Throwable> temp = call;
+                    final boolean isMethodAnno = StreamEx.of(m.getAnnotations()).anyMatch(anno -> anno.annotationType().equals(Dao.RefreshCache.class));
 
-                    call = (proxy, args) -> {
-                        cache.clear();
+                    if (tableVersionPool == null || tableNames == null) {
+                        call = (proxy, args) -> {
+                            cache.clear();
 
-                        return temp.apply(proxy, args);
-                    };
+                            return temp.apply(proxy, args);
+                        };
+                    } else if (tableNames.isEmpty() || (isMethodAnno == false && sqlAnno != null && getSQLDescriptor(sqlAnno, sqlMapper).isReadOnly())) {
+                        // no table is updated by the method.
+                    } else {
+                        call = (proxy, args) -> {
+                            for (String tableName : tableNames) {
+                                tableVersionPool.computeIfAbsent(tableName, k -> new AtomicLong()).incrementAndGet();
+                            }
+
+                            // for the cached results by the methods whose tables are unknown.
+                            tableVersionPool.computeIfAbsent(ANY_TABLE, k -> new AtomicLong()).incrementAndGet();
+
+                            return temp.apply(proxy, args);
+                        };
+                    }
 
                     hasRefreshCache.setTrue();
                 }
@@ -3929,6 +4154,203 @@ final class DaoUtil {
 
     }
 
+    private static final String ANY_TABLE = "*";
+
+    /**
+     * The table versions of the caches refreshed by table ({@code Dao.Cache.refreshByTable}). They're kept by cache, not by Dao,
+     * so the results cached in a {@code daoCache} shared by multiple Daos in the JVM are refreshed by the updates from any of the Daos.
+     * Weak keys: the versions are released with the cache.
+     */
+    private static final Map<Cache<String, Object>, Map<String, AtomicLong>> tableVersionPools = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Gets the names of the tables referenced by the sql annotated to the specified method.
+     *
+     * @param m
+     * @param sqlAnno
+     * @param sqlMapper
+     * @return {@code null} if the tables are unknown: the method is not annotated by sql or the sql is partly defined by {@code @Define}.
+     */
+    private static ImmutableSet<String> getTableNames(final Method m, final Annotation sqlAnno, final SQLMapper sqlMapper) {
+        if (sqlAnno == null || StreamEx.of(m.getParameterAnnotations()).flatMapp(Fn.identity()).anyMatch(it -> it.annotationType().equals(Dao.Define.class))) {
+            return null;
+        }
+
+        return getSQLDescriptor(sqlAnno, sqlMapper).tableNames();
+    }
+
+    private static SQLDescriptor getSQLDescriptor(final Annotation sqlAnno, final SQLMapper sqlMapper) {
+        return SQLDescriptor.of(sqlAnnoMap.get(sqlAnno.annotationType()).apply(sqlAnno, sqlMapper).sql);
+    }
+
+    private static String appendTableVersions(final String cacheKey, final String[] versionKeys, final Map<String, AtomicLong> tableVersionPool) {
+        if (N.isNullOrEmpty(cacheKey)) {
+            return cacheKey;
+        }
+
+        final StringBuilder sb = Objectory.createStringBuilder();
+
+        try {
+            sb.append(cacheKey);
+
+            for (String versionKey : versionKeys) {
+                final AtomicLong version = tableVersionPool.get(versionKey);
+                sb.append('#').append(version == null ? 0 : version.get());
+            }
+
+            return sb.toString();
+        } finally {
+            Objectory.recycle(sb);
+        }
+    }
+
+    /**
+     * The sql annotated to a Dao method, compiled into literal parts and the slots for the parts defined by {@code @Define}.
+     * The sql built for each tuple of define values is cached.
+     */
+    static final class DefineTemplate {
+        private static final int MAX_CACHED_SQL_COUNT = 256;
+
+        private final String[] literals;
+        private final int[] slotParamIndexes;
+        private final int literalLength;
+
+        @SuppressWarnings("serial")
+        private final Map<Object, ParsedSql> parsedSqlPool = new java.util.LinkedHashMap<Object, ParsedSql>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, ParsedSql> eldest) {
+                return size() > MAX_CACHED_SQL_COUNT;
+            }
+        };
+
+        private DefineTemplate(final String[] literals, final int[] slotParamIndexes) {
+            this.literals = literals;
+            this.slotParamIndexes = slotParamIndexes;
+
+            int len = 0;
+
+            for (String literal : literals) {
+                len += literal.length();
+            }
+
+            this.literalLength = len;
+        }
+
+        /**
+         *
+         * @param query
+         * @param defines the parts to be replaced, for example: {@code {tableName}}.
+         * @param defineParamIndexes the indexes of the method parameters annotated by {@code @Define}.
+         * @param fullClassMethodName
+         * @return
+         * @throws IllegalArgumentException if any of the specified {@code defines} is not found or they're overlapped in the {@code query}.
+         */
+        static DefineTemplate compile(final String query, final String[] defines, final int[] defineParamIndexes, final String fullClassMethodName) {
+            final List<int[]> slots = new ArrayList<>(); // [start, end, paramIndex]
+
+            for (int i = 0, len = defines.length; i < len; i++) {
+                int idx = query.indexOf(defines[i]);
+
+                if (idx < 0) {
+                    throw new IllegalArgumentException(
+                            "Define: " + defines[i] + " is not found in the sql: \"" + query + "\" annotated to method: " + fullClassMethodName);
+                }
+
+                while (idx >= 0) {
+                    slots.add(new int[] { idx, idx + defines[i].length(), defineParamIndexes[i] });
+                    idx = query.indexOf(defines[i], idx + defines[i].length());
+                }
+            }
+
+            N.sort(slots, (a, b) -> Integer.compare(a[0], b[0]));
+
+            final int slotCount = slots.size();
+            final String[] literals = new String[slotCount + 1];
+            final int[] slotParamIndexes = new int[slotCount];
+            int from = 0;
+
+            for (int i = 0; i < slotCount; i++) {
+                final int[] slot = slots.get(i);
+
+                if (slot[0] < from) {
+                    throw new IllegalArgumentException("Overlapped defines: " + N.toString(defines) + " in the sql: \"" + query
+                            + "\" annotated to method: " + fullClassMethodName);
+                }
+
+                literals[i] = query.substring(from, slot[0]);
+                slotParamIndexes[i] = slot[2];
+                from = slot[1];
+            }
+
+            literals[slotCount] = query.substring(from);
+
+            return new DefineTemplate(literals, slotParamIndexes);
+        }
+
+        /**
+         * Build the sql by replacing the defined parts with the values in the specified method arguments.
+         *
+         * @param args
+         * @return
+         */
+        ParsedSql apply(final Object[] args) {
+            final int slotCount = slotParamIndexes.length;
+            final Object key;
+
+            if (slotCount == 1) {
+                key = N.stringOf(args[slotParamIndexes[0]]);
+            } else {
+                final String[] values = new String[slotCount];
+
+                for (int i = 0; i < slotCount; i++) {
+                    values[i] = N.stringOf(args[slotParamIndexes[i]]);
+                }
+
+                key = java.util.Arrays.asList(values);
+            }
+
+            ParsedSql parsedSql = null;
+
+            synchronized (parsedSqlPool) {
+                parsedSql = parsedSqlPool.get(key);
+            }
+
+            if (parsedSql == null) {
+                parsedSql = ParsedSqlCache.parse(build(key));
+
+                synchronized (parsedSqlPool) {
+                    parsedSqlPool.put(key, parsedSql);
+                }
+            }
+
+            return parsedSql;
+        }
+
+        private String build(final Object key) {
+            final int slotCount = slotParamIndexes.length;
+            final StringBuilder sb = Objectory.createStringBuilder();
+
+            try {
+                if (slotCount == 1) {
+                    sb.ensureCapacity(literalLength + ((String) key).length());
+                    sb.append(literals[0]).append((String) key).append(literals[1]);
+                } else {
+                    final List<?> values = (List<?>) key;
+
+                    sb.append(literals[0]);
+
+                    for (int i = 0; i < slotCount; i++) {
+                        sb.append(values.get(i)).append(literals[i + 1]);
+                    }
+                }
+
+                return sb.toString();
+            } finally {
+                Objectory.recycle(sb);
+            }
+        }
+    }
+
     static final class QueryInfo {
 
         final String sql;
@@ -0,0 +1,162 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A deadline of the sqls executed in current thread.
+ * <br />
+ * While it's active, the query timeout of each statement executed by {@code JdbcUtil/PreparedQuery/NamedQuery/PreparedCallableQuery/Dao}
+ * is set to the remaining time (rounded up to seconds, the unit of {@code Statement#setQueryTimeout}) if it's smaller than the query timeout already set.
+ * Once the deadline is passed, a {@code SQLTimeoutException} is thrown before borrowing {@code Connection} from {@code DataSource} or executing statement.
+ *
+ * <br />
+ * Deadlines can be nested. The inner one never extends the outer one.
+ *
+ * <pre>
+ * <code>
+ * try (Deadline deadline = Deadline.start(300)) {
+ *     userDao.loadAllJoinEntities(user);
+ *     ...
+ * }
+ * </code>
+ * </pre>
+ *
+ * @author Haiyang Li
+ */
+public final class Deadline implements AutoCloseable {
+
+    private static final ThreadLocal<Deadline> current_TL = new ThreadLocal<>();
+
+    /** Not far enough to overflow the difference with {@code System.nanoTime()}. */
+    private static final long MAX_TIMEOUT_IN_NANOS = Long.MAX_VALUE / 2;
+
+    /** By {@code System.nanoTime()}, which is not changed by the adjustment of system clock. */
+    private final long deadlineNanos;
+
+    private final Deadline outer;
+
+    private final Thread thread;
+
+    private boolean isClosed = false;
+
+    private Deadline(final long deadlineNanos, final Deadline outer) {
+        this.deadlineNanos = deadlineNanos;
+        this.outer = outer;
+        this.thread = Thread.currentThread();
+    }
+
+    /**
+     * Start a deadline in current thread. It must be closed in the same thread.
+     *
+     * @param timeoutInMillis
+     * @return
+     */
+    public static Deadline start(final long timeoutInMillis) {
+        N.checkArgNotNegative(timeoutInMillis, "timeoutInMillis");
+
+        final Deadline outer = current_TL.get();
+        final long timeoutInNanos = timeoutInMillis >= MAX_TIMEOUT_IN_NANOS / 1000000 ? MAX_TIMEOUT_IN_NANOS : timeoutInMillis * 1000000;
+        final long deadlineNanos = System.nanoTime() + timeoutInNanos;
+        final Deadline deadline = new Deadline(outer == null || deadlineNanos - outer.deadlineNanos < 0 ? deadlineNanos : outer.deadlineNanos, outer);
+
+        current_TL.set(deadline);
+
+        return deadline;
+    }
+
+    /**
+     *
+     * @return the active deadline in current thread, or {@code null} if there is no active deadline.
+     */
+    public static Deadline current() {
+        return current_TL.get();
+    }
+
+    /**
+     *
+     * @return the current time in milliseconds plus the remaining time.
+     */
+    public long deadlineTime() {
+        return System.currentTimeMillis() + remainingMillis();
+    }
+
+    /**
+     *
+     * @return the remaining time in milliseconds. It can be zero or negative if the deadline is passed.
+     */
+    public long remainingMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(remainingNanos());
+    }
+
+    /**
+     *
+     * @return the remaining time in nanoseconds. It can be zero or negative if the deadline is passed.
+     */
+    long remainingNanos() {
+        return deadlineNanos - System.nanoTime();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     *
+     * @throws SQLTimeoutException if the deadline is passed.
+     */
+    public void checkNotExpired() throws SQLTimeoutException {
+        final long remainingNanos = remainingNanos();
+
+        if (remainingNanos <= 0) {
+            throw expired(remainingNanos);
+        }
+    }
+
+    static SQLTimeoutException expired(final long remainingNanos) {
+        return new SQLTimeoutException("The deadline is passed by " + TimeUnit.NANOSECONDS.toMillis(-remainingNanos) + " milliseconds");
+    }
+
+    /**
+     * Restore the outer deadline, if any, in current thread.
+     */
+    @Override
+    public void close() {
+        if (isClosed) {
+            return;
+        }
+
+        if (Thread.currentThread() != thread) {
+            throw new IllegalStateException("Deadline must be closed in the thread where it's started");
+        }
+
+        isClosed = true;
+
+        if (outer == null) {
+            current_TL.remove();
+        } else {
+            current_TL.set(outer);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "{remainingMillis=" + remainingMillis() + "}";
+    }
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.landawn.abacus.parser.ParserUtil;
+import com.landawn.abacus.parser.ParserUtil.EntityInfo;
+import com.landawn.abacus.parser.ParserUtil.PropInfo;
+
+/**
+ * The {@code PropAccessor}s of an entity class resolved by the named parameters of a sql, in the order of the parameters.
+ * It's compiled once for each pair of {@code ParsedSql} and entity class and cached,
+ * so binding an entity to a statement doesn't look up properties by name, call the properties by reflection or box primitive property values.
+ *
+ * @author Haiyang Li
+ */
+final class EntityParameterBinder {
+
+    /**
+     * The max count of sqls cached for one entity class. The binders for the sqls after it's reached are compiled for each call.
+     */
+    static final int MAX_SQL_COUNT_PER_CLASS = 1024;
+
+    private static final Map<Class<?>, Map<ParsedSql, EntityParameterBinder>> binderPool = new ConcurrentHashMap<>();
+
+    private final PropAccessor[] propAccessors;
+
+    /**
+     * The name of the first parameter which is not a property of the entity class, or {@code null} if all the parameters are resolved.
+     */
+    private final String missedParameterName;
+
+    private EntityParameterBinder(final ParsedSql parsedSql, final Class<?> entityClass) {
+        final EntityInfo entityInfo = ParserUtil.getEntityInfo(entityClass);
+        final List<String> parameterNames = parsedSql.getNamedParameters();
+        final int parameterCount = parsedSql.getParameterCount();
+
+        final PropInfo[] propInfos = new PropInfo[parameterCount];
+        String missedParameterName = null;
+
+        for (int i = 0; i < parameterCount; i++) {
+            propInfos[i] = entityInfo.getPropInfo(parameterNames.get(i));
+
+            if (propInfos[i] == null && missedParameterName == null) {
+                missedParameterName = parameterNames.get(i);
+            }
+        }
+
+        this.propAccessors = PropAccessor.of(entityClass, propInfos);
+        this.missedParameterName = missedParameterName;
+    }
+
+    /**
+     *
+     * @param parsedSql
+     * @param entityClass
+     * @return
+     */
+    static EntityParameterBinder of(final ParsedSql parsedSql, final Class<?> entityClass) {
+        Map<ParsedSql, EntityParameterBinder> binders = binderPool.get(entityClass);
+
+        if (binders == null) {
+            binders = binderPool.computeIfAbsent(entityClass, k -> new ConcurrentHashMap<>());
+        }
+
+        EntityParameterBinder binder = binders.get(parsedSql);
+
+        if (binder == null) {
+            binder = new EntityParameterBinder(parsedSql, entityClass);
+
+            if (binders.size() < MAX_SQL_COUNT_PER_CLASS) {
+                binders.put(parsedSql, binder);
+            }
+        }
+
+        return binder;
+    }
+
+    /**
+     * The resolved {@code PropAccessor}s by parameter index (starting from 0). The element is {@code null} if the parameter is not a property of the entity class.
+     *
+     * @return
+     */
+    PropAccessor[] propAccessors() {
+        return propAccessors;
+    }
+
+    /**
+     * Set the values of the resolved properties to the specified statement. The parameters which are not properties of the entity class are skipped.
+     *
+     * @param stmt
+     * @param entity
+     * @throws SQLException the SQL exception
+     */
+    void bind(final PreparedStatement stmt, final Object entity) throws SQLException {
+        bind(stmt, 0, entity);
+    }
+
+    private void bind(final PreparedStatement stmt, final int parameterOffset, final Object entity) throws SQLException {
+        final PropAccessor[] propAccessors = this.propAccessors;
+        PropAccessor propAccessor = null;
+
+        for (int i = 0, len = propAccessors.length; i < len; i++) {
+            propAccessor = propAccessors[i];
+
+            if (propAccessor != null) {
+                propAccessor.setParameter(stmt, parameterOffset + i + 1, entity);
+            }
+        }
+    }
+
+    /**
+     * Set the values of the properties to the specified statement.
+     *
+     * @param stmt
+     * @param entity
+     * @throws IllegalArgumentException if any parameter is not a property of the entity class.
+     * @throws SQLException the SQL exception
+     */
+    void bindAll(final PreparedStatement stmt, final Object entity) throws IllegalArgumentException, SQLException {
+        bindAll(stmt, 0, entity);
+    }
+
+    /**
+     * Set the values of the properties to the specified statement, from the parameter at index {@code parameterOffset + 1}.
+     * It's used to bind the entities to the rows of a multi-row statement.
+     *
+     * @param stmt
+     * @param parameterOffset
+     * @param entity
+     * @throws IllegalArgumentException if any parameter is not a property of the entity class.
+     * @throws SQLException the SQL exception
+     */
+    void bindAll(final PreparedStatement stmt, final int parameterOffset, final Object entity) throws IllegalArgumentException, SQLException {
+        if (missedParameterName != null) {
+            throw new IllegalArgumentException("Parameter for property '" + missedParameterName + "' is missed");
+        }
+
+        bind(stmt, parameterOffset, entity);
+    }
+}
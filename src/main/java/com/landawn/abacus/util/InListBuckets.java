@@ -0,0 +1,121 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * The sizes the parameter lists of batch queries ({@code IN (?, ?, ...)} or {@code a = ? OR a = ? ...}) are padded to.
+ * A list is padded to the next power of two by repeating its last value, so a batch query only has a small set of shapes
+ * and its statements can be reused by the statement cache of the driver/pool and the plan cache of the database server.
+ * <br />
+ * Repeating a value in an {@code IN} list or {@code OR} conditions doesn't change the result of the query.
+ *
+ * @author Haiyang Li
+ */
+final class InListBuckets {
+
+    /**
+     * The max bucket size. The lists with more values are padded to a multiple of it.
+     */
+    static final int MAX_BUCKET_SIZE = 1024;
+
+    /**
+     * The max count of parameters a list is padded to, below the lowest limit of the common databases: 2100 by SQL Server.
+     * The lists with more parameters are not padded.
+     */
+    static final int MAX_PARAMETER_COUNT = 2000;
+
+    private InListBuckets() {
+        // singleton.
+    }
+
+    /**
+     *
+     * @param size
+     * @return the next power of two which is greater than or equal to {@code size},
+     *      or the next multiple of {@link #MAX_BUCKET_SIZE} if {@code size} is greater than it.
+     */
+    static int bucketSize(final int size) {
+        if (size <= 1) {
+            return size;
+        } else if (size > MAX_BUCKET_SIZE) {
+            return (int) Math.min(((size + (long) MAX_BUCKET_SIZE - 1) / MAX_BUCKET_SIZE) * MAX_BUCKET_SIZE, Integer.MAX_VALUE);
+        } else {
+            return Integer.highestOneBit(size - 1) << 1;
+        }
+    }
+
+    /**
+     * The size to pad to, if it's limited by the batch size or the max count of parameters.
+     * {@code maxSize} may not be a bucket size, for example, the default batch size {@code 200}.
+     * Then the lists with more than {@code 128} values are all padded to {@code maxSize}, which is still one shape.
+     *
+     * @param size
+     * @param maxSize
+     * @return {@code bucketSize(size)}, but not greater than {@code maxSize}, or {@code size} if it's already greater than or equal to {@code maxSize}.
+     */
+    static int bucketSize(final int size, final int maxSize) {
+        return size >= maxSize ? size : Math.min(bucketSize(size), maxSize);
+    }
+
+    /**
+     * Returns a view of the specified list padded to {@code size} by repeating its last element.
+     *
+     * @param <T>
+     * @param list
+     * @param size
+     * @return the specified list if its size is greater than or equal to {@code size}.
+     */
+    static <T> List<T> pad(final List<T> list, final int size) {
+        final int len = list.size();
+
+        if (len >= size || len == 0) {
+            return list;
+        }
+
+        return new PaddedList<>(list, size);
+    }
+
+    private static final class PaddedList<T> extends AbstractList<T> implements RandomAccess {
+        private final List<T> list;
+        private final int lastIndex;
+        private final int size;
+
+        PaddedList(final List<T> list, final int size) {
+            this.list = list;
+            this.lastIndex = list.size() - 1;
+            this.size = size;
+        }
+
+        @Override
+        public T get(final int index) {
+            if (index < 0 || index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+
+            return list.get(index < lastIndex ? index : lastIndex);
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.landawn.abacus.util;
 
+import java.io.File;
 import java.lang.annotation.ElementType;
 import java.lang.annotation.Repeatable;
 import java.lang.annotation.Retention;
@@ -372,30 +373,105 @@ public final class JdbcUtil {
      *
      * @param ds
      * @return
-     * @throws UncheckedSQLException the unchecked SQL exception
+     * @throws UncheckedSQLException the unchecked SQL exception, or {@code SQLTimeoutException} if the {@code Deadline} in current thread is passed
      */
     public static Connection getConnection(final javax.sql.DataSource ds) throws UncheckedSQLException {
+        checkDeadline();
+
+        Connection conn = null;
+
         if (isInSpring && !isSpringTransactionalDisabled_TL.get()) {
             try {
-                return org.springframework.jdbc.datasource.DataSourceUtils.getConnection(ds);
+                conn = org.springframework.jdbc.datasource.DataSourceUtils.getConnection(ds);
             } catch (NoClassDefFoundError e) {
                 isInSpring = false;
 
                 try {
-                    return ds.getConnection();
+                    conn = ds.getConnection();
                 } catch (SQLException e1) {
                     throw new UncheckedSQLException(e1);
                 }
             }
         } else {
             try {
-                return ds.getConnection();
+                conn = ds.getConnection();
+            } catch (SQLException e) {
+                throw new UncheckedSQLException(e);
+            }
+        }
+
+        StatementCache.attach(conn, ds);
+        RowCountStats.attach(conn, ds);
+        LobPolicy.attach(conn, ds);
+
+        return conn;
+    }
+
+    /**
+     * Gets the {@code Connection} to execute the specified sql.
+     * If the specified {@code DataSource} is a {@code RoutingDataSource}, the {@code Connection} is borrowed from the replica it's routed to,
+     * or from the primary if it's not routed to a replica or a Spring transaction is started with it.
+     *
+     * @param ds
+     * @param sql
+     * @return
+     * @throws UncheckedSQLException the unchecked SQL exception
+     */
+    static Connection getConnection(final javax.sql.DataSource ds, final String sql) throws UncheckedSQLException {
+        if (ds instanceof RoutingDataSource) {
+            checkDeadline();
+
+            final javax.sql.DataSource replica = ((RoutingDataSource) ds).route(sql);
+
+            if (replica != null && isInSpringTransaction(ds) == false) {
+                Connection conn = null;
+
+                try {
+                    conn = replica.getConnection();
+                } catch (SQLException e) {
+                    throw new UncheckedSQLException(e);
+                }
+
+                StatementCache.attach(conn, ds);
+                RowCountStats.attach(conn, ds);
+                LobPolicy.attach(conn, ds);
+
+                return conn;
+            }
+        }
+
+        return getConnection(ds);
+    }
+
+    /**
+     * Fail fast before borrowing a {@code Connection} from pool if the {@code Deadline} in current thread is passed.
+     *
+     * @throws UncheckedSQLException
+     */
+    private static void checkDeadline() throws UncheckedSQLException {
+        final Deadline deadline = Deadline.current();
+
+        if (deadline != null) {
+            try {
+                deadline.checkNotExpired();
             } catch (SQLException e) {
                 throw new UncheckedSQLException(e);
             }
         }
     }
 
+    private static boolean isInSpringTransaction(final javax.sql.DataSource ds) {
+        if (isInSpring && !isSpringTransactionalDisabled_TL.get()) {
+            try {
+                return org.springframework.transaction.support.TransactionSynchronizationManager.getResource(ds) != null;
+            } catch (NoClassDefFoundError e) {
+                isInSpring = false;
+            }
+        }
+
+        return false;
+    }
+
     /**
      * Spring Transaction is supported and Integrated.
      * If this method is called where a Spring transaction is started with the specified {@code DataSource},
@@ -409,6 +485,8 @@ public final class JdbcUtil {
             return;
         }
 
+        ConnectionAttributes.detach(conn);
+
         if (isInSpring && ds != null && !isSpringTransactionalDisabled_TL.get()) {
             try {
                 org.springframework.jdbc.datasource.DataSourceUtils.releaseConnection(conn, ds);
@@ -517,6 +595,8 @@ public final class JdbcUtil {
     @Deprecated
     public static void close(final Connection conn) throws UncheckedSQLException {
         if (conn != null) {
+            ConnectionAttributes.detach(conn);
+
             try {
                 conn.close();
             } catch (SQLException e) {
@@ -597,6 +677,7 @@ public final class JdbcUtil {
             } finally {
                 try {
                     if (conn != null) {
+                        ConnectionAttributes.detach(conn);
                         conn.close();
                     }
                 } catch (SQLException e) {
@@ -742,6 +823,8 @@ public final class JdbcUtil {
         }
 
         if (conn != null) {
+            ConnectionAttributes.detach(conn);
+
             try {
                 conn.close();
             } catch (Exception e) {
@@ -824,7 +907,7 @@ public final class JdbcUtil {
 
         try {
             stmt = prepareStatement(conn, query);
-            rs = executeQuery(stmt);
+            rs = executeQuery(stmt, query);
 
             final ResultSetMetaData metaData = rs.getMetaData();
             final int columnCount = metaData.getColumnCount();
@@ -911,6 +994,19 @@ public final class JdbcUtil {
      * @throws SQLException the SQL exception
      */
     public static Object getColumnValue(final ResultSet rs, final int columnIndex) throws SQLException {
+        return getColumnValue(rs, columnIndex, null);
+    }
+
+    /**
+     * Gets the column value.
+     *
+     * @param rs
+     * @param columnIndex starts with 1, not 0.
+     * @param columnClassName the column class name resolved from {@code ResultSetMetaData}, or {@code null} to read it from {@code rs.getMetaData()} if it's required.
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    static Object getColumnValue(final ResultSet rs, final int columnIndex, final String columnClassName) throws SQLException {
         // Copied from JdbcUtils#getResultSetValue(ResultSet, int) in SpringJdbc under Apache License, Version 2.0.
 
         Object obj = rs.getObject(columnIndex);
@@ -930,7 +1026,7 @@ public final class JdbcUtil {
         } else if ("oracle.sql.TIMESTAMP".equals(className) || "oracle.sql.TIMESTAMPTZ".equals(className)) {
             obj = rs.getTimestamp(columnIndex);
         } else if (className != null && className.startsWith("oracle.sql.DATE")) {
-            final String metaDataClassName = rs.getMetaData().getColumnClassName(columnIndex);
+            final String metaDataClassName = columnClassName == null ? rs.getMetaData().getColumnClassName(columnIndex) : columnClassName;
 
             if ("java.sql.Timestamp".equals(metaDataClassName) || "oracle.sql.TIMESTAMP".equals(metaDataClassName)) {
                 obj = rs.getTimestamp(columnIndex);
@@ -938,7 +1034,7 @@ public final class JdbcUtil {
                 obj = rs.getDate(columnIndex);
             }
         } else if (obj instanceof java.sql.Date) {
-            if ("java.sql.Timestamp".equals(rs.getMetaData().getColumnClassName(columnIndex))) {
+            if ("java.sql.Timestamp".equals(columnClassName == null ? rs.getMetaData().getColumnClassName(columnIndex) : columnClassName)) {
                 obj = rs.getTimestamp(columnIndex);
             }
         }
@@ -1466,32 +1562,6 @@ public final class JdbcUtil {
         }
     }
 
-    /**
-     * Gets the SQL operation.
-     *
-     * @param sql
-     * @return
-     */
-    static SQLOperation getSQLOperation(String sql) {
-        if (StringUtil.startsWithIgnoreCase(sql.trim(), "select ")) {
-            return SQLOperation.SELECT;
-        } else if (StringUtil.startsWithIgnoreCase(sql.trim(), "update ")) {
-            return SQLOperation.UPDATE;
-        } else if (StringUtil.startsWithIgnoreCase(sql.trim(), "insert ")) {
-            return SQLOperation.INSERT;
-        } else if (StringUtil.startsWithIgnoreCase(sql.trim(), "delete ")) {
-            return SQLOperation.DELETE;
-        } else {
-            for (SQLOperation so : SQLOperation.values()) {
-                if (StringUtil.startsWithIgnoreCase(sql.trim(), so.name())) {
-                    return so;
-                }
-            }
-        }
-
-        return SQLOperation.UNKNOWN;
-    }
-
     /**
      * If this method is called where a transaction is started by {@code JdbcUtil.beginTransaction} or in {@code Spring} with the same {@code DataSource} in the same thread,
      * the {@code Connection} started the Transaction will be used here.
@@ -1514,7 +1584,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, sql);
                 result = prepareQuery(conn, sql).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -1549,7 +1619,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, sql);
                 result = prepareQuery(conn, sql, autoGeneratedKeys).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -1579,7 +1649,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, sql);
                 result = prepareQuery(conn, sql, returnColumnIndexes).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -1609,7 +1679,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, sql);
                 result = prepareQuery(conn, sql, returnColumnNames).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -1647,7 +1717,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, sql);
                 result = prepareQuery(conn, sql, stmtCreator).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -1676,7 +1746,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(conn, "conn");
         N.checkArgNotNull(sql, "sql");
 
-        return new PreparedQuery(prepareStatement(conn, sql));
+        return withConnectionSettings(conn, new PreparedQuery(prepareCachedStatement(conn, sql), sql));
     }
 
     /**
@@ -1698,7 +1768,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(conn, "conn");
         N.checkArgNotNull(sql, "sql");
 
-        return new PreparedQuery(prepareStatement(conn, sql, autoGeneratedKeys));
+        return withConnectionSettings(conn, new PreparedQuery(prepareCachedStatement(conn, sql, autoGeneratedKeys), sql));
     }
 
     /**
@@ -1720,7 +1790,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(sql, "sql");
         N.checkArgNotNullOrEmpty(returnColumnIndexes, "returnColumnIndexes");
 
-        return new PreparedQuery(prepareStatement(conn, sql, returnColumnIndexes));
+        return withConnectionSettings(conn, new PreparedQuery(prepareCachedStatement(conn, sql, returnColumnIndexes), sql));
     }
 
     /**
@@ -1742,7 +1812,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(sql, "sql");
         N.checkArgNotNullOrEmpty(returnColumnNames, "returnColumnNames");
 
-        return new PreparedQuery(prepareStatement(conn, sql, returnColumnNames));
+        return withConnectionSettings(conn, new PreparedQuery(prepareCachedStatement(conn, sql, returnColumnNames), sql));
     }
 
     /**
@@ -1766,7 +1836,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(sql, "sql");
         N.checkArgNotNull(stmtCreator, "stmtCreator");
 
-        return new PreparedQuery(prepareStatement(conn, sql, stmtCreator));
+        return withConnectionSettings(conn, new PreparedQuery(prepareStatement(conn, sql, stmtCreator), sql));
     }
 
     /**
@@ -1791,7 +1861,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, namedSql);
                 result = prepareNamedQuery(conn, namedSql).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -1826,7 +1896,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, namedSql);
                 result = prepareNamedQuery(conn, namedSql, autoGeneratedKeys).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -1859,7 +1929,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, namedSql);
                 result = prepareNamedQuery(conn, namedSql, returnColumnIndexes).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -1892,7 +1962,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, namedSql);
                 result = prepareNamedQuery(conn, namedSql, returnColumnNames).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -1930,7 +2000,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, namedSql);
                 result = prepareNamedQuery(conn, namedSql, stmtCreator).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -1961,7 +2031,7 @@ public final class JdbcUtil {
 
         final ParsedSql parsedSql = parseNamedSql(namedSql);
 
-        return new NamedQuery(prepareStatement(conn, parsedSql), parsedSql);
+        return withConnectionSettings(conn, new NamedQuery(prepareCachedStatement(conn, parsedSql), parsedSql));
     }
 
     /**
@@ -1985,7 +2055,7 @@ public final class JdbcUtil {
 
         final ParsedSql parsedSql = parseNamedSql(namedSql);
 
-        return new NamedQuery(prepareStatement(conn, parsedSql, autoGeneratedKeys), parsedSql);
+        return withConnectionSettings(conn, new NamedQuery(prepareCachedStatement(conn, parsedSql, autoGeneratedKeys), parsedSql));
     }
 
     /**
@@ -2009,7 +2079,7 @@ public final class JdbcUtil {
 
         final ParsedSql parsedSql = parseNamedSql(namedSql);
 
-        return new NamedQuery(prepareStatement(conn, parsedSql, returnColumnIndexes), parsedSql);
+        return withConnectionSettings(conn, new NamedQuery(prepareCachedStatement(conn, parsedSql, returnColumnIndexes), parsedSql));
     }
 
     /**
@@ -2033,7 +2103,7 @@ public final class JdbcUtil {
 
         final ParsedSql parsedSql = parseNamedSql(namedSql);
 
-        return new NamedQuery(prepareStatement(conn, parsedSql, returnColumnNames), parsedSql);
+        return withConnectionSettings(conn, new NamedQuery(prepareCachedStatement(conn, parsedSql, returnColumnNames), parsedSql));
     }
 
     /**
@@ -2059,7 +2129,7 @@ public final class JdbcUtil {
 
         final ParsedSql parsedSql = parseNamedSql(namedSql);
 
-        return new NamedQuery(prepareStatement(conn, parsedSql, stmtCreator), parsedSql);
+        return withConnectionSettings(conn, new NamedQuery(prepareStatement(conn, parsedSql, stmtCreator), parsedSql));
     }
 
     /**
@@ -2077,7 +2147,7 @@ public final class JdbcUtil {
     public static NamedQuery prepareNamedQuery(final javax.sql.DataSource ds, final ParsedSql namedSql) throws SQLException {
         validateNamedSql(namedSql);
 
-        final SQLTransaction tran = getTransaction(ds, namedSql.getParameterizedSql(), CreatedBy.JDBC_UTIL);
+        final SQLTransaction tran = getTransaction(ds, namedSql.sql(), CreatedBy.JDBC_UTIL);
 
         if (tran != null) {
             return prepareNamedQuery(tran.connection(), namedSql);
@@ -2086,7 +2156,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, namedSql.sql());
                 result = prepareNamedQuery(conn, namedSql).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -2114,7 +2184,7 @@ public final class JdbcUtil {
     public static NamedQuery prepareNamedQuery(final javax.sql.DataSource ds, final ParsedSql namedSql, final boolean autoGeneratedKeys) throws SQLException {
         validateNamedSql(namedSql);
 
-        final SQLTransaction tran = getTransaction(ds, namedSql.getParameterizedSql(), CreatedBy.JDBC_UTIL);
+        final SQLTransaction tran = getTransaction(ds, namedSql.sql(), CreatedBy.JDBC_UTIL);
 
         if (tran != null) {
             return prepareNamedQuery(tran.connection(), namedSql, autoGeneratedKeys);
@@ -2123,7 +2193,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, namedSql.sql());
                 result = prepareNamedQuery(conn, namedSql, autoGeneratedKeys).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -2149,7 +2219,7 @@ public final class JdbcUtil {
     public static NamedQuery prepareNamedQuery(final javax.sql.DataSource ds, final ParsedSql namedSql, final int[] returnColumnIndexes) throws SQLException {
         validateNamedSql(namedSql);
 
-        final SQLTransaction tran = getTransaction(ds, namedSql.getParameterizedSql(), CreatedBy.JDBC_UTIL);
+        final SQLTransaction tran = getTransaction(ds, namedSql.sql(), CreatedBy.JDBC_UTIL);
 
         if (tran != null) {
             return prepareNamedQuery(tran.connection(), namedSql, returnColumnIndexes);
@@ -2158,7 +2228,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, namedSql.sql());
                 result = prepareNamedQuery(conn, namedSql, returnColumnIndexes).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -2184,7 +2254,7 @@ public final class JdbcUtil {
     public static NamedQuery prepareNamedQuery(final javax.sql.DataSource ds, final ParsedSql namedSql, final String[] returnColumnNames) throws SQLException {
         validateNamedSql(namedSql);
 
-        final SQLTransaction tran = getTransaction(ds, namedSql.getParameterizedSql(), CreatedBy.JDBC_UTIL);
+        final SQLTransaction tran = getTransaction(ds, namedSql.sql(), CreatedBy.JDBC_UTIL);
 
         if (tran != null) {
             return prepareNamedQuery(tran.connection(), namedSql, returnColumnNames);
@@ -2193,7 +2263,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, namedSql.sql());
                 result = prepareNamedQuery(conn, namedSql, returnColumnNames).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -2224,7 +2294,7 @@ public final class JdbcUtil {
             final Throwables.BiFunction<Connection, String, PreparedStatement, SQLException> stmtCreator) throws SQLException {
         validateNamedSql(namedSql);
 
-        final SQLTransaction tran = getTransaction(ds, namedSql.getParameterizedSql(), CreatedBy.JDBC_UTIL);
+        final SQLTransaction tran = getTransaction(ds, namedSql.sql(), CreatedBy.JDBC_UTIL);
 
         if (tran != null) {
             return prepareNamedQuery(tran.connection(), namedSql, stmtCreator);
@@ -2233,7 +2303,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, namedSql.sql());
                 result = prepareNamedQuery(conn, namedSql, stmtCreator).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -2263,7 +2333,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(namedSql, "namedSql");
         validateNamedSql(namedSql);
 
-        return new NamedQuery(prepareStatement(conn, namedSql), namedSql);
+        return withConnectionSettings(conn, new NamedQuery(prepareCachedStatement(conn, namedSql), namedSql));
     }
 
     /**
@@ -2286,7 +2356,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(namedSql, "namedSql");
         validateNamedSql(namedSql);
 
-        return new NamedQuery(prepareStatement(conn, namedSql, autoGeneratedKeys), namedSql);
+        return withConnectionSettings(conn, new NamedQuery(prepareCachedStatement(conn, namedSql, autoGeneratedKeys), namedSql));
     }
 
     /**
@@ -2309,7 +2379,7 @@ public final class JdbcUtil {
         N.checkArgNotNullOrEmpty(returnColumnIndexes, "returnColumnIndexes");
         validateNamedSql(namedSql);
 
-        return new NamedQuery(prepareStatement(conn, namedSql, returnColumnIndexes), namedSql);
+        return withConnectionSettings(conn, new NamedQuery(prepareCachedStatement(conn, namedSql, returnColumnIndexes), namedSql));
     }
 
     /**
@@ -2332,7 +2402,7 @@ public final class JdbcUtil {
         N.checkArgNotNullOrEmpty(returnColumnNames, "returnColumnNames");
         validateNamedSql(namedSql);
 
-        return new NamedQuery(prepareStatement(conn, namedSql, returnColumnNames), namedSql);
+        return withConnectionSettings(conn, new NamedQuery(prepareCachedStatement(conn, namedSql, returnColumnNames), namedSql));
     }
 
     /**
@@ -2357,7 +2427,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(stmtCreator, "stmtCreator");
         validateNamedSql(namedSql);
 
-        return new NamedQuery(prepareStatement(conn, namedSql, stmtCreator), namedSql);
+        return withConnectionSettings(conn, new NamedQuery(prepareStatement(conn, namedSql, stmtCreator), namedSql));
     }
 
     /**
@@ -2382,7 +2452,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, sql);
                 result = prepareCallableQuery(conn, sql).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -2419,7 +2489,7 @@ public final class JdbcUtil {
             Connection conn = null;
 
             try {
-                conn = getConnection(ds);
+                conn = getConnection(ds, sql);
                 result = prepareCallableQuery(conn, sql, stmtCreator).onClose(createCloseHandler(conn, ds));
             } finally {
                 if (result == null) {
@@ -2450,7 +2520,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(conn, "conn");
         N.checkArgNotNull(sql, "sql");
 
-        return new PreparedCallableQuery(prepareCallable(conn, sql));
+        return withConnectionSettings(conn, new PreparedCallableQuery(prepareCallable(conn, sql), sql));
     }
 
     /**
@@ -2474,7 +2544,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(sql, "sql");
         N.checkArgNotNull(stmtCreator, "stmtCreator");
 
-        return new PreparedCallableQuery(prepareCallable(conn, sql, stmtCreator));
+        return withConnectionSettings(conn, new PreparedCallableQuery(prepareCallable(conn, sql, stmtCreator), sql));
     }
 
     static PreparedStatement prepareStatement(final Connection conn, final String sql) throws SQLException {
@@ -2577,6 +2647,126 @@ public final class JdbcUtil {
         return stmtCreator.apply(conn, parsedSql.getParameterizedSql());
     }
 
+    static <Q extends AbstractPreparedQuery<?, Q>> Q withConnectionSettings(final Connection conn, final Q query) {
+        query.rowCountStats = RowCountStats.get(conn);
+        query.lobPolicy = LobPolicy.get(conn);
+
+        return query;
+    }
+
+    static PreparedStatement prepareCachedStatement(final Connection conn, final String sql) throws SQLException {
+        final StatementCache stmtCache = StatementCache.get(conn);
+
+        if (stmtCache == null) {
+            return prepareStatement(conn, sql);
+        }
+
+        if (isSQLLogEnabled_TL.get()) {
+            logger.info("[SQL]: " + sql);
+        }
+
+        return stmtCache.prepareStatement(sql);
+    }
+
+    static PreparedStatement prepareCachedStatement(final Connection conn, final String sql, final boolean autoGeneratedKeys) throws SQLException {
+        final StatementCache stmtCache = StatementCache.get(conn);
+
+        if (stmtCache == null) {
+            return prepareStatement(conn, sql, autoGeneratedKeys);
+        }
+
+        if (isSQLLogEnabled_TL.get()) {
+            logger.info("[SQL]: " + sql);
+        }
+
+        return stmtCache.prepareStatement(sql, autoGeneratedKeys);
+    }
+
+    static PreparedStatement prepareCachedStatement(final Connection conn, final String sql, final int[] returnColumnIndexes) throws SQLException {
+        final StatementCache stmtCache = StatementCache.get(conn);
+
+        if (stmtCache == null) {
+            return prepareStatement(conn, sql, returnColumnIndexes);
+        }
+
+        if (isSQLLogEnabled_TL.get()) {
+            logger.info("[SQL]: " + sql);
+        }
+
+        return stmtCache.prepareStatement(sql, returnColumnIndexes);
+    }
+
+    static PreparedStatement prepareCachedStatement(final Connection conn, final String sql, final String[] returnColumnNames) throws SQLException {
+        final StatementCache stmtCache = StatementCache.get(conn);
+
+        if (stmtCache == null) {
+            return prepareStatement(conn, sql, returnColumnNames);
+        }
+
+        if (isSQLLogEnabled_TL.get()) {
+            logger.info("[SQL]: " + sql);
+        }
+
+        return stmtCache.prepareStatement(sql, returnColumnNames);
+    }
+
+    static PreparedStatement prepareCachedStatement(final Connection conn, final ParsedSql parsedSql) throws SQLException {
+        final StatementCache stmtCache = StatementCache.get(conn);
+
+        if (stmtCache == null) {
+            return prepareStatement(conn, parsedSql);
+        }
+
+        if (isSQLLogEnabled_TL.get()) {
+            logger.info("[SQL]: " + parsedSql.sql());
+        }
+
+        return stmtCache.prepareStatement(parsedSql.getParameterizedSql());
+    }
+
+    static PreparedStatement prepareCachedStatement(final Connection conn, final ParsedSql parsedSql, final boolean autoGeneratedKeys) throws SQLException {
+        final StatementCache stmtCache = StatementCache.get(conn);
+
+        if (stmtCache == null) {
+            return prepareStatement(conn, parsedSql, autoGeneratedKeys);
+        }
+
+        if (isSQLLogEnabled_TL.get()) {
+            logger.info("[SQL]: " + parsedSql.sql());
+        }
+
+        return stmtCache.prepareStatement(parsedSql.getParameterizedSql(), autoGeneratedKeys);
+    }
+
+    static PreparedStatement prepareCachedStatement(final Connection conn, final ParsedSql parsedSql, final int[] returnColumnIndexes) throws SQLException {
+        final StatementCache stmtCache = StatementCache.get(conn);
+
+        if (stmtCache == null) {
+            return prepareStatement(conn, parsedSql, returnColumnIndexes);
+        }
+
+        if (isSQLLogEnabled_TL.get()) {
+            logger.info("[SQL]: " + parsedSql.sql());
+        }
+
+        return stmtCache.prepareStatement(parsedSql.getParameterizedSql(), returnColumnIndexes);
+    }
+
+    static PreparedStatement prepareCachedStatement(final Connection conn, final ParsedSql parsedSql, final String[] returnColumnNames)
+            throws SQLException {
+        final StatementCache stmtCache = StatementCache.get(conn);
+
+        if (stmtCache == null) {
+            return prepareStatement(conn, parsedSql, returnColumnNames);
+        }
+
+        if (isSQLLogEnabled_TL.get()) {
+            logger.info("[SQL]: " + parsedSql.sql());
+        }
+
+        return stmtCache.prepareStatement(parsedSql.getParameterizedSql(), returnColumnNames);
+    }
+
     static CallableStatement prepareCallable(final Connection conn, final String sql) throws SQLException {
         if (isSQLLogEnabled_TL.get()) {
             logger.info("[SQL]: " + sql);
@@ -2624,7 +2814,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(conn, "conn");
         N.checkArgNotNull(sql, "sql");
 
-        final ParsedSql parsedSql = ParsedSql.parse(sql);
+        final ParsedSql parsedSql = ParsedSqlCache.parse(sql);
         final PreparedStatement stmt = prepareStatement(conn, parsedSql);
 
         if (N.notNullOrEmpty(parameters)) {
@@ -2647,7 +2837,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(conn, "conn");
         N.checkArgNotNull(sql, "sql");
 
-        final ParsedSql parsedSql = ParsedSql.parse(sql);
+        final ParsedSql parsedSql = ParsedSqlCache.parse(sql);
         final CallableStatement stmt = prepareCallable(conn, parsedSql);
 
         if (N.notNullOrEmpty(parameters)) {
@@ -2670,7 +2860,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(conn, "conn");
         N.checkArgNotNull(sql, "sql");
 
-        final ParsedSql parsedSql = ParsedSql.parse(sql);
+        final ParsedSql parsedSql = ParsedSqlCache.parse(sql);
         final PreparedStatement stmt = prepareStatement(conn, parsedSql);
 
         for (Object parameters : parametersList) {
@@ -2693,7 +2883,7 @@ public final class JdbcUtil {
         N.checkArgNotNull(conn, "conn");
         N.checkArgNotNull(sql, "sql");
 
-        final ParsedSql parsedSql = ParsedSql.parse(sql);
+        final ParsedSql parsedSql = ParsedSqlCache.parse(sql);
         final CallableStatement stmt = prepareCallable(conn, parsedSql);
 
         for (Object parameters : parametersList) {
@@ -2713,7 +2903,7 @@ public final class JdbcUtil {
     private static ParsedSql parseNamedSql(final String namedSql) {
         N.checkArgNotNullOrEmpty(namedSql, "namedSql");
 
-        final ParsedSql parsedSql = ParsedSql.parse(namedSql);
+        final ParsedSql parsedSql = ParsedSqlCache.parse(namedSql);
 
         validateNamedSql(parsedSql);
 
@@ -2727,10 +2917,9 @@ public final class JdbcUtil {
     }
 
     private static SQLTransaction getTransaction(final javax.sql.DataSource ds, final String sql, final CreatedBy createdBy) {
-        final SQLOperation sqlOperation = JdbcUtil.getSQLOperation(sql);
         final SQLTransaction tran = SQLTransaction.getTransaction(ds, createdBy);
 
-        if (tran == null || (tran.isForUpdateOnly() && sqlOperation == SQLOperation.SELECT)) {
+        if (tran == null || (tran.isForUpdateOnly() && SQLDescriptor.of(sql).isReadOnly())) {
             return null;
         } else {
             return tran;
@@ -2755,7 +2944,7 @@ public final class JdbcUtil {
         if (tran != null) {
             return executeQuery(tran.connection(), sql, parameters);
         } else {
-            final Connection conn = getConnection(ds);
+            final Connection conn = getConnection(ds, sql);
 
             try {
                 return executeQuery(conn, sql, parameters);
@@ -2786,9 +2975,27 @@ public final class JdbcUtil {
 
             stmt.setFetchDirection(ResultSet.FETCH_FORWARD);
 
-            rs = executeQuery(stmt);
+            final RowCountStats rowCountStats = RowCountStats.get(conn);
+
+            if (rowCountStats == null) {
+                rs = executeQuery(stmt, sql, sampledParameters(sql, parameters));
 
-            return extractData(rs);
+                return extractData(rs, ColumnLayout.of(sql, rs).with(LobPolicy.get(conn)), 0);
+            }
+
+            final int fetchSize = rowCountStats.getFetchSize(sql);
+
+            if (fetchSize > 0) {
+                stmt.setFetchSize(fetchSize);
+            }
+
+            rs = executeQuery(stmt, sql, sampledParameters(sql, parameters));
+
+            final DataSet result = extractData(rs, ColumnLayout.of(sql, rs).with(LobPolicy.get(conn)), rowCountStats.getInitialCapacity(sql));
+
+            rowCountStats.record(sql, result.size());
+
+            return result;
         } finally {
             closeQuietly(rs, stmt);
         }
@@ -2830,7 +3037,7 @@ public final class JdbcUtil {
         if (tran != null) {
             return executeUpdate(tran.connection(), sql, parameters);
         } else {
-            final Connection conn = getConnection(ds);
+            final Connection conn = getConnection(ds, sql);
 
             try {
                 return executeUpdate(conn, sql, parameters);
@@ -2858,7 +3065,7 @@ public final class JdbcUtil {
         try {
             stmt = prepareStmt(conn, sql, parameters);
 
-            return executeUpdate(stmt);
+            return executeUpdate(stmt, sql, sampledParameters(sql, parameters));
         } finally {
             closeQuietly(stmt);
         }
@@ -2896,7 +3103,7 @@ public final class JdbcUtil {
         if (tran != null) {
             return executeBatchUpdate(tran.connection(), sql, listOfParameters, batchSize);
         } else if (listOfParameters.size() <= batchSize) {
-            final Connection conn = getConnection(ds);
+            final Connection conn = getConnection(ds, sql);
 
             try {
                 return executeBatchUpdate(conn, sql, listOfParameters, batchSize);
@@ -2950,7 +3157,7 @@ public final class JdbcUtil {
             return 0;
         }
 
-        final ParsedSql parsedSql = ParsedSql.parse(sql);
+        final ParsedSql parsedSql = ParsedSqlCache.parse(sql);
         final boolean originalAutoCommit = conn.getAutoCommit();
         PreparedStatement stmt = null;
         boolean noException = false;
@@ -2973,12 +3180,12 @@ public final class JdbcUtil {
                 stmt.addBatch();
 
                 if (++idx % batchSize == 0) {
-                    res += N.sum(executeBatch(stmt));
+                    res += N.sum(executeBatch(stmt, sql, sampledParameters(sql, parameters)));
                 }
             }
 
             if (idx % batchSize != 0) {
-                res += N.sum(executeBatch(stmt));
+                res += N.sum(executeBatch(stmt, sql, sampledParameters(sql, parameters)));
             }
 
             noException = true;
@@ -3037,7 +3244,7 @@ public final class JdbcUtil {
         if (tran != null) {
             return executeLargeBatchUpdate(tran.connection(), sql, listOfParameters, batchSize);
         } else if (listOfParameters.size() <= batchSize) {
-            final Connection conn = getConnection(ds);
+            final Connection conn = getConnection(ds, sql);
 
             try {
                 return executeLargeBatchUpdate(conn, sql, listOfParameters, batchSize);
@@ -3092,7 +3299,7 @@ public final class JdbcUtil {
             return 0;
         }
 
-        final ParsedSql parsedSql = ParsedSql.parse(sql);
+        final ParsedSql parsedSql = ParsedSqlCache.parse(sql);
         final boolean originalAutoCommit = conn.getAutoCommit();
         PreparedStatement stmt = null;
         boolean noException = false;
@@ -3115,12 +3322,12 @@ public final class JdbcUtil {
                 stmt.addBatch();
 
                 if (++idx % batchSize == 0) {
-                    res += N.sum(executeLargeBatch(stmt));
+                    res += N.sum(executeLargeBatch(stmt, sql, sampledParameters(sql, parameters)));
                 }
             }
 
             if (idx % batchSize != 0) {
-                res += N.sum(executeLargeBatch(stmt));
+                res += N.sum(executeLargeBatch(stmt, sql, sampledParameters(sql, parameters)));
             }
 
             noException = true;
@@ -3165,7 +3372,7 @@ public final class JdbcUtil {
         if (tran != null) {
             return execute(tran.connection(), sql, parameters);
         } else {
-            final Connection conn = getConnection(ds);
+            final Connection conn = getConnection(ds, sql);
 
             try {
                 return execute(conn, sql, parameters);
@@ -3193,30 +3400,53 @@ public final class JdbcUtil {
         try {
             stmt = prepareStmt(conn, sql, parameters);
 
-            return JdbcUtil.execute(stmt);
+            return JdbcUtil.execute(stmt, sql, sampledParameters(sql, parameters));
         } finally {
             closeQuietly(stmt);
         }
     }
 
     static ResultSet executeQuery(PreparedStatement stmt) throws SQLException {
-        if (logger.isInfoEnabled() && minExecutionTimeForSQLPerfLog_TL.get() >= 0) {
-            final long startTime = System.currentTimeMillis();
+        return executeQuery(stmt, null);
+    }
+
+    static ResultSet executeQuery(PreparedStatement stmt, String sql) throws SQLException {
+        return executeQuery(stmt, sql, null);
+    }
+
+    /**
+     *
+     * @param stmt
+     * @param sql the sql of the statement, used by {@code SQLMetrics/SlowQuerySampler}. It can be {@code null} if it's unknown.
+     * @param parameters the parameters captured for {@code SlowQuerySampler}. It can be {@code null} if they're not captured.
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    static ResultSet executeQuery(PreparedStatement stmt, String sql, Object[] parameters) throws SQLException {
+        final int prevQueryTimeout = applyDeadline(stmt);
+
+        if (isExecutionMonitored()) {
+            final long startTime = SQLMetrics.beforeExecute(sql, false);
+            ResultSet result = null;
+            Exception error = null;
 
             try {
-                return stmt.executeQuery();
-            } finally {
-                final long elapsedTime = System.currentTimeMillis() - startTime;
+                result = stmt.executeQuery();
 
-                if (elapsedTime >= minExecutionTimeForSQLPerfLog_TL.get()) {
-                    logger.info("[SQL-PERF]: " + elapsedTime + ", " + stmt.toString());
-                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                error = e;
+                throw e;
+            } finally {
+                afterExecute(stmt, sql, parameters, startTime, -1, 0, error);
 
                 try {
                     stmt.clearParameters();
                 } catch (SQLException e) {
                     logger.error("Failed to clear parameters after executeQuery", e);
                 }
+
+                restoreQueryTimeout(stmt, prevQueryTimeout);
             }
         } else {
             try {
@@ -3227,28 +3457,53 @@ public final class JdbcUtil {
                 } catch (SQLException e) {
                     logger.error("Failed to clear parameters after executeQuery", e);
                 }
+
+                restoreQueryTimeout(stmt, prevQueryTimeout);
             }
         }
     }
 
     static int executeUpdate(PreparedStatement stmt) throws SQLException {
-        if (logger.isInfoEnabled() && minExecutionTimeForSQLPerfLog_TL.get() >= 0) {
-            final long startTime = System.currentTimeMillis();
+        return executeUpdate(stmt, null);
+    }
+
+    static int executeUpdate(PreparedStatement stmt, String sql) throws SQLException {
+        return executeUpdate(stmt, sql, null);
+    }
+
+    /**
+     *
+     * @param stmt
+     * @param sql the sql of the statement, used by {@code SQLMetrics/SlowQuerySampler}. It can be {@code null} if it's unknown.
+     * @param parameters the parameters captured for {@code SlowQuerySampler}. It can be {@code null} if they're not captured.
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    static int executeUpdate(PreparedStatement stmt, String sql, Object[] parameters) throws SQLException {
+        final int prevQueryTimeout = applyDeadline(stmt);
+
+        if (isExecutionMonitored()) {
+            final long startTime = SQLMetrics.beforeExecute(sql, false);
+            int result = 0;
+            Exception error = null;
 
             try {
-                return stmt.executeUpdate();
-            } finally {
-                final long elapsedTime = System.currentTimeMillis() - startTime;
+                result = stmt.executeUpdate();
 
-                if (elapsedTime >= minExecutionTimeForSQLPerfLog_TL.get()) {
-                    logger.info("[SQL-PERF]: " + elapsedTime + ", " + stmt.toString());
-                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                error = e;
+                throw e;
+            } finally {
+                afterExecute(stmt, sql, parameters, startTime, error == null ? result : -1, 0, error);
 
                 try {
                     stmt.clearParameters();
                 } catch (SQLException e) {
                     logger.error("Failed to clear parameters after executeUpdate", e);
                 }
+
+                restoreQueryTimeout(stmt, prevQueryTimeout);
             }
         } else {
             try {
@@ -3259,28 +3514,53 @@ public final class JdbcUtil {
                 } catch (SQLException e) {
                     logger.error("Failed to clear parameters after executeUpdate", e);
                 }
+
+                restoreQueryTimeout(stmt, prevQueryTimeout);
             }
         }
     }
 
     static int[] executeBatch(Statement stmt) throws SQLException {
-        if (logger.isInfoEnabled() && minExecutionTimeForSQLPerfLog_TL.get() >= 0) {
-            final long startTime = System.currentTimeMillis();
+        return executeBatch(stmt, null);
+    }
+
+    static int[] executeBatch(Statement stmt, String sql) throws SQLException {
+        return executeBatch(stmt, sql, null);
+    }
+
+    /**
+     *
+     * @param stmt
+     * @param sql the sql of the statement, used by {@code SQLMetrics/SlowQuerySampler}. It can be {@code null} if it's unknown.
+     * @param parameters the parameters captured for {@code SlowQuerySampler}. It can be {@code null} if they're not captured.
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    static int[] executeBatch(Statement stmt, String sql, Object[] parameters) throws SQLException {
+        final int prevQueryTimeout = applyDeadline(stmt);
+
+        if (isExecutionMonitored()) {
+            final long startTime = SQLMetrics.beforeExecute(sql, true);
+            int[] result = null;
+            Exception error = null;
 
             try {
-                return stmt.executeBatch();
-            } finally {
-                final long elapsedTime = System.currentTimeMillis() - startTime;
+                result = stmt.executeBatch();
 
-                if (elapsedTime >= minExecutionTimeForSQLPerfLog_TL.get()) {
-                    logger.info("[SQL-PERF]: " + elapsedTime + ", " + stmt.toString());
-                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                error = e;
+                throw e;
+            } finally {
+                afterExecute(stmt, sql, parameters, startTime, result == null ? -1 : N.sum(result), N.len(result), error);
 
                 try {
                     stmt.clearBatch();
                 } catch (SQLException e) {
                     logger.error("Failed to clear batch parameters after executeBatch", e);
                 }
+
+                restoreQueryTimeout(stmt, prevQueryTimeout);
             }
         } else {
             try {
@@ -3291,28 +3571,53 @@ public final class JdbcUtil {
                 } catch (SQLException e) {
                     logger.error("Failed to clear batch parameters after executeBatch", e);
                 }
+
+                restoreQueryTimeout(stmt, prevQueryTimeout);
             }
         }
     }
 
     static long[] executeLargeBatch(Statement stmt) throws SQLException {
-        if (logger.isInfoEnabled() && minExecutionTimeForSQLPerfLog_TL.get() >= 0) {
-            final long startTime = System.currentTimeMillis();
+        return executeLargeBatch(stmt, null);
+    }
+
+    static long[] executeLargeBatch(Statement stmt, String sql) throws SQLException {
+        return executeLargeBatch(stmt, sql, null);
+    }
+
+    /**
+     *
+     * @param stmt
+     * @param sql the sql of the statement, used by {@code SQLMetrics/SlowQuerySampler}. It can be {@code null} if it's unknown.
+     * @param parameters the parameters captured for {@code SlowQuerySampler}. It can be {@code null} if they're not captured.
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    static long[] executeLargeBatch(Statement stmt, String sql, Object[] parameters) throws SQLException {
+        final int prevQueryTimeout = applyDeadline(stmt);
+
+        if (isExecutionMonitored()) {
+            final long startTime = SQLMetrics.beforeExecute(sql, true);
+            long[] result = null;
+            Exception error = null;
 
             try {
-                return stmt.executeLargeBatch();
-            } finally {
-                final long elapsedTime = System.currentTimeMillis() - startTime;
+                result = stmt.executeLargeBatch();
 
-                if (elapsedTime >= minExecutionTimeForSQLPerfLog_TL.get()) {
-                    logger.info("[SQL-PERF]: " + elapsedTime + ", " + stmt.toString());
-                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                error = e;
+                throw e;
+            } finally {
+                afterExecute(stmt, sql, parameters, startTime, result == null ? -1 : N.sum(result), N.len(result), error);
 
                 try {
                     stmt.clearBatch();
                 } catch (SQLException e) {
                     logger.error("Failed to clear batch parameters after executeLargeBatch", e);
                 }
+
+                restoreQueryTimeout(stmt, prevQueryTimeout);
             }
         } else {
             try {
@@ -3323,28 +3628,53 @@ public final class JdbcUtil {
                 } catch (SQLException e) {
                     logger.error("Failed to clear batch parameters after executeLargeBatch", e);
                 }
+
+                restoreQueryTimeout(stmt, prevQueryTimeout);
             }
         }
     }
 
     static boolean execute(PreparedStatement stmt) throws SQLException {
-        if (logger.isInfoEnabled() && minExecutionTimeForSQLPerfLog_TL.get() >= 0) {
-            final long startTime = System.currentTimeMillis();
+        return execute(stmt, null);
+    }
+
+    static boolean execute(PreparedStatement stmt, String sql) throws SQLException {
+        return execute(stmt, sql, null);
+    }
+
+    /**
+     *
+     * @param stmt
+     * @param sql the sql of the statement, used by {@code SQLMetrics/SlowQuerySampler}. It can be {@code null} if it's unknown.
+     * @param parameters the parameters captured for {@code SlowQuerySampler}. It can be {@code null} if they're not captured.
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    static boolean execute(PreparedStatement stmt, String sql, Object[] parameters) throws SQLException {
+        final int prevQueryTimeout = applyDeadline(stmt);
+
+        if (isExecutionMonitored()) {
+            final long startTime = SQLMetrics.beforeExecute(sql, false);
+            boolean result = false;
+            Exception error = null;
 
             try {
-                return stmt.execute();
-            } finally {
-                final long elapsedTime = System.currentTimeMillis() - startTime;
+                result = stmt.execute();
 
-                if (elapsedTime >= minExecutionTimeForSQLPerfLog_TL.get()) {
-                    logger.info("[SQL-PERF]: " + elapsedTime + ", " + stmt.toString());
-                }
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                error = e;
+                throw e;
+            } finally {
+                afterExecute(stmt, sql, parameters, startTime, -1, 0, error);
 
                 try {
                     stmt.clearParameters();
                 } catch (SQLException e) {
                     logger.error("Failed to clear parameters after execute", e);
                 }
+
+                restoreQueryTimeout(stmt, prevQueryTimeout);
             }
         } else {
             try {
@@ -3355,10 +3685,85 @@ public final class JdbcUtil {
                 } catch (SQLException e) {
                     logger.error("Failed to clear parameters after execute", e);
                 }
+
+                restoreQueryTimeout(stmt, prevQueryTimeout);
             }
         }
     }
 
+    /**
+     * Set the query timeout of the specified statement to the time remaining by the {@code Deadline} in current thread, if it's smaller than the current query timeout.
+     *
+     * @param stmt
+     * @return the previous query timeout if it's changed, otherwise {@code -1}.
+     * @throws SQLException {@code SQLTimeoutException} if the deadline is passed.
+     * @see Deadline
+     */
+    private static int applyDeadline(final Statement stmt) throws SQLException {
+        final Deadline deadline = Deadline.current();
+
+        if (deadline == null) {
+            return -1;
+        }
+
+        final long remainingNanos = deadline.remainingNanos();
+
+        if (remainingNanos <= 0) {
+            throw Deadline.expired(remainingNanos);
+        }
+
+        // Rounded up, and at least 1 because 0 means no limit.
+        final long remainingSeconds = (remainingNanos + 999999999L) / 1000000000L;
+        final int timeout = (int) Math.max(1, Math.min(remainingSeconds, Integer.MAX_VALUE));
+        final int prevQueryTimeout = stmt.getQueryTimeout();
+
+        if (prevQueryTimeout == 0 || prevQueryTimeout > timeout) {
+            stmt.setQueryTimeout(timeout);
+            return prevQueryTimeout;
+        }
+
+        return -1;
+    }
+
+    private static void restoreQueryTimeout(final Statement stmt, final int prevQueryTimeout) {
+        if (prevQueryTimeout >= 0) {
+            try {
+                stmt.setQueryTimeout(prevQueryTimeout);
+            } catch (SQLException e) {
+                logger.error("Failed to restore query timeout after execution with deadline", e);
+            }
+        }
+    }
+
+    private static boolean isSQLPerfLogEnabled() {
+        return logger.isInfoEnabled() && minExecutionTimeForSQLPerfLog_TL.get() >= 0;
+    }
+
+    private static boolean isExecutionMonitored() {
+        return isSQLPerfLogEnabled() || SQLMetrics.isEnabled() || SlowQuerySampler.isEnabled();
+    }
+
+    private static void afterExecute(final Statement stmt, final String sql, final Object[] parameters, final long startTime, final long rows,
+            final int batchSize, final Exception error) {
+        final long elapsedNanos = System.nanoTime() - startTime;
+
+        if (isSQLPerfLogEnabled()) {
+            final long elapsedTime = elapsedNanos / 1000_000;
+
+            if (elapsedTime >= minExecutionTimeForSQLPerfLog_TL.get()) {
+                logger.info("[SQL-PERF]: " + elapsedTime + ", " + stmt.toString());
+            }
+        }
+
+        if (SQLMetrics.isEnabled()) {
+            SQLMetrics.afterExecute(sql, elapsedNanos, rows, batchSize, error);
+        }
+
+        if (SlowQuerySampler.isEnabled()) {
+            SlowQuerySampler.afterExecute(sql, parameters, elapsedNanos, rows, batchSize, error);
+        }
+    }
+
     static void setParameters(final ParsedSql parsedSql, final PreparedStatement stmt, final Object[] parameters) throws SQLException {
         final int parameterCount = parsedSql.getParameterCount();
 
@@ -3370,33 +3775,19 @@ public final class JdbcUtil {
         }
 
         Object[] parameterValues = null;
-        @SuppressWarnings("rawtypes")
-        Type[] parameterTypes = null;
 
         if (isEntityOrMapParameter(parsedSql, parameters)) {
             final List<String> namedParameters = parsedSql.getNamedParameters();
             final Object parameter_0 = parameters[0];
 
-            parameterValues = new Object[parameterCount];
-
             if (ClassUtil.isEntity(parameter_0.getClass())) {
-                final Object entity = parameter_0;
-                final Class<?> cls = entity.getClass();
-                final EntityInfo entityInfo = ParserUtil.getEntityInfo(cls);
-                parameterTypes = new Type[parameterCount];
-                PropInfo propInfo = null;
-
-                for (int i = 0; i < parameterCount; i++) {
-                    propInfo = entityInfo.getPropInfo(namedParameters.get(i));
+                EntityParameterBinder.of(parsedSql, parameter_0.getClass()).bindAll(stmt, parameter_0);
+                return;
+            }
 
-                    if (propInfo == null) {
-                        throw new IllegalArgumentException("Parameter for property '" + namedParameters.get(i) + "' is missed");
-                    }
+            parameterValues = new Object[parameterCount];
 
-                    parameterValues[i] = propInfo.getPropValue(entity);
-                    parameterTypes[i] = propInfo.dbType;
-                }
-            } else if (parameter_0 instanceof Map) {
+            if (parameter_0 instanceof Map) {
                 @SuppressWarnings("unchecked")
                 final Map<String, Object> m = (Map<String, Object>) parameter_0;
 
@@ -3422,24 +3813,8 @@ public final class JdbcUtil {
             parameterValues = getParameterValues(parsedSql, parameters);
         }
 
-        setParameters(stmt, parameterCount, parameterValues, parameterTypes);
-    }
-
-    @SuppressWarnings("rawtypes")
-    static void setParameters(final PreparedStatement stmt, final int parameterCount, final Object[] parameters, final Type[] parameterTypes)
-            throws SQLException {
-        if (N.notNullOrEmpty(parameterTypes) && parameterTypes.length >= parameterCount) {
-            for (int i = 0; i < parameterCount; i++) {
-                parameterTypes[i].set(stmt, i + 1, parameters[i]);
-            }
-        } else if (N.notNullOrEmpty(parameters) && parameters.length >= parameterCount) {
-            for (int i = 0; i < parameterCount; i++) {
-                if (parameters[i] == null) {
-                    stmt.setObject(i + 1, parameters[i]);
-                } else {
-                    N.typeOf(parameters[i].getClass()).set(stmt, i + 1, parameters[i]);
-                }
-            }
+        if (parameterValues.length >= parameterCount) {
+            ParameterTypeCache.of(parsedSql).setParameters(stmt, parameterCount, parameterValues);
         }
     }
 
@@ -3463,6 +3838,23 @@ public final class JdbcUtil {
         return parameters;
     }
 
+    /**
+     * The parameter values to be reported by {@code SlowQuerySampler}. Entity/Map parameters are not captured.
+     *
+     * @param sql
+     * @param parameters
+     * @return {@code null} if {@code SlowQuerySampler} is disabled or the parameters are not captured.
+     */
+    private static Object[] sampledParameters(final String sql, final Object[] parameters) {
+        if (!SlowQuerySampler.isEnabled() || N.isNullOrEmpty(parameters)) {
+            return null;
+        }
+
+        final ParsedSql parsedSql = ParsedSqlCache.parse(sql);
+
+        return isEntityOrMapParameter(parsedSql, parameters) ? null : getParameterValues(parsedSql, parameters);
+    }
+
     static boolean isEntityOrMapParameter(final ParsedSql parsedSql, final Object... parameters) {
         if (N.isNullOrEmpty(parsedSql.getNamedParameters())) {
             return false;
@@ -3563,16 +3955,148 @@ public final class JdbcUtil {
     /**
      *
      * @param rs
-     * @param offset
-     * @param count
-     * @param filter
-     * @param rowExtractor
-     * @param closeResultSet
+     * @param offset
+     * @param count
+     * @param filter
+     * @param rowExtractor
+     * @param closeResultSet
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    public static DataSet extractData(final ResultSet rs, int offset, int count, final RowFilter filter, final RowExtractor rowExtractor,
+            final boolean closeResultSet) throws SQLException {
+        return extractData(rs, offset, count, filter, rowExtractor, closeResultSet, null, 0, false);
+    }
+
+    /**
+     *
+     * @param rs
+     * @param columnLayout the columns of {@code rs} resolved by {@link ColumnLayout#of(String, ResultSet)}.
+     * @param initialCapacity the expected row count, used to presize the columns. {@code 0} if it's unknown.
+     * @return
+     * @throws SQLException the SQL exception
+     * @see RowCountStats#getInitialCapacity(String)
+     */
+    static DataSet extractData(final ResultSet rs, final ColumnLayout columnLayout, final int initialCapacity) throws SQLException {
+        return extractData(rs, columnLayout, initialCapacity, false);
+    }
+
+    /**
+     *
+     * @param rs
+     * @param columnLayout the columns of {@code rs} resolved by {@link ColumnLayout#of(String, ResultSet)}.
+     * @param initialCapacity the expected row count, used to presize the columns. {@code 0} if it's unknown.
+     * @param primitiveColumns extract the {@code INTEGER/BIGINT/DOUBLE/BOOLEAN} columns into {@code PrimitiveColumn}s.
+     * @return
+     * @throws SQLException the SQL exception
+     * @see ResultExtractor#TO_PRIMITIVE_DATA_SET
+     */
+    static DataSet extractData(final ResultSet rs, final ColumnLayout columnLayout, final int initialCapacity, final boolean primitiveColumns)
+            throws SQLException {
+        return extractData(rs, 0, Integer.MAX_VALUE, INTERNAL_DUMMY_ROW_FILTER, INTERNAL_DUMMY_ROW_EXTRACTOR, false, columnLayout, initialCapacity,
+                primitiveColumns);
+    }
+
+    /**
+     * Extracts the rows into {@code DataSet} until the estimated heap bytes of the rows reach the specified memory budget.
+     * The rest rows are spilled to memory-mapped temp files in a compact binary format, and read back when they're accessed.
+     * It's slower to access the spilled rows, but a huge result doesn't run out of memory.
+     * <br />
+     * The values which are not {@code String/Number/Boolean/byte[]/java.sql.Date/Time/Timestamp} are spilled by Java serialization.
+     * The extraction fails if any of them is not {@code Serializable}.
+     *
+     * @param rs
+     * @param memoryBudget the estimated max heap bytes of the rows kept on heap.
+     * @return
+     * @throws SQLException the SQL exception
+     * @see AbstractPreparedQuery#setMemoryBudget(long)
+     */
+    public static DataSet extractData(final ResultSet rs, final long memoryBudget) throws SQLException {
+        return extractData(rs, memoryBudget, null);
+    }
+
+    /**
+     * Extracts the rows into {@code DataSet} as {@link #extractData(ResultSet, long)} does, with the temp files created in the specified directory.
+     *
+     * @param rs
+     * @param memoryBudget the estimated max heap bytes of the rows kept on heap.
+     * @param spillDir the directory of the temp files. {@code null} for the default temp directory.
+     * @return
+     * @throws SQLException the SQL exception
+     * @see AbstractPreparedQuery#setMemoryBudget(long, File)
+     */
+    public static DataSet extractData(final ResultSet rs, final long memoryBudget, final File spillDir) throws SQLException {
+        N.checkArgNotNull(rs, "ResultSet");
+        N.checkArgPositive(memoryBudget, "memoryBudget");
+
+        return extractData(rs, ColumnLayout.of(null, rs), 0, false, memoryBudget, spillDir);
+    }
+
+    /**
+     *
+     * @param rs
+     * @param columnLayout the columns of {@code rs} resolved by {@link ColumnLayout#of(String, ResultSet)}.
+     * @param initialCapacity the expected row count, used to presize the columns. {@code 0} if it's unknown.
+     * @param primitiveColumns extract the {@code INTEGER/BIGINT/DOUBLE/BOOLEAN} columns into {@code PrimitiveColumn}s.
+     * @param memoryBudget the estimated max heap bytes of the rows kept on heap. {@code 0} if it's not limited.
+     * @param spillDir the directory of the temp files. {@code null} for the default temp directory.
      * @return
      * @throws SQLException the SQL exception
+     * @see #extractData(ResultSet, long, File)
      */
-    public static DataSet extractData(final ResultSet rs, int offset, int count, final RowFilter filter, final RowExtractor rowExtractor,
-            final boolean closeResultSet) throws SQLException {
+    static DataSet extractData(final ResultSet rs, final ColumnLayout columnLayout, final int initialCapacity, final boolean primitiveColumns,
+            final long memoryBudget, final File spillDir) throws SQLException {
+        if (memoryBudget <= 0) {
+            return extractData(rs, columnLayout, initialCapacity, primitiveColumns);
+        }
+
+        final int columnCount = columnLayout.size();
+        final List<String> columnNameList = new ArrayList<>(columnLayout);
+        final List<List<Object>> columnList = new ArrayList<>(columnCount);
+
+        for (int i = 0; i < columnCount; i++) {
+            final PrimitiveColumn primitiveColumn = primitiveColumns ? PrimitiveColumn.of(columnLayout, i + 1, initialCapacity) : null;
+
+            if (primitiveColumn != null) {
+                columnList.add(primitiveColumn);
+            } else {
+                columnList.add(initialCapacity > 0 ? new ArrayList<>(initialCapacity) : new ArrayList<>());
+            }
+        }
+
+        final Object[] row = new Object[columnCount];
+        SpilledRows spilledRows = null;
+        long heapSize = 0;
+
+        while (rs.next()) {
+            columnLayout.readRow(rs, row);
+
+            if (spilledRows == null) {
+                for (int i = 0; i < columnCount; i++) {
+                    columnList.get(i).add(row[i]);
+                }
+
+                if ((heapSize += SpilledRows.estimateSize(row)) > memoryBudget) {
+                    spilledRows = new SpilledRows(columnCount, spillDir);
+                }
+            } else {
+                spilledRows.add(row);
+            }
+        }
+
+        if (spilledRows != null && spilledRows.size() > 0) {
+            spilledRows.seal();
+
+            for (int i = 0; i < columnCount; i++) {
+                columnList.set(i, new SpilledRows.Column<>(columnList.get(i), spilledRows, i));
+            }
+        }
+
+        return new RowDataSet(columnNameList, columnList);
+    }
+
+    private static DataSet extractData(final ResultSet rs, int offset, int count, final RowFilter filter, final RowExtractor rowExtractor,
+            final boolean closeResultSet, final ColumnLayout columnLayout, final int initialCapacity, final boolean primitiveColumns) throws SQLException {
         N.checkArgNotNull(rs, "ResultSet");
         N.checkArgNotNegative(offset, "offset");
         N.checkArgNotNegative(count, "count");
@@ -3580,15 +4104,18 @@ public final class JdbcUtil {
         N.checkArgNotNull(rowExtractor, "rowExtractor");
 
         try {
-            // TODO [performance improvement]. it will improve performance a lot if MetaData is cached.
-            final ResultSetMetaData rsmd = rs.getMetaData();
-            final int columnCount = rsmd.getColumnCount();
-            final List<String> columnNameList = new ArrayList<>(columnCount);
+            final ColumnLayout layout = columnLayout == null ? ColumnLayout.of(null, rs) : columnLayout;
+            final int columnCount = layout.size();
+            final List<String> columnNameList = new ArrayList<>(layout);
             final List<List<Object>> columnList = new ArrayList<>(columnCount);
+            final PrimitiveColumn[] primitiveColumnArray = primitiveColumns ? new PrimitiveColumn[columnCount] : null;
 
-            for (int i = 0; i < columnCount;) {
-                columnNameList.add(JdbcUtil.getColumnLabel(rsmd, ++i));
-                columnList.add(new ArrayList<>());
+            for (int i = 0; i < columnCount; i++) {
+                if (primitiveColumns && (primitiveColumnArray[i] = PrimitiveColumn.of(layout, i + 1, initialCapacity)) != null) {
+                    columnList.add(primitiveColumnArray[i]);
+                } else {
+                    columnList.add(initialCapacity > 0 ? new ArrayList<>(initialCapacity) : new ArrayList<>());
+                }
             }
 
             JdbcUtil.skip(rs, offset);
@@ -3596,9 +4123,7 @@ public final class JdbcUtil {
             if (filter == INTERNAL_DUMMY_ROW_FILTER) {
                 if (rowExtractor == INTERNAL_DUMMY_ROW_EXTRACTOR) {
                     while (count > 0 && rs.next()) {
-                        for (int i = 0; i < columnCount;) {
-                            columnList.get(i).add(JdbcUtil.getColumnValue(rs, ++i));
-                        }
+                        readRow(rs, layout, columnList, primitiveColumnArray);
 
                         count--;
                     }
@@ -3619,9 +4144,7 @@ public final class JdbcUtil {
                 if (rowExtractor == INTERNAL_DUMMY_ROW_EXTRACTOR) {
                     while (count > 0 && rs.next()) {
                         if (filter.test(rs)) {
-                            for (int i = 0; i < columnCount;) {
-                                columnList.get(i).add(JdbcUtil.getColumnValue(rs, ++i));
-                            }
+                            readRow(rs, layout, columnList, primitiveColumnArray);
 
                             count--;
                         }
@@ -3652,6 +4175,25 @@ public final class JdbcUtil {
         }
     }
 
+    private static void readRow(final ResultSet rs, final ColumnLayout layout, final List<List<Object>> columnList, final PrimitiveColumn[] primitiveColumns)
+            throws SQLException {
+        final int columnCount = columnList.size();
+
+        if (primitiveColumns == null) {
+            for (int i = 0; i < columnCount;) {
+                columnList.get(i).add(layout.getColumnValue(rs, ++i));
+            }
+        } else {
+            for (int i = 0; i < columnCount; i++) {
+                if (primitiveColumns[i] == null) {
+                    columnList.get(i).add(layout.getColumnValue(rs, i + 1));
+                } else {
+                    primitiveColumns[i].read(rs, i + 1);
+                }
+            }
+        }
+    }
+
     /**
      * It's user's responsibility to close the input <code>resultSet</code> after the stream is finished.
      *
@@ -3761,7 +4303,7 @@ public final class JdbcUtil {
                 hasNext = false;
 
                 if (columnLabels == null) {
-                    columnLabels = getColumnLabelList(resultSet);
+                    columnLabels = ColumnLayout.of(null, resultSet);
                 }
 
                 return rowMapper.apply(resultSet, columnLabels);
@@ -3909,7 +4451,7 @@ public final class JdbcUtil {
      * @return
      */
     public static List<String> getNamedParameters(String sql) {
-        return ParsedSql.parse(sql).getNamedParameters();
+        return ParsedSqlCache.parse(sql).getNamedParameters();
     }
 
     /**
@@ -4073,6 +4615,138 @@ public final class JdbcUtil {
         return isSpringTransactionalDisabled_TL.get();
     }
 
+    /**
+     * Enable {@code PreparedStatement} cache for all the connections borrowed from the specified {@code DataSource}, including the connections used by {@code SQLTransaction}.
+     * A cache is attached to each borrowed connection and closed when the connection is released, so the statements are reused until the connection is released.
+     * Only the statements prepared by {@code prepareQuery/prepareNamedQuery} without {@code stmtCreator} are cached.
+     * <br />
+     * It's designed for the connection pools which don't cache statements by themselves. Don't enable it if statement caching is already done by the pool or the driver.
+     *
+     * @param ds
+     * @param capacityPerConnection the max count of idle statements cached for each connection.
+     * @see StatementCache
+     */
+    public static void enableStatementCache(final javax.sql.DataSource ds, final int capacityPerConnection) {
+        StatementCache.enable(ds, capacityPerConnection);
+    }
+
+    /**
+     * Disable {@code PreparedStatement} cache for the specified {@code DataSource}. All the idle statements cached for its connections will be closed.
+     *
+     * @param ds
+     */
+    public static void disableStatementCache(final javax.sql.DataSource ds) {
+        StatementCache.disable(ds);
+    }
+
+    /**
+     * Enable {@code PreparedStatement} cache for the specified {@code Connection}.
+     * The cache will be closed when the connection is released/closed by {@code JdbcUtil}, or by {@link #disableStatementCache(Connection)}.
+     *
+     * @param conn
+     * @param capacity the max count of idle statements cached.
+     * @return
+     * @see StatementCache
+     */
+    public static StatementCache enableStatementCache(final Connection conn, final int capacity) {
+        return StatementCache.enable(conn, capacity);
+    }
+
+    /**
+     * Disable {@code PreparedStatement} cache for the specified {@code Connection}. All the idle statements cached will be closed.
+     *
+     * @param conn
+     */
+    public static void disableStatementCache(final Connection conn) {
+        StatementCache.disable(conn);
+    }
+
+    /**
+     * Gets the statement cache attached to the specified {@code Connection}, for example: {@code getStatementCache(tran.connection())}.
+     *
+     * @param conn
+     * @return {@code null} if statement cache is not enabled for the specified {@code Connection}.
+     */
+    public static StatementCache getStatementCache(final Connection conn) {
+        return StatementCache.get(conn);
+    }
+
+    /**
+     * Gets the statement caches attached to the connections borrowed from the specified {@code DataSource}, which are not released yet.
+     *
+     * @param ds
+     * @return
+     */
+    public static List<StatementCache> getStatementCaches(final javax.sql.DataSource ds) {
+        return StatementCache.getAll(ds);
+    }
+
+    /**
+     * Enable row count statistics for all the connections borrowed from the specified {@code DataSource}, with the default fetch size bounds.
+     *
+     * @param ds
+     * @return
+     * @see #enableRowCountStats(javax.sql.DataSource, int, int)
+     */
+    public static RowCountStats enableRowCountStats(final javax.sql.DataSource ds) {
+        return enableRowCountStats(ds, RowCountStats.DEFAULT_MIN_FETCH_SIZE, RowCountStats.DEFAULT_MAX_FETCH_SIZE);
+    }
+
+    /**
+     * Enable row count statistics for all the connections borrowed from the specified {@code DataSource}, including the connections used by {@code SQLTransaction}.
+     * The count of rows returned by each query executed by {@code list/query/executeQuery} is recorded,
+     * and used to set the fetch size and presize the result {@code List/DataSet} for the next executions of the same sql.
+     * The fetch size set by {@code setFetchSize} always wins.
+     *
+     * @param ds
+     * @param minFetchSize
+     * @param maxFetchSize
+     * @return
+     * @see RowCountStats
+     */
+    public static RowCountStats enableRowCountStats(final javax.sql.DataSource ds, final int minFetchSize, final int maxFetchSize) {
+        return RowCountStats.enable(ds, minFetchSize, maxFetchSize);
+    }
+
+    /**
+     * Disable row count statistics for the specified {@code DataSource}.
+     *
+     * @param ds
+     */
+    public static void disableRowCountStats(final javax.sql.DataSource ds) {
+        RowCountStats.disable(ds);
+    }
+
+    /**
+     *
+     * @param ds
+     * @return {@code null} if row count statistics is not enabled for the specified {@code DataSource}.
+     */
+    public static RowCountStats getRowCountStats(final javax.sql.DataSource ds) {
+        return RowCountStats.get(ds);
+    }
+
+    /**
+     * Set how the {@code Blob/Clob} values are read by the queries by all the connections borrowed from the specified {@code DataSource},
+     * including the connections used by {@code SQLTransaction}. It can be overridden by {@link AbstractPreparedQuery#setLobPolicy(LobPolicy)} for a query.
+     *
+     * @param ds
+     * @param lobPolicy {@code null} or {@link LobPolicy#INLINE} to read all the LOBs into {@code byte[]/String}, which is the default.
+     * @see LobPolicy
+     */
+    public static void setLobPolicy(final javax.sql.DataSource ds, final LobPolicy lobPolicy) {
+        LobPolicy.set(ds, lobPolicy);
+    }
+
+    /**
+     *
+     * @param ds
+     * @return {@link LobPolicy#INLINE} if no policy is set for the specified {@code DataSource}.
+     */
+    public static LobPolicy getLobPolicy(final javax.sql.DataSource ds) {
+        return LobPolicy.get(ds);
+    }
+
     /**
      * Checks if is default id prop value.
      *
@@ -4374,6 +5048,17 @@ public final class JdbcUtil {
             }
         };
 
+        /**
+         * Same as {@link #TO_DATA_SET}, except that the {@code INTEGER/BIGINT/DOUBLE/BOOLEAN} columns are stored in primitive arrays with a bitmap of {@code null}s,
+         * instead of lists of boxed values. The values are boxed when they're accessed. It's designed to reduce the memory used by large results of numeric columns.
+         */
+        ResultExtractor<DataSet> TO_PRIMITIVE_DATA_SET = new ResultExtractor<DataSet>() {
+            @Override
+            public DataSet apply(final ResultSet rs) throws SQLException {
+                return JdbcUtil.extractData(rs, ColumnLayout.of(null, rs), 0, true);
+            }
+        };
+
         /**
          *
          * @param rs
@@ -5426,8 +6111,12 @@ public final class JdbcUtil {
                 final int columnCount = columnLabels.size();
                 final Object[] result = new Object[columnCount];
 
-                for (int i = 1; i <= columnCount; i++) {
-                    result[i - 1] = JdbcUtil.getColumnValue(rs, i);
+                if (columnLabels instanceof ColumnLayout) {
+                    ((ColumnLayout) columnLabels).readRow(rs, result);
+                } else {
+                    for (int i = 1; i <= columnCount; i++) {
+                        result[i - 1] = JdbcUtil.getColumnValue(rs, i);
+                    }
                 }
 
                 return result;
@@ -5441,8 +6130,16 @@ public final class JdbcUtil {
                 final int columnCount = columnLabels.size();
                 final List<Object> result = new ArrayList<>(columnCount);
 
-                for (int i = 1; i <= columnCount; i++) {
-                    result.add(JdbcUtil.getColumnValue(rs, i));
+                if (columnLabels instanceof ColumnLayout) {
+                    final ColumnLayout columnLayout = (ColumnLayout) columnLabels;
+
+                    for (int i = 1; i <= columnCount; i++) {
+                        result.add(columnLayout.getColumnValue(rs, i));
+                    }
+                } else {
+                    for (int i = 1; i <= columnCount; i++) {
+                        result.add(JdbcUtil.getColumnValue(rs, i));
+                    }
                 }
 
                 return result;
@@ -5456,8 +6153,16 @@ public final class JdbcUtil {
                 final int columnCount = columnLabels.size();
                 final Map<String, Object> result = new HashMap<>(columnCount);
 
-                for (int i = 1; i <= columnCount; i++) {
-                    result.put(columnLabels.get(i - 1), JdbcUtil.getColumnValue(rs, i));
+                if (columnLabels instanceof ColumnLayout) {
+                    final ColumnLayout columnLayout = (ColumnLayout) columnLabels;
+
+                    for (int i = 1; i <= columnCount; i++) {
+                        result.put(columnLayout.get(i - 1), columnLayout.getColumnValue(rs, i));
+                    }
+                } else {
+                    for (int i = 1; i <= columnCount; i++) {
+                        result.put(columnLabels.get(i - 1), JdbcUtil.getColumnValue(rs, i));
+                    }
                 }
 
                 return result;
@@ -5471,8 +6176,16 @@ public final class JdbcUtil {
                 final int columnCount = columnLabels.size();
                 final Map<String, Object> result = new LinkedHashMap<>(columnCount);
 
-                for (int i = 1; i <= columnCount; i++) {
-                    result.put(columnLabels.get(i - 1), JdbcUtil.getColumnValue(rs, i));
+                if (columnLabels instanceof ColumnLayout) {
+                    final ColumnLayout columnLayout = (ColumnLayout) columnLabels;
+
+                    for (int i = 1; i <= columnCount; i++) {
+                        result.put(columnLayout.get(i - 1), columnLayout.getColumnValue(rs, i));
+                    }
+                } else {
+                    for (int i = 1; i <= columnCount; i++) {
+                        result.put(columnLabels.get(i - 1), JdbcUtil.getColumnValue(rs, i));
+                    }
                 }
 
                 return result;
@@ -5534,153 +6247,22 @@ public final class JdbcUtil {
         @SequentialOnly
         @Stateful
         static <T> BiRowMapper<T> to(Class<? extends T> targetClass, final boolean ignoreNonMatchedColumns) {
-            if (Object[].class.isAssignableFrom(targetClass)) {
-                return new BiRowMapper<T>() {
-                    @Override
-                    public T apply(final ResultSet rs, final List<String> columnLabelList) throws SQLException {
-                        final int columnCount = columnLabelList.size();
-                        final Object[] a = Array.newInstance(targetClass.getComponentType(), columnCount);
-
-                        for (int i = 0; i < columnCount; i++) {
-                            a[i] = getColumnValue(rs, i + 1);
-                        }
-
-                        return (T) a;
-                    }
-                };
-            } else if (List.class.isAssignableFrom(targetClass)) {
-                return new BiRowMapper<T>() {
-                    private final boolean isListOrArrayList = targetClass.equals(List.class) || targetClass.equals(ArrayList.class);
-
-                    @Override
-                    public T apply(final ResultSet rs, final List<String> columnLabelList) throws SQLException {
-                        final int columnCount = columnLabelList.size();
-                        final List<Object> c = isListOrArrayList ? new ArrayList<>(columnCount) : (List<Object>) N.newInstance(targetClass);
-
-                        for (int i = 0; i < columnCount; i++) {
-                            c.add(getColumnValue(rs, i + 1));
-                        }
-
-                        return (T) c;
-                    }
-                };
-            } else if (Map.class.isAssignableFrom(targetClass)) {
-                return new BiRowMapper<T>() {
-                    private final boolean isMapOrHashMap = targetClass.equals(Map.class) || targetClass.equals(HashMap.class);
-                    private final boolean isLinkedHashMap = targetClass.equals(LinkedHashMap.class);
-                    private volatile String[] columnLabels = null;
-
-                    @Override
-                    public T apply(final ResultSet rs, final List<String> columnLabelList) throws SQLException {
-                        final int columnCount = columnLabelList.size();
-                        String[] columnLabels = this.columnLabels;
-
-                        if (columnLabels == null) {
-                            columnLabels = columnLabelList.toArray(new String[columnCount]);
-                            this.columnLabels = columnLabels;
-                        }
-
-                        final Map<String, Object> m = isMapOrHashMap ? new HashMap<>(columnCount)
-                                : (isLinkedHashMap ? new LinkedHashMap<>(columnCount) : (Map<String, Object>) N.newInstance(targetClass));
-
-                        for (int i = 0; i < columnCount; i++) {
-                            m.put(columnLabels[i], getColumnValue(rs, i + 1));
-                        }
-
-                        return (T) m;
-                    }
-                };
-            } else if (ClassUtil.isEntity(targetClass)) {
-                return new BiRowMapper<T>() {
-                    private final boolean isDirtyMarker = DirtyMarkerUtil.isDirtyMarker(targetClass);
-                    private final EntityInfo entityInfo = ParserUtil.getEntityInfo(targetClass);
-                    private volatile String[] columnLabels = null;
-                    private volatile PropInfo[] propInfos;
-                    private volatile Type<?>[] columnTypes = null;
-
-                    @Override
-                    public T apply(final ResultSet rs, final List<String> columnLabelList) throws SQLException {
-                        final int columnCount = columnLabelList.size();
-
-                        String[] columnLabels = this.columnLabels;
-                        PropInfo[] propInfos = this.propInfos;
-                        Type<?>[] columnTypes = this.columnTypes;
-
-                        if (columnLabels == null) {
-                            columnLabels = columnLabelList.toArray(new String[columnCount]);
-                            this.columnLabels = columnLabels;
-                        }
-
-                        if (columnTypes == null || propInfos == null) {
-                            final Map<String, String> column2FieldNameMap = JdbcUtil.getColumn2FieldNameMap(targetClass);
-
-                            propInfos = new PropInfo[columnCount];
-                            columnTypes = new Type[columnCount];
-
-                            for (int i = 0; i < columnCount; i++) {
-                                propInfos[i] = entityInfo.getPropInfo(columnLabels[i]);
-
-                                if (propInfos[i] == null) {
-                                    String fieldName = column2FieldNameMap.get(columnLabels[i]);
-
-                                    if (N.isNullOrEmpty(fieldName)) {
-                                        fieldName = column2FieldNameMap.get(columnLabels[i].toLowerCase());
-                                    }
-
-                                    if (N.notNullOrEmpty(fieldName)) {
-                                        propInfos[i] = entityInfo.getPropInfo(fieldName);
-                                    }
-                                }
-
-                                if (propInfos[i] == null) {
-                                    if (ignoreNonMatchedColumns) {
-                                        columnLabels[i] = null;
-                                    } else {
-                                        throw new IllegalArgumentException("No property in class: " + ClassUtil.getCanonicalClassName(targetClass)
-                                                + " mapping to column: " + columnLabels[i]);
-                                    }
-                                } else {
-                                    columnTypes[i] = entityInfo.getPropInfo(columnLabels[i]).dbType;
-                                }
-                            }
-
-                            this.propInfos = propInfos;
-                            this.columnTypes = columnTypes;
-                        }
-
-                        final Object entity = N.newInstance(targetClass);
+            return new BiRowMapper<T>() {
+                private volatile BiRowMapper<T> rowMapper;
 
-                        for (int i = 0; i < columnCount; i++) {
-                            if (columnLabels[i] == null) {
-                                continue;
-                            }
-
-                            propInfos[i].setPropValue(entity, columnTypes[i].get(rs, i + 1));
-                        }
-
-                        if (isDirtyMarker) {
-                            DirtyMarkerUtil.markDirty((DirtyMarker) entity, false);
-                        }
+                @Override
+                public T apply(final ResultSet rs, final List<String> columnLabelList) throws SQLException {
+                    BiRowMapper<T> rowMapper = this.rowMapper;
 
-                        return (T) entity;
+                    if (rowMapper == null) {
+                        // compiled once for the columns of the first ResultSet, and cached by ColumnLayout.
+                        rowMapper = CompiledRowMapper.compile(targetClass, rs, columnLabelList, ignoreNonMatchedColumns);
+                        this.rowMapper = rowMapper;
                     }
-                };
-            } else {
-                return new BiRowMapper<T>() {
-                    private final Type<? extends T> targetType = N.typeOf(targetClass);
-                    private int columnCount = 0;
-
-                    @Override
-                    public T apply(final ResultSet rs, final List<String> columnLabelList) throws SQLException {
-                        if (columnCount != 1 && (columnCount = columnLabelList.size()) != 1) {
-                            throw new IllegalArgumentException(
-                                    "It's not supported to retrieve value from multiple columns: " + columnLabelList + " for type: " + targetClass);
-                        }
 
-                        return targetType.get(rs, 1);
-                    }
-                };
-            }
+                    return rowMapper.apply(rs, columnLabelList);
+                }
+            };
         }
 
         static BiRowMapperBuilder builder() {
@@ -5919,7 +6501,7 @@ public final class JdbcUtil {
                         private volatile int rsColumnCount = -1;
                         private volatile Columns.ColumnGetter<?>[] rsColumnGetters = null;
                         private volatile String[] columnLabels = null;
-                        private volatile PropInfo[] propInfos;
+                        private volatile PropAccessor[] propAccessors;
 
                         @Override
                         public T apply(final ResultSet rs, final List<String> columnLabelList) throws SQLException {
@@ -5964,17 +6546,18 @@ public final class JdbcUtil {
                                     }
                                 }
 
-                                this.propInfos = propInfos;
+                                this.propAccessors = PropAccessor.of(targetClass, propInfos);
                             }
 
+                            final PropAccessor[] propAccessors = this.propAccessors;
                             final Object entity = N.newInstance(targetClass);
 
-                            for (int i = 0; i < rsColumnCount;) {
+                            for (int i = 0; i < rsColumnCount; i++) {
                                 if (columnLabels[i] == null) {
                                     continue;
                                 }
 
-                                propInfos[i].setPropValue(entity, rsColumnGetters[++i].apply(i, rs));
+                                propAccessors[i].setPropValue(entity, rsColumnGetters[i + 1].apply(i + 1, rs));
                             }
 
                             if (isDirtyMarker) {
@@ -6475,6 +7058,24 @@ public final class JdbcUtil {
              * @return
              */
             boolean addLimitForSingleQuery() default false;
+
+            /**
+             * Insert the entities by {@code batchInsert/batchSave} with multi-row {@code INSERT INTO ... VALUES (...), (...), ...} statements,
+             * instead of one row per statement in JDBC batch. It's only applied to the databases supporting it: MySQL, PostgreSQL, H2, HSQLDB, DB2 and SQL Server,
+             * and only to the databases returning the generated keys of all the rows (MySQL, PostgreSQL and H2) if the generated keys are required by {@code batchInsert}.
+             * 
+             * @return
+             */
+            boolean multiRowInsert() default false;
+
+            /**
+             * The ids/keys of {@code batchGet/loadJoinEntities} are bound as one array parameter ({@code id = ANY(?)}), instead of one {@code ?} for each id/key,
+             * if the count of them is equal to or bigger than this value. It's only applied to the databases supporting it: PostgreSQL, H2 and HSQLDB,
+             * and to single id/join column. The default value {@code 0} means never.
+             * 
+             * @return
+             */
+            int arrayParameterThreshold() default 0;
         }
 
         /**
@@ -7110,6 +7711,18 @@ public final class JdbcUtil {
             int capacity() default 1000;
 
             long evictDelay() default 3000; // unit milliseconds.
+
+            /**
+             * If it's {@code true}, the methods annotated by {@code RefreshCache} only refresh the results cached by the queries of the tables
+             * they update, by the versions of the tables appended to the cache keys, instead of clearing the whole cache.
+             * The methods whose sqls are read-only don't refresh the cache even they're selected by the {@code filter} of the {@code RefreshCache} on type.
+             * <br />
+             * The versions are kept in the current JVM, so it's only correct for the cache local to the JVM, not a distributed/shared cache.
+             * The results cached with the old versions are not removed, until they expire or are evicted.
+             *
+             * @return
+             */
+            boolean refreshByTable() default false;
         }
 
         /** 
@@ -8883,6 +9496,26 @@ public final class JdbcUtil {
         default int deleteById(final long id) throws SQLException {
             return deleteById(Long.valueOf(id));
         }
+
+        /**
+         *
+         * @param ids
+         * @return
+         * @throws SQLException the SQL exception
+         */
+        default int batchDeleteByIds(final long[] ids) throws SQLException {
+            return batchDeleteByIds(ids, DEFAULT_BATCH_SIZE);
+        }
+
+        /**
+         * The ids are set by {@code PreparedStatement.setLong} without boxing, and executed in batches of {@code batchSize} in one transaction.
+         *
+         * @param ids
+         * @param batchSize
+         * @return
+         * @throws SQLException the SQL exception
+         */
+        int batchDeleteByIds(final long[] ids, final int batchSize) throws SQLException;
     }
 
     /**
@@ -12352,6 +12985,14 @@ public final class JdbcUtil {
         default int deleteById(final long id) throws UncheckedSQLException {
             return deleteById(Long.valueOf(id));
         }
+
+        @Override
+        default int batchDeleteByIds(final long[] ids) throws UncheckedSQLException {
+            return batchDeleteByIds(ids, DEFAULT_BATCH_SIZE);
+        }
+
+        @Override
+        int batchDeleteByIds(final long[] ids, final int batchSize) throws UncheckedSQLException;
     }
 
     /**
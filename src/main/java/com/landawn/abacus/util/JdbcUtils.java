@@ -1678,7 +1678,7 @@ public final class JdbcUtils {
 
                 try {
                     if (columnLabels == null) {
-                        columnLabels = JdbcUtil.getColumnLabelList(rs);
+                        columnLabels = ColumnLayout.of(null, rs);
                     }
 
                     return biFunc.apply(rs, columnLabels);
@@ -33,6 +33,7 @@ final class JoinInfo {
     final Class<?> entityClass;
     final EntityInfo entityInfo;
     final PropInfo joinPropInfo;
+    final PropAccessor joinPropAccessor;
     final PropInfo[] srcPropInfos;
     final PropInfo[] referencedPropInfos;
     final Type<?> referencedEntityType;
@@ -66,6 +67,8 @@ final class JoinInfo {
             throw new IllegalArgumentException("Property '" + joinPropInfo.name + "' in class: " + entityClass + " is annotated by @Column");
         }
 
+        joinPropAccessor = PropAccessor.of(entityClass, joinPropInfo);
+
         referencedEntityType = joinPropInfo.type.isCollection() ? joinPropInfo.type.getElementType() : joinPropInfo.type;
 
         if (!referencedEntityType.isEntity()) {
@@ -143,14 +146,16 @@ final class JoinInfo {
             final List<String> middleSelectPropNames = N.asList(right[0].substring(right[0].indexOf('.') + 1));
             final Condition middleEntityCond = CF.eq(left[1].substring(left[1].indexOf('.') + 1));
 
+            final PropAccessor srcPropAccessor = PropAccessor.of(entityClass, srcPropInfos[0]);
+
             final BiParametersSetter<PreparedStatement, Object> paramSetter = (stmt, entity) -> srcPropInfos[0].dbType.set(stmt, 1,
-                    checkPropValue(srcPropInfos[0], entity));
+                    checkPropValue(srcPropAccessor, entity));
 
             final BiParametersSetter<PreparedStatement, Collection<?>> batchParaSetter = (stmt, entities) -> {
                 int index = 1;
 
                 for (Object entity : entities) {
-                    srcPropInfos[0].dbType.set(stmt, index++, checkPropValue(srcPropInfos[0], entity));
+                    srcPropInfos[0].dbType.set(stmt, index++, checkPropValue(srcPropAccessor, entity));
                 }
             };
 
@@ -412,8 +417,10 @@ final class JoinInfo {
                 selectSQLBuilderAndParamSetterForBatchPool.put(PLC.class, Tuple.of(batchSQLBuilder, batchParaSetter));
             }
 
-            srcEntityKeyExtractor = entity -> checkPropValue(srcPropInfos[0], entity);
-            referencedEntityKeyExtractor = entity -> referencedPropInfos[0].getPropValue(entity);
+            final PropAccessor referencedPropAccessor = PropAccessor.of(referencedEntityClass, referencedPropInfos[0]);
+
+            srcEntityKeyExtractor = entity -> checkPropValue(srcPropAccessor, entity);
+            referencedEntityKeyExtractor = entity -> referencedPropAccessor.getPropValue(entity);
             // ===============================================================================================================================
         } else {
             isManyToManyJoin = false;
@@ -446,33 +453,35 @@ final class JoinInfo {
 
             final Condition cond = joinColumnPairs.length == 1 ? conds.get(0) : CF.and(conds);
             final List<String> referencedPropNames = Stream.of(referencedPropInfos).map(p -> p.name).toList();
+            final PropAccessor[] srcPropAccessors = PropAccessor.of(entityClass, srcPropInfos);
+            final PropAccessor[] referencedPropAccessors = PropAccessor.of(referencedEntityClass, referencedPropInfos);
 
             final BiParametersSetter<PreparedStatement, Object> paramSetter = srcPropInfos.length == 1
-                    ? (stmt, entity) -> srcPropInfos[0].dbType.set(stmt, 1, checkPropValue(srcPropInfos[0], entity))
+                    ? (stmt, entity) -> srcPropInfos[0].dbType.set(stmt, 1, checkPropValue(srcPropAccessors[0], entity))
                     : (srcPropInfos.length == 2 ? (stmt, entity) -> {
-                        srcPropInfos[0].dbType.set(stmt, 1, checkPropValue(srcPropInfos[0], entity));
-                        srcPropInfos[1].dbType.set(stmt, 2, checkPropValue(srcPropInfos[1], entity));
+                        srcPropInfos[0].dbType.set(stmt, 1, checkPropValue(srcPropAccessors[0], entity));
+                        srcPropInfos[1].dbType.set(stmt, 2, checkPropValue(srcPropAccessors[1], entity));
                     } : (stmt, entity) -> {
                         for (int i = 0, len = srcPropInfos.length; i < len; i++) {
-                            srcPropInfos[i].dbType.set(stmt, i + 1, checkPropValue(srcPropInfos[i], entity));
+                            srcPropInfos[i].dbType.set(stmt, i + 1, checkPropValue(srcPropAccessors[i], entity));
                         }
                     });
 
             final BiParametersSetter<PreparedStatement, Object> setNullParamSetter = srcPropInfos.length == 1 ? (stmt, entity) -> {
                 srcPropInfos[0].dbType.set(stmt, 1, srcPropInfos[0].dbType.defaultValue());
-                srcPropInfos[0].dbType.set(stmt, 2, checkPropValue(srcPropInfos[0], entity));
+                srcPropInfos[0].dbType.set(stmt, 2, checkPropValue(srcPropAccessors[0], entity));
             } : (srcPropInfos.length == 2 ? (stmt, entity) -> {
                 srcPropInfos[0].dbType.set(stmt, 1, srcPropInfos[0].dbType.defaultValue());
                 srcPropInfos[1].dbType.set(stmt, 2, srcPropInfos[1].dbType.defaultValue());
-                srcPropInfos[0].dbType.set(stmt, 3, checkPropValue(srcPropInfos[0], entity));
-                srcPropInfos[1].dbType.set(stmt, 4, checkPropValue(srcPropInfos[1], entity));
+                srcPropInfos[0].dbType.set(stmt, 3, checkPropValue(srcPropAccessors[0], entity));
+                srcPropInfos[1].dbType.set(stmt, 4, checkPropValue(srcPropAccessors[1], entity));
             } : (stmt, entity) -> {
                 for (int i = 0, len = srcPropInfos.length; i < len; i++) {
                     srcPropInfos[i].dbType.set(stmt, i + 1, srcPropInfos[i].dbType.defaultValue());
                 }
 
                 for (int i = 0, len = srcPropInfos.length; i < len; i++) {
-                    srcPropInfos[i].dbType.set(stmt, len + i + 1, checkPropValue(srcPropInfos[i], entity));
+                    srcPropInfos[i].dbType.set(stmt, len + i + 1, checkPropValue(srcPropAccessors[i], entity));
                 }
             });
 
@@ -480,14 +489,14 @@ final class JoinInfo {
                 int index = 1;
 
                 for (Object entity : entities) {
-                    srcPropInfos[0].dbType.set(stmt, index++, checkPropValue(srcPropInfos[0], entity));
+                    srcPropInfos[0].dbType.set(stmt, index++, checkPropValue(srcPropAccessors[0], entity));
                 }
             } : (stmt, entities) -> {
                 int index = 1;
 
                 for (Object entity : entities) {
                     for (int i = 0, len = srcPropInfos.length; i < len; i++) {
-                        srcPropInfos[i].dbType.set(stmt, index++, checkPropValue(srcPropInfos[i], entity));
+                        srcPropInfos[i].dbType.set(stmt, index++, checkPropValue(srcPropAccessors[i], entity));
                     }
                 }
             };
@@ -634,48 +643,49 @@ final class JoinInfo {
             Function<Object, Object> referencedEntityKeyExtractorTmp = null;
 
             if (srcPropInfos.length == 1) {
-                final PropInfo srcPropInfo = srcPropInfos[0];
-                final PropInfo referencedPropInfo = referencedPropInfos[0];
+                final PropAccessor srcPropAccessor = srcPropAccessors[0];
+                final PropAccessor referencedPropAccessor = referencedPropAccessors[0];
 
-                srcEntityKeyExtractorTmp = entity -> checkPropValue(srcPropInfo, entity);
-                referencedEntityKeyExtractorTmp = entity -> referencedPropInfo.getPropValue(entity);
+                srcEntityKeyExtractorTmp = entity -> checkPropValue(srcPropAccessor, entity);
+                referencedEntityKeyExtractorTmp = entity -> referencedPropAccessor.getPropValue(entity);
             } else if (srcPropInfos.length == 2) {
-                final PropInfo srcPropInfo_1 = srcPropInfos[0];
-                final PropInfo srcPropInfo_2 = srcPropInfos[1];
-                final PropInfo referencedPropInfo_1 = referencedPropInfos[0];
-                final PropInfo referencedPropInfo_2 = referencedPropInfos[1];
-
-                srcEntityKeyExtractorTmp = entity -> Tuple.of(checkPropValue(srcPropInfo_1, entity), checkPropValue(srcPropInfo_2, entity));
-                referencedEntityKeyExtractorTmp = entity -> Tuple.of(referencedPropInfo_1.getPropValue(entity), referencedPropInfo_2.getPropValue(entity));
+                final PropAccessor srcPropAccessor_1 = srcPropAccessors[0];
+                final PropAccessor srcPropAccessor_2 = srcPropAccessors[1];
+                final PropAccessor referencedPropAccessor_1 = referencedPropAccessors[0];
+                final PropAccessor referencedPropAccessor_2 = referencedPropAccessors[1];
+
+                srcEntityKeyExtractorTmp = entity -> Tuple.of(checkPropValue(srcPropAccessor_1, entity), checkPropValue(srcPropAccessor_2, entity));
+                referencedEntityKeyExtractorTmp = entity -> Tuple.of(referencedPropAccessor_1.getPropValue(entity),
+                        referencedPropAccessor_2.getPropValue(entity));
             } else if (srcPropInfos.length == 3) {
-                final PropInfo srcPropInfo_1 = srcPropInfos[0];
-                final PropInfo srcPropInfo_2 = srcPropInfos[1];
-                final PropInfo srcPropInfo_3 = srcPropInfos[2];
-                final PropInfo referencedPropInfo_1 = referencedPropInfos[0];
-                final PropInfo referencedPropInfo_2 = referencedPropInfos[1];
-                final PropInfo referencedPropInfo_3 = referencedPropInfos[2];
-
-                srcEntityKeyExtractorTmp = entity -> Tuple.of(checkPropValue(srcPropInfo_1, entity), checkPropValue(srcPropInfo_2, entity),
-                        checkPropValue(srcPropInfo_3, entity));
-
-                referencedEntityKeyExtractorTmp = entity -> Tuple.of(referencedPropInfo_1.getPropValue(entity), referencedPropInfo_2.getPropValue(entity),
-                        referencedPropInfo_3.getPropValue(entity));
+                final PropAccessor srcPropAccessor_1 = srcPropAccessors[0];
+                final PropAccessor srcPropAccessor_2 = srcPropAccessors[1];
+                final PropAccessor srcPropAccessor_3 = srcPropAccessors[2];
+                final PropAccessor referencedPropAccessor_1 = referencedPropAccessors[0];
+                final PropAccessor referencedPropAccessor_2 = referencedPropAccessors[1];
+                final PropAccessor referencedPropAccessor_3 = referencedPropAccessors[2];
+
+                srcEntityKeyExtractorTmp = entity -> Tuple.of(checkPropValue(srcPropAccessor_1, entity), checkPropValue(srcPropAccessor_2, entity),
+                        checkPropValue(srcPropAccessor_3, entity));
+
+                referencedEntityKeyExtractorTmp = entity -> Tuple.of(referencedPropAccessor_1.getPropValue(entity),
+                        referencedPropAccessor_2.getPropValue(entity), referencedPropAccessor_3.getPropValue(entity));
             } else {
                 srcEntityKeyExtractorTmp = entity -> {
-                    final List<Object> keys = new ArrayList<>(srcPropInfos.length);
+                    final List<Object> keys = new ArrayList<>(srcPropAccessors.length);
 
-                    for (PropInfo srcPropInfo : srcPropInfos) {
-                        keys.add(checkPropValue(srcPropInfo, entity));
+                    for (PropAccessor srcPropAccessor : srcPropAccessors) {
+                        keys.add(checkPropValue(srcPropAccessor, entity));
                     }
 
                     return keys;
                 };
 
                 referencedEntityKeyExtractorTmp = entity -> {
-                    final List<Object> keys = new ArrayList<>(referencedPropInfos.length);
+                    final List<Object> keys = new ArrayList<>(referencedPropAccessors.length);
 
-                    for (PropInfo referencedPropInfo : referencedPropInfos) {
-                        keys.add(referencedPropInfo.getPropValue(entity));
+                    for (PropAccessor referencedPropAccessor : referencedPropAccessors) {
+                        keys.add(referencedPropAccessor.getPropValue(entity));
                     }
 
                     return keys;
@@ -754,14 +764,14 @@ final class JoinInfo {
             if (propEntities != null) {
                 if (isCollectionProp) {
                     if (isListProp || joinPropInfo.clazz.isAssignableFrom(propEntities.getClass())) {
-                        joinPropInfo.setPropValue(entity, propEntities);
+                        joinPropAccessor.setPropValue(entity, propEntities);
                     } else {
                         final Collection<Object> c = (Collection<Object>) N.newInstance(joinPropInfo.clazz);
                         c.addAll(propEntities);
-                        joinPropInfo.setPropValue(entity, c);
+                        joinPropAccessor.setPropValue(entity, c);
                     }
                 } else {
-                    joinPropInfo.setPropValue(entity, propEntities.get(0));
+                    joinPropAccessor.setPropValue(entity, propEntities.get(0));
                 }
 
                 if (isDirtyMarker) {
@@ -846,11 +856,11 @@ final class JoinInfo {
         return isManyToManyJoin;
     }
 
-    private Object checkPropValue(PropInfo propInfo, Object entity) {
-        final Object value = propInfo.getPropValue(entity);
+    private Object checkPropValue(PropAccessor propAccessor, Object entity) {
+        final Object value = propAccessor.getPropValue(entity);
 
         if (allowJoiningByNullOrDefaultValue == false && Primitives.isNullOrDefault(value)) {
-            throw new IllegalArgumentException("The join property value can't be null or default for property: " + propInfo.name
+            throw new IllegalArgumentException("The join property value can't be null or default for property: " + propAccessor.propInfo().name
                     + ". Annotated the Dao class of " + entityClass + " with @AllowJoiningByNullOrDefaultValue to avoid this exception");
         }
 
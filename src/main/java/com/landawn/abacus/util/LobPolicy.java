@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.landawn.abacus.exception.UncheckedIOException;
+
+/**
+ * How the {@code Blob/Clob} values are read by the queries: the LOBs with length less than or equal to the inline threshold are read
+ * into {@code byte[]/String} as {@link JdbcUtil#getColumnValue(ResultSet, int)} does. The bigger ones are:
+ * <ul>
+ * <li>{@link Mode#INLINE}: read into {@code byte[]/String} too. It's the default policy.</li>
+ * <li>{@link Mode#LAZY}: returned as the {@code Blob/Clob} of the driver, which is streamed on demand by {@code getBinaryStream/getCharacterStream}.
+ * It's only readable before the {@code ResultSet}/transaction is closed, so it's for {@code stream/forEach}, not {@code list/query}.</li>
+ * <li>{@link Mode#SPILL}: appended to the memory-mapped temp files shared by the LOBs spilled by the policy, and returned as a read-only
+ * {@code ByteBuffer} for {@code Blob}, or a read-only {@code CharBuffer} (a {@code CharSequence}) for {@code Clob}.
+ * The heap used doesn't grow with the size of the LOBs, and the number of the files/mappings doesn't grow with the number of the LOBs.
+ * The LOBs too big to be mapped by one buffer (2 GB for {@code Blob}, 1G chars for {@code Clob}) are returned as {@link Mode#LAZY} does.</li>
+ * </ul>
+ * The policy is set by {@link AbstractPreparedQuery#setLobPolicy(LobPolicy)} for a query,
+ * or by {@link JdbcUtil#setLobPolicy(javax.sql.DataSource, LobPolicy)} for all the queries by the connections borrowed from a {@code DataSource}.
+ * It's applied to the values read as {@code Object}: {@code DataSet}, {@code Object[]/List/Map} rows and {@code BiRowMapper}s,
+ * not the entity properties, which are read by their types.
+ *
+ * @author Haiyang Li
+ */
+public final class LobPolicy {
+
+    /** Read all the LOBs into {@code byte[]/String}. */
+    public static final LobPolicy INLINE = new LobPolicy(Mode.INLINE, Long.MAX_VALUE, null);
+
+    private static final int MAX_MAPPED_SIZE = Integer.MAX_VALUE;
+
+    private static final int SPILL_SEGMENT_SIZE = 64 * 1024 * 1024;
+
+    private static final Map<javax.sql.DataSource, LobPolicy> dsPolicyPool = new ConcurrentHashMap<>();
+
+    private final Mode mode;
+
+    private final long inlineThreshold;
+
+    private final File spillDir;
+
+    private final SpillSegments spillSegments;
+
+    private LobPolicy(final Mode mode, final long inlineThreshold, final File spillDir) {
+        this.mode = mode;
+        this.inlineThreshold = inlineThreshold;
+        this.spillDir = spillDir;
+        this.spillSegments = mode == Mode.SPILL ? new SpillSegments(spillDir, SPILL_SEGMENT_SIZE) : null;
+    }
+
+    /**
+     *
+     * @param inlineThreshold the max length (bytes for {@code Blob}, chars for {@code Clob}) of the LOBs read into {@code byte[]/String}.
+     * @return
+     */
+    public static LobPolicy lazy(final long inlineThreshold) {
+        N.checkArgNotNegative(inlineThreshold, "inlineThreshold");
+
+        return new LobPolicy(Mode.LAZY, inlineThreshold, null);
+    }
+
+    /**
+     * The LOBs are spilled to the default temp directory.
+     *
+     * @param inlineThreshold the max length (bytes for {@code Blob}, chars for {@code Clob}) of the LOBs read into {@code byte[]/String}.
+     * @return
+     */
+    public static LobPolicy spill(final long inlineThreshold) {
+        return spill(inlineThreshold, null);
+    }
+
+    /**
+     *
+     * @param inlineThreshold the max length (bytes for {@code Blob}, chars for {@code Clob}) of the LOBs read into {@code byte[]/String}.
+     * @param spillDir the directory of the temp files. {@code null} for the default temp directory.
+     * @return
+     */
+    public static LobPolicy spill(final long inlineThreshold, final File spillDir) {
+        N.checkArgNotNegative(inlineThreshold, "inlineThreshold");
+
+        return new LobPolicy(Mode.SPILL, inlineThreshold, spillDir);
+    }
+
+    public Mode mode() {
+        return mode;
+    }
+
+    public long inlineThreshold() {
+        return inlineThreshold;
+    }
+
+    /**
+     *
+     * @return {@code null} if it's the default temp directory.
+     */
+    public File spillDir() {
+        return spillDir;
+    }
+
+    @Override
+    public String toString() {
+        return "{mode=" + mode + ", inlineThreshold=" + inlineThreshold + (spillDir == null ? "" : ", spillDir=" + spillDir) + "}";
+    }
+
+    /**
+     * Gets the value of the LOB column at the current row of the specified {@code ResultSet}.
+     *
+     * @param rs
+     * @param columnIndex starts with 1, not 0.
+     * @return
+     * @throws SQLException the SQL exception
+     */
+    Object read(final ResultSet rs, final int columnIndex) throws SQLException {
+        final Object obj = rs.getObject(columnIndex);
+
+        if (obj instanceof Blob) {
+            final Blob blob = (Blob) obj;
+            final long length = blob.length();
+
+            if (length <= inlineThreshold) {
+                return blob.getBytes(1, (int) length);
+            } else if (mode == Mode.SPILL && length <= MAX_MAPPED_SIZE) {
+                return spill(blob, (int) length);
+            }
+        } else if (obj instanceof Clob) {
+            final Clob clob = (Clob) obj;
+            final long length = clob.length();
+
+            if (length <= inlineThreshold) {
+                return clob.getSubString(1, (int) length);
+            } else if (mode == Mode.SPILL && length <= MAX_MAPPED_SIZE / 2) {
+                return spill(clob, (int) length);
+            }
+        }
+
+        return obj;
+    }
+
+    private ByteBuffer spill(final Blob blob, final int length) throws SQLException {
+        try (InputStream is = blob.getBinaryStream()) {
+            final ByteBuffer buffer = spillSegments.allocate(length);
+            final byte[] buf = new byte[8192];
+            int count = 0;
+
+            while (buffer.hasRemaining() && (count = is.read(buf, 0, Math.min(buf.length, buffer.remaining()))) > 0) {
+                buffer.put(buf, 0, count);
+            }
+
+            buffer.flip();
+
+            return buffer.asReadOnlyBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private CharBuffer spill(final Clob clob, final int length) throws SQLException {
+        try (Reader reader = clob.getCharacterStream()) {
+            // Viewed as UTF-16BE chars, the byte order of the mapped buffer, so they're written/read without encoding/decoding.
+            final CharBuffer buffer = spillSegments.allocate(length * 2).asCharBuffer();
+            final char[] buf = new char[8192];
+            int count = 0;
+
+            while (buffer.hasRemaining() && (count = reader.read(buf, 0, Math.min(buf.length, buffer.remaining()))) > 0) {
+                buffer.put(buf, 0, count);
+            }
+
+            buffer.flip();
+
+            return buffer.asReadOnlyBuffer();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The connections already borrowed from the specified {@code DataSource} keep the policy attached to them until they're released.
+     *
+     * @param ds
+     * @param policy
+     */
+    static void set(final javax.sql.DataSource ds, final LobPolicy policy) {
+        N.checkArgNotNull(ds, "ds");
+
+        if (policy == null || policy == INLINE) {
+            dsPolicyPool.remove(ds);
+        } else {
+            dsPolicyPool.put(ds, policy);
+        }
+    }
+
+    static LobPolicy get(final javax.sql.DataSource ds) {
+        return dsPolicyPool.getOrDefault(ds, INLINE);
+    }
+
+    /**
+     * Gets the policy attached to the specified connection.
+     *
+     * @param conn
+     * @return {@code null} if no policy is set for the {@code DataSource} the specified connection is borrowed from.
+     */
+    static LobPolicy get(final Connection conn) {
+        if (dsPolicyPool.isEmpty()) {
+            return null;
+        }
+
+        final ConnectionAttributes attrs = ConnectionAttributes.get(conn);
+
+        return attrs == null ? null : attrs.lobPolicy;
+    }
+
+    /**
+     * Attach the policy of the specified {@code DataSource} to the specified connection borrowed from it, if it's set for the {@code DataSource}.
+     * It's detached by {@link ConnectionAttributes#detach(Connection)} when the connection is released.
+     *
+     * @param conn
+     * @param ds
+     */
+    static void attach(final Connection conn, final javax.sql.DataSource ds) {
+        if (dsPolicyPool.isEmpty() || conn == null) {
+            return;
+        }
+
+        final LobPolicy policy = dsPolicyPool.get(ds);
+
+        if (policy != null) {
+            ConnectionAttributes.getOrCreate(conn).lobPolicy = policy;
+        }
+    }
+
+    /**
+     * How the LOBs bigger than the inline threshold are read.
+     */
+    public enum Mode {
+        INLINE, LAZY, SPILL
+    }
+}
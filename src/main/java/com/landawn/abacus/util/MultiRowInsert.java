@@ -0,0 +1,356 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import com.landawn.abacus.util.JdbcUtil.BiRowMapper;
+import com.landawn.abacus.util.JdbcUtil.Dao;
+
+/**
+ * Rewrite {@code INSERT INTO t (a, b) VALUES (?, ?)} into {@code INSERT INTO t (a, b) VALUES (?, ?), (?, ?), ...} to insert multiple rows by one statement,
+ * for the {@code batchInsert/batchSave} of the Dao annotated by {@code @Config(multiRowInsert = true)}.
+ * <br />
+ * The rows per statement are capped by the max count of parameters per statement of the database and {@link #MAX_ROWS_PER_STATEMENT}.
+ * The generated keys are returned in the order of the rows, so the multi-row statements are only used by {@code batchInsert} for the databases whose driver
+ * returns the keys of all the inserted rows: MySQL, PostgreSQL and H2.
+ *
+ * @author Haiyang Li
+ * @see JdbcUtil.Dao.Config#multiRowInsert()
+ */
+final class MultiRowInsert {
+
+    static final int MAX_ROWS_PER_STATEMENT = 1000;
+
+    /**
+     * The max count of sqls cached. The sqls after it's reached are parsed for each call.
+     */
+    static final int MAX_SQL_COUNT = 1024;
+
+    private static final Pattern VALUES_PATTERN = Pattern.compile("\\bVALUES\\s*\\(", Pattern.CASE_INSENSITIVE);
+
+    private static final String[] NOT_SUPPORTED = new String[0];
+
+    /**
+     * {prefix, values tuple, suffix} of the parameterized sql by {@code ParsedSql}, or {@code NOT_SUPPORTED} if the sql can't be rewritten.
+     */
+    private static final Map<ParsedSql, String[]> templatePool = new ConcurrentHashMap<>();
+
+    private MultiRowInsert() {
+        // singleton.
+    }
+
+    /**
+     * The max count of parameters in one statement, or {@code 0} if multi-row {@code VALUES} is not supported or not tuned for the database.
+     *
+     * @param dbVersion
+     * @return
+     */
+    static int maxParameterCount(final DBVersion dbVersion) {
+        switch (dbVersion) {
+            case H2:
+            case HSQLDB:
+                return 32767;
+
+            case MYSQL_5_5:
+            case MYSQL_5_6:
+            case MYSQL_5_7:
+            case MYSQL_5_8:
+            case MYSQL_5_9:
+            case MYSQL_6:
+            case MYSQL_7:
+            case MYSQL_8:
+            case MYSQL_9:
+            case MYSQL_10:
+            case MYSQL_OTHERS:
+                return 65535;
+
+            case POSTGRESQL_9_2:
+            case POSTGRESQL_9_3:
+            case POSTGRESQL_9_4:
+            case POSTGRESQL_9_5:
+            case POSTGRESQL_9_6:
+            case POSTGRESQL_10:
+            case POSTGRESQL_11:
+            case POSTGRESQL_12:
+            case POSTGRESQL_OTHERS:
+                return 32767;
+
+            case DB2:
+                return 32767;
+
+            case SQL_SERVER:
+                return 2099;
+
+            default:
+                // Oracle doesn't support multi-row VALUES.
+                return 0;
+        }
+    }
+
+    /**
+     *
+     * @param dbVersion
+     * @return {@code true} if the generated keys of all the rows inserted by one multi-row statement are returned, in the order of the rows.
+     */
+    static boolean returnsAllGeneratedKeys(final DBVersion dbVersion) {
+        switch (dbVersion) {
+            case H2:
+            case MYSQL_5_5:
+            case MYSQL_5_6:
+            case MYSQL_5_7:
+            case MYSQL_5_8:
+            case MYSQL_5_9:
+            case MYSQL_6:
+            case MYSQL_7:
+            case MYSQL_8:
+            case MYSQL_9:
+            case MYSQL_10:
+            case MYSQL_OTHERS:
+            case POSTGRESQL_9_2:
+            case POSTGRESQL_9_3:
+            case POSTGRESQL_9_4:
+            case POSTGRESQL_9_5:
+            case POSTGRESQL_9_6:
+            case POSTGRESQL_10:
+            case POSTGRESQL_11:
+            case POSTGRESQL_12:
+            case POSTGRESQL_OTHERS:
+                return true;
+
+            default:
+                return false;
+        }
+    }
+
+    /**
+     *
+     * @param dbVersion
+     * @param namedInsertSql
+     * @param batchSize
+     * @param isGeneratedKeyRequired
+     * @return the count of rows inserted by one statement, or {@code 0} if the specified sql can't be rewritten for the database.
+     */
+    static int rowsPerStatement(final DBVersion dbVersion, final ParsedSql namedInsertSql, final int batchSize, final boolean isGeneratedKeyRequired) {
+        final int parameterCount = namedInsertSql.getParameterCount();
+        final int maxParameterCount = maxParameterCount(dbVersion);
+
+        if (parameterCount == 0 || maxParameterCount < parameterCount || (isGeneratedKeyRequired && !returnsAllGeneratedKeys(dbVersion))
+                || getTemplate(namedInsertSql) == NOT_SUPPORTED) {
+            return 0;
+        }
+
+        final int rowsPerStatement = N.min(maxParameterCount / parameterCount, batchSize, MAX_ROWS_PER_STATEMENT);
+
+        return rowsPerStatement > 1 ? rowsPerStatement : 0;
+    }
+
+    /**
+     * Insert the specified entities by multi-row statements. The multi-row statements for one batch are executed by one JDBC batch.
+     * All the batches are executed in one transaction if there are more than one.
+     *
+     * @param dao
+     * @param namedInsertSql
+     * @param returnColumnNames the generated keys are not retrieved if it's {@code null}.
+     * @param entities
+     * @param batchSize
+     * @param rowsPerStatement returned by {@link #rowsPerStatement(DBVersion, ParsedSql, int, boolean)}.
+     * @param keyExtractor
+     * @return the generated keys in the order of the specified entities, or an empty list if {@code returnColumnNames} is {@code null}.
+     * @throws SQLException the SQL exception
+     */
+    @SuppressWarnings("rawtypes")
+    static List<Object> batchInsert(final Dao dao, final ParsedSql namedInsertSql, final String[] returnColumnNames, final Collection<?> entities,
+            final int batchSize, final int rowsPerStatement, final BiRowMapper<Object> keyExtractor) throws SQLException {
+        final List<?> entityList = entities instanceof List ? (List<?>) entities : new ArrayList<>(entities);
+        final int size = entityList.size();
+        final int parameterCount = namedInsertSql.getParameterCount();
+        final EntityParameterBinder binder = EntityParameterBinder.of(namedInsertSql, entityList.get(0).getClass());
+
+        final int fullStatementCount = size / rowsPerStatement;
+        final int remainingRowCount = size % rowsPerStatement;
+        final int statementsPerBatch = N.max(1, batchSize / rowsPerStatement);
+        final int batchCount = (fullStatementCount + statementsPerBatch - 1) / statementsPerBatch + (remainingRowCount > 0 ? 1 : 0);
+
+        final List<Object> ids = new ArrayList<>(returnColumnNames == null ? 0 : size);
+        final SQLTransaction tran = batchCount > 1 ? JdbcUtil.beginTransaction(dao.dataSource()) : null;
+
+        try {
+            int fromIndex = 0;
+
+            if (fullStatementCount > 0) {
+                try (PreparedQuery query = prepareQuery(dao, namedInsertSql, rowsPerStatement, returnColumnNames).closeAfterExecution(false)) {
+                    for (int i = 0; i < fullStatementCount; i++) {
+                        final int offset = fromIndex;
+
+                        query.setParameters(stmt -> {
+                            for (int j = 0; j < rowsPerStatement; j++) {
+                                binder.bindAll(stmt, j * parameterCount, entityList.get(offset + j));
+                            }
+                        }).addBatch();
+
+                        fromIndex += rowsPerStatement;
+
+                        if ((i + 1) % statementsPerBatch == 0 || i == fullStatementCount - 1) {
+                            execute(query, returnColumnNames, keyExtractor, ids);
+                        }
+                    }
+                }
+            }
+
+            if (remainingRowCount > 0) {
+                final int offset = fromIndex;
+
+                try (PreparedQuery query = prepareQuery(dao, namedInsertSql, remainingRowCount, returnColumnNames).closeAfterExecution(false)) {
+                    query.setParameters(stmt -> {
+                        for (int j = 0; j < remainingRowCount; j++) {
+                            binder.bindAll(stmt, j * parameterCount, entityList.get(offset + j));
+                        }
+                    }).addBatch();
+
+                    execute(query, returnColumnNames, keyExtractor, ids);
+                }
+            }
+
+            if (tran != null) {
+                tran.commit();
+            }
+        } finally {
+            if (tran != null) {
+                tran.rollbackIfNotCommitted();
+            }
+        }
+
+        return ids;
+    }
+
+    /**
+     *
+     * @param namedInsertSql
+     * @param rowCount
+     * @return
+     */
+    static String rewrite(final ParsedSql namedInsertSql, final int rowCount) {
+        final String[] template = getTemplate(namedInsertSql);
+
+        if (template == NOT_SUPPORTED) {
+            throw new IllegalArgumentException("Multi-row VALUES is not supported by sql: " + namedInsertSql.sql());
+        }
+
+        final StringBuilder sb = Objectory.createStringBuilder();
+
+        try {
+            sb.append(template[0]).append(template[1]);
+
+            for (int i = 1; i < rowCount; i++) {
+                sb.append(", ").append(template[1]);
+            }
+
+            return sb.append(template[2]).toString();
+        } finally {
+            Objectory.recycle(sb);
+        }
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static PreparedQuery prepareQuery(final Dao dao, final ParsedSql namedInsertSql, final int rowCount, final String[] returnColumnNames)
+            throws SQLException {
+        final String sql = rewrite(namedInsertSql, rowCount);
+
+        return returnColumnNames == null ? dao.prepareQuery(sql) : dao.prepareQuery(sql, returnColumnNames);
+    }
+
+    private static void execute(final PreparedQuery query, final String[] returnColumnNames, final BiRowMapper<Object> keyExtractor, final List<Object> ids)
+            throws SQLException {
+        if (returnColumnNames == null) {
+            query.batchUpdate();
+        } else {
+            ids.addAll(query.batchInsert(keyExtractor));
+        }
+    }
+
+    private static String[] getTemplate(final ParsedSql namedInsertSql) {
+        String[] template = templatePool.get(namedInsertSql);
+
+        if (template == null) {
+            template = parseTemplate(namedInsertSql);
+
+            if (templatePool.size() < MAX_SQL_COUNT) {
+                templatePool.put(namedInsertSql, template);
+            }
+        }
+
+        return template;
+    }
+
+    /**
+     * The sql can be rewritten if all its parameters are in the (first) tuple after {@code VALUES}.
+     *
+     * @param namedInsertSql
+     * @return
+     */
+    private static String[] parseTemplate(final ParsedSql namedInsertSql) {
+        final String sql = namedInsertSql.getParameterizedSql();
+
+        if (!StringUtil.startsWithIgnoreCase(sql.trim(), "INSERT ")) {
+            return NOT_SUPPORTED;
+        }
+
+        final Matcher matcher = VALUES_PATTERN.matcher(sql);
+
+        if (!matcher.find()) {
+            return NOT_SUPPORTED;
+        }
+
+        final int fromIndex = matcher.end() - 1;
+        int depth = 0;
+        int parameterCount = 0;
+        char quote = 0;
+        char ch = 0;
+
+        for (int i = fromIndex, len = sql.length(); i < len; i++) {
+            ch = sql.charAt(i);
+
+            if (quote != 0) {
+                if (ch == quote) {
+                    quote = 0;
+                }
+            } else if (ch == '\'' || ch == '"' || ch == '`') {
+                quote = ch;
+            } else if (ch == '?') {
+                parameterCount++;
+            } else if (ch == '(') {
+                depth++;
+            } else if (ch == ')' && --depth == 0) {
+                if (parameterCount != namedInsertSql.getParameterCount()) {
+                    return NOT_SUPPORTED;
+                }
+
+                return new String[] { sql.substring(0, fromIndex), sql.substring(fromIndex, i + 1), sql.substring(i + 1) };
+            }
+        }
+
+        return NOT_SUPPORTED;
+    }
+}
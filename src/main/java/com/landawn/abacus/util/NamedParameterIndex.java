@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An immutable, array-backed table from the named parameters of a sql to their indexes (starting from 1).
+ * It's built once for each {@code ParsedSql} and shared by all the {@code NamedQuery} instances created for the sql.
+ * <br />
+ * The names are put in an open-addressing hash table. The table size is chosen, if it's possible, so that no two names collide,
+ * then a lookup is one hash, one slot and one {@code equals}. Lookups don't allocate.
+ *
+ * @author Haiyang Li
+ */
+final class NamedParameterIndex {
+
+    /**
+     * The max count of sqls cached. The indexes of the sqls after it's reached are built for each call.
+     */
+    static final int MAX_SQL_COUNT = 8192;
+
+    private static final int MAX_TABLE_SIZE_FACTOR = 8;
+
+    private static final Map<ParsedSql, NamedParameterIndex> indexPool = new ConcurrentHashMap<>();
+
+    private final String[] names;
+
+    private final int[][] indexes;
+
+    private final int mask;
+
+    private NamedParameterIndex(final List<String> parameterNames) {
+        final Map<String, IntList> m = new LinkedHashMap<>();
+        int index = 1;
+
+        for (String parameterName : parameterNames) {
+            IntList list = m.get(parameterName);
+
+            if (list == null) {
+                list = new IntList(1);
+                m.put(parameterName, list);
+            }
+
+            list.add(index++);
+        }
+
+        final int minTableSize = tableSizeFor(m.size() * 2);
+        int tableSize = minTableSize;
+
+        while (tableSize < minTableSize * MAX_TABLE_SIZE_FACTOR && hasCollision(m.keySet(), tableSize - 1)) {
+            tableSize <<= 1;
+        }
+
+        if (tableSize >= minTableSize * MAX_TABLE_SIZE_FACTOR) {
+            // no collision-free size found. linear probing in the minimum table.
+            tableSize = minTableSize;
+        }
+
+        this.names = new String[tableSize];
+        this.indexes = new int[tableSize][];
+        this.mask = tableSize - 1;
+
+        for (Map.Entry<String, IntList> entry : m.entrySet()) {
+            int slot = hash(entry.getKey()) & mask;
+
+            while (names[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+
+            names[slot] = entry.getKey();
+            indexes[slot] = entry.getValue().toArray();
+        }
+    }
+
+    /**
+     * Gets the shared index table of the named parameters in the specified sql.
+     *
+     * @param namedSql
+     * @return
+     */
+    static NamedParameterIndex of(final ParsedSql namedSql) {
+        NamedParameterIndex result = indexPool.get(namedSql);
+
+        if (result == null) {
+            result = new NamedParameterIndex(namedSql.getNamedParameters());
+
+            if (indexPool.size() < MAX_SQL_COUNT) {
+                indexPool.put(namedSql, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     *
+     * @param parameterName
+     * @return the indexes (starting from 1) of the specified parameter, or {@code null} if it's not found. The returned array must not be modified.
+     */
+    int[] get(final String parameterName) {
+        if (parameterName == null) {
+            return null;
+        }
+
+        int slot = hash(parameterName) & mask;
+        String name = null;
+
+        while ((name = names[slot]) != null) {
+            if (name == parameterName || name.equals(parameterName)) {
+                return indexes[slot];
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        return null;
+    }
+
+    private static boolean hasCollision(final Iterable<String> names, final int mask) {
+        final boolean[] used = new boolean[mask + 1];
+        int slot = 0;
+
+        for (String name : names) {
+            slot = hash(name) & mask;
+
+            if (used[slot]) {
+                return true;
+            }
+
+            used[slot] = true;
+        }
+
+        return false;
+    }
+
+    private static int hash(final String name) {
+        final int h = name.hashCode();
+
+        return h ^ (h >>> 16);
+    }
+
+    private static int tableSizeFor(final int n) {
+        int size = 2;
+
+        while (size < n) {
+            size <<= 1;
+        }
+
+        return size;
+    }
+}
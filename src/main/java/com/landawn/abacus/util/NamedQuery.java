@@ -24,14 +24,10 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.SQLType;
 import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import com.landawn.abacus.EntityId;
-import com.landawn.abacus.parser.ParserUtil;
-import com.landawn.abacus.parser.ParserUtil.EntityInfo;
-import com.landawn.abacus.parser.ParserUtil.PropInfo;
 import com.landawn.abacus.type.Type;
 import com.landawn.abacus.util.JdbcUtil.TriParametersSetter;
 
@@ -72,10 +68,10 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
 
     private final int parameterCount;
 
-    private Map<String, IntList> paramNameIndexMap;
+    private final NamedParameterIndex paramNameIndex;
 
     NamedQuery(final PreparedStatement stmt, final ParsedSql namedSql) {
-        super(stmt);
+        super(stmt, namedSql.sql());
         this.namedSql = namedSql;
         this.parameterNames = namedSql.getNamedParameters();
         this.parameterCount = namedSql.getParameterCount();
@@ -83,25 +79,8 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
         if (N.size(namedSql.getNamedParameters()) != parameterCount) {
             throw new IllegalArgumentException("Invalid named sql: " + namedSql.sql());
         }
-    }
-
-    /**
-     * Inits the param name index map.
-     */
-    private void initParamNameIndexMap() {
-        paramNameIndexMap = new HashMap<>(parameterCount);
-        int index = 1;
 
-        for (String paramName : parameterNames) {
-            IntList indexes = paramNameIndexMap.get(paramName);
-
-            if (indexes == null) {
-                indexes = new IntList(1);
-                paramNameIndexMap.put(paramName, indexes);
-            }
-
-            indexes.add(index++);
-        }
+        this.paramNameIndex = parameterCount < 5 ? null : NamedParameterIndex.of(namedSql);
     }
 
     /**
@@ -128,28 +107,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setNull(indexes.get(0), sqlType);
-                } else if (indexes.size() == 2) {
-                    setNull(indexes.get(0), sqlType);
-                    setNull(indexes.get(1), sqlType);
-                } else if (indexes.size() == 3) {
-                    setNull(indexes.get(0), sqlType);
-                    setNull(indexes.get(1), sqlType);
-                    setNull(indexes.get(2), sqlType);
+                if (indexes.length == 1) {
+                    setNull(indexes[0], sqlType);
+                } else if (indexes.length == 2) {
+                    setNull(indexes[0], sqlType);
+                    setNull(indexes[1], sqlType);
+                } else if (indexes.length == 3) {
+                    setNull(indexes[0], sqlType);
+                    setNull(indexes[1], sqlType);
+                    setNull(indexes[2], sqlType);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setNull(indexes.get(i), sqlType);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setNull(indexes[i], sqlType);
                     }
                 }
             }
@@ -183,28 +158,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setNull(indexes.get(0), sqlType, typeName);
-                } else if (indexes.size() == 2) {
-                    setNull(indexes.get(0), sqlType, typeName);
-                    setNull(indexes.get(1), sqlType, typeName);
-                } else if (indexes.size() == 3) {
-                    setNull(indexes.get(0), sqlType, typeName);
-                    setNull(indexes.get(1), sqlType, typeName);
-                    setNull(indexes.get(2), sqlType, typeName);
+                if (indexes.length == 1) {
+                    setNull(indexes[0], sqlType, typeName);
+                } else if (indexes.length == 2) {
+                    setNull(indexes[0], sqlType, typeName);
+                    setNull(indexes[1], sqlType, typeName);
+                } else if (indexes.length == 3) {
+                    setNull(indexes[0], sqlType, typeName);
+                    setNull(indexes[1], sqlType, typeName);
+                    setNull(indexes[2], sqlType, typeName);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setNull(indexes.get(i), sqlType, typeName);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setNull(indexes[i], sqlType, typeName);
                     }
                 }
             }
@@ -237,28 +208,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setBoolean(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setBoolean(indexes.get(0), x);
-                    setBoolean(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setBoolean(indexes.get(0), x);
-                    setBoolean(indexes.get(1), x);
-                    setBoolean(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setBoolean(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setBoolean(indexes[0], x);
+                    setBoolean(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setBoolean(indexes[0], x);
+                    setBoolean(indexes[1], x);
+                    setBoolean(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setBoolean(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setBoolean(indexes[i], x);
                     }
                 }
             }
@@ -305,28 +272,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setByte(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setByte(indexes.get(0), x);
-                    setByte(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setByte(indexes.get(0), x);
-                    setByte(indexes.get(1), x);
-                    setByte(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setByte(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setByte(indexes[0], x);
+                    setByte(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setByte(indexes[0], x);
+                    setByte(indexes[1], x);
+                    setByte(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setByte(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setByte(indexes[i], x);
                     }
                 }
             }
@@ -373,28 +336,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setShort(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setShort(indexes.get(0), x);
-                    setShort(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setShort(indexes.get(0), x);
-                    setShort(indexes.get(1), x);
-                    setShort(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setShort(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setShort(indexes[0], x);
+                    setShort(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setShort(indexes[0], x);
+                    setShort(indexes[1], x);
+                    setShort(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setShort(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setShort(indexes[i], x);
                     }
                 }
             }
@@ -441,28 +400,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setInt(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setInt(indexes.get(0), x);
-                    setInt(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setInt(indexes.get(0), x);
-                    setInt(indexes.get(1), x);
-                    setInt(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setInt(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setInt(indexes[0], x);
+                    setInt(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setInt(indexes[0], x);
+                    setInt(indexes[1], x);
+                    setInt(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setInt(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setInt(indexes[i], x);
                     }
                 }
             }
@@ -517,28 +472,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setLong(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setLong(indexes.get(0), x);
-                    setLong(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setLong(indexes.get(0), x);
-                    setLong(indexes.get(1), x);
-                    setLong(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setLong(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setLong(indexes[0], x);
+                    setLong(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setLong(indexes[0], x);
+                    setLong(indexes[1], x);
+                    setLong(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setLong(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setLong(indexes[i], x);
                     }
                 }
             }
@@ -585,28 +536,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setFloat(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setFloat(indexes.get(0), x);
-                    setFloat(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setFloat(indexes.get(0), x);
-                    setFloat(indexes.get(1), x);
-                    setFloat(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setFloat(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setFloat(indexes[0], x);
+                    setFloat(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setFloat(indexes[0], x);
+                    setFloat(indexes[1], x);
+                    setFloat(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setFloat(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setFloat(indexes[i], x);
                     }
                 }
             }
@@ -653,28 +600,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setDouble(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setDouble(indexes.get(0), x);
-                    setDouble(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setDouble(indexes.get(0), x);
-                    setDouble(indexes.get(1), x);
-                    setDouble(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setDouble(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setDouble(indexes[0], x);
+                    setDouble(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setDouble(indexes[0], x);
+                    setDouble(indexes[1], x);
+                    setDouble(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setDouble(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setDouble(indexes[i], x);
                     }
                 }
             }
@@ -721,28 +664,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setBigDecimal(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setBigDecimal(indexes.get(0), x);
-                    setBigDecimal(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setBigDecimal(indexes.get(0), x);
-                    setBigDecimal(indexes.get(1), x);
-                    setBigDecimal(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setBigDecimal(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setBigDecimal(indexes[0], x);
+                    setBigDecimal(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setBigDecimal(indexes[0], x);
+                    setBigDecimal(indexes[1], x);
+                    setBigDecimal(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setBigDecimal(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setBigDecimal(indexes[i], x);
                     }
                 }
             }
@@ -775,28 +714,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setString(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setString(indexes.get(0), x);
-                    setString(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setString(indexes.get(0), x);
-                    setString(indexes.get(1), x);
-                    setString(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setString(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setString(indexes[0], x);
+                    setString(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setString(indexes[0], x);
+                    setString(indexes[1], x);
+                    setString(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setString(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setString(indexes[i], x);
                     }
                 }
             }
@@ -841,28 +776,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setDate(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setDate(indexes.get(0), x);
-                    setDate(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setDate(indexes.get(0), x);
-                    setDate(indexes.get(1), x);
-                    setDate(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setDate(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setDate(indexes[0], x);
+                    setDate(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setDate(indexes[0], x);
+                    setDate(indexes[1], x);
+                    setDate(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setDate(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setDate(indexes[i], x);
                     }
                 }
             }
@@ -909,28 +840,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setTime(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setTime(indexes.get(0), x);
-                    setTime(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setTime(indexes.get(0), x);
-                    setTime(indexes.get(1), x);
-                    setTime(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setTime(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setTime(indexes[0], x);
+                    setTime(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setTime(indexes[0], x);
+                    setTime(indexes[1], x);
+                    setTime(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setTime(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setTime(indexes[i], x);
                     }
                 }
             }
@@ -977,28 +904,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setTimestamp(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setTimestamp(indexes.get(0), x);
-                    setTimestamp(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setTimestamp(indexes.get(0), x);
-                    setTimestamp(indexes.get(1), x);
-                    setTimestamp(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setTimestamp(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setTimestamp(indexes[0], x);
+                    setTimestamp(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setTimestamp(indexes[0], x);
+                    setTimestamp(indexes[1], x);
+                    setTimestamp(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setTimestamp(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setTimestamp(indexes[i], x);
                     }
                 }
             }
@@ -1045,28 +968,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setBytes(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setBytes(indexes.get(0), x);
-                    setBytes(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setBytes(indexes.get(0), x);
-                    setBytes(indexes.get(1), x);
-                    setBytes(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setBytes(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setBytes(indexes[0], x);
+                    setBytes(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setBytes(indexes[0], x);
+                    setBytes(indexes[1], x);
+                    setBytes(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setBytes(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setBytes(indexes[i], x);
                     }
                 }
             }
@@ -1099,28 +1018,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setAsciiStream(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setAsciiStream(indexes.get(0), x);
-                    setAsciiStream(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setAsciiStream(indexes.get(0), x);
-                    setAsciiStream(indexes.get(1), x);
-                    setAsciiStream(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setAsciiStream(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setAsciiStream(indexes[0], x);
+                    setAsciiStream(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setAsciiStream(indexes[0], x);
+                    setAsciiStream(indexes[1], x);
+                    setAsciiStream(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setAsciiStream(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setAsciiStream(indexes[i], x);
                     }
                 }
             }
@@ -1154,28 +1069,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setAsciiStream(indexes.get(0), x, length);
-                } else if (indexes.size() == 2) {
-                    setAsciiStream(indexes.get(0), x, length);
-                    setAsciiStream(indexes.get(1), x, length);
-                } else if (indexes.size() == 3) {
-                    setAsciiStream(indexes.get(0), x, length);
-                    setAsciiStream(indexes.get(1), x, length);
-                    setAsciiStream(indexes.get(2), x, length);
+                if (indexes.length == 1) {
+                    setAsciiStream(indexes[0], x, length);
+                } else if (indexes.length == 2) {
+                    setAsciiStream(indexes[0], x, length);
+                    setAsciiStream(indexes[1], x, length);
+                } else if (indexes.length == 3) {
+                    setAsciiStream(indexes[0], x, length);
+                    setAsciiStream(indexes[1], x, length);
+                    setAsciiStream(indexes[2], x, length);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setAsciiStream(indexes.get(i), x, length);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setAsciiStream(indexes[i], x, length);
                     }
                 }
             }
@@ -1208,28 +1119,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setBinaryStream(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setBinaryStream(indexes.get(0), x);
-                    setBinaryStream(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setBinaryStream(indexes.get(0), x);
-                    setBinaryStream(indexes.get(1), x);
-                    setBinaryStream(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setBinaryStream(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setBinaryStream(indexes[0], x);
+                    setBinaryStream(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setBinaryStream(indexes[0], x);
+                    setBinaryStream(indexes[1], x);
+                    setBinaryStream(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setBinaryStream(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setBinaryStream(indexes[i], x);
                     }
                 }
             }
@@ -1263,28 +1170,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setBinaryStream(indexes.get(0), x, length);
-                } else if (indexes.size() == 2) {
-                    setBinaryStream(indexes.get(0), x, length);
-                    setBinaryStream(indexes.get(1), x, length);
-                } else if (indexes.size() == 3) {
-                    setBinaryStream(indexes.get(0), x, length);
-                    setBinaryStream(indexes.get(1), x, length);
-                    setBinaryStream(indexes.get(2), x, length);
+                if (indexes.length == 1) {
+                    setBinaryStream(indexes[0], x, length);
+                } else if (indexes.length == 2) {
+                    setBinaryStream(indexes[0], x, length);
+                    setBinaryStream(indexes[1], x, length);
+                } else if (indexes.length == 3) {
+                    setBinaryStream(indexes[0], x, length);
+                    setBinaryStream(indexes[1], x, length);
+                    setBinaryStream(indexes[2], x, length);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setBinaryStream(indexes.get(i), x, length);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setBinaryStream(indexes[i], x, length);
                     }
                 }
             }
@@ -1317,28 +1220,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setCharacterStream(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setCharacterStream(indexes.get(0), x);
-                    setCharacterStream(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setCharacterStream(indexes.get(0), x);
-                    setCharacterStream(indexes.get(1), x);
-                    setCharacterStream(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setCharacterStream(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setCharacterStream(indexes[0], x);
+                    setCharacterStream(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setCharacterStream(indexes[0], x);
+                    setCharacterStream(indexes[1], x);
+                    setCharacterStream(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setCharacterStream(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setCharacterStream(indexes[i], x);
                     }
                 }
             }
@@ -1372,28 +1271,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setCharacterStream(indexes.get(0), x, length);
-                } else if (indexes.size() == 2) {
-                    setCharacterStream(indexes.get(0), x, length);
-                    setCharacterStream(indexes.get(1), x, length);
-                } else if (indexes.size() == 3) {
-                    setCharacterStream(indexes.get(0), x, length);
-                    setCharacterStream(indexes.get(1), x, length);
-                    setCharacterStream(indexes.get(2), x, length);
+                if (indexes.length == 1) {
+                    setCharacterStream(indexes[0], x, length);
+                } else if (indexes.length == 2) {
+                    setCharacterStream(indexes[0], x, length);
+                    setCharacterStream(indexes[1], x, length);
+                } else if (indexes.length == 3) {
+                    setCharacterStream(indexes[0], x, length);
+                    setCharacterStream(indexes[1], x, length);
+                    setCharacterStream(indexes[2], x, length);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setCharacterStream(indexes.get(i), x, length);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setCharacterStream(indexes[i], x, length);
                     }
                 }
             }
@@ -1426,28 +1321,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setNCharacterStream(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setNCharacterStream(indexes.get(0), x);
-                    setNCharacterStream(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setNCharacterStream(indexes.get(0), x);
-                    setNCharacterStream(indexes.get(1), x);
-                    setNCharacterStream(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setNCharacterStream(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setNCharacterStream(indexes[0], x);
+                    setNCharacterStream(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setNCharacterStream(indexes[0], x);
+                    setNCharacterStream(indexes[1], x);
+                    setNCharacterStream(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setNCharacterStream(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setNCharacterStream(indexes[i], x);
                     }
                 }
             }
@@ -1481,28 +1372,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setNCharacterStream(indexes.get(0), x, length);
-                } else if (indexes.size() == 2) {
-                    setNCharacterStream(indexes.get(0), x, length);
-                    setNCharacterStream(indexes.get(1), x, length);
-                } else if (indexes.size() == 3) {
-                    setNCharacterStream(indexes.get(0), x, length);
-                    setNCharacterStream(indexes.get(1), x, length);
-                    setNCharacterStream(indexes.get(2), x, length);
+                if (indexes.length == 1) {
+                    setNCharacterStream(indexes[0], x, length);
+                } else if (indexes.length == 2) {
+                    setNCharacterStream(indexes[0], x, length);
+                    setNCharacterStream(indexes[1], x, length);
+                } else if (indexes.length == 3) {
+                    setNCharacterStream(indexes[0], x, length);
+                    setNCharacterStream(indexes[1], x, length);
+                    setNCharacterStream(indexes[2], x, length);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setNCharacterStream(indexes.get(i), x, length);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setNCharacterStream(indexes[i], x, length);
                     }
                 }
             }
@@ -1535,28 +1422,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setBlob(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setBlob(indexes.get(0), x);
-                    setBlob(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setBlob(indexes.get(0), x);
-                    setBlob(indexes.get(1), x);
-                    setBlob(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setBlob(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setBlob(indexes[0], x);
+                    setBlob(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setBlob(indexes[0], x);
+                    setBlob(indexes[1], x);
+                    setBlob(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setBlob(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setBlob(indexes[i], x);
                     }
                 }
             }
@@ -1589,28 +1472,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setBlob(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setBlob(indexes.get(0), x);
-                    setBlob(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setBlob(indexes.get(0), x);
-                    setBlob(indexes.get(1), x);
-                    setBlob(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setBlob(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setBlob(indexes[0], x);
+                    setBlob(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setBlob(indexes[0], x);
+                    setBlob(indexes[1], x);
+                    setBlob(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setBlob(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setBlob(indexes[i], x);
                     }
                 }
             }
@@ -1644,28 +1523,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setBlob(indexes.get(0), x, length);
-                } else if (indexes.size() == 2) {
-                    setBlob(indexes.get(0), x, length);
-                    setBlob(indexes.get(1), x, length);
-                } else if (indexes.size() == 3) {
-                    setBlob(indexes.get(0), x, length);
-                    setBlob(indexes.get(1), x, length);
-                    setBlob(indexes.get(2), x, length);
+                if (indexes.length == 1) {
+                    setBlob(indexes[0], x, length);
+                } else if (indexes.length == 2) {
+                    setBlob(indexes[0], x, length);
+                    setBlob(indexes[1], x, length);
+                } else if (indexes.length == 3) {
+                    setBlob(indexes[0], x, length);
+                    setBlob(indexes[1], x, length);
+                    setBlob(indexes[2], x, length);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setBlob(indexes.get(i), x, length);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setBlob(indexes[i], x, length);
                     }
                 }
             }
@@ -1698,28 +1573,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setClob(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setClob(indexes.get(0), x);
-                    setClob(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setClob(indexes.get(0), x);
-                    setClob(indexes.get(1), x);
-                    setClob(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setClob(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setClob(indexes[0], x);
+                    setClob(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setClob(indexes[0], x);
+                    setClob(indexes[1], x);
+                    setClob(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setClob(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setClob(indexes[i], x);
                     }
                 }
             }
@@ -1752,28 +1623,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setClob(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setClob(indexes.get(0), x);
-                    setClob(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setClob(indexes.get(0), x);
-                    setClob(indexes.get(1), x);
-                    setClob(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setClob(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setClob(indexes[0], x);
+                    setClob(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setClob(indexes[0], x);
+                    setClob(indexes[1], x);
+                    setClob(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setClob(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setClob(indexes[i], x);
                     }
                 }
             }
@@ -1807,28 +1674,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setClob(indexes.get(0), x, length);
-                } else if (indexes.size() == 2) {
-                    setClob(indexes.get(0), x, length);
-                    setClob(indexes.get(1), x, length);
-                } else if (indexes.size() == 3) {
-                    setClob(indexes.get(0), x, length);
-                    setClob(indexes.get(1), x, length);
-                    setClob(indexes.get(2), x, length);
+                if (indexes.length == 1) {
+                    setClob(indexes[0], x, length);
+                } else if (indexes.length == 2) {
+                    setClob(indexes[0], x, length);
+                    setClob(indexes[1], x, length);
+                } else if (indexes.length == 3) {
+                    setClob(indexes[0], x, length);
+                    setClob(indexes[1], x, length);
+                    setClob(indexes[2], x, length);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setClob(indexes.get(i), x, length);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setClob(indexes[i], x, length);
                     }
                 }
             }
@@ -1861,28 +1724,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setNClob(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setNClob(indexes.get(0), x);
-                    setNClob(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setNClob(indexes.get(0), x);
-                    setNClob(indexes.get(1), x);
-                    setNClob(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setNClob(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setNClob(indexes[0], x);
+                    setNClob(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setNClob(indexes[0], x);
+                    setNClob(indexes[1], x);
+                    setNClob(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setNClob(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setNClob(indexes[i], x);
                     }
                 }
             }
@@ -1915,28 +1774,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setNClob(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setNClob(indexes.get(0), x);
-                    setNClob(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setNClob(indexes.get(0), x);
-                    setNClob(indexes.get(1), x);
-                    setNClob(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setNClob(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setNClob(indexes[0], x);
+                    setNClob(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setNClob(indexes[0], x);
+                    setNClob(indexes[1], x);
+                    setNClob(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setNClob(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setNClob(indexes[i], x);
                     }
                 }
             }
@@ -1970,28 +1825,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setNClob(indexes.get(0), x, length);
-                } else if (indexes.size() == 2) {
-                    setNClob(indexes.get(0), x, length);
-                    setNClob(indexes.get(1), x, length);
-                } else if (indexes.size() == 3) {
-                    setNClob(indexes.get(0), x, length);
-                    setNClob(indexes.get(1), x, length);
-                    setNClob(indexes.get(2), x, length);
+                if (indexes.length == 1) {
+                    setNClob(indexes[0], x, length);
+                } else if (indexes.length == 2) {
+                    setNClob(indexes[0], x, length);
+                    setNClob(indexes[1], x, length);
+                } else if (indexes.length == 3) {
+                    setNClob(indexes[0], x, length);
+                    setNClob(indexes[1], x, length);
+                    setNClob(indexes[2], x, length);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setNClob(indexes.get(i), x, length);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setNClob(indexes[i], x, length);
                     }
                 }
             }
@@ -2024,28 +1875,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setURL(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setURL(indexes.get(0), x);
-                    setURL(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setURL(indexes.get(0), x);
-                    setURL(indexes.get(1), x);
-                    setURL(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setURL(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setURL(indexes[0], x);
+                    setURL(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setURL(indexes[0], x);
+                    setURL(indexes[1], x);
+                    setURL(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setURL(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setURL(indexes[i], x);
                     }
                 }
             }
@@ -2078,28 +1925,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setSQLXML(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setSQLXML(indexes.get(0), x);
-                    setSQLXML(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setSQLXML(indexes.get(0), x);
-                    setSQLXML(indexes.get(1), x);
-                    setSQLXML(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setSQLXML(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setSQLXML(indexes[0], x);
+                    setSQLXML(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setSQLXML(indexes[0], x);
+                    setSQLXML(indexes[1], x);
+                    setSQLXML(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setSQLXML(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setSQLXML(indexes[i], x);
                     }
                 }
             }
@@ -2132,28 +1975,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setRowId(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setRowId(indexes.get(0), x);
-                    setRowId(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setRowId(indexes.get(0), x);
-                    setRowId(indexes.get(1), x);
-                    setRowId(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setRowId(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setRowId(indexes[0], x);
+                    setRowId(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setRowId(indexes[0], x);
+                    setRowId(indexes[1], x);
+                    setRowId(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setRowId(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setRowId(indexes[i], x);
                     }
                 }
             }
@@ -2186,28 +2025,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setRef(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setRef(indexes.get(0), x);
-                    setRef(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setRef(indexes.get(0), x);
-                    setRef(indexes.get(1), x);
-                    setRef(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setRef(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setRef(indexes[0], x);
+                    setRef(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setRef(indexes[0], x);
+                    setRef(indexes[1], x);
+                    setRef(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setRef(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setRef(indexes[i], x);
                     }
                 }
             }
@@ -2240,28 +2075,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setArray(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setArray(indexes.get(0), x);
-                    setArray(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setArray(indexes.get(0), x);
-                    setArray(indexes.get(1), x);
-                    setArray(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setArray(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setArray(indexes[0], x);
+                    setArray(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setArray(indexes[0], x);
+                    setArray(indexes[1], x);
+                    setArray(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setArray(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setArray(indexes[i], x);
                     }
                 }
             }
@@ -2294,28 +2125,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setObject(indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    setObject(indexes.get(0), x);
-                    setObject(indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    setObject(indexes.get(0), x);
-                    setObject(indexes.get(1), x);
-                    setObject(indexes.get(2), x);
+                if (indexes.length == 1) {
+                    setObject(indexes[0], x);
+                } else if (indexes.length == 2) {
+                    setObject(indexes[0], x);
+                    setObject(indexes[1], x);
+                } else if (indexes.length == 3) {
+                    setObject(indexes[0], x);
+                    setObject(indexes[1], x);
+                    setObject(indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setObject(indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setObject(indexes[i], x);
                     }
                 }
             }
@@ -2349,28 +2176,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setObject(indexes.get(0), x, sqlType);
-                } else if (indexes.size() == 2) {
-                    setObject(indexes.get(0), x, sqlType);
-                    setObject(indexes.get(1), x, sqlType);
-                } else if (indexes.size() == 3) {
-                    setObject(indexes.get(0), x, sqlType);
-                    setObject(indexes.get(1), x, sqlType);
-                    setObject(indexes.get(2), x, sqlType);
+                if (indexes.length == 1) {
+                    setObject(indexes[0], x, sqlType);
+                } else if (indexes.length == 2) {
+                    setObject(indexes[0], x, sqlType);
+                    setObject(indexes[1], x, sqlType);
+                } else if (indexes.length == 3) {
+                    setObject(indexes[0], x, sqlType);
+                    setObject(indexes[1], x, sqlType);
+                    setObject(indexes[2], x, sqlType);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setObject(indexes.get(i), x, sqlType);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setObject(indexes[i], x, sqlType);
                     }
                 }
             }
@@ -2405,28 +2228,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setObject(indexes.get(0), x, sqlType, scaleOrLength);
-                } else if (indexes.size() == 2) {
-                    setObject(indexes.get(0), x, sqlType, scaleOrLength);
-                    setObject(indexes.get(1), x, sqlType, scaleOrLength);
-                } else if (indexes.size() == 3) {
-                    setObject(indexes.get(0), x, sqlType, scaleOrLength);
-                    setObject(indexes.get(1), x, sqlType, scaleOrLength);
-                    setObject(indexes.get(2), x, sqlType, scaleOrLength);
+                if (indexes.length == 1) {
+                    setObject(indexes[0], x, sqlType, scaleOrLength);
+                } else if (indexes.length == 2) {
+                    setObject(indexes[0], x, sqlType, scaleOrLength);
+                    setObject(indexes[1], x, sqlType, scaleOrLength);
+                } else if (indexes.length == 3) {
+                    setObject(indexes[0], x, sqlType, scaleOrLength);
+                    setObject(indexes[1], x, sqlType, scaleOrLength);
+                    setObject(indexes[2], x, sqlType, scaleOrLength);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setObject(indexes.get(i), x, sqlType, scaleOrLength);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setObject(indexes[i], x, sqlType, scaleOrLength);
                     }
                 }
             }
@@ -2460,28 +2279,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setObject(indexes.get(0), x, sqlType);
-                } else if (indexes.size() == 2) {
-                    setObject(indexes.get(0), x, sqlType);
-                    setObject(indexes.get(1), x, sqlType);
-                } else if (indexes.size() == 3) {
-                    setObject(indexes.get(0), x, sqlType);
-                    setObject(indexes.get(1), x, sqlType);
-                    setObject(indexes.get(2), x, sqlType);
+                if (indexes.length == 1) {
+                    setObject(indexes[0], x, sqlType);
+                } else if (indexes.length == 2) {
+                    setObject(indexes[0], x, sqlType);
+                    setObject(indexes[1], x, sqlType);
+                } else if (indexes.length == 3) {
+                    setObject(indexes[0], x, sqlType);
+                    setObject(indexes[1], x, sqlType);
+                    setObject(indexes[2], x, sqlType);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setObject(indexes.get(i), x, sqlType);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setObject(indexes[i], x, sqlType);
                     }
                 }
             }
@@ -2516,28 +2331,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    setObject(indexes.get(0), x, sqlType, scaleOrLength);
-                } else if (indexes.size() == 2) {
-                    setObject(indexes.get(0), x, sqlType, scaleOrLength);
-                    setObject(indexes.get(1), x, sqlType, scaleOrLength);
-                } else if (indexes.size() == 3) {
-                    setObject(indexes.get(0), x, sqlType, scaleOrLength);
-                    setObject(indexes.get(1), x, sqlType, scaleOrLength);
-                    setObject(indexes.get(2), x, sqlType, scaleOrLength);
+                if (indexes.length == 1) {
+                    setObject(indexes[0], x, sqlType, scaleOrLength);
+                } else if (indexes.length == 2) {
+                    setObject(indexes[0], x, sqlType, scaleOrLength);
+                    setObject(indexes[1], x, sqlType, scaleOrLength);
+                } else if (indexes.length == 3) {
+                    setObject(indexes[0], x, sqlType, scaleOrLength);
+                    setObject(indexes[1], x, sqlType, scaleOrLength);
+                    setObject(indexes[2], x, sqlType, scaleOrLength);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        setObject(indexes.get(i), x, sqlType, scaleOrLength);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        setObject(indexes[i], x, sqlType, scaleOrLength);
                     }
                 }
             }
@@ -2571,28 +2382,24 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             }
         } else {
-            if (paramNameIndexMap == null) {
-                initParamNameIndexMap();
-            }
-
-            final IntList indexes = paramNameIndexMap.get(parameterName);
+            final int[] indexes = paramNameIndex.get(parameterName);
 
             if (indexes == null) {
                 close();
                 throw new IllegalArgumentException("Not found named parameter: " + parameterName);
             } else {
-                if (indexes.size() == 1) {
-                    type.set(stmt, indexes.get(0), x);
-                } else if (indexes.size() == 2) {
-                    type.set(stmt, indexes.get(0), x);
-                    type.set(stmt, indexes.get(1), x);
-                } else if (indexes.size() == 3) {
-                    type.set(stmt, indexes.get(0), x);
-                    type.set(stmt, indexes.get(1), x);
-                    type.set(stmt, indexes.get(2), x);
+                if (indexes.length == 1) {
+                    type.set(stmt, indexes[0], x);
+                } else if (indexes.length == 2) {
+                    type.set(stmt, indexes[0], x);
+                    type.set(stmt, indexes[1], x);
+                } else if (indexes.length == 3) {
+                    type.set(stmt, indexes[0], x);
+                    type.set(stmt, indexes[1], x);
+                    type.set(stmt, indexes[2], x);
                 } else {
-                    for (int i = 0, size = indexes.size(); i < size; i++) {
-                        type.set(stmt, indexes.get(i), x);
+                    for (int i = 0, len = indexes.length; i < len; i++) {
+                        type.set(stmt, indexes[i], x);
                     }
                 }
             }
@@ -2632,16 +2439,22 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
         checkArgNotNull(parameters, "parameters");
 
         if (ClassUtil.isEntity(parameters.getClass())) {
-            final Class<?> cls = parameters.getClass();
-            final EntityInfo entityInfo = ParserUtil.getEntityInfo(cls);
-            PropInfo propInfo = null;
+            final EntityParameterBinder binder = EntityParameterBinder.of(namedSql, parameters.getClass());
 
-            for (int i = 0; i < parameterCount; i++) {
-                propInfo = entityInfo.getPropInfo(parameterNames.get(i));
+            if (SlowQuerySampler.isEnabled()) {
+                final PropAccessor[] propAccessors = binder.propAccessors();
+
+                for (int i = 0; i < parameterCount; i++) {
+                    if (propAccessors[i] != null) {
+                        final Object propValue = propAccessors[i].getPropValue(parameters);
 
-                if (propInfo != null) {
-                    propInfo.dbType.set(stmt, i + 1, propInfo.getPropValue(parameters));
+                        propAccessors[i].propInfo().dbType.set(stmt, i + 1, propValue);
+
+                        sampleParameter(i + 1, propValue);
+                    }
                 }
+            } else {
+                binder.bind(stmt, parameters);
             }
         } else if (parameters instanceof Map) {
             return setParameters((Map<String, ?>) parameters);
@@ -2722,17 +2535,10 @@ public class NamedQuery extends AbstractPreparedQuery<PreparedStatement, NamedQu
                 final Class<?> cls = first.getClass();
 
                 if (ClassUtil.isEntity(cls)) {
-                    final EntityInfo entityInfo = ParserUtil.getEntityInfo(cls);
-                    PropInfo propInfo = null;
+                    final EntityParameterBinder binder = EntityParameterBinder.of(namedSql, cls);
 
                     for (Object entity : batchParameters) {
-                        for (int i = 0; i < parameterCount; i++) {
-                            propInfo = entityInfo.getPropInfo(parameterNames.get(i));
-
-                            if (propInfo != null) {
-                                propInfo.dbType.set(stmt, i + 1, propInfo.getPropValue(entity));
-                            }
-                        }
+                        binder.bind(stmt, entity);
 
                         stmt.addBatch();
                     }
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.landawn.abacus.type.Type;
+
+/**
+ * The {@code Type} last resolved for each parameter position of a sql, by the runtime class of the parameter.
+ * The {@code Type} of a position is only resolved again when the class of the parameter set to it changes,
+ * so binding untyped parameters to the same sql doesn't look up {@code Type} by class for each execution.
+ *
+ * @author Haiyang Li
+ */
+final class ParameterTypeCache {
+
+    /**
+     * The max count of sqls cached. The types of the parameters for the sqls after it's reached are resolved for each call.
+     */
+    static final int MAX_SQL_COUNT = 8192;
+
+    private static final Map<ParsedSql, ParameterTypeCache> cachePool = new ConcurrentHashMap<>();
+
+    /**
+     * Each slot is replaced as a whole, so the class and the type read from it are always consistent without lock.
+     */
+    private final Slot[] slots;
+
+    private ParameterTypeCache(final int parameterCount) {
+        this.slots = new Slot[parameterCount];
+    }
+
+    /**
+     *
+     * @param parsedSql
+     * @return
+     */
+    static ParameterTypeCache of(final ParsedSql parsedSql) {
+        ParameterTypeCache result = cachePool.get(parsedSql);
+
+        if (result == null) {
+            result = new ParameterTypeCache(parsedSql.getParameterCount());
+
+            if (cachePool.size() < MAX_SQL_COUNT) {
+                cachePool.put(parsedSql, result);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Set the first {@code parameterCount} parameters to the specified statement.
+     *
+     * @param stmt
+     * @param parameterCount
+     * @param parameters
+     * @throws SQLException the SQL exception
+     */
+    void setParameters(final PreparedStatement stmt, final int parameterCount, final Object[] parameters) throws SQLException {
+        final Slot[] slots = this.slots;
+        Object x = null;
+        Slot slot = null;
+
+        for (int i = 0; i < parameterCount; i++) {
+            x = parameters[i];
+
+            if (x == null) {
+                stmt.setObject(i + 1, x);
+            } else {
+                slot = i < slots.length ? slots[i] : null;
+
+                if (slot == null || slot.cls != x.getClass()) {
+                    slot = new Slot(x.getClass());
+
+                    if (i < slots.length) {
+                        slots[i] = slot;
+                    }
+                }
+
+                slot.type.set(stmt, i + 1, x);
+            }
+        }
+    }
+
+    private static final class Slot {
+        final Class<?> cls;
+
+        final Type<Object> type;
+
+        Slot(final Class<?> cls) {
+            this.cls = cls;
+            this.type = N.typeOf(cls);
+        }
+    }
+}
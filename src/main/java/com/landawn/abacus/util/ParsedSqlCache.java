@@ -0,0 +1,270 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A size-bounded, concurrent LRU cache of {@code ParsedSql} keyed by sql, shared by all the {@code JdbcUtil/Dao} entry points which parse sql.
+ * The {@code SQLDescriptor} of a sql is computed at the first time it's requested and cached in the same entry with the {@code ParsedSql}.
+ * <br />
+ * The cache is split into segments to reduce lock contention. Each segment is a LRU map with {@code capacity / segment count} entries.
+ * The pinned sqls are kept in a separated map and never evicted.
+ * <br />
+ * It's a layer on top of the pool in {@link ParsedSql#parse(String)}, which is the only way to create a {@code ParsedSql}, so a miss here
+ * also puts the {@code ParsedSql} in that pool and both hold the same object. That pool can't be used alone: its size is fixed by the max memory
+ * of JVM (1000 ~ 8000 sqls), its entries expire by time, it takes a global lock on each miss, and it can't be pinned or carry the {@code SQLDescriptor}.
+ *
+ * @author Haiyang Li
+ */
+public final class ParsedSqlCache {
+
+    public static final int DEFAULT_CAPACITY = 8192;
+
+    private static final int SEGMENT_COUNT = 16;
+
+    private static final Map<String, Entry> pinnedPool = new ConcurrentHashMap<>();
+
+    private static final LongAdder hitCount = new LongAdder();
+
+    private static final LongAdder missCount = new LongAdder();
+
+    private static final LongAdder evictionCount = new LongAdder();
+
+    private static volatile int capacity = DEFAULT_CAPACITY;
+
+    private static volatile Segment[] segments = createSegments(DEFAULT_CAPACITY);
+
+    private ParsedSqlCache() {
+        // singleton.
+    }
+
+    /**
+     * Gets the {@code ParsedSql} for the specified sql from cache, or parse and put it in cache if it's not cached.
+     *
+     * @param sql
+     * @return
+     */
+    public static ParsedSql parse(final String sql) {
+        return getEntry(sql).parsedSql;
+    }
+
+    /**
+     * Gets the {@code SQLDescriptor} for the specified sql from cache, or compute and put it in cache if it's not cached.
+     *
+     * @param sql
+     * @return
+     */
+    public static SQLDescriptor describe(final String sql) {
+        final Entry entry = getEntry(sql);
+        SQLDescriptor descriptor = entry.descriptor;
+
+        if (descriptor == null) {
+            // computing it twice by concurrent threads is harmless.
+            descriptor = SQLDescriptor.create(entry.parsedSql);
+            entry.descriptor = descriptor;
+        }
+
+        return descriptor;
+    }
+
+    private static Entry getEntry(final String sql) {
+        Entry entry = pinnedPool.isEmpty() ? null : pinnedPool.get(sql);
+
+        if (entry != null) {
+            hitCount.increment();
+            return entry;
+        }
+
+        final Segment segment = segmentFor(segments, sql);
+
+        synchronized (segment) {
+            entry = segment.get(sql);
+        }
+
+        if (entry != null) {
+            hitCount.increment();
+            return entry;
+        }
+
+        missCount.increment();
+
+        entry = new Entry(ParsedSql.parse(sql));
+
+        synchronized (segment) {
+            segment.put(sql, entry);
+        }
+
+        return entry;
+    }
+
+    /**
+     * Pin the specified sqls in the cache. The pinned sqls won't be evicted until they're unpinned.
+     *
+     * @param sqls
+     */
+    public static void pin(final String... sqls) {
+        for (String sql : sqls) {
+            pinnedPool.put(sql, getEntry(sql));
+        }
+    }
+
+    /**
+     * Pin the specified sqls in the cache. The pinned sqls won't be evicted until they're unpinned.
+     *
+     * @param sqls
+     */
+    public static void pin(final Collection<String> sqls) {
+        for (String sql : sqls) {
+            pinnedPool.put(sql, getEntry(sql));
+        }
+    }
+
+    /**
+     *
+     * @param sql
+     */
+    public static void unpin(final String sql) {
+        pinnedPool.remove(sql);
+    }
+
+    public static boolean isPinned(final String sql) {
+        return pinnedPool.containsKey(sql);
+    }
+
+    /**
+     * The max count of unpinned sqls cached. All the cached sqls except the pinned ones will be removed when the capacity is changed.
+     *
+     * @param newCapacity
+     */
+    public static synchronized void setCapacity(final int newCapacity) {
+        N.checkArgPositive(newCapacity, "newCapacity");
+
+        if (newCapacity != capacity) {
+            segments = createSegments(newCapacity);
+            capacity = newCapacity;
+        }
+    }
+
+    public static int capacity() {
+        return capacity;
+    }
+
+    /**
+     * The count of cached sqls, including the pinned ones.
+     *
+     * @return
+     */
+    public static int size() {
+        int size = pinnedPool.size();
+
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    public static long hitCount() {
+        return hitCount.sum();
+    }
+
+    public static long missCount() {
+        return missCount.sum();
+    }
+
+    public static long evictionCount() {
+        return evictionCount.sum();
+    }
+
+    public static double hitRate() {
+        final long hits = hitCount.sum();
+        final long total = hits + missCount.sum();
+
+        return total == 0 ? 0d : (double) hits / total;
+    }
+
+    /**
+     * Remove all the cached sqls except the pinned ones and reset the counters.
+     */
+    public static void clear() {
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.clear();
+            }
+        }
+
+        hitCount.reset();
+        missCount.reset();
+        evictionCount.reset();
+    }
+
+    private static Segment segmentFor(final Segment[] segments, final String sql) {
+        final int h = sql.hashCode();
+
+        return segments[(h ^ (h >>> 16)) & (segments.length - 1)];
+    }
+
+    private static Segment[] createSegments(final int capacity) {
+        final Segment[] result = new Segment[SEGMENT_COUNT];
+        final int segmentCapacity = Math.max(1, (capacity + SEGMENT_COUNT - 1) / SEGMENT_COUNT);
+
+        for (int i = 0; i < SEGMENT_COUNT; i++) {
+            result[i] = new Segment(segmentCapacity);
+        }
+
+        return result;
+    }
+
+    private static final class Entry {
+        final ParsedSql parsedSql;
+
+        volatile SQLDescriptor descriptor;
+
+        Entry(final ParsedSql parsedSql) {
+            this.parsedSql = parsedSql;
+        }
+    }
+
+    private static final class Segment extends LinkedHashMap<String, Entry> {
+        private static final long serialVersionUID = 1L;
+
+        private final int capacity;
+
+        Segment(final int capacity) {
+            super(16, 0.75f, true);
+
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, Entry> eldest) {
+            if (size() > capacity) {
+                evictionCount.increment();
+                return true;
+            }
+
+            return false;
+        }
+    }
+}
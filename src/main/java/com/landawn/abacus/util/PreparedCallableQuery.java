@@ -72,8 +72,8 @@ public class PreparedCallableQuery extends AbstractPreparedQuery<CallableStateme
 
     final CallableStatement stmt;
 
-    PreparedCallableQuery(CallableStatement stmt) {
-        super(stmt);
+    PreparedCallableQuery(CallableStatement stmt, String sql) {
+        super(stmt, sql);
         this.stmt = stmt;
     }
 
@@ -1050,7 +1050,7 @@ public class PreparedCallableQuery extends AbstractPreparedQuery<CallableStateme
         assertNotClosed();
 
         try {
-            if (JdbcUtil.execute(stmt)) {
+            if (JdbcUtil.execute(stmt, sql, sampledParameters)) {
                 if (stmt.getUpdateCount() == -1) {
                     try (ResultSet rs = stmt.getResultSet()) {
                         return Optional.of(checkNotResultSet(resultExtrator1.apply(rs)));
@@ -1083,7 +1083,7 @@ public class PreparedCallableQuery extends AbstractPreparedQuery<CallableStateme
         Optional<R2> result2 = Optional.empty();
 
         try {
-            if (JdbcUtil.execute(stmt)) {
+            if (JdbcUtil.execute(stmt, sql, sampledParameters)) {
                 if (stmt.getUpdateCount() == -1) {
                     try (ResultSet rs = stmt.getResultSet()) {
                         result1 = Optional.of(checkNotResultSet(resultExtrator1.apply(rs)));
@@ -1126,7 +1126,7 @@ public class PreparedCallableQuery extends AbstractPreparedQuery<CallableStateme
         Optional<R3> result3 = Optional.empty();
 
         try {
-            if (JdbcUtil.execute(stmt)) {
+            if (JdbcUtil.execute(stmt, sql, sampledParameters)) {
                 if (stmt.getUpdateCount() == -1) {
                     try (ResultSet rs = stmt.getResultSet()) {
                         result1 = Optional.of(checkNotResultSet(resultExtrator1.apply(rs)));
@@ -1180,7 +1180,7 @@ public class PreparedCallableQuery extends AbstractPreparedQuery<CallableStateme
         Optional<R4> result4 = Optional.empty();
 
         try {
-            if (JdbcUtil.execute(stmt)) {
+            if (JdbcUtil.execute(stmt, sql, sampledParameters)) {
                 if (stmt.getUpdateCount() == -1) {
                     try (ResultSet rs = stmt.getResultSet()) {
                         result1 = Optional.of(checkNotResultSet(resultExtrator1.apply(rs)));
@@ -1244,7 +1244,7 @@ public class PreparedCallableQuery extends AbstractPreparedQuery<CallableStateme
         Optional<R5> result5 = Optional.empty();
 
         try {
-            if (JdbcUtil.execute(stmt)) {
+            if (JdbcUtil.execute(stmt, sql, sampledParameters)) {
                 if (stmt.getUpdateCount() == -1) {
                     try (ResultSet rs = stmt.getResultSet()) {
                         result1 = Optional.of(checkNotResultSet(resultExtrator1.apply(rs)));
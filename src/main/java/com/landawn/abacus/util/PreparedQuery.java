@@ -49,7 +49,7 @@ import java.sql.PreparedStatement;
  */
 public class PreparedQuery extends AbstractPreparedQuery<PreparedStatement, PreparedQuery> {
 
-    PreparedQuery(PreparedStatement stmt) {
-        super(stmt);
+    PreparedQuery(PreparedStatement stmt, String sql) {
+        super(stmt, sql);
     }
 }
\ No newline at end of file
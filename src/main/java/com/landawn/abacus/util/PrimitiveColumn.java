@@ -0,0 +1,358 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * A column of {@code DataSet} backed by primitive values and a bitmap of {@code null}s, for the {@code INTEGER/BIGINT/DOUBLE/BOOLEAN} columns
+ * extracted by {@link JdbcUtil.ResultExtractor#TO_PRIMITIVE_DATA_SET}. The values are read by {@code ResultSet.getInt/getLong/...}
+ * and only boxed when they're accessed.
+ * <br />
+ * It's a modifiable {@code List<Object>} as the other columns of {@code DataSet}. It falls back to a list of objects
+ * if a value of another type is set/added, or any element is removed.
+ *
+ * @author Haiyang Li
+ */
+abstract class PrimitiveColumn extends AbstractList<Object> implements RandomAccess {
+
+    final BitSet nulls = new BitSet();
+
+    int size = 0;
+
+    /**
+     * The boxed values after it falls back to a list of objects. It's {@code null} before that.
+     */
+    private List<Object> objects;
+
+    /**
+     * Creates the primitive column for the specified column if its values are {@code Integer/Long/Double/Boolean} by its JDBC type and class name.
+     *
+     * @param columnLayout
+     * @param columnIndex starts with 1, not 0.
+     * @param initialCapacity
+     * @return {@code null} if the column is not a primitive column.
+     */
+    static PrimitiveColumn of(final ColumnLayout columnLayout, final int columnIndex, final int initialCapacity) {
+        final String columnClassName = columnLayout.getColumnClassName(columnIndex);
+
+        switch (columnLayout.getColumnType(columnIndex)) {
+            case Types.TINYINT:
+            case Types.SMALLINT:
+            case Types.INTEGER:
+                return isClassOf(columnClassName, Integer.class) ? new IntColumn(initialCapacity) : null;
+
+            case Types.BIGINT:
+                return isClassOf(columnClassName, Long.class) ? new LongColumn(initialCapacity) : null;
+
+            case Types.FLOAT:
+            case Types.DOUBLE:
+                return isClassOf(columnClassName, Double.class) ? new DoubleColumn(initialCapacity) : null;
+
+            case Types.BIT:
+            case Types.BOOLEAN:
+                return isClassOf(columnClassName, Boolean.class) ? new BooleanColumn() : null;
+
+            default:
+                return null;
+        }
+    }
+
+    private static boolean isClassOf(final String columnClassName, final Class<?> cls) {
+        return cls.getName().equals(columnClassName);
+    }
+
+    /**
+     * Add the value of the column at the current row of the specified {@code ResultSet}.
+     *
+     * @param rs
+     * @param columnIndex starts with 1, not 0.
+     * @throws SQLException the SQL exception
+     */
+    final void read(final ResultSet rs, final int columnIndex) throws SQLException {
+        if (objects != null) {
+            objects.add(JdbcUtil.getColumnValue(rs, columnIndex));
+            return;
+        }
+
+        readValue(rs, columnIndex);
+
+        if (rs.wasNull()) {
+            nulls.set(size);
+        }
+
+        size++;
+    }
+
+    /**
+     * Add the value at the current row, or the default value if it's {@code null}.
+     *
+     * @param rs
+     * @param columnIndex
+     * @throws SQLException the SQL exception
+     */
+    abstract void readValue(ResultSet rs, int columnIndex) throws SQLException;
+
+    abstract boolean accepts(Object value);
+
+    abstract Object box(int index);
+
+    /**
+     *
+     * @param index
+     * @param value {@code null} to set the default value.
+     */
+    abstract void setValue(int index, Object value);
+
+    /**
+     *
+     * @param value {@code null} to add the default value.
+     */
+    abstract void addValue(Object value);
+
+    @Override
+    public Object get(final int index) {
+        if (objects != null) {
+            return objects.get(index);
+        }
+
+        checkIndex(index);
+
+        return nulls.get(index) ? null : box(index);
+    }
+
+    @Override
+    public int size() {
+        return objects != null ? objects.size() : size;
+    }
+
+    @Override
+    public Object set(final int index, final Object element) {
+        if (objects == null && (element == null || accepts(element))) {
+            final Object oldValue = get(index);
+
+            setValue(index, element);
+            nulls.set(index, element == null);
+
+            return oldValue;
+        }
+
+        return toObjects().set(index, element);
+    }
+
+    @Override
+    public void add(final int index, final Object element) {
+        if (objects == null && index == size && (element == null || accepts(element))) {
+            addValue(element);
+            nulls.set(size, element == null);
+            size++;
+        } else {
+            toObjects().add(index, element);
+        }
+
+        modCount++;
+    }
+
+    @Override
+    public Object remove(final int index) {
+        final Object oldValue = toObjects().remove(index);
+
+        modCount++;
+
+        return oldValue;
+    }
+
+    private List<Object> toObjects() {
+        if (objects == null) {
+            final List<Object> list = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                list.add(nulls.get(i) ? null : box(i));
+            }
+
+            objects = list;
+            clearValues();
+            nulls.clear();
+            size = 0;
+        }
+
+        return objects;
+    }
+
+    abstract void clearValues();
+
+    private void checkIndex(final int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        }
+    }
+
+    static final class IntColumn extends PrimitiveColumn {
+        private IntList values;
+
+        IntColumn(final int initialCapacity) {
+            this.values = new IntList(initialCapacity > 0 ? initialCapacity : 10);
+        }
+
+        @Override
+        void readValue(final ResultSet rs, final int columnIndex) throws SQLException {
+            values.add(rs.getInt(columnIndex));
+        }
+
+        @Override
+        boolean accepts(final Object value) {
+            return value instanceof Integer;
+        }
+
+        @Override
+        Object box(final int index) {
+            return values.get(index);
+        }
+
+        @Override
+        void setValue(final int index, final Object value) {
+            values.set(index, value == null ? 0 : (Integer) value);
+        }
+
+        @Override
+        void addValue(final Object value) {
+            values.add(value == null ? 0 : (Integer) value);
+        }
+
+        @Override
+        void clearValues() {
+            values = new IntList(0);
+        }
+    }
+
+    static final class LongColumn extends PrimitiveColumn {
+        private LongList values;
+
+        LongColumn(final int initialCapacity) {
+            this.values = new LongList(initialCapacity > 0 ? initialCapacity : 10);
+        }
+
+        @Override
+        void readValue(final ResultSet rs, final int columnIndex) throws SQLException {
+            values.add(rs.getLong(columnIndex));
+        }
+
+        @Override
+        boolean accepts(final Object value) {
+            return value instanceof Long;
+        }
+
+        @Override
+        Object box(final int index) {
+            return values.get(index);
+        }
+
+        @Override
+        void setValue(final int index, final Object value) {
+            values.set(index, value == null ? 0L : (Long) value);
+        }
+
+        @Override
+        void addValue(final Object value) {
+            values.add(value == null ? 0L : (Long) value);
+        }
+
+        @Override
+        void clearValues() {
+            values = new LongList(0);
+        }
+    }
+
+    static final class DoubleColumn extends PrimitiveColumn {
+        private DoubleList values;
+
+        DoubleColumn(final int initialCapacity) {
+            this.values = new DoubleList(initialCapacity > 0 ? initialCapacity : 10);
+        }
+
+        @Override
+        void readValue(final ResultSet rs, final int columnIndex) throws SQLException {
+            values.add(rs.getDouble(columnIndex));
+        }
+
+        @Override
+        boolean accepts(final Object value) {
+            return value instanceof Double;
+        }
+
+        @Override
+        Object box(final int index) {
+            return values.get(index);
+        }
+
+        @Override
+        void setValue(final int index, final Object value) {
+            values.set(index, value == null ? 0d : (Double) value);
+        }
+
+        @Override
+        void addValue(final Object value) {
+            values.add(value == null ? 0d : (Double) value);
+        }
+
+        @Override
+        void clearValues() {
+            values = new DoubleList(0);
+        }
+    }
+
+    static final class BooleanColumn extends PrimitiveColumn {
+        private BitSet values = new BitSet();
+
+        @Override
+        void readValue(final ResultSet rs, final int columnIndex) throws SQLException {
+            values.set(size, rs.getBoolean(columnIndex));
+        }
+
+        @Override
+        boolean accepts(final Object value) {
+            return value instanceof Boolean;
+        }
+
+        @Override
+        Object box(final int index) {
+            return values.get(index);
+        }
+
+        @Override
+        void setValue(final int index, final Object value) {
+            values.set(index, value != null && (Boolean) value);
+        }
+
+        @Override
+        void addValue(final Object value) {
+            values.set(size, value != null && (Boolean) value);
+        }
+
+        @Override
+        void clearValues() {
+            values = new BitSet();
+        }
+    }
+}
@@ -0,0 +1,485 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.ObjDoubleConsumer;
+import java.util.function.ObjIntConsumer;
+import java.util.function.ObjLongConsumer;
+import java.util.function.ToDoubleFunction;
+import java.util.function.ToIntFunction;
+import java.util.function.ToLongFunction;
+
+import com.landawn.abacus.core.DirtyMarkerUtil;
+import com.landawn.abacus.logging.Logger;
+import com.landawn.abacus.logging.LoggerFactory;
+import com.landawn.abacus.parser.ParserUtil.PropInfo;
+
+/**
+ * The getter/setter of an entity property, generated once by {@code LambdaMetafactory} (for getter/setter methods) or {@code MethodHandle} (for fields)
+ * instead of the reflective {@code PropInfo.getPropValue/setPropValue}.
+ * The property is accessed the same way as {@code PropInfo} does: by field if it's accessible and the entity is not a {@code DirtyMarker}, otherwise by method.
+ * <br />
+ * The {@code int/long/double} properties mapped to the default {@code Type} are read from {@code ResultSet}
+ * and set to {@code PreparedStatement} without boxing.
+ * If the accessor can't be generated, for example, the entity class is not accessible by the lookup, it falls back to {@code PropInfo}.
+ *
+ * @author Haiyang Li
+ */
+final class PropAccessor {
+
+    private static final Logger logger = LoggerFactory.getLogger(PropAccessor.class);
+
+    private static final int NONE = 0;
+
+    private static final int INT = 1;
+
+    private static final int LONG = 2;
+
+    private static final int DOUBLE = 3;
+
+    private static final Map<Class<?>, Map<String, PropAccessor>> accessorPool = new ConcurrentHashMap<>();
+
+    private final PropInfo propInfo;
+
+    private final Object defaultValue;
+
+    /**
+     * The property class, wrapped if it's primitive, to check the value to set.
+     */
+    private final Class<?> wrappedPropClass;
+
+    private final Function<Object, Object> getter;
+
+    private final BiConsumer<Object, Object> setter;
+
+    /**
+     * {@code INT/LONG/DOUBLE} if the property is a primitive {@code int/long/double} mapped to the default {@code Type}, otherwise {@code NONE}.
+     */
+    private final int primitiveKind;
+
+    private final ToIntFunction<Object> intGetter;
+
+    private final ObjIntConsumer<Object> intSetter;
+
+    private final ToLongFunction<Object> longGetter;
+
+    private final ObjLongConsumer<Object> longSetter;
+
+    private final ToDoubleFunction<Object> doubleGetter;
+
+    private final ObjDoubleConsumer<Object> doubleSetter;
+
+    @SuppressWarnings("unchecked")
+    private PropAccessor(final PropInfo propInfo) {
+        this.propInfo = propInfo;
+        this.defaultValue = propInfo.type.defaultValue();
+        this.wrappedPropClass = Primitives.wrap(propInfo.clazz);
+
+        final boolean isFieldAccessible = propInfo.field != null && !DirtyMarkerUtil.isDirtyMarker(propInfo.declaringClass)
+                && ClassUtil.setAccessibleQuietly(propInfo.field, true);
+        final Class<?> propClass = propInfo.clazz;
+
+        Function<Object, Object> getter = null;
+        BiConsumer<Object, Object> setter = null;
+        Object primitiveGetter = null;
+        Object primitiveSetter = null;
+        int primitiveKind = NONE;
+
+        if (propClass.equals(int.class) && propInfo.dbType == N.typeOf(int.class)) {
+            primitiveKind = INT;
+        } else if (propClass.equals(long.class) && propInfo.dbType == N.typeOf(long.class)) {
+            primitiveKind = LONG;
+        } else if (propClass.equals(double.class) && propInfo.dbType == N.typeOf(double.class)) {
+            primitiveKind = DOUBLE;
+        }
+
+        try {
+            if (isFieldAccessible) {
+                final MethodHandle getterHandle = MethodHandles.lookup().unreflectGetter(propInfo.field);
+                final MethodHandle setterHandle = MethodHandles.lookup().unreflectSetter(propInfo.field);
+
+                getter = fieldGetter(getterHandle);
+                setter = fieldSetter(setterHandle);
+
+                if (primitiveKind != NONE) {
+                    primitiveGetter = primitiveFieldGetter(primitiveKind, getterHandle);
+                    primitiveSetter = primitiveFieldSetter(primitiveKind, setterHandle);
+                }
+            } else {
+                if (propInfo.getMethod != null) {
+                    getter = (Function<Object, Object>) generate(propInfo.getMethod, Function.class, "apply",
+                            MethodType.methodType(Object.class, Object.class));
+                }
+
+                if (propInfo.setMethod != null) {
+                    setter = (BiConsumer<Object, Object>) generate(propInfo.setMethod, BiConsumer.class, "accept",
+                            MethodType.methodType(void.class, Object.class, Object.class));
+                }
+
+                if (primitiveKind != NONE && getter != null && setter != null) {
+                    try {
+                        primitiveGetter = generate(propInfo.getMethod, primitiveGetterInterface(primitiveKind), primitiveGetterMethodName(primitiveKind),
+                                MethodType.methodType(propClass, Object.class));
+
+                        primitiveSetter = generate(propInfo.setMethod, primitiveSetterInterface(primitiveKind), "accept",
+                                MethodType.methodType(void.class, Object.class, propClass));
+                    } catch (Throwable e) {
+                        // the getter/setter methods are not declared with the primitive type. Access it by the boxed getter/setter.
+                        primitiveGetter = null;
+                        primitiveSetter = null;
+                    }
+                }
+            }
+        } catch (Throwable e) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("Failed to generate accessor for property: " + propInfo.name + " in class: "
+                        + ClassUtil.getCanonicalClassName(propInfo.declaringClass) + ". Access it by reflection", e);
+            }
+
+            getter = null;
+            setter = null;
+            primitiveGetter = null;
+            primitiveSetter = null;
+        }
+
+        if (primitiveGetter == null || primitiveSetter == null) {
+            primitiveKind = NONE;
+        }
+
+        this.getter = getter == null ? propInfo::getPropValue : getter;
+        this.setter = setter == null ? propInfo::setPropValue : setter;
+        this.primitiveKind = primitiveKind;
+        this.intGetter = primitiveKind == INT ? (ToIntFunction<Object>) primitiveGetter : null;
+        this.intSetter = primitiveKind == INT ? (ObjIntConsumer<Object>) primitiveSetter : null;
+        this.longGetter = primitiveKind == LONG ? (ToLongFunction<Object>) primitiveGetter : null;
+        this.longSetter = primitiveKind == LONG ? (ObjLongConsumer<Object>) primitiveSetter : null;
+        this.doubleGetter = primitiveKind == DOUBLE ? (ToDoubleFunction<Object>) primitiveGetter : null;
+        this.doubleSetter = primitiveKind == DOUBLE ? (ObjDoubleConsumer<Object>) primitiveSetter : null;
+    }
+
+    /**
+     *
+     * @param entityClass
+     * @param propInfo a property of the specified entity class.
+     * @return
+     */
+    static PropAccessor of(final Class<?> entityClass, final PropInfo propInfo) {
+        Map<String, PropAccessor> accessors = accessorPool.get(entityClass);
+
+        if (accessors == null) {
+            accessors = accessorPool.computeIfAbsent(entityClass, k -> new ConcurrentHashMap<>());
+        }
+
+        PropAccessor accessor = accessors.get(propInfo.name);
+
+        if (accessor == null) {
+            accessor = accessors.computeIfAbsent(propInfo.name, k -> new PropAccessor(propInfo));
+        }
+
+        return accessor;
+    }
+
+    /**
+     *
+     * @param entityClass
+     * @param propInfos the properties of the specified entity class. The element can be {@code null}.
+     * @return the accessors by the index of the specified {@code propInfos}. The element is {@code null} if the {@code PropInfo} at the index is {@code null}.
+     */
+    static PropAccessor[] of(final Class<?> entityClass, final PropInfo[] propInfos) {
+        final PropAccessor[] accessors = new PropAccessor[propInfos.length];
+
+        for (int i = 0, len = propInfos.length; i < len; i++) {
+            if (propInfos[i] != null) {
+                accessors[i] = of(entityClass, propInfos[i]);
+            }
+        }
+
+        return accessors;
+    }
+
+    PropInfo propInfo() {
+        return propInfo;
+    }
+
+    /**
+     *
+     * @param <T>
+     * @param entity
+     * @return
+     */
+    @SuppressWarnings("unchecked")
+    <T> T getPropValue(final Object entity) {
+        return (T) getter.apply(entity);
+    }
+
+    /**
+     * The default value of the property type is set if the specified {@code propValue} is {@code null}.
+     * If the specified {@code propValue} is not an instance of the property type, it's set by {@code PropInfo.setPropValue} which converts the value.
+     *
+     * @param entity
+     * @param propValue
+     */
+    void setPropValue(final Object entity, final Object propValue) {
+        if (propValue == null) {
+            setter.accept(entity, defaultValue);
+        } else if (wrappedPropClass.isInstance(propValue)) {
+            setter.accept(entity, propValue);
+        } else {
+            propInfo.setPropValue(entity, propValue);
+        }
+    }
+
+    /**
+     * Read the value of the property from the specified column by its {@code dbType} and set it to the specified entity.
+     *
+     * @param entity
+     * @param rs
+     * @param columnIndex starts from 1.
+     * @throws SQLException the SQL exception
+     */
+    void setPropValue(final Object entity, final ResultSet rs, final int columnIndex) throws SQLException {
+        switch (primitiveKind) {
+            case INT:
+                intSetter.accept(entity, rs.getInt(columnIndex));
+                break;
+
+            case LONG:
+                longSetter.accept(entity, rs.getLong(columnIndex));
+                break;
+
+            case DOUBLE:
+                doubleSetter.accept(entity, rs.getDouble(columnIndex));
+                break;
+
+            default:
+                setPropValue(entity, propInfo.dbType.get(rs, columnIndex));
+        }
+    }
+
+    /**
+     * Set the value of the property in the specified entity to the specified statement by its {@code dbType}.
+     *
+     * @param stmt
+     * @param parameterIndex starts from 1.
+     * @param entity
+     * @throws SQLException the SQL exception
+     */
+    void setParameter(final PreparedStatement stmt, final int parameterIndex, final Object entity) throws SQLException {
+        switch (primitiveKind) {
+            case INT:
+                stmt.setInt(parameterIndex, intGetter.applyAsInt(entity));
+                break;
+
+            case LONG:
+                stmt.setLong(parameterIndex, longGetter.applyAsLong(entity));
+                break;
+
+            case DOUBLE:
+                stmt.setDouble(parameterIndex, doubleGetter.applyAsDouble(entity));
+                break;
+
+            default:
+                propInfo.dbType.set(stmt, parameterIndex, getter.apply(entity));
+        }
+    }
+
+    /**
+     * Generate an implementation of the specified functional interface calling the specified getter/setter method.
+     *
+     * @param method
+     * @param interfaceClass
+     * @param interfaceMethodName
+     * @param interfaceMethodType the erased type of the interface method.
+     * @return
+     * @throws Throwable
+     */
+    private static Object generate(final Method method, final Class<?> interfaceClass, final String interfaceMethodName, final MethodType interfaceMethodType)
+            throws Throwable {
+        final Class<?> declaringClass = method.getDeclaringClass();
+        final MethodHandles.Lookup lookup = privateLookupIn(declaringClass);
+        final MethodHandle methodHandle = lookup.unreflect(method);
+
+        // the parameter/return types of the method, boxed where the interface method type is Object, so they're unboxed/boxed by the generated class.
+        final Class<?>[] paramTypes = method.getParameterTypes();
+        final Class<?>[] instantiatedParamTypes = new Class<?>[paramTypes.length + 1];
+        instantiatedParamTypes[0] = declaringClass;
+
+        for (int i = 0; i < paramTypes.length; i++) {
+            instantiatedParamTypes[i + 1] = interfaceMethodType.parameterType(i + 1).isPrimitive() ? paramTypes[i] : Primitives.wrap(paramTypes[i]);
+        }
+
+        final Class<?> instantiatedReturnType = interfaceMethodType.returnType().equals(void.class) ? void.class
+                : (interfaceMethodType.returnType().isPrimitive() ? method.getReturnType() : Primitives.wrap(method.getReturnType()));
+
+        final CallSite callSite = LambdaMetafactory.metafactory(lookup, interfaceMethodName, MethodType.methodType(interfaceClass), interfaceMethodType,
+                methodHandle, MethodType.methodType(instantiatedReturnType, instantiatedParamTypes));
+
+        return callSite.getTarget().invoke();
+    }
+
+    /**
+     * The lookup with private access in the specified class, so the generated class is defined in it and can access its (non-public) methods.
+     *
+     * @param cls
+     * @return
+     * @throws Exception
+     */
+    private static MethodHandles.Lookup privateLookupIn(final Class<?> cls) throws Exception {
+        try {
+            // Java 9+
+            final Method privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, MethodHandles.Lookup.class);
+
+            return (MethodHandles.Lookup) privateLookupIn.invoke(null, cls, MethodHandles.lookup());
+        } catch (NoSuchMethodException e) {
+            // Java 8
+            final Constructor<MethodHandles.Lookup> constructor = MethodHandles.Lookup.class.getDeclaredConstructor(Class.class);
+            ClassUtil.setAccessible(constructor, true);
+
+            return constructor.newInstance(cls);
+        }
+    }
+
+    private static Function<Object, Object> fieldGetter(final MethodHandle getterHandle) {
+        final MethodHandle mh = getterHandle.asType(MethodType.methodType(Object.class, Object.class));
+
+        return entity -> {
+            try {
+                return mh.invokeExact(entity);
+            } catch (Throwable e) {
+                throw N.toRuntimeException(e);
+            }
+        };
+    }
+
+    private static BiConsumer<Object, Object> fieldSetter(final MethodHandle setterHandle) {
+        final MethodHandle mh = setterHandle.asType(MethodType.methodType(void.class, Object.class, Object.class));
+
+        return (entity, propValue) -> {
+            try {
+                mh.invokeExact(entity, propValue);
+            } catch (Throwable e) {
+                throw N.toRuntimeException(e);
+            }
+        };
+    }
+
+    private static Object primitiveFieldGetter(final int primitiveKind, final MethodHandle getterHandle) {
+        switch (primitiveKind) {
+            case INT: {
+                final MethodHandle mh = getterHandle.asType(MethodType.methodType(int.class, Object.class));
+
+                return (ToIntFunction<Object>) entity -> {
+                    try {
+                        return (int) mh.invokeExact(entity);
+                    } catch (Throwable e) {
+                        throw N.toRuntimeException(e);
+                    }
+                };
+            }
+
+            case LONG: {
+                final MethodHandle mh = getterHandle.asType(MethodType.methodType(long.class, Object.class));
+
+                return (ToLongFunction<Object>) entity -> {
+                    try {
+                        return (long) mh.invokeExact(entity);
+                    } catch (Throwable e) {
+                        throw N.toRuntimeException(e);
+                    }
+                };
+            }
+
+            default: {
+                final MethodHandle mh = getterHandle.asType(MethodType.methodType(double.class, Object.class));
+
+                return (ToDoubleFunction<Object>) entity -> {
+                    try {
+                        return (double) mh.invokeExact(entity);
+                    } catch (Throwable e) {
+                        throw N.toRuntimeException(e);
+                    }
+                };
+            }
+        }
+    }
+
+    private static Object primitiveFieldSetter(final int primitiveKind, final MethodHandle setterHandle) {
+        switch (primitiveKind) {
+            case INT: {
+                final MethodHandle mh = setterHandle.asType(MethodType.methodType(void.class, Object.class, int.class));
+
+                return (ObjIntConsumer<Object>) (entity, propValue) -> {
+                    try {
+                        mh.invokeExact(entity, propValue);
+                    } catch (Throwable e) {
+                        throw N.toRuntimeException(e);
+                    }
+                };
+            }
+
+            case LONG: {
+                final MethodHandle mh = setterHandle.asType(MethodType.methodType(void.class, Object.class, long.class));
+
+                return (ObjLongConsumer<Object>) (entity, propValue) -> {
+                    try {
+                        mh.invokeExact(entity, propValue);
+                    } catch (Throwable e) {
+                        throw N.toRuntimeException(e);
+                    }
+                };
+            }
+
+            default: {
+                final MethodHandle mh = setterHandle.asType(MethodType.methodType(void.class, Object.class, double.class));
+
+                return (ObjDoubleConsumer<Object>) (entity, propValue) -> {
+                    try {
+                        mh.invokeExact(entity, propValue);
+                    } catch (Throwable e) {
+                        throw N.toRuntimeException(e);
+                    }
+                };
+            }
+        }
+    }
+
+    private static Class<?> primitiveGetterInterface(final int primitiveKind) {
+        return primitiveKind == INT ? ToIntFunction.class : (primitiveKind == LONG ? ToLongFunction.class : ToDoubleFunction.class);
+    }
+
+    private static String primitiveGetterMethodName(final int primitiveKind) {
+        return primitiveKind == INT ? "applyAsInt" : (primitiveKind == LONG ? "applyAsLong" : "applyAsDouble");
+    }
+
+    private static Class<?> primitiveSetterInterface(final int primitiveKind) {
+        return primitiveKind == INT ? ObjIntConsumer.class : (primitiveKind == LONG ? ObjLongConsumer.class : ObjDoubleConsumer.class);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.io.PrintWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.landawn.abacus.util.SQLTransaction.CreatedBy;
+
+/**
+ * A {@code DataSource} which splits reads and writes: the read-only sqls executed by {@code JdbcUtil/PreparedQuery/NamedQuery/Dao}
+ * are sent to the replicas in round-robin, and everything else to the primary.
+ * <br />
+ * The primary is used for all the sqls in the current thread:
+ * <li>if a {@code SQLTransaction} (or a Spring transaction) started with this {@code RoutingDataSource} is active.</li>
+ * <li>within {@code readYourWritesWindow} milliseconds after the last write (or the last sql executed in a transaction).</li>
+ *
+ * <br />
+ * {@link #getConnection()} always returns a {@code Connection} from the primary because the sql to execute is unknown.
+ * The sql is classified by {@code SQLDescriptor#isReadOnly()}.
+ *
+ * <pre>
+ * <code>
+ * final RoutingDataSource ds = new RoutingDataSource(primaryDataSource, N.asList(replicaDataSource1, replicaDataSource2), 1000);
+ * final UserDao userDao = JdbcUtil.createDao(UserDao.class, ds);
+ * </code>
+ * </pre>
+ *
+ * @author Haiyang Li
+ */
+public final class RoutingDataSource implements javax.sql.DataSource {
+
+    private final javax.sql.DataSource primary;
+
+    private final ImmutableList<javax.sql.DataSource> replicas;
+
+    private final long readYourWritesWindow;
+
+    private final AtomicInteger counter = new AtomicInteger();
+
+    private final ThreadLocal<long[]> lastWriteTime_TL = ThreadLocal.withInitial(() -> new long[1]);
+
+    /**
+     *
+     * @param primary
+     * @param replicas
+     */
+    public RoutingDataSource(final javax.sql.DataSource primary, final List<? extends javax.sql.DataSource> replicas) {
+        this(primary, replicas, 0);
+    }
+
+    /**
+     *
+     * @param primary
+     * @param replicas
+     * @param readYourWritesWindow unit is milliseconds. The reads in the same thread are sent to the primary within this window after the last write.
+     *        {@code 0} to disable it.
+     */
+    public RoutingDataSource(final javax.sql.DataSource primary, final List<? extends javax.sql.DataSource> replicas, final long readYourWritesWindow) {
+        N.checkArgNotNull(primary, "primary");
+        N.checkArgNotNull(replicas, "replicas");
+        N.checkArgNotNegative(readYourWritesWindow, "readYourWritesWindow");
+
+        this.primary = primary;
+        this.replicas = ImmutableList.copyOf(replicas);
+        this.readYourWritesWindow = readYourWritesWindow;
+    }
+
+    public javax.sql.DataSource primary() {
+        return primary;
+    }
+
+    public ImmutableList<javax.sql.DataSource> replicas() {
+        return replicas;
+    }
+
+    public long readYourWritesWindow() {
+        return readYourWritesWindow;
+    }
+
+    /**
+     * The reads in the current thread will be sent to the primary within {@code readYourWritesWindow} milliseconds from now.
+     * It's called automatically for the writes executed through this {@code RoutingDataSource}.
+     * Call it after writing by a {@code Connection} borrowed by {@link #getConnection()} directly.
+     */
+    public void markWritten() {
+        if (readYourWritesWindow > 0) {
+            lastWriteTime_TL.get()[0] = System.currentTimeMillis();
+        }
+    }
+
+    /**
+     *
+     * @param sql
+     * @return the replica to execute the specified sql, or {@code null} if it should be executed by the primary.
+     */
+    javax.sql.DataSource route(final String sql) {
+        if (SQLTransaction.getTransaction(this, CreatedBy.JDBC_UTIL) != null) {
+            markWritten();
+            return null;
+        }
+
+        if (sql == null || SQLDescriptor.of(sql).isReadOnly() == false) {
+            markWritten();
+            return null;
+        }
+
+        if (replicas.size() == 0 || (readYourWritesWindow > 0 && System.currentTimeMillis() - lastWriteTime_TL.get()[0] < readYourWritesWindow)) {
+            return null;
+        }
+
+        return replicas.size() == 1 ? replicas.get(0) : replicas.get((counter.getAndIncrement() & Integer.MAX_VALUE) % replicas.size());
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public java.util.logging.Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        return iface.isInstance(this) ? iface.cast(this) : primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    @Override
+    public String toString() {
+        return "{primary=" + primary + ", replicas=" + replicas + ", readYourWritesWindow=" + readYourWritesWindow + "}";
+    }
+}
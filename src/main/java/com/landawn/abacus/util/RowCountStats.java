@@ -0,0 +1,264 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.Connection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The rolling statistics of the count of rows returned by each query executed on the connections borrowed from a {@code DataSource}.
+ * <br />
+ * It's used by {@code JdbcUtil/PreparedQuery/NamedQuery/Dao} to choose the fetch size of the query and presize the result {@code List/DataSet},
+ * unless the fetch size is set explicitly by {@code setFetchSize}.
+ * The average row count is an exponentially weighted moving average, so it follows the recent executions.
+ * <br />
+ * It's opt-in and enabled for a {@code DataSource} by {@link JdbcUtil#enableRowCountStats(javax.sql.DataSource)}.
+ *
+ * @author Haiyang Li
+ * @see JdbcUtil#enableRowCountStats(javax.sql.DataSource, int, int)
+ */
+public final class RowCountStats {
+
+    public static final int DEFAULT_MIN_FETCH_SIZE = 10;
+
+    public static final int DEFAULT_MAX_FETCH_SIZE = 1000;
+
+    /**
+     * The max count of sqls tracked for one {@code DataSource}. The sqls executed after it's reached are not tracked.
+     */
+    public static final int MAX_SQL_COUNT = 1024;
+
+    static final int MAX_INITIAL_CAPACITY = 10000;
+
+    private static final double SMOOTHING_FACTOR = 0.25;
+
+    private static final Map<javax.sql.DataSource, RowCountStats> dsStatsPool = new ConcurrentHashMap<>();
+
+    private static volatile boolean isEnabled = false;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final int minFetchSize;
+
+    private final int maxFetchSize;
+
+    private volatile boolean isDisabled = false;
+
+    RowCountStats(final int minFetchSize, final int maxFetchSize) {
+        N.checkArgPositive(minFetchSize, "minFetchSize");
+        N.checkArgument(maxFetchSize >= minFetchSize, "'maxFetchSize' can't be less than 'minFetchSize'");
+
+        this.minFetchSize = minFetchSize;
+        this.maxFetchSize = maxFetchSize;
+    }
+
+    public int minFetchSize() {
+        return minFetchSize;
+    }
+
+    public int maxFetchSize() {
+        return maxFetchSize;
+    }
+
+    /**
+     *
+     * @param sql
+     * @return the average count of rows returned by the specified sql, or {@code -1} if it's not executed yet.
+     */
+    public double getAverageRowCount(final String sql) {
+        final Entry entry = entries.get(sql);
+
+        return entry == null ? -1 : entry.average;
+    }
+
+    /**
+     *
+     * @param sql
+     * @return the max count of rows returned by the specified sql, or {@code -1} if it's not executed yet.
+     */
+    public long getMaxRowCount(final String sql) {
+        final Entry entry = entries.get(sql);
+
+        return entry == null ? -1 : entry.max;
+    }
+
+    /**
+     * The fetch size for the next execution of the specified sql: the expected row count plus one, so the end of the result is reached in the same round trip,
+     * bounded by {@code minFetchSize} and {@code maxFetchSize}.
+     *
+     * @param sql
+     * @return the fetch size, or {@code 0} if the specified sql is not executed yet.
+     */
+    public int getFetchSize(final String sql) {
+        final Entry entry = sql == null ? null : entries.get(sql);
+
+        if (entry == null) {
+            return 0;
+        }
+
+        final double expected = Math.ceil(entry.average) + 1;
+
+        return expected <= minFetchSize ? minFetchSize : (expected >= maxFetchSize ? maxFetchSize : (int) expected);
+    }
+
+    /**
+     * The initial capacity of the result {@code List/DataSet} for the next execution of the specified sql.
+     *
+     * @param sql
+     * @return the initial capacity, or {@code 0} if the specified sql is not executed yet or the expected row count is too small to presize.
+     */
+    public int getInitialCapacity(final String sql) {
+        final Entry entry = sql == null ? null : entries.get(sql);
+
+        if (entry == null || entry.average <= 10) {
+            return 0;
+        }
+
+        final double expected = Math.ceil(entry.average);
+
+        return expected >= MAX_INITIAL_CAPACITY ? MAX_INITIAL_CAPACITY : (int) expected;
+    }
+
+    /**
+     * Record the count of rows returned by an execution of the specified sql.
+     *
+     * @param sql
+     * @param rowCount
+     */
+    public void record(final String sql, final long rowCount) {
+        if (sql == null || rowCount < 0) {
+            return;
+        }
+
+        Entry entry = entries.get(sql);
+
+        if (entry == null) {
+            if (entries.size() >= MAX_SQL_COUNT) {
+                return;
+            }
+
+            entry = entries.computeIfAbsent(sql, k -> new Entry());
+        }
+
+        entry.update(rowCount);
+    }
+
+    /**
+     * Remove the statistics of all the sqls.
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Remove the statistics of the specified sql.
+     *
+     * @param sql
+     */
+    public void clear(final String sql) {
+        entries.remove(sql);
+    }
+
+    @Override
+    public String toString() {
+        return "{minFetchSize=" + minFetchSize + ", maxFetchSize=" + maxFetchSize + ", sqlCount=" + entries.size() + "}";
+    }
+
+    static RowCountStats enable(final javax.sql.DataSource ds, final int minFetchSize, final int maxFetchSize) {
+        N.checkArgNotNull(ds, "ds");
+
+        final RowCountStats stats = new RowCountStats(minFetchSize, maxFetchSize);
+
+        final RowCountStats existed = dsStatsPool.put(ds, stats);
+        isEnabled = true;
+
+        if (existed != null) {
+            existed.isDisabled = true;
+        }
+
+        return stats;
+    }
+
+    static void disable(final javax.sql.DataSource ds) {
+        final RowCountStats stats = dsStatsPool.remove(ds);
+
+        if (stats != null) {
+            stats.isDisabled = true;
+        }
+
+        isEnabled = dsStatsPool.isEmpty() == false;
+    }
+
+    static RowCountStats get(final javax.sql.DataSource ds) {
+        return dsStatsPool.get(ds);
+    }
+
+    /**
+     * Gets the statistics attached to the specified connection.
+     *
+     * @param conn
+     * @return {@code null} if it's not enabled for the {@code DataSource} the specified connection is borrowed from.
+     */
+    static RowCountStats get(final Connection conn) {
+        if (isEnabled == false) {
+            return null;
+        }
+
+        final ConnectionAttributes attrs = ConnectionAttributes.get(conn);
+        final RowCountStats stats = attrs == null ? null : attrs.rowCountStats;
+
+        return stats == null || stats.isDisabled ? null : stats;
+    }
+
+    /**
+     * Attach the statistics of the specified {@code DataSource} to the specified connection borrowed from it, if it's enabled for the {@code DataSource}.
+     * It's detached by {@link ConnectionAttributes#detach(Connection)} when the connection is released.
+     *
+     * @param conn
+     * @param ds
+     */
+    static void attach(final Connection conn, final javax.sql.DataSource ds) {
+        if (isEnabled == false || conn == null) {
+            return;
+        }
+
+        final RowCountStats stats = dsStatsPool.get(ds);
+
+        if (stats != null) {
+            ConnectionAttributes.getOrCreate(conn).rowCountStats = stats;
+        }
+    }
+
+    private static final class Entry {
+        volatile double average;
+
+        volatile long max;
+
+        long count;
+
+        synchronized void update(final long rowCount) {
+            average = count == 0 ? rowCount : average + SMOOTHING_FACTOR * (rowCount - average);
+
+            if (rowCount > max) {
+                max = rowCount;
+            }
+
+            count++;
+        }
+    }
+}
@@ -0,0 +1,216 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+import com.landawn.abacus.EntityId;
+import com.landawn.abacus.parser.ParserUtil;
+import com.landawn.abacus.parser.ParserUtil.EntityInfo;
+import com.landawn.abacus.parser.ParserUtil.PropInfo;
+
+/**
+ * The condition to match a batch of composite keys: {@code (a, b) IN ((?, ?), (?, ?), ...)},
+ * or {@code EXISTS (SELECT 1 FROM (VALUES (?, ?), (?, ?), ...) ...)} on SQL Server which doesn't support row value in {@code IN}.
+ * Unlike {@code (a = ? AND b = ?) OR (a = ? AND b = ?) ...}, it's planned as index lookups by the composite key and the size of it grows linearly.
+ *
+ * @author Haiyang Li
+ */
+final class RowValueIn {
+
+    private static final String WHERE = " WHERE ";
+
+    private RowValueIn() {
+        // singleton.
+    }
+
+    /**
+     * MySQL before 5.7 supports row value in {@code IN}, but doesn't use the index for it: it's planned as a full scan.
+     *
+     * @param dbVersion
+     * @return
+     */
+    static boolean isSupported(final DBVersion dbVersion) {
+        switch (dbVersion) {
+            case MYSQL_5_5:
+            case MYSQL_5_6:
+            case DB2:
+            case OTHERS:
+                return false;
+
+            default:
+                return true;
+        }
+    }
+
+    /**
+     *
+     * @param dbVersion
+     * @param columnNames the columns of the composite key.
+     * @param rowCount
+     * @return {@code null} if it's not supported by the database.
+     */
+    static String condition(final DBVersion dbVersion, final String[] columnNames, final int rowCount) {
+        if (!isSupported(dbVersion)) {
+            return null;
+        }
+
+        final int columnCount = columnNames.length;
+        final StringBuilder sb = Objectory.createStringBuilder();
+
+        if (dbVersion == DBVersion.SQL_SERVER) {
+            sb.append("EXISTS (SELECT 1 FROM (VALUES ");
+            appendRows(sb, columnCount, rowCount);
+            sb.append(") AS v_ (");
+
+            for (int i = 0; i < columnCount; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+
+                sb.append("k").append(i).append('_');
+            }
+
+            sb.append(") WHERE ");
+
+            for (int i = 0; i < columnCount; i++) {
+                if (i > 0) {
+                    sb.append(" AND ");
+                }
+
+                sb.append("v_.k").append(i).append("_ = ").append(columnNames[i]);
+            }
+
+            sb.append(')');
+        } else {
+            sb.append('(');
+
+            for (int i = 0; i < columnCount; i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+
+                sb.append(columnNames[i]);
+            }
+
+            sb.append(") IN (");
+            appendRows(sb, columnCount, rowCount);
+            sb.append(')');
+        }
+
+        final String condition = sb.toString();
+
+        Objectory.recycle(sb);
+
+        return condition;
+    }
+
+    private static void appendRows(final StringBuilder sb, final int columnCount, final int rowCount) {
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+
+            sb.append('(');
+
+            for (int j = 0; j < columnCount; j++) {
+                if (j > 0) {
+                    sb.append(", ");
+                }
+
+                sb.append('?');
+            }
+
+            sb.append(')');
+        }
+    }
+
+    /**
+     * Replace the {@code WHERE} clause of the specified sql, which must be the last clause, with the specified condition.
+     *
+     * @param sql
+     * @param condition
+     * @return
+     */
+    static String replaceWhere(final String sql, final String condition) {
+        final int index = sql.lastIndexOf(WHERE);
+
+        if (index < 0) {
+            throw new IllegalArgumentException("No WHERE clause found in sql: " + sql);
+        }
+
+        return sql.substring(0, index) + WHERE + condition;
+    }
+
+    /**
+     * Gets the values of the specified properties from the key, which can be an {@code EntityId}, a {@code Map} or an entity.
+     *
+     * @param key
+     * @param propNames
+     * @return
+     */
+    static Object[] keyValues(final Object key, final List<String> propNames) {
+        final int len = propNames.size();
+        final Object[] values = new Object[len];
+
+        if (key instanceof EntityId) {
+            final EntityId entityId = (EntityId) key;
+
+            for (int i = 0; i < len; i++) {
+                values[i] = entityId.get(propNames.get(i));
+            }
+        } else if (key instanceof Map) {
+            final Map<?, ?> m = (Map<?, ?>) key;
+
+            for (int i = 0; i < len; i++) {
+                values[i] = m.get(propNames.get(i));
+            }
+        } else if (key != null && ClassUtil.isEntity(key.getClass())) {
+            final EntityInfo entityInfo = ParserUtil.getEntityInfo(key.getClass());
+
+            for (int i = 0; i < len; i++) {
+                values[i] = entityInfo.getPropValue(key, propNames.get(i));
+            }
+        } else {
+            throw new IllegalArgumentException("Composite key must be EntityId, Map or entity. Can't be: " + key);
+        }
+
+        return values;
+    }
+
+    /**
+     * Set the values of the keys to the specified statement, row by row.
+     *
+     * @param stmt
+     * @param propInfos the properties of the composite key, which provide the types to set the values.
+     * @param keyValuesList
+     * @throws SQLException the SQL exception
+     */
+    static void setParameters(final PreparedStatement stmt, final PropInfo[] propInfos, final List<Object[]> keyValuesList) throws SQLException {
+        final int columnCount = propInfos.length;
+        int parameterIndex = 1;
+
+        for (Object[] keyValues : keyValuesList) {
+            for (int i = 0; i < columnCount; i++) {
+                propInfos[i].dbType.set(stmt, parameterIndex++, keyValues[i]);
+            }
+        }
+    }
+}
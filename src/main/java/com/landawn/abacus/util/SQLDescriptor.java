@@ -0,0 +1,241 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The structured facts of a sql: the operation, the names of the referenced tables, the parameter count and if it's read-only.
+ * <br />
+ * It's computed once for each distinct sql and cached together with its {@code ParsedSql} by {@code ParsedSqlCache}.
+ * The table names are extracted by a lightweight scan of the words after {@code FROM/JOIN/INTO/UPDATE}, not by a full sql parser.
+ * Tables in sub-queries are included. Names defined by {@code WITH ... AS (...)} are excluded.
+ *
+ * @author Haiyang Li
+ * @see ParsedSqlCache#describe(String)
+ */
+public final class SQLDescriptor {
+
+    private static final Set<String> TABLE_LIST_TERMINATORS = N.asSet("WHERE", "GROUP", "ORDER", "HAVING", "LIMIT", "OFFSET", "FETCH", "UNION", "EXCEPT",
+            "INTERSECT", "MINUS", "ON", "USING", "SET", "VALUES", "SELECT", "JOIN", "INNER", "LEFT", "RIGHT", "FULL", "CROSS", "NATURAL", "FOR", "WINDOW",
+            "RETURNING", "CONNECT", "START");
+
+    private final String sql;
+
+    private final SQLOperation operation;
+
+    private final ImmutableSet<String> tableNames;
+
+    private final int parameterCount;
+
+    private final boolean isReadOnly;
+
+    SQLDescriptor(final String sql, final SQLOperation operation, final ImmutableSet<String> tableNames, final int parameterCount,
+            final boolean isReadOnly) {
+        this.sql = sql;
+        this.operation = operation;
+        this.tableNames = tableNames;
+        this.parameterCount = parameterCount;
+        this.isReadOnly = isReadOnly;
+    }
+
+    /**
+     * Gets the {@code SQLDescriptor} for the specified sql from {@code ParsedSqlCache}.
+     *
+     * @param sql
+     * @return
+     */
+    public static SQLDescriptor of(final String sql) {
+        return ParsedSqlCache.describe(sql);
+    }
+
+    /**
+     *
+     * @param parsedSql
+     * @return
+     */
+    static SQLDescriptor create(final ParsedSql parsedSql) {
+        final String sql = parsedSql.sql();
+        final List<String> words = SQLParser.parse(sql);
+        final Set<String> tableNames = new LinkedHashSet<>();
+        final Set<String> cteNames = new LinkedHashSet<>();
+
+        SQLOperation operation = null;
+        boolean isForUpdate = false;
+        boolean expectTable = false;
+        int tableListDepth = -1;
+        int depth = 0;
+        String prev = null;
+        String prevPrev = null;
+
+        for (String word : words) {
+            if (N.isNullOrEmpty(word) || Character.isWhitespace(word.charAt(0))) {
+                continue;
+            }
+
+            final String upperWord = word.toUpperCase();
+
+            if (word.equals("(")) {
+                if (operation == SQLOperation.UNKNOWN && depth == 0 && prevPrev != null && prev.equalsIgnoreCase("AS")) {
+                    cteNames.add(unquote(prevPrev).toLowerCase());
+                }
+
+                depth++;
+                expectTable = false;
+            } else if (word.equals(")")) {
+                depth--;
+                expectTable = false;
+
+                if (depth < tableListDepth) {
+                    tableListDepth = -1;
+                }
+            } else if (operation == null) {
+                operation = getOperation(upperWord);
+            } else if (operation == SQLOperation.UNKNOWN && depth == 0 && prev != null && (prev.equals(")") || prev.equals(","))) {
+                // the statement after "WITH name AS (...)"
+                final SQLOperation op = getOperation(upperWord);
+
+                if (op == SQLOperation.SELECT || op == SQLOperation.INSERT || op == SQLOperation.UPDATE || op == SQLOperation.DELETE) {
+                    operation = op;
+
+                    if (op == SQLOperation.UPDATE) {
+                        expectTable = true;
+                    }
+                }
+            } else if (expectTable) {
+                tableNames.add(unquote(word).toLowerCase());
+                expectTable = false;
+            } else if (word.equals(",")) {
+                expectTable = depth == tableListDepth;
+            } else if (upperWord.equals("FROM") || upperWord.equals("INTO")) {
+                expectTable = true;
+                tableListDepth = depth;
+            } else if (upperWord.equals("JOIN") || (upperWord.equals("TABLE") && prev != null && prev.equalsIgnoreCase("TRUNCATE"))) {
+                expectTable = true;
+                tableListDepth = -1;
+            } else if (upperWord.equals("UPDATE") && prev != null && prev.equalsIgnoreCase("FOR")) {
+                isForUpdate = true;
+            } else if (TABLE_LIST_TERMINATORS.contains(upperWord) && depth == tableListDepth) {
+                tableListDepth = -1;
+            }
+
+            if (operation == SQLOperation.UPDATE && prev == null) {
+                expectTable = true;
+            }
+
+            prevPrev = prev;
+            prev = word;
+        }
+
+        if (operation == null) {
+            operation = SQLOperation.UNKNOWN;
+        }
+
+        tableNames.removeAll(cteNames);
+
+        final boolean isReadOnly = (operation == SQLOperation.SELECT && isForUpdate == false) || operation == SQLOperation.SHOW
+                || operation == SQLOperation.DESCRIBE;
+
+        return new SQLDescriptor(sql, operation, ImmutableSet.of(tableNames), parsedSql.getParameterCount(), isReadOnly);
+    }
+
+    private static SQLOperation getOperation(final String upperWord) {
+        if (upperWord.equals("SELECT")) {
+            return SQLOperation.SELECT;
+        } else if (upperWord.equals("UPDATE")) {
+            return SQLOperation.UPDATE;
+        } else if (upperWord.equals("INSERT")) {
+            return SQLOperation.INSERT;
+        } else if (upperWord.equals("DELETE")) {
+            return SQLOperation.DELETE;
+        } else {
+            for (SQLOperation so : SQLOperation.values()) {
+                if (upperWord.startsWith(so.name())) {
+                    return so;
+                }
+            }
+        }
+
+        return SQLOperation.UNKNOWN;
+    }
+
+    private static String unquote(final String name) {
+        final StringBuilder sb = Objectory.createStringBuilder();
+
+        try {
+            for (int i = 0, len = name.length(); i < len; i++) {
+                final char ch = name.charAt(i);
+
+                if (ch != '"' && ch != '`' && ch != '[' && ch != ']') {
+                    sb.append(ch);
+                }
+            }
+
+            return sb.length() == name.length() ? name : sb.toString();
+        } finally {
+            Objectory.recycle(sb);
+        }
+    }
+
+    public String sql() {
+        return sql;
+    }
+
+    public SQLOperation operation() {
+        return operation;
+    }
+
+    /**
+     * The names(in lower case) of the tables referenced by the sql.
+     *
+     * @return
+     */
+    public ImmutableSet<String> tableNames() {
+        return tableNames;
+    }
+
+    public int parameterCount() {
+        return parameterCount;
+    }
+
+    /**
+     * Returns {@code true} if the sql is a {@code SELECT} without {@code FOR UPDATE}, or a {@code SHOW/DESCRIBE}.
+     *
+     * @return
+     */
+    public boolean isReadOnly() {
+        return isReadOnly;
+    }
+
+    @Override
+    public int hashCode() {
+        return sql.hashCode();
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        return this == obj || (obj instanceof SQLDescriptor && N.equals(((SQLDescriptor) obj).sql, sql));
+    }
+
+    @Override
+    public String toString() {
+        return "{sql=" + sql + ", operation=" + operation + ", tableNames=" + tableNames + ", parameterCount=" + parameterCount + ", isReadOnly="
+                + isReadOnly + "}";
+    }
+}
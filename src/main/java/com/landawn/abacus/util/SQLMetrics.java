@@ -0,0 +1,596 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.landawn.abacus.logging.Logger;
+import com.landawn.abacus.logging.LoggerFactory;
+
+/**
+ * The instrumentation of the statements executed by {@code JdbcUtil/PreparedQuery/NamedQuery/PreparedCallableQuery/Dao}.
+ * <br />
+ * Two kinds of consumers are supported:
+ * <li>{@code ExecutionListener}s registered by {@link #addListener(ExecutionListener)}, which are called before/after each execution
+ * with the {@code SQLDescriptor} of the executed sql, the affected rows, the batch size, the elapsed time in nanoseconds and the error if it fails.</li>
+ * <li>The built-in per-sql latency histograms, enabled by {@link #enableLatencyHistograms(boolean)}.
+ * They're recorded without lock and can be read by {@link #getLatencySnapshot(String)} or {@link #getLatencySnapshots()}.
+ * The histograms are keyed by the {@link #fingerprint(String) fingerprint} of sql, so the sqls only different in literals or the length of
+ * {@code IN} lists are recorded to the same histogram.</li>
+ *
+ * <br />
+ * Nothing is timed if no listener is registered and the histograms are disabled.
+ * The sql of the statements executed by {@code JdbcUtil.executeXXX(PreparedStatement)} without sql is unknown and recorded to {@link #UNKNOWN_SQL}.
+ *
+ * @author Haiyang Li
+ */
+public final class SQLMetrics {
+
+    private static final Logger logger = LoggerFactory.getLogger(SQLMetrics.class);
+
+    /**
+     * The key for the latency histogram of the statements whose sql is unknown,
+     * or which are executed after the count of histograms reaches {@link #getMaxHistogramCount()}.
+     */
+    public static final String UNKNOWN_SQL = "<unknown>";
+
+    public static final int DEFAULT_MAX_HISTOGRAM_COUNT = 1024;
+
+    private static final ExecutionListener[] EMPTY_LISTENERS = new ExecutionListener[0];
+
+    private static final Map<String, LatencyHistogram> histogramPool = new ConcurrentHashMap<>();
+
+    /**
+     * The fingerprints of the recently executed sqls. It's not added to after its size reaches {@code maxHistogramCount * 4}:
+     * the fingerprints of the sqls with inline literals are computed for each execution.
+     */
+    private static final Map<String, String> fingerprintPool = new ConcurrentHashMap<>();
+
+    /**
+     * The descriptors passed to listeners, keyed by fingerprint. It's bounded by {@code maxHistogramCount} like {@code histogramPool}.
+     */
+    private static final Map<String, SQLDescriptor> descriptorPool = new ConcurrentHashMap<>();
+
+    private static volatile ExecutionListener[] listeners = EMPTY_LISTENERS;
+
+    private static volatile boolean isHistogramEnabled = false;
+
+    private static volatile boolean isEnabled = false;
+
+    private static volatile int maxHistogramCount = DEFAULT_MAX_HISTOGRAM_COUNT;
+
+    private SQLMetrics() {
+        // singleton.
+    }
+
+    /**
+     *
+     * @param listener
+     */
+    public static synchronized void addListener(final ExecutionListener listener) {
+        N.checkArgNotNull(listener, "listener");
+
+        listeners = N.concat(listeners, new ExecutionListener[] { listener });
+        isEnabled = true;
+    }
+
+    /**
+     *
+     * @param listener
+     * @return {@code true} if the specified listener was registered.
+     */
+    public static synchronized boolean removeListener(final ExecutionListener listener) {
+        final int idx = N.indexOf(listeners, listener);
+
+        if (idx < 0) {
+            return false;
+        }
+
+        listeners = N.delete(listeners, idx);
+        isEnabled = isHistogramEnabled || listeners.length > 0;
+
+        return true;
+    }
+
+    /**
+     * Enable/Disable the latency histograms. The recorded histograms are kept when it's disabled. Call {@link #resetLatencyHistograms()} to remove them.
+     *
+     * @param b
+     */
+    public static synchronized void enableLatencyHistograms(final boolean b) {
+        isHistogramEnabled = b;
+        isEnabled = isHistogramEnabled || listeners.length > 0;
+    }
+
+    public static boolean isLatencyHistogramEnabled() {
+        return isHistogramEnabled;
+    }
+
+    /**
+     * The max count of histograms for distinct sql fingerprints. The executions of new sqls will be recorded to {@link #UNKNOWN_SQL} when it's reached.
+     *
+     * @param newMaxHistogramCount
+     */
+    public static void setMaxHistogramCount(final int newMaxHistogramCount) {
+        N.checkArgPositive(newMaxHistogramCount, "newMaxHistogramCount");
+
+        maxHistogramCount = newMaxHistogramCount;
+    }
+
+    public static int getMaxHistogramCount() {
+        return maxHistogramCount;
+    }
+
+    /**
+     *
+     * @param sql the executed sql or its fingerprint.
+     * @return {@code null} if no execution of the specified sql is recorded.
+     */
+    public static LatencySnapshot getLatencySnapshot(final String sql) {
+        final LatencyHistogram histogram = histogramPool.get(sql == null || sql == UNKNOWN_SQL ? UNKNOWN_SQL : fingerprint(sql));
+
+        return histogram == null ? null : histogram.snapshot();
+    }
+
+    /**
+     *
+     * @return the snapshots of the recorded histograms, keyed by sql fingerprint.
+     */
+    public static Map<String, LatencySnapshot> getLatencySnapshots() {
+        final Map<String, LatencySnapshot> result = new LinkedHashMap<>(N.initHashCapacity(histogramPool.size()));
+
+        for (Map.Entry<String, LatencyHistogram> entry : histogramPool.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().snapshot());
+        }
+
+        return result;
+    }
+
+    public static void resetLatencyHistograms() {
+        histogramPool.clear();
+        fingerprintPool.clear();
+        descriptorPool.clear();
+    }
+
+    /**
+     * Normalizes the specified sql into the key of its latency histogram: the string/numeric literals are replaced with {@code ?},
+     * the {@code IN} lists of parameters/literals are collapsed to the first element and the whitespaces are collapsed to one space.
+     * For example: {@code SELECT * FROM user WHERE id IN (1, 2, 3) AND name = 'x'} to {@code SELECT * FROM user WHERE id IN (?) AND name = ?}.
+     *
+     * @param sql
+     * @return
+     */
+    public static String fingerprint(final String sql) {
+        final StringBuilder sb = Objectory.createStringBuilder();
+
+        try {
+            final int len = sql.length();
+            char ch = 0;
+
+            for (int i = 0; i < len; i++) {
+                ch = sql.charAt(i);
+
+                if (ch == '\'') {
+                    // string literal. '' is the escaped quote.
+                    do {
+                        i = sql.indexOf('\'', i + 1);
+
+                        if (i < 0) {
+                            i = len;
+                            break;
+                        }
+                    } while (i + 1 < len && sql.charAt(i + 1) == '\'' && ++i > 0);
+
+                    sb.append('?');
+                } else if (ch == '"' || ch == '`') {
+                    // quoted identifier, which is kept as it is.
+                    final int end = sql.indexOf(ch, i + 1);
+                    final int to = end < 0 ? len : end + 1;
+
+                    sb.append(sql, i, to);
+                    i = to - 1;
+                } else if (Character.isDigit(ch) && !isPartOfWord(sb)) {
+                    while (i + 1 < len && (Character.isLetterOrDigit(sql.charAt(i + 1)) || sql.charAt(i + 1) == '.')) {
+                        i++;
+                    }
+
+                    sb.append('?');
+                } else if (Character.isWhitespace(ch)) {
+                    if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+                        sb.append(' ');
+                    }
+                } else if (ch == '(' && endsWithIn(sb)) {
+                    final int end = collapseInList(sql, i, sb);
+
+                    if (end < 0) {
+                        sb.append(ch);
+                    } else {
+                        i = end;
+                    }
+                } else {
+                    sb.append(ch);
+                }
+            }
+
+            if (sb.length() > 0 && sb.charAt(sb.length() - 1) == ' ') {
+                sb.setLength(sb.length() - 1);
+            }
+
+            return sb.toString();
+        } finally {
+            Objectory.recycle(sb);
+        }
+    }
+
+    private static boolean isPartOfWord(final StringBuilder sb) {
+        if (sb.length() == 0) {
+            return false;
+        }
+
+        final char ch = sb.charAt(sb.length() - 1);
+
+        return Character.isLetterOrDigit(ch) || ch == '_' || ch == '$' || ch == ':' || ch == '#' || ch == '@';
+    }
+
+    private static boolean endsWithIn(final StringBuilder sb) {
+        int end = sb.length();
+
+        if (end > 0 && sb.charAt(end - 1) == ' ') {
+            end--;
+        }
+
+        return end >= 2 && (sb.charAt(end - 1) == 'n' || sb.charAt(end - 1) == 'N') && (sb.charAt(end - 2) == 'i' || sb.charAt(end - 2) == 'I')
+                && (end == 2 || !Character.isLetterOrDigit(sb.charAt(end - 3)) && sb.charAt(end - 3) != '_');
+    }
+
+    /**
+     * Appends the {@code IN} list starting at {@code sql.charAt(from) == '('} with only its first element if the list only contains
+     * parameters/literals, for example: {@code (?, ?, ?)} to {@code (?)}, or {@code ((?, ?), (?, ?))} to {@code ((?, ?))}.
+     *
+     * @param sql
+     * @param from
+     * @param sb
+     * @return the index of the closing parenthesis, or {@code -1} if it's not a list of parameters/literals, for example: a sub-query.
+     */
+    private static int collapseInList(final String sql, final int from, final StringBuilder sb) {
+        int depth = 0;
+        int firstElementEnd = -1;
+
+        for (int i = from, len = sql.length(); i < len; i++) {
+            final char ch = sql.charAt(i);
+
+            if (ch == '(') {
+                depth++;
+            } else if (ch == ')') {
+                if (--depth == 0) {
+                    final String list = fingerprint(sql.substring(from + 1, firstElementEnd < 0 ? i : firstElementEnd));
+
+                    sb.append('(').append(list).append(')');
+
+                    return i;
+                }
+            } else if (ch == ',') {
+                if (depth == 1 && firstElementEnd < 0) {
+                    firstElementEnd = i;
+                }
+            } else if (ch == '\'') {
+                i = sql.indexOf('\'', i + 1);
+
+                if (i < 0) {
+                    return -1;
+                }
+            } else if (!(Character.isWhitespace(ch) || Character.isLetterOrDigit(ch) || ch == '?' || ch == '.' || ch == '-' || ch == ':' || ch == '_'
+                    || ch == '#' || ch == '{' || ch == '}')) {
+                return -1;
+            } else if (Character.isLetter(ch) && depth == 1 && isKeywordAt(sql, i, "SELECT")) {
+                return -1;
+            }
+        }
+
+        return -1;
+    }
+
+    private static boolean isKeywordAt(final String sql, final int idx, final String keyword) {
+        return sql.regionMatches(true, idx, keyword, 0, keyword.length()) && (idx == 0 || !Character.isLetterOrDigit(sql.charAt(idx - 1)))
+                && (idx + keyword.length() >= sql.length() || !Character.isLetterOrDigit(sql.charAt(idx + keyword.length())));
+    }
+
+    static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     *
+     * @param sql
+     * @param isBatch
+     * @return the start time in nanoseconds.
+     */
+    static long beforeExecute(final String sql, final boolean isBatch) {
+        final ExecutionListener[] localListeners = listeners;
+
+        if (localListeners.length > 0) {
+            final SQLDescriptor sqlDescriptor = getDescriptor(sql);
+
+            for (ExecutionListener listener : localListeners) {
+                try {
+                    listener.beforeExecute(sqlDescriptor, isBatch);
+                } catch (Exception e) {
+                    logger.warn("Failed to call beforeExecute on listener: " + listener, e);
+                }
+            }
+        }
+
+        return System.nanoTime();
+    }
+
+    /**
+     *
+     * @param sql
+     * @param elapsedNanos
+     * @param rows the count of affected rows, or {@code -1} if it's unknown.
+     * @param batchSize {@code 0} if it's not batch execution.
+     * @param error
+     */
+    static void afterExecute(final String sql, final long elapsedNanos, final long rows, final int batchSize, final Exception error) {
+        if (isHistogramEnabled) {
+            getOrCreateHistogram(sql).record(elapsedNanos);
+        }
+
+        final ExecutionListener[] localListeners = listeners;
+
+        if (localListeners.length > 0) {
+            final SQLDescriptor sqlDescriptor = getDescriptor(sql);
+
+            for (ExecutionListener listener : localListeners) {
+                try {
+                    listener.afterExecute(sqlDescriptor, rows, batchSize, elapsedNanos, error);
+                } catch (Exception e) {
+                    logger.warn("Failed to call afterExecute on listener: " + listener, e);
+                }
+            }
+        }
+    }
+
+    private static LatencyHistogram getOrCreateHistogram(final String sql) {
+        final String key = sql == null ? UNKNOWN_SQL : getFingerprint(sql);
+        LatencyHistogram histogram = histogramPool.get(key);
+
+        if (histogram == null) {
+            if (histogramPool.size() >= maxHistogramCount && key != UNKNOWN_SQL) {
+                return getOrCreateHistogram(null);
+            }
+
+            histogram = histogramPool.computeIfAbsent(key, k -> new LatencyHistogram());
+        }
+
+        return histogram;
+    }
+
+    private static SQLDescriptor getDescriptor(final String sql) {
+        if (sql == null) {
+            return null;
+        }
+
+        final String fingerprint = getFingerprint(sql);
+        SQLDescriptor descriptor = descriptorPool.get(fingerprint);
+
+        if (descriptor == null) {
+            // not through ParsedSqlCache: the fingerprints shouldn't evict the sqls executed by the application.
+            descriptor = SQLDescriptor.create(ParsedSql.parse(fingerprint));
+
+            if (descriptorPool.size() < maxHistogramCount) {
+                final SQLDescriptor existing = descriptorPool.putIfAbsent(fingerprint, descriptor);
+
+                if (existing != null) {
+                    descriptor = existing;
+                }
+            }
+        }
+
+        return descriptor;
+    }
+
+    private static String getFingerprint(final String sql) {
+        String fingerprint = fingerprintPool.get(sql);
+
+        if (fingerprint == null) {
+            fingerprint = fingerprint(sql);
+
+            if (fingerprintPool.size() < maxHistogramCount * 4) {
+                fingerprintPool.put(sql, fingerprint);
+            }
+        }
+
+        return fingerprint;
+    }
+
+    /**
+     * The listener of statement executions. It's called in the thread executing the statement, so it should return quickly.
+     */
+    public static interface ExecutionListener {
+
+        /**
+         *
+         * @param sqlDescriptor the descriptor of the fingerprint of the executed sql, {@code null} if the sql is unknown.
+         * @param isBatch
+         */
+        default void beforeExecute(final SQLDescriptor sqlDescriptor, final boolean isBatch) {
+            // empty action.
+        }
+
+        /**
+         *
+         * @param sqlDescriptor the descriptor of the fingerprint of the executed sql, {@code null} if the sql is unknown.
+         * @param rows the count of affected rows, or {@code -1} if it's unknown, for example: query.
+         * @param batchSize the count of parameter sets executed by batch, or {@code 0} if it's not executed by batch.
+         * @param elapsedNanos
+         * @param error {@code null} if it's executed successfully.
+         */
+        void afterExecute(final SQLDescriptor sqlDescriptor, final long rows, final int batchSize, final long elapsedNanos, final Exception error);
+    }
+
+    /**
+     * A lock-free histogram of latencies in nanoseconds, with log-linear buckets: 16 linear sub-buckets in each power of 2.
+     * The relative error of the percentiles is less than 1/16.
+     */
+    static final class LatencyHistogram {
+        private static final int SUB_BUCKET_BITS = 4;
+
+        private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+        private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+        private final AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+
+        private final LongAdder totalCount = new LongAdder();
+
+        private final LongAdder totalNanos = new LongAdder();
+
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void record(final long nanos) {
+            final long value = nanos < 0 ? 0 : nanos;
+
+            counts.incrementAndGet(indexOf(value));
+            totalCount.increment();
+            totalNanos.add(value);
+
+            long max = maxNanos.get();
+
+            while (value > max && maxNanos.compareAndSet(max, value) == false) {
+                max = maxNanos.get();
+            }
+        }
+
+        LatencySnapshot snapshot() {
+            final long[] copy = new long[BUCKET_COUNT];
+            long count = 0;
+
+            for (int i = 0; i < BUCKET_COUNT; i++) {
+                copy[i] = counts.get(i);
+                count += copy[i];
+            }
+
+            final long max = maxNanos.get();
+
+            return new LatencySnapshot(count, count == 0 ? 0 : totalNanos.sum() / count, Math.min(max, percentile(copy, count, 0.5d)),
+                    Math.min(max, percentile(copy, count, 0.99d)), Math.min(max, percentile(copy, count, 0.999d)), max);
+        }
+
+        static int indexOf(final long value) {
+            if (value < SUB_BUCKET_COUNT) {
+                return (int) value;
+            }
+
+            final int exp = 63 - Long.numberOfLeadingZeros(value);
+            final int sub = (int) ((value >>> (exp - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1));
+
+            return (exp - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + sub;
+        }
+
+        /**
+         *
+         * @param index
+         * @return the max value in the bucket at the specified index.
+         */
+        static long upperBoundOf(final int index) {
+            if (index < SUB_BUCKET_COUNT) {
+                return index;
+            }
+
+            final int exp = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+            final long sub = index % SUB_BUCKET_COUNT;
+            final long width = 1L << (exp - SUB_BUCKET_BITS);
+
+            return ((SUB_BUCKET_COUNT + sub) << (exp - SUB_BUCKET_BITS)) + width - 1;
+        }
+
+        private static long percentile(final long[] counts, final long totalCount, final double percentile) {
+            if (totalCount == 0) {
+                return 0;
+            }
+
+            final long rank = Math.max(1, (long) Math.ceil(totalCount * percentile));
+            long sum = 0;
+
+            for (int i = 0, len = counts.length; i < len; i++) {
+                sum += counts[i];
+
+                if (sum >= rank) {
+                    return upperBoundOf(i);
+                }
+            }
+
+            return upperBoundOf(counts.length - 1);
+        }
+    }
+
+    /**
+     * The latencies in nanoseconds of the executions of a sql.
+     */
+    public static final class LatencySnapshot {
+        private final long count;
+        private final long mean;
+        private final long p50;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        LatencySnapshot(final long count, final long mean, final long p50, final long p99, final long p999, final long max) {
+            this.count = count;
+            this.mean = mean;
+            this.p50 = p50;
+            this.p99 = p99;
+            this.p999 = p999;
+            this.max = max;
+        }
+
+        public long count() {
+            return count;
+        }
+
+        public long mean() {
+            return mean;
+        }
+
+        public long p50() {
+            return p50;
+        }
+
+        public long p99() {
+            return p99;
+        }
+
+        public long p999() {
+            return p999;
+        }
+
+        public long max() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "{count=" + count + ", mean=" + mean + ", p50=" + p50 + ", p99=" + p99 + ", p999=" + p999 + ", max=" + max + "}";
+        }
+    }
+}
@@ -0,0 +1,640 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+import com.landawn.abacus.logging.Logger;
+import com.landawn.abacus.logging.LoggerFactory;
+
+/**
+ * A sampler of the slow statements executed by {@code JdbcUtil/PreparedQuery/NamedQuery/PreparedCallableQuery/Dao}.
+ * <br />
+ * The executions which take longer than the threshold are kept in a bounded in-memory ring, with the sql, its fingerprint (literals replaced by {@code ?}),
+ * the bound parameters (after redaction by the {@code ParameterRedactor}), the elapsed time, the affected rows and the batch size.
+ * <br />
+ * The parameters are captured when they're set by the setters of {@code PreparedQuery/NamedQuery}, for example: {@code setInt/setString/setObject},
+ * or passed to {@code JdbcUtil.executeXXX(..., sql, parameters)}. The parameters set by the stream/reader setters or by {@code ParametersSetter}
+ * are not captured and reported as {@link #UNKNOWN_PARAMETER}. The sqls with parameters not captured are not explained.
+ * <br />
+ * If a {@code DataSource} is specified by {@link #enableExplain(javax.sql.DataSource)}, the plan of each distinct slow {@code SELECT} sql is retrieved
+ * by a dialect-appropriate {@code EXPLAIN} on a separate connection from the {@code DataSource}, in a background thread.
+ * It's supported for {@code H2/HSQLDB/MySQL/PostgreSQL/Oracle}.
+ *
+ * <pre>
+ * <code>
+ * SlowQuerySampler.enable(500, 256);
+ * SlowQuerySampler.enableExplain(dataSource);
+ * ...
+ * SlowQuerySampler.getSamples().forEach(System.out::println);
+ * </code>
+ * </pre>
+ *
+ * @author Haiyang Li
+ */
+public final class SlowQuerySampler {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQuerySampler.class);
+
+    /**
+     * The value reported for the parameters which are not captured.
+     */
+    public static final String UNKNOWN_PARAMETER = "<unknown>";
+
+    public static final int DEFAULT_CAPACITY = 128;
+
+    static final Object UNSET = new Object();
+
+    private static final Pattern PARAMETER_LIST_PATTERN = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+
+    private static final int MAX_EXPLAINED_SQL_COUNT = 256;
+
+    private static final Map<String, String> planPool = new LinkedHashMap<String, String>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<String, String> eldest) {
+            return size() > MAX_EXPLAINED_SQL_COUNT;
+        }
+    };
+
+    private static final AtomicLong cursor = new AtomicLong();
+
+    private static volatile Sample[] ring = new Sample[DEFAULT_CAPACITY];
+
+    private static volatile boolean isEnabled = false;
+
+    private static volatile long thresholdInNanos = Long.MAX_VALUE;
+
+    private static volatile ParameterRedactor redactor = ParameterRedactor.MASK_TEXT;
+
+    private static volatile javax.sql.DataSource explainDataSource;
+
+    private static volatile DBVersion explainDBVersion;
+
+    private static volatile ThreadPoolExecutor explainExecutor;
+
+    private SlowQuerySampler() {
+        // singleton.
+    }
+
+    /**
+     * Sample the executions which take longer than the specified threshold, with the {@link #DEFAULT_CAPACITY}.
+     *
+     * @param thresholdInMillis
+     */
+    public static void enable(final long thresholdInMillis) {
+        enable(thresholdInMillis, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Sample the executions which take longer than the specified threshold. The samples recorded before are removed if the capacity is changed.
+     *
+     * @param thresholdInMillis
+     * @param capacity the max count of the samples kept. The oldest one is overwritten when it's reached.
+     */
+    public static synchronized void enable(final long thresholdInMillis, final int capacity) {
+        N.checkArgNotNegative(thresholdInMillis, "thresholdInMillis");
+        N.checkArgPositive(capacity, "capacity");
+
+        if (capacity != ring.length) {
+            ring = new Sample[capacity];
+            cursor.set(0);
+        }
+
+        thresholdInNanos = TimeUnit.MILLISECONDS.toNanos(thresholdInMillis);
+        isEnabled = true;
+    }
+
+    /**
+     * Stop sampling. The recorded samples are kept until {@link #clear()} is called.
+     */
+    public static synchronized void disable() {
+        isEnabled = false;
+        thresholdInNanos = Long.MAX_VALUE;
+    }
+
+    public static boolean isEnabled() {
+        return isEnabled;
+    }
+
+    /**
+     *
+     * @param parameterRedactor
+     */
+    public static void setParameterRedactor(final ParameterRedactor parameterRedactor) {
+        N.checkArgNotNull(parameterRedactor, "parameterRedactor");
+
+        redactor = parameterRedactor;
+    }
+
+    public static ParameterRedactor getParameterRedactor() {
+        return redactor;
+    }
+
+    /**
+     * Retrieve the plan of the slow {@code SELECT} sqls by the connections from the specified {@code DataSource}.
+     * It should be the {@code DataSource} (or a replica of it) the sampled sqls are executed by.
+     *
+     * @param ds
+     */
+    public static synchronized void enableExplain(final javax.sql.DataSource ds) {
+        N.checkArgNotNull(ds, "ds");
+
+        explainDBVersion = JdbcUtil.getDBVersion(ds);
+        explainDataSource = ds;
+
+        if (explainExecutor == null) {
+            explainExecutor = new ThreadPoolExecutor(1, 1, 60, TimeUnit.SECONDS, new ArrayBlockingQueue<>(16), r -> {
+                final Thread thread = new Thread(r, "SlowQuerySampler-explain");
+                thread.setDaemon(true);
+                return thread;
+            }, new ThreadPoolExecutor.DiscardPolicy());
+
+            explainExecutor.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    public static synchronized void disableExplain() {
+        explainDataSource = null;
+        explainDBVersion = null;
+
+        synchronized (planPool) {
+            planPool.clear();
+        }
+    }
+
+    /**
+     *
+     * @return the recorded samples, the newest first.
+     */
+    public static List<Sample> getSamples() {
+        final Sample[] ring = SlowQuerySampler.ring;
+        final long end = cursor.get();
+        final List<Sample> result = new ArrayList<>(ring.length);
+
+        for (long i = end - 1, start = Math.max(0, end - ring.length); i >= start; i--) {
+            final Sample sample = ring[(int) (i % ring.length)];
+
+            if (sample != null) {
+                result.add(sample);
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * Remove all the recorded samples.
+     */
+    public static synchronized void clear() {
+        ring = new Sample[ring.length];
+        cursor.set(0);
+
+        synchronized (planPool) {
+            planPool.clear();
+        }
+    }
+
+    /**
+     *
+     * @param sql
+     * @param parameters the captured parameters, {@link #UNSET} for the ones not captured. It can be {@code null}.
+     * @param elapsedNanos
+     * @param rows
+     * @param batchSize
+     * @param error
+     */
+    static void afterExecute(final String sql, final Object[] parameters, final long elapsedNanos, final long rows, final int batchSize,
+            final Exception error) {
+        if (elapsedNanos < thresholdInNanos) {
+            return;
+        }
+
+        try {
+            final Sample sample = new Sample(sql, fingerprint(sql), redact(sql, parameters), elapsedNanos, rows, batchSize,
+                    error == null ? null : error.getMessage());
+
+            final Sample[] ring = SlowQuerySampler.ring;
+            ring[(int) (cursor.getAndIncrement() % ring.length)] = sample;
+
+            if (explainDataSource != null && sql != null) {
+                explain(sample, parameters);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to sample slow sql: " + sql, e);
+        }
+    }
+
+    /**
+     *
+     * @param sampledParameters
+     * @param parameterIndex starts from 1.
+     * @param x
+     * @return
+     */
+    static Object[] capture(Object[] sampledParameters, final int parameterIndex, final Object x) {
+        if (sampledParameters == null || sampledParameters.length < parameterIndex) {
+            final int oldLength = sampledParameters == null ? 0 : sampledParameters.length;
+
+            sampledParameters = sampledParameters == null ? new Object[Math.max(parameterIndex, 8)]
+                    : N.copyOf(sampledParameters, Math.max(parameterIndex, oldLength * 2));
+
+            Arrays.fill(sampledParameters, oldLength, sampledParameters.length, UNSET);
+        }
+
+        sampledParameters[parameterIndex - 1] = x;
+
+        return sampledParameters;
+    }
+
+    private static List<Object> redact(final String sql, final Object[] parameters) {
+        if (parameters == null) {
+            return null;
+        }
+
+        int len = parameters.length;
+
+        while (len > 0 && parameters[len - 1] == UNSET) {
+            len--;
+        }
+
+        final ParameterRedactor redactor = SlowQuerySampler.redactor;
+        final List<Object> result = new ArrayList<>(len);
+
+        for (int i = 0; i < len; i++) {
+            result.add(parameters[i] == UNSET ? UNKNOWN_PARAMETER : redactor.redact(sql, i + 1, parameters[i]));
+        }
+
+        return Collections.unmodifiableList(result);
+    }
+
+    /**
+     * The sql with all the number and string literals replaced by {@code ?}, consecutive parameters in a list collapsed to {@code ?, ...},
+     * and whitespaces collapsed, so the executions of the same query with different literals or list sizes have the same fingerprint.
+     *
+     * @param sql
+     * @return
+     */
+    static String fingerprint(final String sql) {
+        if (N.isNullOrEmpty(sql)) {
+            return sql;
+        }
+
+        final List<String> words = SQLParser.parse(sql);
+        final StringBuilder sb = Objectory.createStringBuilder();
+
+        try {
+            for (String word : words) {
+                if (N.isNullOrEmpty(word)) {
+                    continue;
+                }
+
+                final char ch = word.charAt(0);
+
+                if (Character.isWhitespace(ch)) {
+                    if (sb.length() > 0 && sb.charAt(sb.length() - 1) != ' ') {
+                        sb.append(' ');
+                    }
+                } else if (ch == '\'' || Character.isDigit(ch)) {
+                    sb.append('?');
+                } else {
+                    sb.append(word);
+                }
+            }
+
+            return PARAMETER_LIST_PATTERN.matcher(sb.toString().trim()).replaceAll("?, ...");
+        } finally {
+            Objectory.recycle(sb);
+        }
+    }
+
+    private static void explain(final Sample sample, final Object[] parameters) {
+        final javax.sql.DataSource ds = explainDataSource;
+        final DBVersion dbVersion = explainDBVersion;
+        final ThreadPoolExecutor executor = explainExecutor;
+        final SQLDescriptor descriptor = SQLDescriptor.of(sample.sql);
+
+        if (ds == null || dbVersion == null || executor == null || descriptor.operation() != SQLOperation.SELECT || !descriptor.isReadOnly()
+                || !isCaptured(parameters, descriptor.parameterCount())) {
+            return;
+        }
+
+        synchronized (planPool) {
+            final String plan = planPool.get(sample.sql);
+
+            if (plan != null) {
+                sample.plan = plan;
+                return;
+            }
+        }
+
+        final Object[] params = parameters == null ? null : parameters.clone();
+
+        executor.execute(() -> {
+            try {
+                final String plan = explain(ds, dbVersion, ParsedSqlCache.parse(sample.sql).getParameterizedSql(), params);
+
+                if (plan != null) {
+                    sample.plan = plan;
+
+                    synchronized (planPool) {
+                        planPool.put(sample.sql, plan);
+                    }
+                }
+            } catch (Exception e) {
+                logger.warn("Failed to explain sql: " + sample.sql, e);
+            }
+        });
+    }
+
+    /**
+     * An unknown parameter bound as {@code null} fails the {@code EXPLAIN} on some databases, for example: PostgreSQL can't infer its type.
+     *
+     * @param parameters
+     * @param parameterCount
+     * @return
+     */
+    private static boolean isCaptured(final Object[] parameters, final int parameterCount) {
+        if (parameterCount == 0) {
+            return true;
+        } else if (parameters == null || parameters.length < parameterCount) {
+            return false;
+        }
+
+        for (int i = 0; i < parameterCount; i++) {
+            if (parameters[i] == UNSET) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static String explain(final javax.sql.DataSource ds, final DBVersion dbVersion, final String sql, final Object[] parameters)
+            throws SQLException {
+        String explainSql = null;
+
+        switch (dbVersion) {
+            case H2:
+            case MYSQL_5_5:
+            case MYSQL_5_6:
+            case MYSQL_5_7:
+            case MYSQL_5_8:
+            case MYSQL_5_9:
+            case MYSQL_6:
+            case MYSQL_7:
+            case MYSQL_8:
+            case MYSQL_9:
+            case MYSQL_10:
+            case MYSQL_OTHERS:
+            case POSTGRESQL_9_2:
+            case POSTGRESQL_9_3:
+            case POSTGRESQL_9_4:
+            case POSTGRESQL_9_5:
+            case POSTGRESQL_9_6:
+            case POSTGRESQL_10:
+            case POSTGRESQL_11:
+            case POSTGRESQL_12:
+            case POSTGRESQL_OTHERS:
+                explainSql = "EXPLAIN " + sql;
+                break;
+
+            case HSQLDB:
+                explainSql = "EXPLAIN PLAN FOR " + sql;
+                break;
+
+            case ORACLE:
+                try (Connection conn = ds.getConnection()) {
+                    try (PreparedStatement stmt = conn.prepareStatement("EXPLAIN PLAN FOR " + sql)) {
+                        setParameters(stmt, sql, parameters);
+                        stmt.execute();
+                    }
+
+                    try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery("SELECT PLAN_TABLE_OUTPUT FROM TABLE(DBMS_XPLAN.DISPLAY())")) {
+                        return readPlan(rs);
+                    }
+                }
+
+            default:
+                return null;
+        }
+
+        try (Connection conn = ds.getConnection(); PreparedStatement stmt = conn.prepareStatement(explainSql)) {
+            setParameters(stmt, sql, parameters);
+
+            try (ResultSet rs = stmt.executeQuery()) {
+                return readPlan(rs);
+            }
+        }
+    }
+
+    /**
+     * All the parameters are captured, checked by {@code isCaptured}.
+     *
+     * @param stmt
+     * @param sql
+     * @param parameters
+     * @throws SQLException
+     */
+    private static void setParameters(final PreparedStatement stmt, final String sql, final Object[] parameters) throws SQLException {
+        final int parameterCount = ParsedSqlCache.parse(sql).getParameterCount();
+
+        for (int i = 0; i < parameterCount; i++) {
+            final Object x = parameters[i];
+
+            if (x == null) {
+                stmt.setObject(i + 1, null);
+            } else {
+                N.typeOf(x.getClass()).set(stmt, i + 1, x);
+            }
+        }
+    }
+
+    private static String readPlan(final ResultSet rs) throws SQLException {
+        final int columnCount = rs.getMetaData().getColumnCount();
+        final StringBuilder sb = Objectory.createStringBuilder();
+
+        try {
+            while (rs.next()) {
+                if (sb.length() > 0) {
+                    sb.append(IOUtil.LINE_SEPARATOR);
+                }
+
+                for (int i = 1; i <= columnCount; i++) {
+                    if (i > 1) {
+                        sb.append(" | ");
+                    }
+
+                    sb.append(rs.getString(i));
+                }
+            }
+
+            return sb.toString();
+        } finally {
+            Objectory.recycle(sb);
+        }
+    }
+
+    /**
+     * Redact the parameters recorded in the samples.
+     */
+    @FunctionalInterface
+    public static interface ParameterRedactor {
+
+        /**
+         * Keep all the parameters as they're.
+         */
+        ParameterRedactor NONE = (sql, parameterIndex, value) -> value;
+
+        /**
+         * Replace all the non-null parameters with their types.
+         */
+        ParameterRedactor ALL = (sql, parameterIndex, value) -> value == null ? null : "<" + ClassUtil.getSimpleClassName(value.getClass()) + ">";
+
+        /**
+         * Keep the numbers, booleans, dates and enums. Replace the others, for example: strings and byte arrays, with their types.
+         */
+        ParameterRedactor MASK_TEXT = (sql, parameterIndex, value) -> value == null || value instanceof Number || value instanceof Boolean
+                || value instanceof Date || value instanceof Enum || value instanceof java.time.temporal.Temporal ? value : ALL.redact(sql, parameterIndex, value);
+
+        /**
+         *
+         * @param sql
+         * @param parameterIndex starts from 1.
+         * @param value
+         * @return
+         */
+        Object redact(String sql, int parameterIndex, Object value);
+    }
+
+    /**
+     * A slow execution.
+     */
+    public static final class Sample {
+        private final String sql;
+        private final String fingerprint;
+        private final List<Object> parameters;
+        private final long elapsedNanos;
+        private final long rows;
+        private final int batchSize;
+        private final String error;
+        private final long timestamp;
+        private final String threadName;
+        private volatile String plan;
+
+        Sample(final String sql, final String fingerprint, final List<Object> parameters, final long elapsedNanos, final long rows, final int batchSize,
+                final String error) {
+            this.sql = sql;
+            this.fingerprint = fingerprint;
+            this.parameters = parameters;
+            this.elapsedNanos = elapsedNanos;
+            this.rows = rows;
+            this.batchSize = batchSize;
+            this.error = error;
+            this.timestamp = System.currentTimeMillis();
+            this.threadName = Thread.currentThread().getName();
+        }
+
+        /**
+         *
+         * @return {@code null} if it's unknown.
+         */
+        public String sql() {
+            return sql;
+        }
+
+        public String fingerprint() {
+            return fingerprint;
+        }
+
+        /**
+         * The redacted parameters. For batch executions, they're the parameters of the last batch.
+         *
+         * @return {@code null} if no parameter is captured.
+         */
+        public List<Object> parameters() {
+            return parameters;
+        }
+
+        public long elapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public long elapsedMillis() {
+            return elapsedNanos / 1000_000;
+        }
+
+        /**
+         *
+         * @return the affected rows, or {@code -1} if it's unknown.
+         */
+        public long rows() {
+            return rows;
+        }
+
+        public int batchSize() {
+            return batchSize;
+        }
+
+        /**
+         *
+         * @return the message of the error if the execution failed, otherwise {@code null}.
+         */
+        public String error() {
+            return error;
+        }
+
+        public long timestamp() {
+            return timestamp;
+        }
+
+        public String threadName() {
+            return threadName;
+        }
+
+        /**
+         *
+         * @return {@code null} if explain is not enabled, not supported, or it's not finished yet.
+         */
+        public String plan() {
+            return plan;
+        }
+
+        @Override
+        public String toString() {
+            return "{fingerprint=" + fingerprint + ", parameters=" + parameters + ", elapsedMillis=" + elapsedMillis() + ", rows=" + rows + ", batchSize="
+                    + batchSize + ", error=" + error + ", timestamp=" + timestamp + ", threadName=" + threadName + ", plan=" + plan + "}";
+        }
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The temp files the spilled data are appended to. Each file (segment) is created with {@code Files.createTempFile}, which is only accessible
+ * by the owner on POSIX file systems, and mapped once with the size of {@code segmentSize}. The spilled values are written into the slices
+ * of the current segment, until it's full. So spilling many values only takes one file and one mapping for each {@code segmentSize} bytes,
+ * instead of one for each value.
+ * <br />
+ * A file is deleted right after it's mapped. The mapped memory is released when the segment and its slices are all garbage collected.
+ *
+ * @author Haiyang Li
+ */
+final class SpillSegments {
+
+    private final File dir;
+
+    private final int segmentSize;
+
+    private MappedByteBuffer segment;
+
+    private int position;
+
+    /**
+     *
+     * @param dir the directory of the temp files. {@code null} for the default temp directory.
+     * @param segmentSize
+     */
+    SpillSegments(final File dir, final int segmentSize) {
+        N.checkArgPositive(segmentSize, "segmentSize");
+
+        this.dir = dir;
+        this.segmentSize = segmentSize;
+    }
+
+    /**
+     * Allocates the space for a value of the specified length in the current segment, or a new segment if the current one doesn't have enough space.
+     * The value not smaller than {@code segmentSize} takes a segment with its length.
+     *
+     * @param length
+     * @return a writable buffer with position {@code 0} and capacity {@code length}.
+     * @throws IOException
+     */
+    synchronized ByteBuffer allocate(final int length) throws IOException {
+        N.checkArgNotNegative(length, "length");
+
+        if (length >= segmentSize) {
+            return map(length);
+        } else if (segment == null || segment.capacity() - position < length) {
+            segment = map(segmentSize);
+            position = 0;
+        }
+
+        final ByteBuffer slice = segment.duplicate();
+        slice.limit(position + length);
+        slice.position(position);
+        position += length;
+
+        return slice.slice();
+    }
+
+    private MappedByteBuffer map(final int size) throws IOException {
+        final Path file = dir == null ? Files.createTempFile("spill-", ".tmp") : Files.createTempFile(dir.toPath(), "spill-", ".tmp");
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } finally {
+            delete(file);
+        }
+    }
+
+    /**
+     * The mapped buffer is still readable after the file is deleted on Unix-like systems. Otherwise it's deleted on exit.
+     *
+     * @param file
+     */
+    private static void delete(final Path file) {
+        try {
+            Files.delete(file);
+        } catch (IOException e) {
+            file.toFile().deleteOnExit();
+        }
+    }
+}
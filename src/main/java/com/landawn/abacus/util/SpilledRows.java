@@ -0,0 +1,852 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+
+import com.landawn.abacus.exception.UncheckedIOException;
+import com.landawn.abacus.parser.ParserUtil;
+import com.landawn.abacus.parser.ParserUtil.EntityInfo;
+import com.landawn.abacus.parser.ParserUtil.PropInfo;
+
+/**
+ * The rows of a {@code DataSet}, or the elements of a {@code List}, spilled out of heap after the memory budget of the extraction is reached.
+ * The rows are encoded in a compact binary format (a type tag and the value for each column) into blocks of about {@link #BLOCK_SIZE} bytes,
+ * which are appended to the memory-mapped temp files of {@link SpillSegments}. A value is decoded when it's accessed, without decoding the other
+ * columns of the row.
+ * <br />
+ * The entities are encoded property by property, and the {@code Object[]/List/Map} elements value by value. The other values which are not
+ * {@code String/Number/Boolean/byte[]/java.sql.Date/Time/Timestamp} are stored by Java serialization.
+ * <br />
+ * The temp files are deleted right after they're mapped, and the mapped memory is released when the {@code DataSet/List} is garbage collected.
+ *
+ * @author Haiyang Li
+ */
+final class SpilledRows {
+
+    /**
+     * The size of the temp files/mapped buffers the blocks are appended to.
+     */
+    static final int SEGMENT_SIZE = 1 << 28;
+
+    /**
+     * The rows are encoded on heap until the block reaches this size, then the block is appended to the temp file.
+     */
+    static final int BLOCK_SIZE = 1 << 20;
+
+    private static final byte NULL = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte BYTE = 2;
+    private static final byte SHORT = 3;
+    private static final byte INT = 4;
+    private static final byte LONG = 5;
+    private static final byte FLOAT = 6;
+    private static final byte DOUBLE = 7;
+    private static final byte BIG_DECIMAL = 8;
+    private static final byte STRING = 9;
+    private static final byte BYTES = 10;
+    private static final byte DATE = 11;
+    private static final byte TIME = 12;
+    private static final byte TIMESTAMP = 13;
+    private static final byte SERIALIZED = 14;
+    private static final byte ARRAY = 15;
+    private static final byte LIST = 16;
+    private static final byte MAP = 17;
+    private static final byte ENTITY = 18;
+
+    private final int columnCount;
+
+    private final SpillSegments spillSegments;
+
+    private final List<ByteBuffer> blocks = new ArrayList<>();
+
+    /**
+     * The index of the first row in each block.
+     */
+    private final IntList blockFirstRows = new IntList();
+
+    /**
+     * The offset of each row in its block.
+     */
+    private final IntList rowOffsets = new IntList();
+
+    private BlockOutputStream block;
+
+    private DataOutputStream output;
+
+    /**
+     * Where the last value is read, so the next column of the same row is read without skipping the columns before it.
+     */
+    private volatile Cursor cursor;
+
+    /**
+     *
+     * @param columnCount
+     * @param spillDir the directory of the temp files. {@code null} for the default temp directory.
+     */
+    SpilledRows(final int columnCount, final File spillDir) {
+        this.columnCount = columnCount;
+        this.spillSegments = new SpillSegments(spillDir, SEGMENT_SIZE);
+    }
+
+    /**
+     * Estimates the heap bytes used by the specified row kept in the columns of {@code DataSet}.
+     *
+     * @param row
+     * @return
+     */
+    static long estimateSize(final Object[] row) {
+        long size = row.length * 8L;
+
+        for (Object value : row) {
+            size += estimateValueSize(value);
+        }
+
+        return size;
+    }
+
+    /**
+     * Estimates the heap bytes used by the specified element of a {@code List}: an entity, a {@code Map/Collection/Object[]} row or a value.
+     *
+     * @param element
+     * @return
+     */
+    static long estimateElementSize(final Object element) {
+        if (element instanceof Object[]) {
+            return 16 + estimateSize((Object[]) element);
+        }
+
+        long size = 16;
+
+        if (element instanceof Collection) {
+            for (Object value : (Collection<?>) element) {
+                size += 8 + estimateValueSize(value);
+            }
+        } else if (element instanceof Map) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) element).entrySet()) {
+                size += 32 + estimateValueSize(entry.getKey()) + estimateValueSize(entry.getValue());
+            }
+        } else if (element != null && ClassUtil.isEntity(element.getClass())) {
+            for (PropInfo propInfo : ParserUtil.getEntityInfo(element.getClass()).propInfoList) {
+                size += 8 + estimateValueSize(propInfo.getPropValue(element));
+            }
+        } else {
+            size = 8 + estimateValueSize(element);
+        }
+
+        return size;
+    }
+
+    private static long estimateValueSize(final Object value) {
+        if (value == null) {
+            return 0;
+        } else if (value instanceof String) {
+            return 40 + 2L * ((String) value).length();
+        } else if (value instanceof byte[]) {
+            return 16 + ((byte[]) value).length;
+        } else if (value instanceof BigDecimal || value instanceof BigInteger) {
+            return 64;
+        } else if (value instanceof java.util.Date) {
+            return 32;
+        } else {
+            return 16;
+        }
+    }
+
+    /**
+     *
+     * @param row
+     */
+    void add(final Object[] row) {
+        try {
+            if (block == null) {
+                block = new BlockOutputStream();
+                output = new DataOutputStream(block);
+            } else if (block.size() >= BLOCK_SIZE) {
+                appendBlock();
+            }
+
+            if (block.size() == 0) {
+                blockFirstRows.add(size());
+            }
+
+            rowOffsets.add(block.size());
+
+            for (int i = 0; i < columnCount; i++) {
+                write(row[i]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Appends the last block to the temp file. No row can be added after it's sealed.
+     */
+    void seal() {
+        try {
+            if (block != null && block.size() > 0) {
+                appendBlock();
+            }
+
+            block = null;
+            output = null;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    int size() {
+        return rowOffsets.size();
+    }
+
+    /**
+     *
+     * @param rowIndex
+     * @param columnIndex starts with 0.
+     * @return
+     */
+    Object get(final int rowIndex, final int columnIndex) {
+        final Cursor last = cursor;
+        final ByteBuffer buffer;
+        int column = 0;
+
+        if (last != null && last.rowIndex == rowIndex && last.columnIndex <= columnIndex) {
+            buffer = last.block.duplicate();
+            buffer.position(last.position);
+            column = last.columnIndex;
+        } else {
+            if (rowIndex < 0 || rowIndex >= size()) {
+                throw new IndexOutOfBoundsException("Index: " + rowIndex + ", Size: " + size());
+            }
+
+            buffer = blocks.get(blockOf(rowIndex)).duplicate();
+            buffer.position(rowOffsets.get(rowIndex));
+        }
+
+        for (; column < columnIndex; column++) {
+            skip(buffer);
+        }
+
+        final Object value = read(buffer);
+
+        cursor = new Cursor(rowIndex, columnIndex + 1, buffer, buffer.position());
+
+        return value;
+    }
+
+    /**
+     *
+     * @param rowIndex
+     * @return the index of the block which the specified row is in.
+     */
+    int blockOf(final int rowIndex) {
+        if (rowIndex < 0 || rowIndex >= size()) {
+            throw new IndexOutOfBoundsException("Index: " + rowIndex + ", Size: " + size());
+        }
+
+        final int idx = blockFirstRows.binarySearch(0, blockFirstRows.size(), rowIndex);
+
+        return idx >= 0 ? idx : -idx - 2;
+    }
+
+    int blockCount() {
+        return blocks.size();
+    }
+
+    /**
+     *
+     * @param blockIndex
+     * @return the index of the first row in the specified block.
+     */
+    int firstRowOf(final int blockIndex) {
+        return blockFirstRows.get(blockIndex);
+    }
+
+    /**
+     * Decodes the values of the specified column in all the rows of the specified block.
+     *
+     * @param blockIndex
+     * @param columnIndex starts with 0.
+     * @return
+     */
+    Object[] readBlock(final int blockIndex, final int columnIndex) {
+        final int firstRow = blockFirstRows.get(blockIndex);
+        final int endRow = blockIndex == blocks.size() - 1 ? size() : blockFirstRows.get(blockIndex + 1);
+        final ByteBuffer buffer = blocks.get(blockIndex).duplicate();
+        final Object[] values = new Object[endRow - firstRow];
+
+        for (int i = 0; i < values.length; i++) {
+            for (int j = 0; j < columnCount; j++) {
+                if (j == columnIndex) {
+                    values[i] = read(buffer);
+                } else {
+                    skip(buffer);
+                }
+            }
+        }
+
+        return values;
+    }
+
+    private void appendBlock() throws IOException {
+        final ByteBuffer buffer = spillSegments.allocate(block.size());
+        buffer.put(block.toByteBuffer());
+        buffer.flip();
+
+        blocks.add(buffer);
+        block.reset();
+    }
+
+    private void write(final Object value) throws IOException {
+        if (value == null) {
+            output.writeByte(NULL);
+        } else if (value instanceof String) {
+            output.writeByte(STRING);
+            writeBytes(output, ((String) value).getBytes(StandardCharsets.UTF_8));
+        } else if (value instanceof Integer) {
+            output.writeByte(INT);
+            output.writeInt((Integer) value);
+        } else if (value instanceof Long) {
+            output.writeByte(LONG);
+            output.writeLong((Long) value);
+        } else if (value instanceof Double) {
+            output.writeByte(DOUBLE);
+            output.writeDouble((Double) value);
+        } else if (value instanceof Boolean) {
+            output.writeByte(BOOLEAN);
+            output.writeBoolean((Boolean) value);
+        } else if (value instanceof BigDecimal) {
+            output.writeByte(BIG_DECIMAL);
+            output.writeInt(((BigDecimal) value).scale());
+            writeBytes(output, ((BigDecimal) value).unscaledValue().toByteArray());
+        } else if (value instanceof Timestamp) {
+            output.writeByte(TIMESTAMP);
+            output.writeLong(((Timestamp) value).getTime());
+            output.writeInt(((Timestamp) value).getNanos());
+        } else if (value instanceof java.sql.Date) {
+            output.writeByte(DATE);
+            output.writeLong(((java.sql.Date) value).getTime());
+        } else if (value instanceof java.sql.Time) {
+            output.writeByte(TIME);
+            output.writeLong(((java.sql.Time) value).getTime());
+        } else if (value instanceof byte[]) {
+            output.writeByte(BYTES);
+            writeBytes(output, (byte[]) value);
+        } else if (value instanceof Float) {
+            output.writeByte(FLOAT);
+            output.writeFloat((Float) value);
+        } else if (value instanceof Short) {
+            output.writeByte(SHORT);
+            output.writeShort((Short) value);
+        } else if (value instanceof Byte) {
+            output.writeByte(BYTE);
+            output.writeByte((Byte) value);
+        } else if (value instanceof Object[]) {
+            final int lengthPosition = startComposite(ARRAY);
+            final Object[] array = (Object[]) value;
+            output.writeInt(array.length);
+
+            for (Object e : array) {
+                write(e);
+            }
+
+            endComposite(lengthPosition);
+        } else if (value instanceof List) {
+            final int lengthPosition = startComposite(LIST);
+            final List<?> list = (List<?>) value;
+            output.writeInt(list.size());
+
+            for (Object e : list) {
+                write(e);
+            }
+
+            endComposite(lengthPosition);
+        } else if (value instanceof Map) {
+            final int lengthPosition = startComposite(MAP);
+            final Map<?, ?> map = (Map<?, ?>) value;
+            output.writeInt(map.size());
+
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                write(entry.getKey());
+                write(entry.getValue());
+            }
+
+            endComposite(lengthPosition);
+        } else if (ClassUtil.isEntity(value.getClass())) {
+            final int lengthPosition = startComposite(ENTITY);
+            writeBytes(output, value.getClass().getName().getBytes(StandardCharsets.UTF_8));
+
+            for (PropInfo propInfo : ParserUtil.getEntityInfo(value.getClass()).propInfoList) {
+                write(propInfo.getPropValue(value));
+            }
+
+            endComposite(lengthPosition);
+        } else {
+            // the other values are stored by Java serialization. It fails with NotSerializableException if the value is not Serializable.
+            final ByteArrayOutputStream os = new ByteArrayOutputStream();
+
+            try (ObjectOutputStream oos = new ObjectOutputStream(os)) {
+                oos.writeObject(value);
+            }
+
+            output.writeByte(SERIALIZED);
+            writeBytes(output, os.toByteArray());
+        }
+    }
+
+    /**
+     * Writes the tag of an {@code Object[]/List/Map/entity} value and the placeholder of its length, which is set by {@link #endComposite(int)}
+     * after the elements are written, so the value can be skipped without decoding its elements.
+     *
+     * @param tag
+     * @return the position of the length.
+     * @throws IOException
+     */
+    private int startComposite(final byte tag) throws IOException {
+        output.writeByte(tag);
+
+        final int lengthPosition = block.size();
+        output.writeInt(0);
+
+        return lengthPosition;
+    }
+
+    private void endComposite(final int lengthPosition) {
+        block.setInt(lengthPosition, block.size() - lengthPosition - 4);
+    }
+
+    private static void writeBytes(final DataOutputStream output, final byte[] bytes) throws IOException {
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static Object read(final ByteBuffer buffer) {
+        final byte tag = buffer.get();
+
+        switch (tag) {
+            case NULL:
+                return null;
+
+            case STRING:
+                return new String(readBytes(buffer), StandardCharsets.UTF_8);
+
+            case INT:
+                return buffer.getInt();
+
+            case LONG:
+                return buffer.getLong();
+
+            case DOUBLE:
+                return buffer.getDouble();
+
+            case BOOLEAN:
+                return buffer.get() != 0;
+
+            case BIG_DECIMAL: {
+                final int scale = buffer.getInt();
+
+                return new BigDecimal(new BigInteger(readBytes(buffer)), scale);
+            }
+
+            case TIMESTAMP: {
+                final Timestamp timestamp = new Timestamp(buffer.getLong());
+                timestamp.setNanos(buffer.getInt());
+
+                return timestamp;
+            }
+
+            case DATE:
+                return new java.sql.Date(buffer.getLong());
+
+            case TIME:
+                return new java.sql.Time(buffer.getLong());
+
+            case BYTES:
+                return readBytes(buffer);
+
+            case FLOAT:
+                return buffer.getFloat();
+
+            case SHORT:
+                return buffer.getShort();
+
+            case BYTE:
+                return buffer.get();
+
+            case SERIALIZED:
+                try (ObjectInputStream ois = new ObjectInputStream(new ByteArrayInputStream(readBytes(buffer)))) {
+                    return ois.readObject();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                } catch (ClassNotFoundException e) {
+                    throw new IllegalStateException(e);
+                }
+
+            case ARRAY: {
+                buffer.getInt();
+                final Object[] array = new Object[buffer.getInt()];
+
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = read(buffer);
+                }
+
+                return array;
+            }
+
+            case LIST: {
+                buffer.getInt();
+                final int size = buffer.getInt();
+                final List<Object> list = new ArrayList<>(size);
+
+                for (int i = 0; i < size; i++) {
+                    list.add(read(buffer));
+                }
+
+                return list;
+            }
+
+            case MAP: {
+                buffer.getInt();
+                final int size = buffer.getInt();
+                final Map<Object, Object> map = new LinkedHashMap<>(N.initHashCapacity(size));
+
+                for (int i = 0; i < size; i++) {
+                    map.put(read(buffer), read(buffer));
+                }
+
+                return map;
+            }
+
+            case ENTITY: {
+                buffer.getInt();
+                final Class<?> cls = ClassUtil.forClass(new String(readBytes(buffer), StandardCharsets.UTF_8));
+                final EntityInfo entityInfo = ParserUtil.getEntityInfo(cls);
+                final Object entity = N.newInstance(cls);
+
+                for (PropInfo propInfo : entityInfo.propInfoList) {
+                    final Object propValue = read(buffer);
+
+                    if (propValue != null) {
+                        propInfo.setPropValue(entity, propValue);
+                    }
+                }
+
+                return entity;
+            }
+
+            default:
+                throw new IllegalStateException("Unknown type tag: " + tag);
+        }
+    }
+
+    /**
+     * Moves the position of the specified buffer to the next value without decoding the current one.
+     *
+     * @param buffer
+     */
+    private static void skip(final ByteBuffer buffer) {
+        final byte tag = buffer.get();
+        final int length;
+
+        switch (tag) {
+            case NULL:
+                length = 0;
+                break;
+
+            case BOOLEAN:
+            case BYTE:
+                length = 1;
+                break;
+
+            case SHORT:
+                length = 2;
+                break;
+
+            case INT:
+            case FLOAT:
+                length = 4;
+                break;
+
+            case LONG:
+            case DOUBLE:
+            case DATE:
+            case TIME:
+                length = 8;
+                break;
+
+            case TIMESTAMP:
+                length = 12;
+                break;
+
+            case BIG_DECIMAL:
+                buffer.getInt();
+                length = buffer.getInt();
+                break;
+
+            case STRING:
+            case BYTES:
+            case SERIALIZED:
+            case ARRAY:
+            case LIST:
+            case MAP:
+            case ENTITY:
+                length = buffer.getInt();
+                break;
+
+            default:
+                throw new IllegalStateException("Unknown type tag: " + tag);
+        }
+
+        buffer.position(buffer.position() + length);
+    }
+
+    private static byte[] readBytes(final ByteBuffer buffer) {
+        final byte[] bytes = new byte[buffer.getInt()];
+        buffer.get(bytes);
+
+        return bytes;
+    }
+
+    private static final class BlockOutputStream extends ByteArrayOutputStream {
+        BlockOutputStream() {
+            super(BLOCK_SIZE);
+        }
+
+        ByteBuffer toByteBuffer() {
+            return ByteBuffer.wrap(buf, 0, count);
+        }
+
+        void setInt(final int position, final int value) {
+            buf[position] = (byte) (value >>> 24);
+            buf[position + 1] = (byte) (value >>> 16);
+            buf[position + 2] = (byte) (value >>> 8);
+            buf[position + 3] = (byte) value;
+        }
+    }
+
+    private static final class Cursor {
+        final int rowIndex;
+
+        final int columnIndex;
+
+        final ByteBuffer block;
+
+        final int position;
+
+        Cursor(final int rowIndex, final int columnIndex, final ByteBuffer block, final int position) {
+            this.rowIndex = rowIndex;
+            this.columnIndex = columnIndex;
+            this.block = block;
+            this.position = position;
+        }
+    }
+
+    /**
+     * A column of {@code DataSet}, or a {@code List}, of which the first rows are on heap and the rest are spilled.
+     * It's a modifiable {@code List} as the other columns of {@code DataSet}. It falls back to a list of objects on heap if it's modified.
+     * <br />
+     * The spilled elements of a {@code List} are paged in by block when they're accessed, and kept on heap after that,
+     * so the same element is returned by {@code get(i)} every time, and the changes to it are kept.
+     *
+     * @param <T>
+     */
+    static final class Column<T> extends AbstractList<T> implements RandomAccess {
+        private final List<T> heapRows;
+
+        private final int heapRowCount;
+
+        private final SpilledRows spilledRows;
+
+        private final int columnIndex;
+
+        /**
+         * The elements paged in for each block. It's {@code null} for a column of {@code DataSet}, of which the values are decoded for each access.
+         */
+        private final Object[][] pagedInBlocks;
+
+        /**
+         * All the values of the column after it falls back to a list of objects. It's {@code null} before that.
+         */
+        private List<T> objects;
+
+        /**
+         *
+         * @param heapRows
+         * @param spilledRows
+         * @param columnIndex starts with 0.
+         */
+        Column(final List<T> heapRows, final SpilledRows spilledRows, final int columnIndex) {
+            this(heapRows, spilledRows, columnIndex, false);
+        }
+
+        /**
+         *
+         * @param heapRows
+         * @param spilledRows
+         * @param columnIndex starts with 0.
+         * @param isPagedIn {@code true} to keep the spilled elements on heap once they're accessed.
+         */
+        Column(final List<T> heapRows, final SpilledRows spilledRows, final int columnIndex, final boolean isPagedIn) {
+            this.heapRows = heapRows;
+            this.heapRowCount = heapRows.size();
+            this.spilledRows = spilledRows;
+            this.columnIndex = columnIndex;
+            this.pagedInBlocks = isPagedIn ? new Object[spilledRows.blockCount()][] : null;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked") // the spilled values of the column are the ones added as T.
+        public T get(final int index) {
+            if (objects != null) {
+                return objects.get(index);
+            } else if (index < heapRowCount) {
+                return heapRows.get(index);
+            } else if (pagedInBlocks == null) {
+                return (T) spilledRows.get(index - heapRowCount, columnIndex);
+            } else {
+                return (T) pageIn(index - heapRowCount);
+            }
+        }
+
+        private synchronized Object pageIn(final int rowIndex) {
+            final int blockIndex = spilledRows.blockOf(rowIndex);
+            Object[] elements = pagedInBlocks[blockIndex];
+
+            if (elements == null) {
+                elements = spilledRows.readBlock(blockIndex, columnIndex);
+                pagedInBlocks[blockIndex] = elements;
+            }
+
+            return elements[rowIndex - spilledRows.firstRowOf(blockIndex)];
+        }
+
+        @Override
+        public int size() {
+            return objects != null ? objects.size() : heapRowCount + spilledRows.size();
+        }
+
+        @Override
+        public T set(final int index, final T element) {
+            return toObjects().set(index, element);
+        }
+
+        @Override
+        public void add(final int index, final T element) {
+            toObjects().add(index, element);
+
+            modCount++;
+        }
+
+        @Override
+        public T remove(final int index) {
+            final T oldValue = toObjects().remove(index);
+
+            modCount++;
+
+            return oldValue;
+        }
+
+        private List<T> toObjects() {
+            if (objects == null) {
+                final int size = size();
+                final List<T> list = new ArrayList<>(size);
+
+                for (int i = 0; i < size; i++) {
+                    list.add(get(i));
+                }
+
+                objects = list;
+            }
+
+            return objects;
+        }
+    }
+
+    /**
+     * Collects the elements of {@code list()} on heap until their estimated heap bytes reach the memory budget, then spills the rest.
+     *
+     * @param <T>
+     */
+    static final class ListBuilder<T> {
+        private final List<T> heapElements;
+
+        private final long memoryBudget;
+
+        private final File spillDir;
+
+        private final Object[] row = new Object[1];
+
+        private long heapSize = 0;
+
+        private SpilledRows spilledRows;
+
+        /**
+         *
+         * @param heapElements
+         * @param memoryBudget the estimated max heap bytes of the elements kept on heap. {@code 0} if it's not limited.
+         * @param spillDir the directory of the temp files. {@code null} for the default temp directory.
+         */
+        ListBuilder(final List<T> heapElements, final long memoryBudget, final File spillDir) {
+            this.heapElements = heapElements;
+            this.memoryBudget = memoryBudget;
+            this.spillDir = spillDir;
+        }
+
+        void add(final T element) {
+            if (spilledRows != null) {
+                row[0] = element;
+                spilledRows.add(row);
+                row[0] = null;
+            } else {
+                heapElements.add(element);
+
+                if (memoryBudget > 0 && (heapSize += estimateElementSize(element)) > memoryBudget) {
+                    spilledRows = new SpilledRows(1, spillDir);
+                }
+            }
+        }
+
+        List<T> build() {
+            if (spilledRows == null || spilledRows.size() == 0) {
+                return heapElements;
+            }
+
+            spilledRows.seal();
+
+            return new Column<>(heapElements, spilledRows, 0, true);
+        }
+    }
+}
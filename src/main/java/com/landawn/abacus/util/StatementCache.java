@@ -0,0 +1,509 @@
+/*
+ * Copyright (c) 2020, Haiyang Li.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.landawn.abacus.util;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.landawn.abacus.logging.Logger;
+import com.landawn.abacus.logging.LoggerFactory;
+
+/**
+ * A LRU cache of idle {@code PreparedStatement}s for one {@code Connection}, keyed by the sql and the generated keys/return columns mode.
+ * <br />
+ * A statement is borrowed from the cache by {@code JdbcUtil.prepareQuery/prepareNamedQuery} and put back into the cache, instead of being closed,
+ * when the {@code PreparedQuery/NamedQuery} is closed. The statements evicted from the cache are closed.
+ * <br />
+ * The cache can be enabled for a specified {@code Connection} by {@link JdbcUtil#enableStatementCache(Connection, int)},
+ * or for all the connections borrowed from a {@code DataSource} by {@link JdbcUtil#enableStatementCache(javax.sql.DataSource, int)}.
+ * For the later one, a cache is attached to each connection borrowed by {@code JdbcUtil}, and closed when the connection is released.
+ * The statements are prepared on the connection borrowed from the pool, so they're still tracked by the pool (statement leak detection,
+ * closing the statements when the connection is returned). The statements are reused by the queries executed before the connection is released,
+ * for example: in a transaction or a batch of DAO operations.
+ *
+ * @author Haiyang Li
+ * @see JdbcUtil#enableStatementCache(javax.sql.DataSource, int)
+ * @see JdbcUtil#enableStatementCache(Connection, int)
+ */
+public final class StatementCache implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(StatementCache.class);
+
+    private static final Map<javax.sql.DataSource, Integer> dsCapacityPool = new ConcurrentHashMap<>();
+
+    /**
+     * The caches attached to the connections borrowed from the {@code DataSource} and not released yet.
+     */
+    private static final Map<javax.sql.DataSource, Map<Connection, StatementCache>> dsCachePool = new ConcurrentHashMap<>();
+
+    private static final Map<PreparedStatement, StatementCache> borrowedStmtPool = new ConcurrentHashMap<>();
+
+    /**
+     * The count of the open caches enabled for a specified connection.
+     */
+    private static final AtomicInteger connCacheCount = new AtomicInteger();
+
+    /**
+     * If the cache is enabled for any {@code DataSource/Connection}. The connection is not looked up for a cache if it's {@code false}.
+     */
+    private static volatile boolean isEnabled = false;
+
+    private final Connection conn;
+
+    private final int capacity;
+
+    /**
+     * The {@code DataSource} the connection is borrowed from, if the cache is enabled for the {@code DataSource}. Otherwise it's {@code null}.
+     */
+    private final javax.sql.DataSource ds;
+
+    private final LinkedHashMap<Key, PreparedStatement> idleStmts = new LinkedHashMap<>();
+
+    private final Map<PreparedStatement, Key> borrowedStmts = new IdentityHashMap<>();
+
+    private final AtomicLong hitCount = new AtomicLong();
+
+    private final AtomicLong missCount = new AtomicLong();
+
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    private volatile boolean isClosed = false;
+
+    StatementCache(final Connection conn, final int capacity, final javax.sql.DataSource ds) {
+        N.checkArgNotNull(conn, "conn");
+        N.checkArgPositive(capacity, "capacity");
+
+        this.conn = conn;
+        this.capacity = capacity;
+        this.ds = ds;
+    }
+
+    /**
+     * The connection on which the cached statements are prepared.
+     *
+     * @return
+     */
+    public Connection connection() {
+        return conn;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * The count of idle statements in this cache.
+     *
+     * @return
+     */
+    public synchronized int size() {
+        return idleStmts.size();
+    }
+
+    public long hitCount() {
+        return hitCount.get();
+    }
+
+    public long missCount() {
+        return missCount.get();
+    }
+
+    public long evictionCount() {
+        return evictionCount.get();
+    }
+
+    public double hitRate() {
+        final long hits = hitCount.get();
+        final long total = hits + missCount.get();
+
+        return total == 0 ? 0d : (double) hits / total;
+    }
+
+    public boolean isClosed() {
+        return isClosed;
+    }
+
+    PreparedStatement prepareStatement(final String sql) throws SQLException {
+        return prepareStatement(new Key(sql, -1, null, null));
+    }
+
+    PreparedStatement prepareStatement(final String sql, final boolean autoGeneratedKeys) throws SQLException {
+        return prepareStatement(new Key(sql, autoGeneratedKeys ? Statement.RETURN_GENERATED_KEYS : Statement.NO_GENERATED_KEYS, null, null));
+    }
+
+    PreparedStatement prepareStatement(final String sql, final int[] returnColumnIndexes) throws SQLException {
+        return prepareStatement(new Key(sql, -1, returnColumnIndexes, null));
+    }
+
+    PreparedStatement prepareStatement(final String sql, final String[] returnColumnNames) throws SQLException {
+        return prepareStatement(new Key(sql, -1, null, returnColumnNames));
+    }
+
+    private PreparedStatement prepareStatement(final Key key) throws SQLException {
+        PreparedStatement stmt = null;
+
+        synchronized (this) {
+            stmt = idleStmts.remove(key);
+        }
+
+        if (stmt != null && isClosed(stmt)) {
+            stmt = null;
+        }
+
+        if (stmt == null) {
+            missCount.incrementAndGet();
+
+            if (key.returnColumnIndexes != null) {
+                stmt = conn.prepareStatement(key.sql, key.returnColumnIndexes);
+            } else if (key.returnColumnNames != null) {
+                stmt = conn.prepareStatement(key.sql, key.returnColumnNames);
+            } else if (key.autoGeneratedKeys >= 0) {
+                stmt = conn.prepareStatement(key.sql, key.autoGeneratedKeys);
+            } else {
+                stmt = conn.prepareStatement(key.sql);
+            }
+        } else {
+            hitCount.incrementAndGet();
+        }
+
+        synchronized (this) {
+            if (isClosed) {
+                // the statement will be closed by the caller after execution.
+                return stmt;
+            }
+
+            borrowedStmts.put(stmt, key);
+        }
+
+        borrowedStmtPool.put(stmt, this);
+
+        return stmt;
+    }
+
+    /**
+     * Put the borrowed statement back to this cache.
+     *
+     * @param stmt
+     * @return {@code false} if the statement is not put back and should be closed by the caller.
+     */
+    private boolean recycle(final PreparedStatement stmt) {
+        final Key key;
+
+        synchronized (this) {
+            key = borrowedStmts.remove(stmt);
+        }
+
+        if (key == null || isClosed || isClosed(stmt)) {
+            return false;
+        }
+
+        try {
+            stmt.clearParameters();
+            stmt.clearWarnings();
+        } catch (SQLException e) {
+            logger.warn("Failed to reset statement before putting it back to cache", e);
+            return false;
+        }
+
+        final List<PreparedStatement> stmtsToClose = new ArrayList<>(1);
+
+        synchronized (this) {
+            if (isClosed) {
+                return false;
+            }
+
+            final PreparedStatement existed = idleStmts.put(key, stmt);
+
+            if (existed != null && existed != stmt) {
+                stmtsToClose.add(existed);
+            }
+
+            if (idleStmts.size() > capacity) {
+                final Iterator<PreparedStatement> iter = idleStmts.values().iterator();
+
+                while (idleStmts.size() > capacity && iter.hasNext()) {
+                    stmtsToClose.add(iter.next());
+                    iter.remove();
+                    evictionCount.incrementAndGet();
+                }
+            }
+        }
+
+        for (PreparedStatement e : stmtsToClose) {
+            JdbcUtil.closeQuietly(e);
+        }
+
+        return true;
+    }
+
+    /**
+     * Close all the idle statements and remove them from this cache.
+     */
+    public void clear() {
+        final List<PreparedStatement> stmtsToClose;
+
+        synchronized (this) {
+            stmtsToClose = new ArrayList<>(idleStmts.values());
+            idleStmts.clear();
+        }
+
+        for (PreparedStatement stmt : stmtsToClose) {
+            JdbcUtil.closeQuietly(stmt);
+        }
+    }
+
+    /**
+     * Close all the idle statements. The borrowed statements will be closed when they're returned.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (isClosed) {
+                return;
+            }
+
+            isClosed = true;
+        }
+
+        if (ds == null) {
+            connCacheCount.decrementAndGet();
+            updateEnabled();
+        } else {
+            final Map<Connection, StatementCache> caches = dsCachePool.get(ds);
+
+            if (caches != null) {
+                caches.remove(conn, this);
+            }
+        }
+
+        clear();
+    }
+
+    @Override
+    public String toString() {
+        return "{capacity=" + capacity + ", size=" + size() + ", hitCount=" + hitCount.get() + ", missCount=" + missCount.get() + ", evictionCount="
+                + evictionCount.get() + "}";
+    }
+
+    private static boolean isClosed(final Statement stmt) {
+        try {
+            return stmt.isClosed();
+        } catch (SQLException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Gets the cache attached to the specified connection.
+     *
+     * @param conn
+     * @return {@code null} if no cache is enabled for the specified connection.
+     */
+    static StatementCache get(final Connection conn) {
+        if (isEnabled == false) {
+            return null;
+        }
+
+        final ConnectionAttributes attrs = ConnectionAttributes.get(conn);
+
+        return attrs == null ? null : attrs.statementCache;
+    }
+
+    /**
+     * Put the specified statement back to the cache it's borrowed from.
+     *
+     * @param stmt
+     * @param isReusable {@code false} if the statement is not able to be reset and it should be removed from the cache.
+     * @return {@code false} if the specified statement is not borrowed from a cache or it can't be put back. The caller should close it.
+     */
+    static boolean returnStatement(final PreparedStatement stmt, final boolean isReusable) {
+        if (borrowedStmtPool.isEmpty()) {
+            return false;
+        }
+
+        final StatementCache cache = borrowedStmtPool.remove(stmt);
+
+        if (cache == null) {
+            return false;
+        } else if (isReusable) {
+            return cache.recycle(stmt);
+        } else {
+            synchronized (cache) {
+                cache.borrowedStmts.remove(stmt);
+            }
+
+            return false;
+        }
+    }
+
+    static StatementCache enable(final Connection conn, final int capacity) {
+        N.checkArgNotNull(conn, "conn");
+        N.checkArgPositive(capacity, "capacity");
+
+        final StatementCache cache = new StatementCache(conn, capacity, null);
+        connCacheCount.incrementAndGet();
+        isEnabled = true;
+
+        final ConnectionAttributes attrs = ConnectionAttributes.getOrCreate(conn);
+        final StatementCache existed = attrs.statementCache;
+        attrs.statementCache = cache;
+
+        if (existed != null) {
+            closeQuietly(existed);
+        }
+
+        return cache;
+    }
+
+    static void disable(final Connection conn) {
+        final ConnectionAttributes attrs = ConnectionAttributes.get(conn);
+        final StatementCache cache = attrs == null ? null : attrs.statementCache;
+
+        if (cache != null) {
+            attrs.statementCache = null;
+            closeQuietly(cache);
+        }
+    }
+
+    static void enable(final javax.sql.DataSource ds, final int capacityPerConnection) {
+        N.checkArgNotNull(ds, "ds");
+        N.checkArgPositive(capacityPerConnection, "capacityPerConnection");
+
+        dsCapacityPool.put(ds, capacityPerConnection);
+        isEnabled = true;
+    }
+
+    static void disable(final javax.sql.DataSource ds) {
+        dsCapacityPool.remove(ds);
+
+        final Map<Connection, StatementCache> caches = dsCachePool.remove(ds);
+
+        if (caches != null) {
+            for (Map.Entry<Connection, StatementCache> entry : caches.entrySet()) {
+                final ConnectionAttributes attrs = ConnectionAttributes.get(entry.getKey());
+
+                if (attrs != null && attrs.statementCache == entry.getValue()) {
+                    attrs.statementCache = null;
+                }
+
+                closeQuietly(entry.getValue());
+            }
+        }
+
+        updateEnabled();
+    }
+
+    private static void updateEnabled() {
+        isEnabled = dsCapacityPool.isEmpty() == false || connCacheCount.get() > 0;
+    }
+
+    static List<StatementCache> getAll(final javax.sql.DataSource ds) {
+        final Map<Connection, StatementCache> caches = dsCachePool.get(ds);
+
+        return caches == null ? N.<StatementCache> emptyList() : new ArrayList<>(caches.values());
+    }
+
+    /**
+     * Attach a cache to the specified connection borrowed from the specified {@code DataSource}, if statement cache is enabled for the {@code DataSource}.
+     * It's closed by {@link ConnectionAttributes#detach(Connection)} when the connection is released.
+     *
+     * @param conn
+     * @param ds
+     */
+    static void attach(final Connection conn, final javax.sql.DataSource ds) {
+        if (dsCapacityPool.isEmpty() || conn == null) {
+            return;
+        }
+
+        final Integer capacity = dsCapacityPool.get(ds);
+
+        if (capacity == null) {
+            return;
+        }
+
+        final ConnectionAttributes attrs = ConnectionAttributes.getOrCreate(conn);
+
+        if (attrs.statementCache == null) {
+            final StatementCache cache = new StatementCache(conn, capacity, ds);
+            dsCachePool.computeIfAbsent(ds, k -> new ConcurrentHashMap<>()).put(conn, cache);
+            attrs.statementCache = cache;
+        }
+    }
+
+    static void closeQuietly(final StatementCache cache) {
+        try {
+            cache.close();
+        } catch (Exception e) {
+            logger.error("Failed to close statement cache", e);
+        }
+    }
+
+    static final class Key {
+        private final String sql;
+        private final int autoGeneratedKeys;
+        private final int[] returnColumnIndexes;
+        private final String[] returnColumnNames;
+        private final int hashCode;
+
+        Key(final String sql, final int autoGeneratedKeys, final int[] returnColumnIndexes, final String[] returnColumnNames) {
+            this.sql = sql;
+            this.autoGeneratedKeys = autoGeneratedKeys;
+            this.returnColumnIndexes = returnColumnIndexes;
+            this.returnColumnNames = returnColumnNames;
+
+            int h = sql.hashCode();
+            h = 31 * h + autoGeneratedKeys;
+            h = 31 * h + Arrays.hashCode(returnColumnIndexes);
+            h = 31 * h + Arrays.hashCode(returnColumnNames);
+            this.hashCode = h;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (obj instanceof Key) {
+                final Key other = (Key) obj;
+
+                return hashCode == other.hashCode && autoGeneratedKeys == other.autoGeneratedKeys && sql.equals(other.sql)
+                        && Arrays.equals(returnColumnIndexes, other.returnColumnIndexes) && Arrays.equals(returnColumnNames, other.returnColumnNames);
+            }
+
+            return false;
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.landawn.abacus.annotation.Id;
+import com.landawn.abacus.util.stream.Stream;
+
+public class ArrayParametersTest {
+
+    static final DataSource dataSource = TestDataSources.h2("array_parameters_test", "CREATE TABLE item (id bigint PRIMARY KEY, name varchar(32))",
+            "INSERT INTO item SELECT X, 'name' || X FROM SYSTEM_RANGE(1, 20)");
+
+    @Test
+    public void test_toArrayCondition() {
+        assertEquals("SELECT * FROM item WHERE id = ANY(?)", ArrayParameters.toArrayCondition(DBVersion.H2, "SELECT * FROM item WHERE id = ?"));
+        assertEquals("SELECT * FROM item WHERE id = ANY(?)", ArrayParameters.toArrayCondition(DBVersion.POSTGRESQL_12, "SELECT * FROM item WHERE id=? "));
+        assertEquals("SELECT * FROM item WHERE id IN (UNNEST(?))", ArrayParameters.toArrayCondition(DBVersion.HSQLDB, "SELECT * FROM item WHERE id = ?"));
+
+        assertNull(ArrayParameters.toArrayCondition(DBVersion.MYSQL_8, "SELECT * FROM item WHERE id = ?"));
+        assertNull(ArrayParameters.toArrayCondition(DBVersion.H2, "SELECT * FROM item WHERE id <> ?"));
+        assertNull(ArrayParameters.toArrayCondition(DBVersion.H2, "SELECT * FROM item WHERE id >= ?"));
+        assertNull(ArrayParameters.toArrayCondition(DBVersion.H2, "SELECT * FROM item WHERE id = ? AND name = 'a'"));
+    }
+
+    @Test
+    public void test_sqlTypeName() {
+        assertEquals("BIGINT", ArrayParameters.sqlTypeName(long.class));
+        assertEquals("BIGINT", ArrayParameters.sqlTypeName(Long.class));
+        assertEquals("VARCHAR", ArrayParameters.sqlTypeName(String.class));
+        assertNull(ArrayParameters.sqlTypeName(Object.class));
+        assertNull(ArrayParameters.sqlTypeName(null));
+    }
+
+    @Test
+    public void test_setArray() throws SQLException {
+        final List<Long> ids = JdbcUtil.prepareQuery(dataSource, "SELECT id FROM item WHERE id = ANY(?) ORDER BY id")
+                .setParameters(stmt -> ArrayParameters.setArray(stmt, 1, "BIGINT", new Object[] { 3L, 5L, 99L }))
+                .list(Long.class);
+
+        assertEquals(N.asList(3L, 5L), ids);
+    }
+
+    @Test
+    public void test_batchGet_byArrayParameter() throws SQLException {
+        final ItemDao dao = JdbcUtil.createDao(ItemDao.class, dataSource);
+        final List<Long> ids = N.asList(2L, 4L, 6L, 8L, 10L, 12L);
+
+        SlowQuerySampler.clear();
+        SlowQuerySampler.enable(0);
+
+        try {
+            // 6 ids by 4: two batches bound as one array each. 3 ids below the threshold: bound as an IN list.
+            assertEquals(ids, Stream.of(dao.batchGet(ids, null, 4)).map(Item::getId).sorted().toList());
+            assertEquals(ids.subList(0, 3), Stream.of(dao.batchGet(ids.subList(0, 3), null, 4)).map(Item::getId).sorted().toList());
+        } finally {
+            SlowQuerySampler.disable();
+        }
+
+        final List<String> sqls = Stream.of(SlowQuerySampler.getSamples()).map(SlowQuerySampler.Sample::sql).filter(sql -> sql.contains("item")).toList();
+        SlowQuerySampler.clear();
+
+        assertEquals(2, Stream.of(sqls).filter(sql -> sql.endsWith("= ANY(?)")).count(), sqls.toString());
+        assertEquals(1, Stream.of(sqls).filter(sql -> sql.contains(" IN (")).count(), sqls.toString());
+    }
+
+    public static class Item {
+        @Id
+        private long id;
+        private String name;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(final long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+    }
+
+    @JdbcUtil.Dao.Config(arrayParameterThreshold = 4)
+    public interface ItemDao extends JdbcUtil.CrudDao<Item, Long, SQLBuilder.PSC, ItemDao> {
+    }
+}
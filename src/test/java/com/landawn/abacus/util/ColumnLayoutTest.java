@@ -0,0 +1,50 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+public class ColumnLayoutTest {
+
+    static final DataSource dataSource = TestDataSources.h2("column_layout_test", "CREATE TABLE item (id bigint PRIMARY KEY, v int)",
+            "INSERT INTO item VALUES (1, 7)");
+
+    @Test
+    public void test_reresolved_onColumnTypeChange() throws SQLException {
+        final String sql = "SELECT id, v FROM item WHERE id = 1";
+        final ColumnLayout layout = readLayout(sql, 7);
+
+        assertEquals(Types.INTEGER, layout.getColumnType(2));
+        assertSame(layout, readLayout(sql, 7));
+
+        JdbcUtil.executeUpdate(dataSource, "ALTER TABLE item ALTER COLUMN v varchar(32)");
+        JdbcUtil.executeUpdate(dataSource, "UPDATE item SET v = 'seven' WHERE id = 1");
+
+        // same labels, but the reader resolved for the INTEGER column can't read the VARCHAR column.
+        final ColumnLayout newLayout = readLayout(sql, "seven");
+
+        assertNotSame(layout, newLayout);
+        assertEquals(Types.VARCHAR, newLayout.getColumnType(2));
+    }
+
+    private static ColumnLayout readLayout(final String sql, final Object expectedValue) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+            final ColumnLayout layout = ColumnLayout.of(sql, rs);
+
+            rs.next();
+            assertEquals(expectedValue, layout.getColumnValue(rs, 2));
+
+            return layout;
+        }
+    }
+}
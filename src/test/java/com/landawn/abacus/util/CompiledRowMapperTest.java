@@ -0,0 +1,219 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.landawn.abacus.parser.ParserUtil;
+import com.landawn.abacus.parser.ParserUtil.EntityInfo;
+import com.landawn.abacus.parser.ParserUtil.PropInfo;
+import com.landawn.abacus.util.JdbcUtil.BiRowMapper;
+
+public class CompiledRowMapperTest {
+
+    static final DataSource dataSource = TestDataSources.h2("compiled_row_mapper_test",
+            "CREATE TABLE account (id bigint PRIMARY KEY, user_name varchar(32), age int, score double, balance decimal(10, 2), created timestamp)",
+            "INSERT INTO account VALUES (1, 'a', 30, 1.5, 10.25, TIMESTAMP '2020-01-02 03:04:05')",
+            "INSERT INTO account VALUES (2, NULL, NULL, NULL, NULL, NULL)");
+
+    static final String sql = "SELECT id, user_name, age, score, balance, created FROM account ORDER BY id";
+
+    @Test
+    public void test_sameAsReflective() throws SQLException {
+        for (Class<?> targetClass : N.asList(Object[].class, List.class, ArrayList.class, Map.class, HashMap.class, LinkedHashMap.class, Account.class)) {
+            final List<Object> expected = map(targetClass, false, false);
+
+            assertEquals(2, expected.size());
+            assertSameRows(targetClass, expected, map(targetClass, true, false));
+            assertSameRows(targetClass, expected, map(targetClass, true, true));
+        }
+    }
+
+    @Test
+    public void test_singleColumn() throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement stmt = conn.prepareStatement("SELECT user_name FROM account ORDER BY id");
+                ResultSet rs = stmt.executeQuery()) {
+            final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
+            final BiRowMapper<String> rowMapper = CompiledRowMapper.compile(String.class, rs, columnLabels, false);
+            final List<String> result = new ArrayList<>();
+
+            while (rs.next()) {
+                result.add(rowMapper.apply(rs, columnLabels));
+            }
+
+            assertEquals(N.asList("a", null), result);
+        }
+    }
+
+    @Test
+    public void test_nonMatchedColumn() throws SQLException {
+        try (Connection conn = dataSource.getConnection();
+                PreparedStatement stmt = conn.prepareStatement("SELECT id, 'x' AS unknown_column FROM account ORDER BY id");
+                ResultSet rs = stmt.executeQuery()) {
+            final List<String> columnLabels = JdbcUtil.getColumnLabelList(rs);
+            rs.next();
+
+            assertThrows(IllegalArgumentException.class, () -> CompiledRowMapper.compile(Account.class, rs, columnLabels, false).apply(rs, columnLabels));
+            assertEquals(1L, CompiledRowMapper.compile(Account.class, rs, columnLabels, true).apply(rs, columnLabels).getId());
+        }
+    }
+
+    private static List<Object> map(final Class<?> targetClass, final boolean isCompiled, final boolean byColumnLayout) throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+            final List<String> columnLabels = byColumnLayout ? ColumnLayout.of(sql, rs) : JdbcUtil.getColumnLabelList(rs);
+            final BiRowMapper<?> rowMapper = isCompiled ? CompiledRowMapper.compile(targetClass, rs, columnLabels, false) : null;
+            final List<Object> result = new ArrayList<>();
+
+            while (rs.next()) {
+                result.add(isCompiled ? rowMapper.apply(rs, columnLabels) : reflective(targetClass, rs, columnLabels));
+            }
+
+            return result;
+        }
+    }
+
+    /**
+     * The row mapping by reflection, which was done by {@code BiRowMapper.to} before the row mappers were compiled.
+     */
+    private static Object reflective(final Class<?> targetClass, final ResultSet rs, final List<String> columnLabels) throws SQLException {
+        final int columnCount = columnLabels.size();
+
+        if (Object[].class.isAssignableFrom(targetClass)) {
+            final Object[] a = new Object[columnCount];
+
+            for (int i = 0; i < columnCount; i++) {
+                a[i] = JdbcUtil.getColumnValue(rs, i + 1);
+            }
+
+            return a;
+        } else if (List.class.isAssignableFrom(targetClass)) {
+            final List<Object> c = new ArrayList<>(columnCount);
+
+            for (int i = 0; i < columnCount; i++) {
+                c.add(JdbcUtil.getColumnValue(rs, i + 1));
+            }
+
+            return c;
+        } else if (Map.class.isAssignableFrom(targetClass)) {
+            final Map<String, Object> m = targetClass.equals(LinkedHashMap.class) ? new LinkedHashMap<>() : new HashMap<>();
+
+            for (int i = 0; i < columnCount; i++) {
+                m.put(columnLabels.get(i), JdbcUtil.getColumnValue(rs, i + 1));
+            }
+
+            return m;
+        } else {
+            final EntityInfo entityInfo = ParserUtil.getEntityInfo(targetClass);
+            final Map<String, String> column2FieldNameMap = JdbcUtil.getColumn2FieldNameMap(targetClass);
+            final Object entity = N.newInstance(targetClass);
+
+            for (int i = 0; i < columnCount; i++) {
+                PropInfo propInfo = entityInfo.getPropInfo(columnLabels.get(i));
+
+                if (propInfo == null) {
+                    propInfo = entityInfo.getPropInfo(N.defaultIfNull(column2FieldNameMap.get(columnLabels.get(i)),
+                            column2FieldNameMap.get(columnLabels.get(i).toLowerCase())));
+                }
+
+                propInfo.setPropValue(entity, propInfo.dbType.get(rs, i + 1));
+            }
+
+            return entity;
+        }
+    }
+
+    private static void assertSameRows(final Class<?> targetClass, final List<Object> expected, final List<Object> actual) {
+        assertEquals(expected.size(), actual.size());
+
+        for (int i = 0, size = expected.size(); i < size; i++) {
+            final Object e = expected.get(i);
+            final Object a = actual.get(i);
+
+            assertEquals(targetClass.equals(Map.class) || targetClass.equals(List.class) ? e.getClass() : targetClass, a.getClass());
+
+            if (e instanceof Object[]) {
+                assertArrayEquals((Object[]) e, (Object[]) a, targetClass.getName());
+            } else if (e instanceof Account) {
+                for (PropInfo propInfo : ParserUtil.getEntityInfo(Account.class).propInfoList) {
+                    assertEquals(propInfo.getPropValue(e), propInfo.getPropValue(a), propInfo.name);
+                }
+            } else {
+                assertEquals(e, a, targetClass.getName());
+            }
+        }
+    }
+
+    public static class Account {
+        private long id;
+        private String userName;
+        private int age;
+        private double score;
+        private BigDecimal balance;
+        private Timestamp created;
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(final long id) {
+            this.id = id;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public void setUserName(final String userName) {
+            this.userName = userName;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(final int age) {
+            this.age = age;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public void setScore(final double score) {
+            this.score = score;
+        }
+
+        public BigDecimal getBalance() {
+            return balance;
+        }
+
+        public void setBalance(final BigDecimal balance) {
+            this.balance = balance;
+        }
+
+        public Timestamp getCreated() {
+            return created;
+        }
+
+        public void setCreated(final Timestamp created) {
+            this.created = created;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.landawn.abacus.annotation.Id;
+import com.landawn.abacus.cache.Cache;
+import com.landawn.abacus.cache.CacheFactory;
+import com.landawn.abacus.condition.ConditionFactory.CF;
+import com.landawn.abacus.util.JdbcUtil.Dao.CacheResult;
+import com.landawn.abacus.util.JdbcUtil.Dao.Define;
+import com.landawn.abacus.util.JdbcUtil.Dao.RefreshCache;
+import com.landawn.abacus.util.JdbcUtil.Dao.Select;
+import com.landawn.abacus.util.JdbcUtil.Dao.Update;
+import com.landawn.abacus.util.stream.LongStream;
+import com.landawn.abacus.util.stream.Stream;
+
+public class DaoUtilTest {
+
+    static final DataSource dataSource = TestDataSources.h2("dao_util_test", "CREATE TABLE account (id bigint PRIMARY KEY, name varchar(32))",
+            "CREATE TABLE tag (id bigint PRIMARY KEY, label varchar(32))");
+
+    @Test
+    public void test_define_notFound() {
+        final IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> JdbcUtil.createDao(MissingDefineAccountDao.class, dataSource));
+
+        assertTrue(e.getMessage().contains("{tableName}"), e.getMessage());
+    }
+
+    @Test
+    public void test_define_overlapped() {
+        assertThrows(IllegalArgumentException.class,
+                () -> DaoUtil.DefineTemplate.compile("SELECT * FROM {table} ORDER BY {table}{name}", new String[] { "{table}", "{table}{name}" },
+                        new int[] { 0, 1 }, "test_define_overlapped"));
+    }
+
+    @Test
+    public void test_define_apply() {
+        final DaoUtil.DefineTemplate template = DaoUtil.DefineTemplate.compile("SELECT * FROM {table} WHERE id = ? ORDER BY {orderBy}",
+                new String[] { "{table}", "{orderBy}" }, new int[] { 0, 2 }, "test_define_apply");
+
+        assertEquals("SELECT * FROM account WHERE id = ? ORDER BY name", template.apply(new Object[] { "account", 1L, "name" }).sql());
+        assertEquals("SELECT * FROM account2 WHERE id = ? ORDER BY id", template.apply(new Object[] { "account2", 1L, "id" }).sql());
+    }
+
+    @Test
+    @SuppressWarnings("deprecation") // the only overload which accepts daoCache.
+    public void test_sharedCache_refreshedByAnotherDao() throws SQLException {
+        final Cache<String, Object> sharedCache = CacheFactory.createLocalCache(100, 3000);
+        final AccountReadDao readDao = JdbcUtil.createDao(AccountReadDao.class, dataSource, null, sharedCache, null);
+        final AccountWriteDao writeDao = JdbcUtil.createDao(AccountWriteDao.class, dataSource, null, sharedCache, null);
+
+        JdbcUtil.executeUpdate(dataSource, "INSERT INTO account (id, name) VALUES (?, ?)", 401L, "before");
+
+        assertEquals("before", readDao.getName(401L));
+        JdbcUtil.executeUpdate(dataSource, "UPDATE account SET name = ? WHERE id = ?", "bypassed", 401L);
+        assertEquals("before", readDao.getName(401L)); // cached.
+
+        assertEquals(1, writeDao.updateName("after", 401L));
+        assertEquals("after", readDao.getName(401L));
+    }
+
+    @Test
+    public void test_refreshByTable() throws SQLException {
+        final AccountTagDao dao = JdbcUtil.createDao(AccountTagDao.class, dataSource);
+
+        JdbcUtil.executeUpdate(dataSource, "INSERT INTO account (id, name) VALUES (?, ?)", 601L, "before");
+        JdbcUtil.executeUpdate(dataSource, "INSERT INTO tag (id, label) VALUES (?, ?)", 601L, "x");
+
+        assertEquals("before", dao.getName(601L));
+        assertEquals("x", dao.getLabel(601L));
+        JdbcUtil.executeUpdate(dataSource, "UPDATE tag SET label = ? WHERE id = ?", "bypassed", 601L);
+
+        // only the results of the queries on table account are refreshed.
+        assertEquals(1, dao.updateName("after", 601L));
+        assertEquals("after", dao.getName(601L));
+        assertEquals("x", dao.getLabel(601L));
+    }
+
+    @Test
+    public void test_batchGet_paddedIds() throws SQLException {
+        final AccountCrudDao dao = JdbcUtil.createDao(AccountCrudDao.class, dataSource);
+        final List<Long> ids = N.asList(501L, 502L, 503L, 504L, 505L, 506L, 507L);
+
+        for (Long id : ids) {
+            dao.insert(new Account(id, "name" + id));
+        }
+
+        // 7 ids: padded to 8 in one statement. 5 ids by 4: one full batch and 1 id.
+        assertEquals(ids, Stream.of(dao.batchGet(ids)).map(Account::getId).sorted().toList());
+        assertEquals(ids.subList(0, 5), Stream.of(dao.batchGet(ids.subList(0, 5), null, 4)).map(Account::getId).sorted().toList());
+    }
+
+    @Test
+    public void test_batchGet_paddedStatement() throws SQLException {
+        final AccountCrudDao dao = JdbcUtil.createDao(AccountCrudDao.class, dataSource);
+        final List<Long> ids = N.asList(701L, 702L, 703L, 704L, 705L);
+
+        for (Long id : ids) {
+            dao.insert(new Account(id, "name" + id));
+        }
+
+        SlowQuerySampler.clear();
+        SlowQuerySampler.enable(0);
+        SlowQuerySampler.setParameterRedactor(SlowQuerySampler.ParameterRedactor.NONE);
+
+        try {
+            assertEquals(ids, Stream.of(dao.batchGet(ids)).map(Account::getId).sorted().toList());
+        } finally {
+            SlowQuerySampler.setParameterRedactor(SlowQuerySampler.ParameterRedactor.MASK_TEXT);
+            SlowQuerySampler.disable();
+        }
+
+        // 5 ids: padded to 8 by repeating the last one.
+        final SlowQuerySampler.Sample sample = Stream.of(SlowQuerySampler.getSamples()).filter(it -> it.sql().contains(" IN (")).first().get();
+        assertEquals(8, StringUtil.countMatches(sample.sql(), "?"));
+        assertEquals(N.asList(701L, 702L, 703L, 704L, 705L, 705L, 705L, 705L), sample.parameters());
+
+        SlowQuerySampler.clear();
+    }
+
+    @Test
+    public void test_batchDeleteByIds_primitiveIds() throws SQLException {
+        final AccountCrudDaoL dao = JdbcUtil.createDao(AccountCrudDaoL.class, dataSource);
+        final List<Account> accounts = LongStream.range(1000, 1450).mapToObj(id -> new Account(id, "name" + id)).toList();
+        dao.batchInsert(accounts);
+
+        // 450 ids by 1000 in one batch, then 450 ids and 50 missing ids by 200 in one transaction.
+        assertEquals(450, dao.batchDeleteByIds(LongStream.range(1000, 1450).toArray(), 1000));
+        dao.batchInsert(accounts);
+        assertEquals(450, dao.batchDeleteByIds(LongStream.range(1000, 1500).toArray(), 200));
+        assertEquals(0, dao.count(CF.between("id", 1000, 1499)));
+    }
+
+    public static class Account {
+        @Id
+        private long id;
+        private String name;
+
+        public Account() {
+        }
+
+        public Account(final long id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(final long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+    }
+
+    public interface AccountReadDao extends JdbcUtil.Dao<Account, SQLBuilder.PSC, AccountReadDao> {
+        @CacheResult
+        @Select(sql = "SELECT name FROM account WHERE id = ?")
+        String getName(long id) throws SQLException;
+    }
+
+    public interface AccountWriteDao extends JdbcUtil.Dao<Account, SQLBuilder.PSC, AccountWriteDao> {
+        @CacheResult
+        @Select(sql = "SELECT name FROM account WHERE id = ?")
+        String getName(long id) throws SQLException;
+
+        @RefreshCache
+        @Update(sql = "UPDATE account SET name = ? WHERE id = ?")
+        int updateName(String name, long id) throws SQLException;
+    }
+
+    @JdbcUtil.Dao.Cache(refreshByTable = true)
+    public interface AccountTagDao extends JdbcUtil.Dao<Account, SQLBuilder.PSC, AccountTagDao> {
+        @CacheResult
+        @Select(sql = "SELECT name FROM account WHERE id = ?")
+        String getName(long id) throws SQLException;
+
+        @CacheResult
+        @Select(sql = "SELECT label FROM tag WHERE id = ?")
+        String getLabel(long id) throws SQLException;
+
+        @RefreshCache
+        @Update(sql = "UPDATE account SET name = ? WHERE id = ?")
+        int updateName(String name, long id) throws SQLException;
+    }
+
+    public interface AccountCrudDao extends JdbcUtil.CrudDao<Account, Long, SQLBuilder.PSC, AccountCrudDao> {
+    }
+
+    public interface AccountCrudDaoL extends JdbcUtil.CrudDaoL<Account, SQLBuilder.PSC, AccountCrudDaoL> {
+    }
+
+    public interface MissingDefineAccountDao extends JdbcUtil.CrudDao<Account, Long, SQLBuilder.PSC, MissingDefineAccountDao> {
+        @Select(sql = "SELECT * FROM account WHERE id = ?")
+        Account selectByIdWithDefine(@Define("tableName") String tableName, long id) throws SQLException;
+    }
+}
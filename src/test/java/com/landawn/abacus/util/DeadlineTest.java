@@ -0,0 +1,96 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.landawn.abacus.exception.UncheckedSQLException;
+
+public class DeadlineTest {
+
+    static final DataSource dataSource = TestDataSources.h2("deadline_test");
+
+    @Test
+    public void test_expired_beforeBorrowingConnection() {
+        try (Deadline deadline = Deadline.start(0)) {
+            assertTrue(deadline.isExpired());
+
+            final UncheckedSQLException e = assertThrows(UncheckedSQLException.class, () -> JdbcUtil.prepareQuery(dataSource, "SELECT 1").list(Integer.class));
+
+            assertTrue(e.getCause() instanceof SQLTimeoutException, String.valueOf(e.getCause()));
+        }
+
+        assertNull(Deadline.current());
+    }
+
+    @Test
+    public void test_expired_beforeExecuting() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedQuery query = JdbcUtil.prepareQuery(conn, "SELECT 1").closeAfterExecution(false)) {
+            try (Deadline deadline = Deadline.start(20)) {
+                N.sleep(50);
+
+                assertTrue(deadline.isExpired());
+                assertThrows(SQLTimeoutException.class, () -> query.list(Integer.class));
+            }
+
+            assertEquals(1, query.list(Integer.class).size());
+        }
+    }
+
+    @Test
+    public void test_queryTimeout_roundedUpToSeconds() throws SQLException {
+        final List<Integer> queryTimeouts = new ArrayList<>();
+
+        try (Connection conn = dataSource.getConnection(); PreparedStatement stmt = recordQueryTimeouts(conn.prepareStatement("SELECT 1"), queryTimeouts)) {
+            executeWithin(stmt, 1500);
+            executeWithin(stmt, 10);
+
+            try (Deadline outer = Deadline.start(10)) {
+                executeWithin(stmt, 60000);
+                assertTrue(Deadline.current() == outer);
+            }
+
+            // set to the remaining time, then restored to 0: no limit.
+            assertEquals(N.asList(2, 0, 1, 0, 1, 0), queryTimeouts);
+        }
+    }
+
+    private static void executeWithin(final PreparedStatement stmt, final long timeoutInMillis) throws SQLException {
+        final Deadline deadline = Deadline.start(timeoutInMillis);
+
+        try {
+            JdbcUtil.executeQuery(stmt, "SELECT 1").close();
+        } finally {
+            deadline.close();
+        }
+    }
+
+    private static PreparedStatement recordQueryTimeouts(final PreparedStatement stmt, final List<Integer> queryTimeouts) {
+        return (PreparedStatement) Proxy.newProxyInstance(DeadlineTest.class.getClassLoader(), new Class<?>[] { PreparedStatement.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("setQueryTimeout")) {
+                        queryTimeouts.add((Integer) args[0]);
+                    }
+
+                    try {
+                        return method.invoke(stmt, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,47 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class InListBucketsTest {
+
+    @Test
+    public void test_bucketSize() {
+        assertEquals(0, InListBuckets.bucketSize(0));
+        assertEquals(1, InListBuckets.bucketSize(1));
+        assertEquals(2, InListBuckets.bucketSize(2));
+        assertEquals(4, InListBuckets.bucketSize(3));
+        assertEquals(128, InListBuckets.bucketSize(100));
+        assertEquals(1024, InListBuckets.bucketSize(1024));
+        assertEquals(2048, InListBuckets.bucketSize(1025));
+        assertEquals(3072, InListBuckets.bucketSize(2049));
+    }
+
+    @Test
+    public void test_bucketSize_limited() {
+        // the default batch size is not a bucket size.
+        assertEquals(8, InListBuckets.bucketSize(5, JdbcUtil.DEFAULT_BATCH_SIZE));
+        assertEquals(128, InListBuckets.bucketSize(128, JdbcUtil.DEFAULT_BATCH_SIZE));
+        assertEquals(200, InListBuckets.bucketSize(129, JdbcUtil.DEFAULT_BATCH_SIZE));
+        assertEquals(200, InListBuckets.bucketSize(200, JdbcUtil.DEFAULT_BATCH_SIZE));
+
+        // never padded over the limit of parameters, and not truncated either.
+        assertEquals(2000, InListBuckets.bucketSize(1025, InListBuckets.MAX_PARAMETER_COUNT));
+        assertEquals(2049, InListBuckets.bucketSize(2049, InListBuckets.MAX_PARAMETER_COUNT));
+        assertEquals(1000, InListBuckets.bucketSize(600, InListBuckets.MAX_PARAMETER_COUNT / 2));
+    }
+
+    @Test
+    public void test_pad() {
+        final List<Integer> list = N.asList(1, 2, 3);
+
+        assertEquals(N.asList(1, 2, 3, 3, 3, 3, 3, 3), InListBuckets.pad(list, InListBuckets.bucketSize(5)));
+        assertEquals(N.asList(1, 2, 3, 3), InListBuckets.pad(list, InListBuckets.bucketSize(list.size())));
+        assertSame(list, InListBuckets.pad(list, 3));
+        assertSame(list, InListBuckets.pad(list, 2));
+    }
+}
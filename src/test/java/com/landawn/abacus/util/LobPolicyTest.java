@@ -0,0 +1,108 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.file.Files;
+import java.sql.Blob;
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+public class LobPolicyTest {
+
+    static final DataSource dataSource = TestDataSources.h2("lob_policy_test", "CREATE TABLE doc (id int PRIMARY KEY, b blob, c clob)",
+            "CREATE TABLE doc2 (id int PRIMARY KEY, b blob)");
+
+    @Test
+    public void test_spill_roundTrip() throws SQLException, IOException {
+        final int[] sizes = { 8, 100, 70000, 3 };
+
+        for (int i = 0; i < sizes.length; i++) {
+            JdbcUtil.prepareQuery(dataSource, "INSERT INTO doc VALUES (?, ?, ?)")
+                    .setInt(1, i)
+                    .setBytes(2, bytes(i, sizes[i]))
+                    .setString(3, chars(i, sizes[i]))
+                    .update();
+        }
+
+        final File spillDir = Files.createTempDirectory("lob-policy-test").toFile();
+
+        try {
+            final List<Object[]> rows = JdbcUtil.prepareQuery(dataSource, "SELECT b, c FROM doc ORDER BY id")
+                    .setLobPolicy(LobPolicy.spill(16, spillDir))
+                    .list(Object[].class);
+
+            assertEquals(sizes.length, rows.size());
+
+            for (int i = 0; i < sizes.length; i++) {
+                final Object b = rows.get(i)[0];
+                final Object c = rows.get(i)[1];
+
+                if (sizes[i] <= 16) {
+                    assertArrayEquals(bytes(i, sizes[i]), (byte[]) b);
+                    assertEquals(chars(i, sizes[i]), c);
+                } else {
+                    final ByteBuffer bb = (ByteBuffer) b;
+                    final byte[] read = new byte[bb.remaining()];
+                    bb.duplicate().get(read);
+
+                    assertTrue(bb.isReadOnly());
+                    assertArrayEquals(bytes(i, sizes[i]), read);
+                    assertTrue(((CharBuffer) c).isReadOnly());
+                    assertEquals(chars(i, sizes[i]), c.toString());
+                }
+            }
+
+            // the segment files are deleted once they're mapped.
+            assertEquals(0, spillDir.list().length);
+        } finally {
+            spillDir.delete();
+        }
+    }
+
+    @Test
+    public void test_dataSourcePolicy() throws SQLException {
+        JdbcUtil.prepareQuery(dataSource, "INSERT INTO doc2 VALUES (?, ?)").setInt(1, 1).setBytes(2, bytes(1, 100)).update();
+
+        JdbcUtil.setLobPolicy(dataSource, LobPolicy.lazy(16));
+
+        try {
+            assertTrue(JdbcUtil.prepareQuery(dataSource, "SELECT b FROM doc2").list(Object[].class).get(0)[0] instanceof Blob);
+            assertTrue(JdbcUtil.executeQuery(dataSource, "SELECT b FROM doc2").get(0, 0) instanceof Blob);
+        } finally {
+            JdbcUtil.setLobPolicy(dataSource, LobPolicy.INLINE);
+        }
+
+        assertArrayEquals(bytes(1, 100), (byte[]) JdbcUtil.prepareQuery(dataSource, "SELECT b FROM doc2").list(Object[].class).get(0)[0]);
+        assertArrayEquals(bytes(1, 100), (byte[]) JdbcUtil.executeQuery(dataSource, "SELECT b FROM doc2").get(0, 0));
+    }
+
+    private static byte[] bytes(final int seed, final int size) {
+        final byte[] bytes = new byte[size];
+
+        for (int i = 0; i < size; i++) {
+            bytes[i] = (byte) (seed * 31 + i);
+        }
+
+        return bytes;
+    }
+
+    private static String chars(final int seed, final int size) {
+        final StringBuilder sb = new StringBuilder(size);
+
+        for (int i = 0; i < size; i++) {
+            sb.append((char) ('a' + (seed + i) % 26));
+        }
+
+        return sb.toString();
+    }
+}
@@ -0,0 +1,103 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.landawn.abacus.annotation.Id;
+import com.landawn.abacus.util.stream.LongStream;
+import com.landawn.abacus.util.stream.Stream;
+
+public class MultiRowInsertTest {
+
+    static final DataSource dataSource = TestDataSources.h2("multi_row_insert_test",
+            "CREATE TABLE item (id bigint AUTO_INCREMENT PRIMARY KEY, name varchar(32))");
+
+    static final ParsedSql insertSql = ParsedSql.parse("INSERT INTO item (id, name) VALUES (:id, :name)");
+
+    @Test
+    public void test_rewrite() {
+        assertEquals("INSERT INTO item (id, name) VALUES (?, ?), (?, ?), (?, ?)", MultiRowInsert.rewrite(insertSql, 3));
+        assertEquals("INSERT INTO item (id, name) VALUES (?, 'a(b'), (?, 'a(b') ON CONFLICT DO NOTHING",
+                MultiRowInsert.rewrite(ParsedSql.parse("INSERT INTO item (id, name) VALUES (?, 'a(b') ON CONFLICT DO NOTHING"), 2));
+        assertThrows(IllegalArgumentException.class, () -> MultiRowInsert.rewrite(ParsedSql.parse("INSERT INTO item SELECT * FROM item2 WHERE id = ?"), 2));
+    }
+
+    @Test
+    public void test_rowsPerStatement() {
+        // capped by the batch size, the max rows per statement and the max parameters per statement.
+        assertEquals(7, MultiRowInsert.rowsPerStatement(DBVersion.H2, insertSql, 7, false));
+        assertEquals(MultiRowInsert.MAX_ROWS_PER_STATEMENT, MultiRowInsert.rowsPerStatement(DBVersion.H2, insertSql, 5000, false));
+        assertEquals(2099 / 3, MultiRowInsert.rowsPerStatement(DBVersion.SQL_SERVER, ParsedSql.parse("INSERT INTO t (a, b, c) VALUES (?, ?, ?)"), 5000, false));
+
+        // not supported, or the generated keys of all the rows are not returned.
+        assertEquals(0, MultiRowInsert.rowsPerStatement(DBVersion.ORACLE, insertSql, 100, false));
+        assertEquals(0, MultiRowInsert.rowsPerStatement(DBVersion.SQL_SERVER, insertSql, 100, true));
+        assertEquals(0, MultiRowInsert.rowsPerStatement(DBVersion.H2, insertSql, 1, false));
+        assertEquals(0, MultiRowInsert.rowsPerStatement(DBVersion.H2, ParsedSql.parse("INSERT INTO item SELECT * FROM item2 WHERE id = ?"), 100, false));
+    }
+
+    @Test
+    public void test_batchInsert_split() throws SQLException {
+        final ItemDao dao = JdbcUtil.createDao(ItemDao.class, dataSource);
+        final List<Item> items = LongStream.rangeClosed(1, 23).mapToObj(id -> new Item(0, "name" + id)).toList();
+        final List<String> sqls = new ArrayList<>();
+        final SQLMetrics.ExecutionListener listener = (sqlDescriptor, rows, batchSize, elapsedNanos, error) -> sqls.add(sqlDescriptor.sql());
+
+        SQLMetrics.addListener(listener);
+
+        final List<Long> ids;
+
+        try {
+            ids = dao.batchInsert(items, 7);
+        } finally {
+            SQLMetrics.removeListener(listener);
+        }
+
+        // the id is generated: 23 names by 7, three batches of one 7-row statement and one batch of one 2-row statement, in one transaction.
+        assertEquals(N.asList(7, 7, 7, 2), Stream.of(sqls).map(sql -> StringUtil.countMatches(sql, "(?)")).toList());
+        assertEquals(23, ids.size());
+        assertEquals(Stream.of(items).map(Item::getName).toList(), Stream.of(dao.batchGet(ids)).map(Item::getName).toList());
+    }
+
+    public static class Item {
+        @Id
+        private long id;
+        private String name;
+
+        public Item() {
+        }
+
+        public Item(final long id, final String name) {
+            this.id = id;
+            this.name = name;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(final long id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+    }
+
+    @JdbcUtil.Dao.Config(multiRowInsert = true)
+    public interface ItemDao extends JdbcUtil.CrudDao<Item, Long, SQLBuilder.PSC, ItemDao> {
+    }
+}
@@ -0,0 +1,79 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.landawn.abacus.DataSet;
+import com.landawn.abacus.util.JdbcUtil.ResultExtractor;
+
+public class PrimitiveColumnTest {
+
+    static final DataSource dataSource = TestDataSources.h2("primitive_column_test",
+            "CREATE TABLE metric (id int PRIMARY KEY, i int, l bigint, d double, b boolean, s varchar(16))",
+            "INSERT INTO metric SELECT x, CASE WHEN MOD(x, 5) = 0 THEN NULL ELSE x END, x * 10000000000, CASE WHEN MOD(x, 3) = 0 THEN NULL ELSE x / 4.0 END,"
+                    + " MOD(x, 2) = 0, CONCAT('s', x) FROM SYSTEM_RANGE(0, 99)");
+
+    static final String sql = "SELECT id, i, l, d, b, s FROM metric ORDER BY id";
+
+    @Test
+    public void test_extractData() throws SQLException {
+        final DataSet expected = JdbcUtil.prepareQuery(dataSource, sql).query(ResultExtractor.TO_DATA_SET);
+
+        for (long memoryBudget : new long[] { 0, 2048 }) {
+            try (Connection conn = dataSource.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+                final ColumnLayout columnLayout = ColumnLayout.of(null, rs);
+
+                assertTrue(PrimitiveColumn.of(columnLayout, 2, 0) instanceof PrimitiveColumn.IntColumn);
+                assertTrue(PrimitiveColumn.of(columnLayout, 3, 0) instanceof PrimitiveColumn.LongColumn);
+                assertTrue(PrimitiveColumn.of(columnLayout, 4, 0) instanceof PrimitiveColumn.DoubleColumn);
+                assertTrue(PrimitiveColumn.of(columnLayout, 5, 0) instanceof PrimitiveColumn.BooleanColumn);
+                assertNull(PrimitiveColumn.of(columnLayout, 6, 0));
+
+                final DataSet dataSet = JdbcUtil.extractData(rs, columnLayout, 0, true, memoryBudget, null);
+
+                assertEquals(expected.size(), dataSet.size());
+
+                for (int i = 0; i < expected.size(); i++) {
+                    assertArrayEquals(expected.getRow(Object[].class, i), dataSet.getRow(Object[].class, i), "row " + i);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void test_modify() throws SQLException {
+        try (Connection conn = dataSource.getConnection(); PreparedStatement stmt = conn.prepareStatement(sql); ResultSet rs = stmt.executeQuery()) {
+            final PrimitiveColumn column = PrimitiveColumn.of(ColumnLayout.of(null, rs), 2, 0);
+
+            while (rs.next()) {
+                column.read(rs, 2);
+            }
+
+            assertNull(column.get(0));
+            assertEquals(1, column.get(1));
+
+            column.set(0, 7);
+            column.add(null);
+            assertEquals(7, column.get(0));
+            assertNull(column.get(100));
+
+            // falls back to the boxed values.
+            column.set(1, "one");
+            assertEquals("one", column.get(1));
+            assertEquals(7, column.get(0));
+            assertNull(column.get(5));
+            assertEquals(101, column.size());
+        }
+    }
+}
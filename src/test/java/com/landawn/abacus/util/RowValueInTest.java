@@ -0,0 +1,131 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.landawn.abacus.EntityId;
+import com.landawn.abacus.annotation.Id;
+import com.landawn.abacus.util.stream.Stream;
+
+public class RowValueInTest {
+
+    static final DataSource dataSource = TestDataSources.h2("row_value_in_test",
+            "CREATE TABLE member (group_id bigint, user_id bigint, role varchar(32), PRIMARY KEY (group_id, user_id))",
+            "INSERT INTO member SELECT X / 10, MOD(X, 10), 'role' || X FROM SYSTEM_RANGE(10, 59)");
+
+    static final String[] columnNames = { "group_id", "user_id" };
+
+    @Test
+    public void test_isSupported() {
+        assertTrue(RowValueIn.isSupported(DBVersion.H2));
+        assertTrue(RowValueIn.isSupported(DBVersion.MYSQL_5_7));
+        assertTrue(RowValueIn.isSupported(DBVersion.MYSQL_8));
+        assertTrue(RowValueIn.isSupported(DBVersion.POSTGRESQL_12));
+        assertTrue(RowValueIn.isSupported(DBVersion.ORACLE));
+        assertTrue(RowValueIn.isSupported(DBVersion.SQL_SERVER));
+
+        // no index used for row value IN before MySQL 5.7.
+        assertFalse(RowValueIn.isSupported(DBVersion.MYSQL_5_5));
+        assertFalse(RowValueIn.isSupported(DBVersion.MYSQL_5_6));
+        assertFalse(RowValueIn.isSupported(DBVersion.DB2));
+        assertFalse(RowValueIn.isSupported(DBVersion.OTHERS));
+    }
+
+    @Test
+    public void test_condition() {
+        assertEquals("(group_id, user_id) IN ((?, ?), (?, ?))", RowValueIn.condition(DBVersion.H2, columnNames, 2));
+        assertEquals("(group_id, user_id) IN ((?, ?), (?, ?))", RowValueIn.condition(DBVersion.MYSQL_5_7, columnNames, 2));
+        assertEquals("EXISTS (SELECT 1 FROM (VALUES (?, ?), (?, ?)) AS v_ (k0_, k1_) WHERE v_.k0_ = group_id AND v_.k1_ = user_id)",
+                RowValueIn.condition(DBVersion.SQL_SERVER, columnNames, 2));
+        assertNull(RowValueIn.condition(DBVersion.MYSQL_5_6, columnNames, 2));
+
+        assertEquals("SELECT * FROM member WHERE (group_id, user_id) IN ((?, ?))",
+                RowValueIn.replaceWhere("SELECT * FROM member WHERE group_id = ? AND user_id = ?", RowValueIn.condition(DBVersion.H2, columnNames, 1)));
+    }
+
+    @Test
+    public void test_keyValues() {
+        final List<String> propNames = N.asList("groupId", "userId");
+
+        assertEquals(N.asList(1L, 2L), N.asList(RowValueIn.keyValues(N.asMap("groupId", 1L, "userId", 2L), propNames)));
+        assertEquals(N.asList(1L, 2L), N.asList(RowValueIn.keyValues(new Member(1, 2, null), propNames)));
+        assertEquals(N.asList(1L, 2L), N.asList(RowValueIn.keyValues(EntityId.of("groupId", 1L, "userId", 2L), propNames)));
+    }
+
+    @Test
+    public void test_batchGet_batchDelete() throws SQLException {
+        final MemberDao dao = JdbcUtil.createDao(MemberDao.class, dataSource);
+        final List<EntityId> ids = N.asList(EntityId.of("groupId", 1L, "userId", 2L), EntityId.of("groupId", 3L, "userId", 4L),
+                EntityId.of("groupId", 5L, "userId", 9L), EntityId.of("groupId", 9L, "userId", 9L));
+        final List<Member> keys = N.asList(new Member(1, 2, null), new Member(3, 4, null), new Member(5, 9, null), new Member(9, 9, null));
+
+        SlowQuerySampler.clear();
+        SlowQuerySampler.enable(0);
+
+        try {
+            assertEquals(N.asList("role12", "role34", "role59"), Stream.of(dao.batchGet(ids)).map(Member::getRole).sorted().toList());
+            assertEquals(3, dao.batchDelete(keys));
+        } finally {
+            SlowQuerySampler.disable();
+        }
+
+        final List<String> sqls = Stream.of(SlowQuerySampler.getSamples()).map(SlowQuerySampler.Sample::sql).toList();
+        SlowQuerySampler.clear();
+
+        assertEquals(2, Stream.of(sqls).filter(sql -> sql.endsWith("WHERE (group_id, user_id) IN ((?, ?), (?, ?), (?, ?), (?, ?))")).count(), sqls.toString());
+        assertEquals(0, dao.batchGet(ids).size());
+    }
+
+    public static class Member {
+        @Id
+        private long groupId;
+        @Id
+        private long userId;
+        private String role;
+
+        public Member() {
+        }
+
+        public Member(final long groupId, final long userId, final String role) {
+            this.groupId = groupId;
+            this.userId = userId;
+            this.role = role;
+        }
+
+        public long getGroupId() {
+            return groupId;
+        }
+
+        public void setGroupId(final long groupId) {
+            this.groupId = groupId;
+        }
+
+        public long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(final long userId) {
+            this.userId = userId;
+        }
+
+        public String getRole() {
+            return role;
+        }
+
+        public void setRole(final String role) {
+            this.role = role;
+        }
+    }
+
+    public interface MemberDao extends JdbcUtil.CrudDao<Member, EntityId, SQLBuilder.PSC, MemberDao> {
+    }
+}
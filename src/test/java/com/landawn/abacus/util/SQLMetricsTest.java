@@ -0,0 +1,77 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+public class SQLMetricsTest {
+
+    static final DataSource dataSource = TestDataSources.h2("sql_metrics_test", "CREATE TABLE item (id bigint PRIMARY KEY, name varchar(32))");
+
+    @Test
+    public void test_fingerprint() {
+        assertEquals("SELECT * FROM item WHERE id = ? AND name = ?", SQLMetrics.fingerprint("SELECT *  FROM item\n WHERE id = 12 AND name = 'it''s'"));
+        assertEquals("SELECT * FROM item WHERE id IN (?)", SQLMetrics.fingerprint("SELECT * FROM item WHERE id IN (1, 2, 3)"));
+        assertEquals("SELECT * FROM item WHERE id IN (?)", SQLMetrics.fingerprint("SELECT * FROM item WHERE id IN (?, ?, ?, ?)"));
+        assertEquals("SELECT * FROM item WHERE id in (:id)", SQLMetrics.fingerprint("SELECT * FROM item WHERE id in (:id)"));
+        assertEquals("DELETE FROM item WHERE (id, name) IN ((?, ?))", SQLMetrics.fingerprint("DELETE FROM item WHERE (id, name) IN ((1, 'a'), (?, ?))"));
+        assertEquals("SELECT * FROM item WHERE id IN (SELECT id FROM item2 WHERE x = ?)",
+                SQLMetrics.fingerprint("SELECT * FROM item WHERE id IN (SELECT id FROM item2 WHERE x = 5)"));
+        assertEquals("SELECT name2, \"col 3\" FROM t1 JOIN t2 ON t1.id = t2.id",
+                SQLMetrics.fingerprint("SELECT name2, \"col 3\" FROM t1 JOIN t2 ON t1.id = t2.id"));
+        assertEquals("SELECT min(id) FROM item", SQLMetrics.fingerprint("SELECT min(id) FROM item"));
+    }
+
+    @Test
+    public void test_histogram_keyedByFingerprint() throws SQLException {
+        SQLMetrics.resetLatencyHistograms();
+        SQLMetrics.enableLatencyHistograms(true);
+
+        try {
+            for (int i = 0; i < 2000; i++) {
+                JdbcUtil.executeQuery(dataSource, "SELECT * FROM item WHERE id = " + i + " OR name IN ('a', 'b')");
+            }
+
+            final Map<String, SQLMetrics.LatencySnapshot> snapshots = SQLMetrics.getLatencySnapshots();
+            final SQLMetrics.LatencySnapshot snapshot = snapshots.get("SELECT * FROM item WHERE id = ? OR name IN (?)");
+
+            assertNotNull(snapshot, snapshots.keySet().toString());
+            assertEquals(2000, snapshot.count());
+            assertTrue(snapshots.get(SQLMetrics.UNKNOWN_SQL) == null, snapshots.keySet().toString());
+            assertNotNull(SQLMetrics.getLatencySnapshot("SELECT * FROM item WHERE id = 7 OR name IN ('c')"));
+        } finally {
+            SQLMetrics.enableLatencyHistograms(false);
+            SQLMetrics.resetLatencyHistograms();
+        }
+    }
+
+    @Test
+    public void test_listener_descriptorOfFingerprint() throws SQLException {
+        final List<SQLDescriptor> descriptors = new ArrayList<>();
+        final SQLMetrics.ExecutionListener listener = (sqlDescriptor, rows, batchSize, elapsedNanos, error) -> descriptors.add(sqlDescriptor);
+
+        SQLMetrics.addListener(listener);
+
+        try {
+            JdbcUtil.executeQuery(dataSource, "SELECT * FROM item WHERE id = 1");
+            JdbcUtil.executeQuery(dataSource, "SELECT * FROM item WHERE id = 2");
+        } finally {
+            SQLMetrics.removeListener(listener);
+        }
+
+        assertEquals(2, descriptors.size());
+        assertEquals("SELECT * FROM item WHERE id = ?", descriptors.get(0).sql());
+        assertSame(descriptors.get(0), descriptors.get(1));
+        assertEquals(1, descriptors.get(0).parameterCount());
+    }
+}
@@ -0,0 +1,51 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+public class SlowQuerySamplerTest {
+
+    static final DataSource dataSource = TestDataSources.h2("slow_query_sampler_test", "CREATE TABLE item (id bigint PRIMARY KEY, name varchar(32))");
+
+    @Test
+    public void test_typedSetters_captured() throws SQLException, InterruptedException {
+        SlowQuerySampler.clear();
+        SlowQuerySampler.enable(0);
+        SlowQuerySampler.setParameterRedactor(SlowQuerySampler.ParameterRedactor.NONE);
+        SlowQuerySampler.enableExplain(dataSource);
+
+        try {
+            JdbcUtil.prepareQuery(dataSource, "SELECT * FROM item WHERE name = ?").setParameters(stmt -> stmt.setString(1, "a")).list(Long.class);
+            JdbcUtil.prepareQuery(dataSource, "SELECT * FROM item WHERE id = ? AND name = ?").setLong(1, 7).setString(2, "b").list(Long.class);
+
+            final List<SlowQuerySampler.Sample> samples = SlowQuerySampler.getSamples();
+            final SlowQuerySampler.Sample unknown = samples.stream().filter(it -> it.sql().endsWith("WHERE name = ?")).findFirst().get();
+            final SlowQuerySampler.Sample typed = samples.stream().filter(it -> it.sql().endsWith("AND name = ?")).findFirst().get();
+
+            assertNull(unknown.parameters());
+            assertEquals(Arrays.asList(7L, "b"), typed.parameters());
+
+            for (int i = 0; i < 100 && typed.plan() == null; i++) {
+                Thread.sleep(50);
+            }
+
+            // explained by one thread in order: the sql with the unknown parameter is skipped.
+            assertNotNull(typed.plan());
+            assertNull(unknown.plan());
+        } finally {
+            SlowQuerySampler.disableExplain();
+            SlowQuerySampler.setParameterRedactor(SlowQuerySampler.ParameterRedactor.MASK_TEXT);
+            SlowQuerySampler.disable();
+            SlowQuerySampler.clear();
+        }
+    }
+}
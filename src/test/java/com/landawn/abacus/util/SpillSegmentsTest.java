@@ -0,0 +1,36 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+public class SpillSegmentsTest {
+
+    @Test
+    public void test_allocate() throws IOException {
+        final SpillSegments segments = new SpillSegments(null, 32);
+        final ByteBuffer[] buffers = new ByteBuffer[5];
+        final int[] lengths = { 10, 10, 10, 64, 10 };
+
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = segments.allocate(lengths[i]);
+
+            assertEquals(0, buffers[i].position());
+            assertEquals(lengths[i], buffers[i].capacity());
+
+            while (buffers[i].hasRemaining()) {
+                buffers[i].put((byte) i);
+            }
+        }
+
+        // the slices sharing a segment don't overlap.
+        for (int i = 0; i < buffers.length; i++) {
+            for (int j = 0; j < lengths[i]; j++) {
+                assertEquals(i, buffers[i].get(j));
+            }
+        }
+    }
+}
@@ -0,0 +1,190 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+import com.landawn.abacus.DataSet;
+
+public class SpilledRowsTest {
+
+    static final DataSource dataSource = TestDataSources.h2("spilled_rows_test",
+            "CREATE TABLE item (id int PRIMARY KEY, name varchar(64), price decimal(10, 2))",
+            "INSERT INTO item SELECT x, CASE WHEN MOD(x, 7) = 0 THEN NULL ELSE CONCAT('name-', x) END, x / 100.0 FROM SYSTEM_RANGE(0, 499)");
+
+    @Test
+    public void test_roundTrip() {
+        final Timestamp timestamp = new Timestamp(1_600_000_000_123L);
+        timestamp.setNanos(123_456_789);
+
+        final Object[] types = { null, true, (byte) 1, (short) 2, 3, 4L, 5.5f, 6.5d, new BigDecimal("-123.4560"), "abc", new byte[] { 1, 2 },
+                new java.sql.Date(1_600_000_000_000L), new java.sql.Time(1_600_000_000_000L), timestamp, UUID.randomUUID() };
+        final char[] chars = new char[100_000];
+        Arrays.fill(chars, 'x');
+        final String bigString = new String(chars);
+
+        final SpilledRows spilledRows = new SpilledRows(types.length + 1, null);
+        final List<Object[]> rows = new ArrayList<>();
+
+        // more than one block.
+        for (int i = 0; i < 50; i++) {
+            final Object[] row = Arrays.copyOf(types, types.length + 1);
+            row[types.length] = i % 2 == 0 ? bigString : i;
+            spilledRows.add(row);
+            rows.add(row);
+        }
+
+        spilledRows.seal();
+
+        assertEquals(rows.size(), spilledRows.size());
+
+        // by column, as DataSet reads a column.
+        for (int j = types.length; j >= 0; j--) {
+            for (int i = 0; i < rows.size(); i++) {
+                assertArrayEquals(new Object[] { rows.get(i)[j] }, new Object[] { spilledRows.get(i, j) }, i + ", " + j);
+            }
+        }
+
+        // by row, and skipping columns.
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            for (int j = 0; j <= types.length; j += 3) {
+                assertArrayEquals(new Object[] { rows.get(i)[j] }, new Object[] { spilledRows.get(i, j) }, i + ", " + j);
+            }
+        }
+    }
+
+    @Test
+    public void test_memoryBudget() throws SQLException, IOException {
+        final String sql = "SELECT id, name, price FROM item ORDER BY id";
+        final File spillDir = Files.createTempDirectory("spilled-rows-test").toFile();
+
+        try {
+            final DataSet expected = JdbcUtil.prepareQuery(dataSource, sql).query();
+            final DataSet dataSet = JdbcUtil.prepareQuery(dataSource, sql).setMemoryBudget(4096, spillDir).query();
+
+            assertEquals(expected.size(), dataSet.size());
+
+            for (int i = 0; i < expected.size(); i++) {
+                assertArrayEquals(expected.getRow(Object[].class, i), dataSet.getRow(Object[].class, i));
+            }
+
+            final List<?> expectedMaps = JdbcUtil.prepareQuery(dataSource, sql).list(Map.class);
+            final List<?> maps = JdbcUtil.prepareQuery(dataSource, sql).setMemoryBudget(4096, spillDir).list(Map.class);
+
+            assertTrue(maps instanceof SpilledRows.Column);
+            assertEquals(expectedMaps, maps);
+
+            final List<String> names = JdbcUtil.prepareQuery(dataSource, "SELECT name FROM item ORDER BY id").setMemoryBudget(4096).list(String.class);
+
+            assertTrue(names instanceof SpilledRows.Column);
+            assertEquals(JdbcUtil.prepareQuery(dataSource, "SELECT name FROM item ORDER BY id").list(String.class), names);
+
+            // the temp files are deleted once they're mapped.
+            assertEquals(0, spillDir.list().length);
+        } finally {
+            spillDir.delete();
+        }
+    }
+
+    @Test
+    public void test_memoryBudget_entities() throws SQLException {
+        final String sql = "SELECT id, name, price FROM item ORDER BY id";
+        final List<Item> expected = JdbcUtil.prepareQuery(dataSource, sql).list(Item.class);
+        final List<Item> items = JdbcUtil.prepareQuery(dataSource, sql).setMemoryBudget(4096).list(Item.class);
+
+        // Item is not Serializable.
+        assertTrue(items instanceof SpilledRows.Column);
+        assertEquals(expected.size(), items.size());
+
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getId(), items.get(i).getId());
+            assertEquals(expected.get(i).getName(), items.get(i).getName());
+            assertEquals(expected.get(i).getPrice(), items.get(i).getPrice());
+        }
+
+        // the spilled elements are kept once they're paged in.
+        assertSame(items.get(450), items.get(450));
+        items.get(450).setName("changed");
+        assertEquals("changed", items.get(450).getName());
+
+        final List<Object[]> expectedArrays = JdbcUtil.prepareQuery(dataSource, sql).list(Object[].class);
+        final List<Object[]> arrays = JdbcUtil.prepareQuery(dataSource, sql).setMemoryBudget(4096).list(Object[].class);
+
+        assertTrue(arrays instanceof SpilledRows.Column);
+
+        for (int i = 0; i < expectedArrays.size(); i++) {
+            assertArrayEquals(expectedArrays.get(i), arrays.get(i));
+        }
+
+        final List<?> lists = JdbcUtil.prepareQuery(dataSource, sql).setMemoryBudget(4096).list(List.class);
+
+        assertTrue(lists instanceof SpilledRows.Column);
+        assertEquals(JdbcUtil.prepareQuery(dataSource, sql).list(List.class), lists);
+    }
+
+    @Test
+    public void test_memoryBudget_lobPolicy() throws SQLException {
+        final String sql = "SELECT id, name, price FROM item ORDER BY id";
+
+        assertThrows(IllegalArgumentException.class, () -> JdbcUtil.prepareQuery(dataSource, sql).setLobPolicy(LobPolicy.spill(0)).setMemoryBudget(4096));
+        assertThrows(IllegalArgumentException.class, () -> JdbcUtil.prepareQuery(dataSource, sql).setMemoryBudget(4096).setLobPolicy(LobPolicy.lazy(0)));
+
+        JdbcUtil.setLobPolicy(dataSource, LobPolicy.spill(0));
+
+        try {
+            assertThrows(IllegalArgumentException.class, () -> JdbcUtil.prepareQuery(dataSource, sql).setMemoryBudget(4096));
+
+            assertEquals(500, JdbcUtil.prepareQuery(dataSource, sql).setLobPolicy(LobPolicy.INLINE).setMemoryBudget(4096).query().size());
+        } finally {
+            JdbcUtil.setLobPolicy(dataSource, null);
+        }
+    }
+
+    public static class Item {
+        private int id;
+        private String name;
+        private BigDecimal price;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(final int id) {
+            this.id = id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(final String name) {
+            this.name = name;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(final BigDecimal price) {
+            this.price = price;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.landawn.abacus.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.Test;
+
+public class StatementCacheTest {
+
+    static final DataSource dataSource = TestDataSources.h2("statement_cache_test", "CREATE TABLE item (id int PRIMARY KEY)",
+            "INSERT INTO item VALUES (1), (2), (3)");
+
+    @Test
+    public void test_reuseAndEviction() throws SQLException {
+        final Connection conn = JdbcUtil.getConnection(dataSource);
+
+        try {
+            final StatementCache cache = JdbcUtil.enableStatementCache(conn, 2);
+
+            assertSame(cache, JdbcUtil.getStatementCache(conn));
+
+            for (int i = 1; i <= 3; i++) {
+                assertEquals(i, JdbcUtil.prepareQuery(conn, "SELECT id FROM item WHERE id = ?").setInt(1, i).queryForInt().orElseThrow());
+            }
+
+            assertEquals(1, cache.missCount());
+            assertEquals(2, cache.hitCount());
+            assertEquals(1, cache.size());
+
+            JdbcUtil.prepareQuery(conn, "SELECT count(*) FROM item").queryForInt();
+            JdbcUtil.prepareQuery(conn, "SELECT max(id) FROM item").queryForInt();
+
+            assertEquals(2, cache.size());
+            assertEquals(1, cache.evictionCount());
+
+            JdbcUtil.disableStatementCache(conn);
+
+            assertTrue(cache.isClosed());
+            assertEquals(0, cache.size());
+            assertNull(JdbcUtil.getStatementCache(conn));
+        } finally {
+            JdbcUtil.releaseConnection(conn, dataSource);
+        }
+    }
+
+    @Test
+    public void test_enabledForDataSource() throws SQLException {
+        JdbcUtil.enableStatementCache(dataSource, 4);
+
+        try {
+            final Connection conn = JdbcUtil.getConnection(dataSource);
+            final StatementCache cache = JdbcUtil.getStatementCache(conn);
+
+            // the statements are prepared on the connection borrowed from pool, not the physical connection.
+            assertSame(conn, cache.connection());
+            assertEquals(1, JdbcUtil.getStatementCaches(dataSource).size());
+
+            JdbcUtil.prepareQuery(conn, "SELECT count(*) FROM item").queryForInt();
+            JdbcUtil.prepareQuery(conn, "SELECT count(*) FROM item").queryForInt();
+
+            assertEquals(1, cache.hitCount());
+
+            JdbcUtil.releaseConnection(conn, dataSource);
+
+            assertTrue(cache.isClosed());
+            assertEquals(0, JdbcUtil.getStatementCaches(dataSource).size());
+            assertNull(JdbcUtil.getStatementCache(conn));
+        } finally {
+            JdbcUtil.disableStatementCache(dataSource);
+        }
+
+        final Connection conn = JdbcUtil.getConnection(dataSource);
+
+        try {
+            assertNull(JdbcUtil.getStatementCache(conn));
+            assertFalse(conn.isClosed());
+        } finally {
+            JdbcUtil.releaseConnection(conn, dataSource);
+        }
+    }
+}
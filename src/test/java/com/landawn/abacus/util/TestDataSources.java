@@ -0,0 +1,38 @@
+package com.landawn.abacus.util;
+
+import java.sql.SQLException;
+
+import javax.sql.DataSource;
+
+import com.landawn.abacus.exception.UncheckedSQLException;
+
+/**
+ * The in-memory H2 databases shared by the tests.
+ */
+final class TestDataSources {
+
+    private TestDataSources() {
+        // utility class.
+    }
+
+    /**
+     * The database is kept until the JVM exits.
+     *
+     * @param name
+     * @param ddls executed after the {@code DataSource} is created.
+     * @return
+     */
+    static DataSource h2(final String name, final String... ddls) {
+        final DataSource ds = JdbcUtil.createHikariDataSource("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        try {
+            for (String ddl : ddls) {
+                JdbcUtil.executeUpdate(ds, ddl);
+            }
+        } catch (SQLException e) {
+            throw new UncheckedSQLException(e);
+        }
+
+        return ds;
+    }
+}